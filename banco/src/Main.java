@@ -10,6 +10,7 @@ public class Main {
 			VerificadorDiario verificadorDiario = VerificadorDiario.getInstance();
 			MenuUsuario.iniciar();
 			verificadorDiario.end();
+			agencia.fecharArquivos();
 			System.out.println("Obrigada por acessar ao nosso Internet Banking!");
 		} catch (Exception ex) {
 			System.out.println("Nao foi possivel iniciar o banco");
@@ -4,60 +4,169 @@ import agencia.exceptions.BuscaException;
 import agencia.exceptions.InsercaoException;
 import cliente.Cliente;
 import cliente.ClienteEmpresa;
+import cliente.CodecCliente;
 import conta.Conta;
+import conta.RegistroOperacoes;
 import conta.Rentavel;
 import funcionalidades.exceptions.EmprestimoException;
-import interfaceUsuario.dados.DadosChavesPix;
 import transacao.Boleto;
+import transacao.ChavePix;
+import transacao.CodecLoteTransferencias;
+import transacao.CodecTransacao;
+import transacao.LoteTransferencias;
 import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
 import utilsBank.GerenciadorBanco;
 import utilsBank.VerificadorDiario;
+import utilsBank.arquivo.ArquivoHistorico;
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.LivroSaldos;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
 import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.journal.Journal;
+import utilsBank.arquivo.journal.TipoRegistro;
+import utilsBank.cache.CacheMovimentacoes;
+import utilsBank.cache.PoliticaTinyLFU;
+import utilsBank.databank.CodecData;
+import utilsBank.databank.Data;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
 
-public class Agencia {
+public class Agencia implements RegistroOperacoes {
 	public static final String ID_AGENCIA = "6721";
 	public static final String CODIGO_MOEDA = "9";
-	private static Agencia instance;
+	public static final int LIMITE_REGISTROS_JOURNAL = 1000;
+	/**
+	 * Quantidade de contas com as movimentações em memória mantida a cada snapshot (ver {@link CacheMovimentacoes})
+	 */
+	public static final int MAXIMO_CONTAS_CARREGADAS = 1000;
+	private static final CodecCliente CODEC_CLIENTE = new CodecCliente();
+	private static final CodecTransacao CODEC_TRANSACAO = new CodecTransacao();
+	private static final CodecLoteTransferencias CODEC_LOTE = new CodecLoteTransferencias();
+	private static final CodecData CODEC_DATA = new CodecData();
+	private static final Logger LOGGER = Logger.getLogger(Agencia.class.getName());
+	private static volatile Agencia instance;
 	private final Set<Cliente> clientes;
-	private final Set<Boleto> boletos;
-	private final ArrayList<Transacao> transacoesAgendadas;
-	private Double rendaAgencia;
+	private final Map<String, Cliente> clientesPorIdentificacao;
+	private final DiretorioPix diretorioPix;
+	/**
+	 * Boletos emitidos e ainda não pagos, pelo nosso número. Os menus de vários atendimentos emitem e pagam boletos ao
+	 * mesmo tempo.
+	 */
+	private final Map<String, Boleto> boletosPorNossoNumero;
+	private final AgendaTransacoes agendaTransacoes;
+	private final Journal journal;
+	/**
+	 * Contexto de onde saem os contextos de leitura das movimentações adiadas das contas
+	 */
+	private final ContextoCodec contextoMovimentacoes;
+	/**
+	 * Um snapshot por vez: todo atendimento chama {@link #sincronizarArquivos()} ao terminar
+	 */
+	private final ReentrantLock travaSnapshot = new ReentrantLock();
+	private volatile boolean snapshotSolicitado;
+	/**
+	 * Último dia da atualização diária encontrado no journal, ou {@code null}
+	 */
+	private volatile Data ultimaAtualizacaoRegistrada;
+	/**
+	 * Em centavos
+	 */
+	private long rendaAgencia;
 
+	/**
+	 * Na inicialização são lidos só os dados dos clientes e das contas (identificação, chaves Pix, valores e cartões);
+	 * as movimentações de cada conta ficam no arquivo até o primeiro acesso. As contas com transferências na agenda são
+	 * carregadas logo, para que a agenda e a conta compartilhem a mesma transação.
+	 */
 	private Agencia() {
-		this.rendaAgencia = Math.pow(2, 31);
-		this.clientes = GerenciadorBanco.inicializarClientes();
-		this.boletos = GerenciadorBanco.inicializarBoletos();
-		this.transacoesAgendadas = GerenciadorBanco.inicializarTransacoes();
+		this.rendaAgencia = Dinheiro.centavos(Math.pow(2, 31));
+		CacheMovimentacoes cache = CacheMovimentacoes.abrir(MAXIMO_CONTAS_CARREGADAS, Long.MAX_VALUE,
+				new PoliticaTinyLFU<>(MAXIMO_CONTAS_CARREGADAS));
+		this.clientesPorIdentificacao = new ConcurrentHashMap<>();
+		this.contextoMovimentacoes = new ContextoCodec(this.clientesPorIdentificacao::get, this::buscarTransacaoAgendada);
+		ContextoCodec contexto = new ContextoCodec();
+		contexto.adiarMovimentacoes(this.contextoMovimentacoes);
+		this.clientes = ConcurrentHashMap.newKeySet();
+		this.clientes.addAll(GerenciadorBanco.inicializarClientes(contexto));
+		this.diretorioPix = new DiretorioPix();
+		for (Cliente cliente : this.clientes) {
+			this.clientesPorIdentificacao.put(cliente.getIdentificacao(), cliente);
+			cliente.getConta().iniciarRegistro(this, cliente.getIdentificacao());
+			this.diretorioPix.indexar(cliente.getConta().getChavesPix());
+			if (cliente.getConta().isMovimentacoesCarregadas()) {
+				cache.adicionar(cliente.getConta());
+			}
+		}
+		this.boletosPorNossoNumero = new ConcurrentHashMap<>();
+		for (Boleto boleto : GerenciadorBanco.inicializarBoletos(contexto)) {
+			this.boletosPorNossoNumero.put(boleto.getNossoNumero(), boleto);
+		}
+		this.agendaTransacoes = new AgendaTransacoes(GerenciadorBanco.inicializarTransacoes(contexto));
+		for (Transacao transacao : this.agendaTransacoes.listar()) {
+			transacao.getContaOrigem().carregarMovimentacoes();
+		}
+		this.journal = GerenciadorBanco.inicializarJournal();
+		this.journal.reproduzir(this::aplicarRegistro);
+		GerenciadorBanco.inicializarArquivoHistorico(this.clientesPorIdentificacao::get);
+		LivroSaldos livroSaldos = GerenciadorBanco.inicializarLivroSaldos();
+		for (Cliente cliente : this.clientes) {
+			cliente.getConta().sincronizarLivroSaldos(livroSaldos);
+		}
 	}
 
+	/**
+	 * A agência é criada uma vez só, mesmo com vários atendimentos e o {@link VerificadorDiario} pedindo ao mesmo tempo
+	 */
 	public static Agencia getInstance() {
-		if (instance == null) {
-			instance = new Agencia();
+		Agencia agencia = instance;
+		if (agencia == null) {
+			synchronized (Agencia.class) {
+				agencia = instance;
+				if (agencia == null) {
+					agencia = new Agencia();
+					instance = agencia;
+				}
+			}
 		}
-		return instance;
+		return agencia;
 	}
 
 	/**
-	 * Busca um cliente com a chave de identificação
+	 * Busca um cliente com a chave de identificação. A busca conta como acesso à conta no {@link CacheMovimentacoes}.
 	 *
 	 * @param chave a identificação, sendo CPF ou CNPJ
 	 * @return cliente — que contém o paramêtro buscada
 	 * @throws BuscaException caso o cliente não for encontrado
 	 */
 	public Cliente buscarCliente(String chave) throws BuscaException {
-		for (Cliente cliente : this.clientes) {
-			if (Objects.equals(cliente.getIdentificacao(), chave)) {
-				return cliente;
-			}
+		Cliente cliente = this.clientesPorIdentificacao.get(chave);
+		if (cliente == null) {
+			throw new BuscaException("Cliente nao encontrado");
+		}
+		CacheMovimentacoes cache = CacheMovimentacoes.getInstance();
+		if (cache != null) {
+			cache.acessar(cliente.getConta());
 		}
-		throw new BuscaException("Cliente nao encontrado");
+		return cliente;
 	}
 
 	/**
@@ -67,28 +176,11 @@ public class Agencia {
 	 * @throws BuscaException caso o cliente não for encontrado
 	 */
 	public Cliente buscarClientePorChavePix(String tipodeChave, String chave) throws BuscaException {
-		String chavePix = null;
-		for (Cliente cliente : this.clientes) {
-			Conta contaCliente = cliente.getConta();
-			switch (tipodeChave) {
-				case DadosChavesPix.TELEFONE:
-					chavePix = contaCliente.getChavesPix().getTelefone();
-					break;
-				case DadosChavesPix.EMAIL:
-					chavePix = contaCliente.getChavesPix().getEmail();
-					break;
-				case DadosChavesPix.IDENTIFICACAO:
-					chavePix = contaCliente.getChavesPix().getIdentificacao();
-					break;
-				case DadosChavesPix.CHAVE_ALEATORIA:
-					chavePix = contaCliente.getChavesPix().getChaveAleatoria();
-					break;
-			}
-			if (chave.equals(chavePix)) {
-				return cliente;
-			}
-		}
-		throw new BuscaException("Cliente nao encontrado");
+		return buscarCliente(this.diretorioPix.buscarTitular(tipodeChave, chave));
+	}
+
+	public DiretorioPix getDiretorioPix() {
+		return this.diretorioPix;
 	}
 
 	/**
@@ -116,12 +208,11 @@ public class Agencia {
 	 * @throws BuscaException caso o boleto não for encontrado
 	 */
 	public Boleto buscarBoleto(String nossoNumero) throws BuscaException {
-		for (Boleto boleto : this.boletos) {
-			if (boleto.getNossoNumero().equals(nossoNumero)) {
-				return boleto;
-			}
+		Boleto boleto = nossoNumero == null ? null : this.boletosPorNossoNumero.get(nossoNumero);
+		if (boleto == null) {
+			throw new BuscaException("Boleto nao encontrado");
 		}
-		throw new BuscaException("Boleto nao encontrado");
+		return boleto;
 	}
 
 	/**
@@ -132,7 +223,7 @@ public class Agencia {
 	 */
 	public HashSet<Boleto> buscarBoletosConta(Conta conta) {
 		HashSet<Boleto> boletosConta = new HashSet<>();
-		for (Boleto boleto : this.boletos) {
+		for (Boleto boleto : this.boletosPorNossoNumero.values()) {
 			if (boleto.getContaDestino().getIdConta().equals(conta.getIdConta())) {
 				boletosConta.add(boleto);
 			}
@@ -141,6 +232,13 @@ public class Agencia {
 		return boletosConta;
 	}
 
+	/**
+	 * @return os boletos em aberto, apenas para leitura
+	 */
+	public Collection<Boleto> getBoletos() {
+		return Collections.unmodifiableCollection(this.boletosPorNossoNumero.values());
+	}
+
 	/**
 	 * Adiciona o boleto na lista de boletos da agência
 	 *
@@ -148,7 +246,15 @@ public class Agencia {
 	 */
 
 	public void addBoleto(Boleto boleto) {
-		this.boletos.add(boleto);
+		this.boletosPorNossoNumero.put(boleto.getNossoNumero(), boleto);
+	}
+
+	/**
+	 * Registra o boleto no journal e só então o adiciona, para nenhum boleto ser pago sem ter sido registrado
+	 */
+	public void emitirBoleto(Boleto boleto) throws EscritaArquivoException {
+		registrarBoletoEmitido(boleto);
+		addBoleto(boleto);
 	}
 
 	/**
@@ -157,7 +263,7 @@ public class Agencia {
 	 * @param boleto boleto a ser removido
 	 */
 	public void apagarBoleto(Boleto boleto) {
-		this.boletos.remove(boleto);
+		this.boletosPorNossoNumero.remove(boleto.getNossoNumero(), boleto);
 	}
 
 	/**
@@ -172,14 +278,22 @@ public class Agencia {
 	/**
 	 * Retorna as transações agendadas da agência
 	 *
-	 * @return {@link ArrayList<Transacao>}
+	 * @return {@link ArrayList<Transacao>} uma cópia, alterações nela não mudam a agenda
 	 */
 	public ArrayList<Transacao> getTransacoes() {
-		return this.transacoesAgendadas;
+		return this.agendaTransacoes.listar();
+	}
+
+	public AgendaTransacoes getAgendaTransacoes() {
+		return this.agendaTransacoes;
 	}
 
 	public void addTransacao(Transacao transacao) {
-		this.transacoesAgendadas.add(transacao);
+		this.agendaTransacoes.adicionar(transacao);
+	}
+
+	private Transacao buscarTransacaoAgendada(String nossoNumero) {
+		return this.agendaTransacoes == null ? null : this.agendaTransacoes.buscar(nossoNumero);
 	}
 
 	/**
@@ -188,9 +302,10 @@ public class Agencia {
 	 * @param valor do emprestimo
 	 * @throws EmprestimoException caso a renda da agência não tiver dinheiro para emprestar
 	 */
-	public void pegarEmprestimo(double valor) throws EmprestimoException {
-		if (this.rendaAgencia >= valor) {
-			this.rendaAgencia -= valor;
+	public synchronized void pegarEmprestimo(double valor) throws EmprestimoException {
+		long centavos = Dinheiro.centavos(valor);
+		if (this.rendaAgencia >= centavos) {
+			this.rendaAgencia -= centavos;
 		} else {
 			throw new EmprestimoException();
 		}
@@ -209,39 +324,459 @@ public class Agencia {
 		}
 	}
 
+	/**
+	 * Move para os segmentos em disco o histórico das contas anterior ao limite. Uma conta cujo segmento não pôde ser
+	 * gravado mantém o histórico em memória e é arquivada na próxima vez, assim como as contas com as movimentações
+	 * ainda no arquivo de clientes.
+	 *
+	 * @return quantidade de transações arquivadas
+	 */
+	public int arquivarHistoricos(Data limite) {
+		int arquivadas = 0;
+		for (Cliente cliente : clientes) {
+			try {
+				arquivadas += cliente.getConta().arquivarHistorico(limite);
+			} catch (EscritaArquivoException ex) {
+				LOGGER.warning("Nao foi possivel arquivar o historico da conta " + cliente.getConta().getIdConta() + ": "
+						+ ex.getMessage());
+			}
+		}
+		return arquivadas;
+	}
+
+	/**
+	 * Retorna os clientes da agência apenas para leitura. Inserções e remoções devem passar por
+	 * {@link #addCliente(Cliente)} e {@link #removerCliente(Cliente)} para manter o índice de identificação.
+	 *
+	 * @return {@link Set<Cliente>} não modificável
+	 */
 	public Set<Cliente> getClientes() {
-		return this.clientes;
+		return Collections.unmodifiableSet(this.clientes);
 	}
 
+	/**
+	 * Registra o cliente no journal e só depois o coloca na agência, para que nenhum registro que cite o cliente (como
+	 * o da atualização diária, que leva todas as contas) fique no journal antes dele. Um registro de um cliente que
+	 * acabou não entrando é ignorado ao reproduzir, pois a identificação já existe.
+	 */
 	public void addCliente(Cliente cliente) throws InsercaoException, EscritaArquivoException {
+		if (this.clientesPorIdentificacao.containsKey(cliente.getIdentificacao())) {
+			return;
+		}
+		registrarCodificado(TipoRegistro.CLIENTE_NOVO, CODEC_CLIENTE, cliente);
+		if (!indexarCliente(cliente)) {
+			throw new InsercaoException("Ocorreu um erro ao criar o cliente");
+		}
+		LivroSaldos livroSaldos = LivroSaldos.getInstance();
+		if (livroSaldos != null) {
+			cliente.getConta().iniciarLivroSaldos(livroSaldos);
+		}
+	}
+
+	private boolean indexarCliente(Cliente cliente) {
+		if (this.clientesPorIdentificacao.putIfAbsent(cliente.getIdentificacao(), cliente) == null) {
+			this.clientes.add(cliente);
+			cliente.getConta().iniciarRegistro(this, cliente.getIdentificacao());
+			this.diretorioPix.indexar(cliente.getConta().getChavesPix());
+			CacheMovimentacoes cache = CacheMovimentacoes.getInstance();
+			if (cache != null && cliente.getConta().isMovimentacoesCarregadas()) {
+				cache.adicionar(cliente.getConta());
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Remove o cliente da agência, do índice de identificação e do diretório Pix
+	 *
+	 * @param cliente que será removido
+	 * @return {@code true} caso o cliente fazia parte da agência
+	 */
+	public boolean removerCliente(Cliente cliente) {
+		if (this.clientesPorIdentificacao.remove(cliente.getIdentificacao(), cliente)) {
+			this.clientes.remove(cliente);
+			cliente.getConta().iniciarRegistro(RegistroOperacoes.NENHUM, cliente.getIdentificacao());
+			this.diretorioPix.desindexar(cliente.getConta().getChavesPix());
+			CacheMovimentacoes cache = CacheMovimentacoes.getInstance();
+			if (cache != null) {
+				cache.remover(cliente.getConta());
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param valor em centavos
+	 */
+	public synchronized void addSaldoCentavos(long valor) {
+		this.rendaAgencia += valor;
+	}
+
+	/**
+	 * Registra no journal uma transferência ou depósito realizado, junto com o novo estado das contas envolvidas
+	 */
+	@Override
+	public void registrarTransacao(Transacao transacao) throws EscritaArquivoException {
+		registrarCodificado(TipoRegistro.TRANSACAO, CODEC_TRANSACAO, transacao);
+		registrarEstado(transacao.getClienteOrigem());
+		if (transacao.getClienteDestino() != transacao.getClienteOrigem()) {
+			registrarEstado(transacao.getClienteDestino());
+		}
+	}
+
+	/**
+	 * Registra no journal uma transferência agendada
+	 */
+	@Override
+	public void registrarAgendamento(Transacao transacao) throws EscritaArquivoException {
+		registrarCodificado(TipoRegistro.AGENDAMENTO, CODEC_TRANSACAO, transacao);
+	}
+
+	public void registrarBoletoEmitido(Boleto boleto) throws EscritaArquivoException {
+		registrarCodificado(TipoRegistro.BOLETO_EMITIDO, CODEC_TRANSACAO, boleto);
+	}
+
+	/**
+	 * Registra no journal o pagamento de um boleto, junto com o novo estado das contas envolvidas
+	 */
+	@Override
+	public void registrarBoletoPago(Boleto boleto) throws EscritaArquivoException {
+		registrarCodificado(TipoRegistro.BOLETO_PAGO, CODEC_TRANSACAO, boleto);
+		registrarEstado(boleto.getClienteOrigem());
+		if (boleto.getClienteDestino() != boleto.getClienteOrigem()) {
+			registrarEstado(boleto.getClienteDestino());
+		}
+	}
+
+	/**
+	 * Registra no journal um lote de transferências em um registro só: o lote com os seus itens, seguido do novo
+	 * estado da origem e de cada favorecido
+	 */
+	@Override
+	public void registrarLote(LoteTransferencias lote) throws EscritaArquivoException {
+		registrarComEstados(TipoRegistro.LOTE_TRANSFERENCIAS, (saida, contexto) -> CODEC_LOTE.escrever(saida, lote, contexto),
+				lote.getClientes());
+	}
+
+	/**
+	 * Registra no journal um lote de boletos emitidos em um registro só
+	 */
+	public void registrarBoletosEmitidos(Collection<Boleto> boletos) throws EscritaArquivoException {
+		registrarComEstados(TipoRegistro.BOLETOS_EMITIDOS,
+				(saida, contexto) -> CODEC_TRANSACAO.escreverColecao(saida, boletos, contexto), Collections.emptySet());
+	}
+
+	/**
+	 * Registra no journal um lote de boletos pagos em um registro só, seguido do novo estado das contas de quem pagou
+	 * e de quem recebeu
+	 */
+	@Override
+	public void registrarBoletosPagos(Collection<Boleto> boletos) throws EscritaArquivoException {
+		Set<Cliente> clientes = new LinkedHashSet<>();
+		for (Boleto boleto : boletos) {
+			clientes.add(boleto.getClienteOrigem());
+			clientes.add(boleto.getClienteDestino());
+		}
+		registrarComEstados(TipoRegistro.BOLETOS_PAGOS,
+				(saida, contexto) -> CODEC_TRANSACAO.escreverColecao(saida, boletos, contexto), clientes);
+	}
+
+	/**
+	 * Registra no journal um dia da atualização diária em um registro só: o dia, as transações agendadas realizadas e
+	 * as canceladas, seguidos do novo estado de todas as contas (rendimento e faturas). O registro é forçado para o
+	 * disco antes de o dia ser considerado feito. Chamado com todas as contas travadas, ver {@link Conta#travarTodas()}.
+	 */
+	public void registrarDia(Data dia, List<Transacao> realizadas, List<Transacao> canceladas) throws EscritaArquivoException {
+		registrarComEstados(TipoRegistro.DIA_ATUALIZADO, (saida, contexto) -> {
+			CODEC_DATA.escrever(saida, dia, contexto);
+			escreverNossosNumeros(saida, realizadas);
+			escreverNossosNumeros(saida, canceladas);
+		}, new LinkedHashSet<>(this.clientes));
+		this.journal.sincronizar();
+	}
+
+	private static void escreverNossosNumeros(DataOutputStream saida, List<Transacao> transacoes) throws IOException {
+		saida.writeInt(transacoes.size());
+		for (Transacao transacao : transacoes) {
+			saida.writeUTF(transacao.getNossoNumero());
+		}
+	}
+
+	/**
+	 * @return último dia da atualização diária registrado no journal depois do snapshot, ou {@code null}
+	 */
+	public Data getUltimaAtualizacaoRegistrada() {
+		return this.ultimaAtualizacaoRegistrada;
+	}
+
+	/**
+	 * Conteúdo de um registro do journal, gravado depois das versões do esquema
+	 */
+	private interface ConteudoRegistro {
+		void escrever(DataOutputStream saida, ContextoCodec contexto) throws IOException;
+	}
+
+	/**
+	 * Grava um registro com o conteúdo seguido do estado de cada cliente, lido por {@link #aplicarEstados}
+	 */
+	private void registrarComEstados(TipoRegistro tipo, ConteudoRegistro conteudo, Set<Cliente> clientes) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			ContextoCodec contexto = new ContextoCodec();
+			contexto.escreverVersoes(saida);
+			conteudo.escrever(saida, contexto);
+			saida.writeInt(clientes.size());
+			for (Cliente cliente : clientes) {
+				escreverEstado(saida, cliente);
+			}
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Nao foi possivel registrar a operacao");
+		}
+		this.journal.registrar(tipo, bytes.toByteArray());
+	}
+
+	/**
+	 * Registra no journal os valores, o cartão e as chaves Pix da conta do cliente.
+	 * Cobre empréstimos, dinheiro guardado, débito automático e mudanças de chave Pix.
+	 */
+	public void registrarEstado(Cliente cliente) throws EscritaArquivoException {
+		registrarEstado(cliente.getIdentificacao(), cliente.getConta());
+	}
+
+	@Override
+	public void registrarEstado(String identificacao, Conta conta) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			Esquema.escreverVersoes(saida);
+			saida.writeUTF(identificacao);
+			conta.gravarEstado(saida);
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Nao foi possivel registrar a operacao");
+		}
+		this.journal.registrar(TipoRegistro.ESTADO_CONTA, bytes.toByteArray());
+	}
+
+	private static void escreverEstado(DataOutputStream saida, Cliente cliente) throws IOException {
+		saida.writeUTF(cliente.getIdentificacao());
+		cliente.getConta().gravarEstado(saida);
+	}
+
+	private void aplicarEstados(DataInputStream dados, int versaoConta) throws IOException, BuscaException {
+		int quantidade = dados.readInt();
+		for (int i = 0; i < quantidade; i++) {
+			aplicarEstado(dados, versaoConta);
+		}
+	}
+
+	/**
+	 * Restaura o estado gravado por {@link #escreverEstado}, reindexando as chaves Pix da conta
+	 */
+	private void aplicarEstado(DataInputStream dados, int versaoConta) throws IOException, BuscaException {
+		Cliente cliente = buscarCliente(dados.readUTF());
+		ChavePix chavesPix = cliente.getConta().getChavesPix();
+		this.diretorioPix.desindexar(chavesPix);
+		cliente.getConta().restaurarEstado(dados, versaoConta);
+		this.diretorioPix.indexar(chavesPix);
+	}
+
+	/**
+	 * Grava o objeto no journal com o codec, precedido das versões do esquema. Os clientes referenciados
+	 * são gravados apenas pela identificação.
+	 */
+	private <T> void registrarCodificado(TipoRegistro tipo, Codec<T> codec, T objeto) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			ContextoCodec contexto = new ContextoCodec();
+			contexto.escreverVersoes(saida);
+			codec.escrever(saida, objeto, contexto);
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Nao foi possivel registrar a operacao");
+		}
+		this.journal.registrar(tipo, bytes.toByteArray());
+	}
+
+	/**
+	 * Reaplica um registro do journal sobre o snapshot carregado. O que já faz parte do snapshot (gravado durante o
+	 * snapshot, ou queda antes de o journal anterior ser apagado) é ignorado conta por conta, já que cada conta é
+	 * gravada em um momento diferente do snapshot.
+	 */
+	private void aplicarRegistro(TipoRegistro tipo, DataInputStream dados) throws IOException {
+		ContextoCodec contexto = new ContextoCodec(this.clientesPorIdentificacao::get);
+		contexto.lerVersoes(dados);
 		try {
-			this.buscarCliente(cliente.getIdentificacao());
-		} catch (BuscaException e) {
-			if (clientes.add(cliente)) {
-				try {
-					GerenciadorArquivo.salvarClientes((HashSet<Cliente>) this.clientes);
-				} catch (EscritaArquivoException ex) {
-					clientes.remove(cliente);
-					throw ex;
+			switch (tipo) {
+				case CLIENTE_NOVO: {
+					Cliente cliente = CODEC_CLIENTE.ler(dados, contexto);
+					if (!this.clientesPorIdentificacao.containsKey(cliente.getIdentificacao())) {
+						indexarCliente(cliente);
+					}
+					break;
+				}
+				case TRANSACAO: {
+					Transacao transacao = CODEC_TRANSACAO.ler(dados, contexto);
+					transacao.getContaOrigem().restaurarTransacaoRealizada(transacao);
+					break;
+				}
+				case AGENDAMENTO: {
+					Transacao transacao = CODEC_TRANSACAO.ler(dados, contexto);
+					Conta origem = transacao.getContaOrigem();
+					if (!origem.getHistorico().contemTransacao(transacao.getNossoNumero())) {
+						origem.addTransacaoAgendadas(transacao);
+						this.agendaTransacoes.adicionar(transacao);
+					}
+					break;
+				}
+				case BOLETO_EMITIDO: {
+					Boleto boleto = (Boleto) CODEC_TRANSACAO.ler(dados, contexto);
+					this.boletosPorNossoNumero.putIfAbsent(boleto.getNossoNumero(), boleto);
+					break;
+				}
+				case BOLETO_PAGO: {
+					Boleto boleto = (Boleto) CODEC_TRANSACAO.ler(dados, contexto);
+					this.boletosPorNossoNumero.remove(boleto.getNossoNumero());
+					boleto.getContaOrigem().restaurarBoletoPago(boleto);
+					break;
+				}
+				case ESTADO_CONTA: {
+					aplicarEstado(dados, contexto.getVersao(Esquema.CONTA));
+					break;
+				}
+				case LOTE_TRANSFERENCIAS: {
+					LoteTransferencias lote = CODEC_LOTE.ler(dados, contexto);
+					Conta origem = lote.getOrigem().getConta();
+					for (Transacao item : lote.getItens()) {
+						origem.restaurarTransacaoRealizada(item);
+					}
+					aplicarEstados(dados, contexto.getVersao(Esquema.CONTA));
+					break;
+				}
+				case BOLETOS_EMITIDOS: {
+					List<Transacao> boletos = new ArrayList<>();
+					CODEC_TRANSACAO.lerColecao(dados, boletos, contexto);
+					for (Transacao boleto : boletos) {
+						this.boletosPorNossoNumero.putIfAbsent(boleto.getNossoNumero(), (Boleto) boleto);
+					}
+					break;
+				}
+				case BOLETOS_PAGOS: {
+					List<Transacao> boletos = new ArrayList<>();
+					CODEC_TRANSACAO.lerColecao(dados, boletos, contexto);
+					for (Transacao transacao : boletos) {
+						Boleto boleto = (Boleto) transacao;
+						this.boletosPorNossoNumero.remove(boleto.getNossoNumero());
+						boleto.getContaOrigem().restaurarBoletoPago(boleto);
+					}
+					aplicarEstados(dados, contexto.getVersao(Esquema.CONTA));
+					break;
+				}
+				case DIA_ATUALIZADO: {
+					Data dia = CODEC_DATA.ler(dados, contexto);
+					int realizadas = dados.readInt();
+					for (int i = 0; i < realizadas; i++) {
+						Transacao transacao = this.agendaTransacoes.remover(dados.readUTF());
+						if (transacao != null) {
+							Conta.restaurarTransacaoAgendada(transacao);
+						}
+					}
+					int canceladas = dados.readInt();
+					for (int i = 0; i < canceladas; i++) {
+						Transacao transacao = this.agendaTransacoes.remover(dados.readUTF());
+						if (transacao != null) {
+							transacao.getContaOrigem().apagarTransacaoAgendada(transacao);
+						}
+					}
+					aplicarEstados(dados, contexto.getVersao(Esquema.CONTA));
+					this.ultimaAtualizacaoRegistrada = dia;
+					break;
 				}
-			} else {
-				throw new InsercaoException("Ocorreu um erro ao criar o cliente");
 			}
+		} catch (BuscaException | TransacaoException ex) {
+			throw new IOException(ex.getMessage());
 		}
 	}
 
-	public void addSaldo(double valor) {
-		this.rendaAgencia += valor;
+	/**
+	 * Pede que o próximo {@link #sincronizarArquivos()} grave um snapshot completo. Usado depois de
+	 * operações que não têm registro próprio no journal, como a criação de cartões, e depois da atualização diária. Um pedido
+	 * feito durante um snapshot vale para o próximo.
+	 */
+	public void solicitarSnapshot() {
+		this.snapshotSolicitado = true;
 	}
 
+	/**
+	 * Chamado ao fim de cada operação do usuário. O journal já é gravado a cada operação e sincronizado em lotes;
+	 * o snapshot completo só é gravado quando solicitado ou quando o journal passa de {@link #LIMITE_REGISTROS_JOURNAL}.
+	 * Se outro atendimento já está gravando um snapshot, este não espera: o pedido fica para o próximo.
+	 */
+	public void sincronizarArquivos() throws EscritaArquivoException {
+		if ((this.snapshotSolicitado || this.journal.getQuantidadeRegistros() >= LIMITE_REGISTROS_JOURNAL)
+				&& this.travaSnapshot.tryLock()) {
+			try {
+				atualizarArquivos();
+			} finally {
+				this.travaSnapshot.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Grava o snapshot final e fecha o journal e o livro de saldos
+	 */
+	public void fecharArquivos() throws EscritaArquivoException {
+		atualizarArquivos();
+		this.journal.fechar();
+		LivroSaldos.fechar();
+		ArquivoHistorico.fechar();
+		CacheMovimentacoes.fechar();
+		GeracaoAleatoria.fechar();
+	}
+
+	/**
+	 * Grava o snapshot completo do banco. Os atendimentos continuam durante a gravação: o journal é rotacionado antes,
+	 * então o que for registrado enquanto isso fica no journal novo, e o anterior só é apagado depois que todos os
+	 * arquivos do snapshot estão no disco. Cada conta é gravada com a sua trava (ver {@link GerenciadorArquivo}).
+	 */
 	public void atualizarArquivos() throws EscritaArquivoException {
-		GerenciadorArquivo.salvarClientes((HashSet<Cliente>) this.clientes);
-		GerenciadorArquivo.salvarBoletos((HashSet<Boleto>) this.boletos);
-		GeracaoAleatoria.salvarChavesAleatorias();
-		GeracaoAleatoria.salvarNossosNumeros();
-		GeracaoAleatoria.salvarNumerosCartoes();
-		GeracaoAleatoria.salvarIdsContas();
-		GerenciadorArquivo.salvarData(VerificadorDiario.getInstance().getUltimaAtualizacao());
-		GerenciadorArquivo.salvarTransacoes(Agencia.getInstance().getTransacoes());
+		this.travaSnapshot.lock();
+		try {
+			this.snapshotSolicitado = false;
+			this.journal.rotacionar();
+			try {
+				GerenciadorArquivo.salvarClientes(new ArrayList<>(this.clientes), this.contextoMovimentacoes);
+				GerenciadorArquivo.salvarBoletos(new HashSet<>(this.boletosPorNossoNumero.values()));
+				GeracaoAleatoria.salvarChavesAleatorias();
+				GeracaoAleatoria.salvarNossosNumeros();
+				GeracaoAleatoria.salvarNumerosCartoes();
+				GeracaoAleatoria.salvarIdsContas();
+				GerenciadorArquivo.salvarData(VerificadorDiario.ultimaAtualizacao(this.ultimaAtualizacaoRegistrada));
+				GerenciadorArquivo.salvarTransacoes(getTransacoes());
+			} catch (EscritaArquivoException | RuntimeException ex) {
+				this.snapshotSolicitado = true;
+				throw ex;
+			}
+			this.journal.descartarAnterior();
+			LivroSaldos livroSaldos = LivroSaldos.getInstance();
+			if (livroSaldos != null) {
+				livroSaldos.sincronizar();
+			}
+			liberarMovimentacoes();
+		} finally {
+			this.travaSnapshot.unlock();
+		}
+	}
+
+	/**
+	 * Deixa em memória as movimentações de no máximo {@link #MAXIMO_CONTAS_CARREGADAS} contas: as escolhidas pelo
+	 * {@link CacheMovimentacoes} voltam a ser lidas do arquivo de clientes recém gravado. Contas usadas depois da
+	 * gravação continuam carregadas.
+	 *
+	 * @return quantidade de contas que tiveram as movimentações liberadas
+	 */
+	public int liberarMovimentacoes() {
+		CacheMovimentacoes cache = CacheMovimentacoes.getInstance();
+		return cache == null ? 0 : cache.despejarExcedentes();
 	}
 }
@@ -0,0 +1,118 @@
+package agencia;
+
+import transacao.Transacao;
+import utilsBank.databank.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Transações agendadas da agência em uma fila de prioridade pela data agendada, para que a verificação diária só
+ * precise olhar as que já venceram. Transações agendadas para o mesmo dia saem na ordem em que foram agendadas.
+ * <p>
+ * A agenda é usada pelos menus (ao agendar) e pelo {@link utilsBank.VerificadorDiario}, em threads diferentes, por isso
+ * os métodos são sincronizados.
+ */
+public class AgendaTransacoes {
+	private final PriorityQueue<Agendamento> fila;
+	private final Map<String, Transacao> porNossoNumero;
+	private long proximaOrdem;
+
+	public AgendaTransacoes(List<Transacao> transacoes) {
+		this.fila = new PriorityQueue<>();
+		this.porNossoNumero = new HashMap<>();
+		for (Transacao transacao : transacoes) {
+			adicionar(transacao);
+		}
+	}
+
+	public synchronized void adicionar(Transacao transacao) {
+		this.fila.add(new Agendamento(transacao, this.proximaOrdem++));
+		if (transacao.getNossoNumero() != null) {
+			this.porNossoNumero.put(transacao.getNossoNumero(), transacao);
+		}
+	}
+
+	/**
+	 * @return a transação agendada com esse nosso número, ou {@code null} caso ela não esteja na agenda
+	 */
+	public synchronized Transacao buscar(String nossoNumero) {
+		return this.porNossoNumero.get(nossoNumero);
+	}
+
+	/**
+	 * Remove da agenda as transações agendadas até a data informada (inclusive)
+	 *
+	 * @return as transações vencidas, da mais antiga para a mais nova
+	 */
+	public synchronized List<Transacao> retirarVencidas(Data dataAtual) {
+		List<Transacao> vencidas = new ArrayList<>();
+		while (!this.fila.isEmpty() && venceu(this.fila.peek().transacao, dataAtual)) {
+			Transacao vencida = this.fila.poll().transacao;
+			if (vencida.getNossoNumero() != null) {
+				this.porNossoNumero.remove(vencida.getNossoNumero());
+			}
+			vencidas.add(vencida);
+		}
+		return vencidas;
+	}
+
+	/**
+	 * Retira da agenda a transação com esse nosso número
+	 *
+	 * @return a transação retirada, ou {@code null} caso ela não esteja na agenda
+	 */
+	public synchronized Transacao remover(String nossoNumero) {
+		Transacao transacao = this.porNossoNumero.remove(nossoNumero);
+		if (transacao != null) {
+			this.fila.removeIf(agendamento -> agendamento.transacao == transacao);
+		}
+		return transacao;
+	}
+
+	private static boolean venceu(Transacao transacao, Data dataAtual) {
+		Data dataAgendada = transacao.getDataAgendada();
+		return dataAgendada.equals(dataAtual) || dataAgendada.antesDe(dataAtual);
+	}
+
+	/**
+	 * @return uma cópia das transações agendadas, sem ordem definida
+	 */
+	public synchronized ArrayList<Transacao> listar() {
+		ArrayList<Transacao> transacoes = new ArrayList<>(this.fila.size());
+		for (Agendamento agendamento : this.fila) {
+			transacoes.add(agendamento.transacao);
+		}
+		return transacoes;
+	}
+
+	public synchronized int tamanho() {
+		return this.fila.size();
+	}
+
+	private static class Agendamento implements Comparable<Agendamento> {
+		private final Transacao transacao;
+		private final long ordem;
+
+		private Agendamento(Transacao transacao, long ordem) {
+			this.transacao = transacao;
+			this.ordem = ordem;
+		}
+
+		/**
+		 * Compara pelo dia agendado (sem a hora) e, no mesmo dia, pela ordem de agendamento
+		 */
+		@Override
+		public int compareTo(Agendamento outro) {
+			Data data = this.transacao.getDataAgendada();
+			Data outraData = outro.transacao.getDataAgendada();
+			if (!data.equals(outraData)) {
+				return data.antesDe(outraData) ? -1 : 1;
+			}
+			return Long.compare(this.ordem, outro.ordem);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package agencia;
+
+import agencia.exceptions.BuscaException;
+import agencia.exceptions.InsercaoException;
+import interfaceUsuario.dados.DadosChavesPix;
+import transacao.ChavePix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretório das chaves Pix da agência, com um índice para cada tipo de chave.
+ * Cada índice liga a chave à identificação (CPF ou CNPJ) do titular. Os índices aceitam buscas e trocas de chaves de
+ * vários atendimentos ao mesmo tempo.
+ */
+public class DiretorioPix {
+	private static final String[] TIPOS_CHAVE = {
+			DadosChavesPix.TELEFONE,
+			DadosChavesPix.EMAIL,
+			DadosChavesPix.IDENTIFICACAO,
+			DadosChavesPix.CHAVE_ALEATORIA,
+	};
+	private final Map<String, Map<String, String>> indices;
+
+	public DiretorioPix() {
+		this.indices = new HashMap<>();
+		for (String tipo : TIPOS_CHAVE) {
+			this.indices.put(tipo, new ConcurrentHashMap<>());
+		}
+	}
+
+	/**
+	 * Registra uma chave para o titular informado
+	 *
+	 * @param tipo    Informa o tipo da chave, declarado em DadosChavesPix
+	 * @param chave   chave a ser registrada, ignorada se for nula
+	 * @param titular identificação do dono da chave
+	 * @throws InsercaoException caso a chave já pertença a outro titular ou o tipo seja inválido
+	 */
+	public void registrar(String tipo, String chave, String titular) throws InsercaoException {
+		Map<String, String> indice = getIndice(tipo);
+		if (indice == null) {
+			throw new InsercaoException("Tipo de chave invalido");
+		}
+		if (chave == null) {
+			return;
+		}
+		if (titular == null) {
+			throw new InsercaoException("Chave Pix sem titular");
+		}
+		String titularAtual = indice.putIfAbsent(chave, titular);
+		if (titularAtual != null && !titularAtual.equals(titular)) {
+			throw new InsercaoException("Chave Pix ja cadastrada");
+		}
+	}
+
+	/**
+	 * Substitui a chave antiga pela nova. A chave antiga só é liberada depois que a nova for aceita.
+	 *
+	 * @throws InsercaoException caso a nova chave já pertença a outro titular
+	 */
+	public void trocar(String tipo, String chaveAntiga, String chaveNova, String titular) throws InsercaoException {
+		registrar(tipo, chaveNova, titular);
+		if (chaveAntiga != null && !chaveAntiga.equals(chaveNova)) {
+			remover(tipo, chaveAntiga, titular);
+		}
+	}
+
+	/**
+	 * Remove a chave do diretório, apenas se ela pertencer ao titular informado
+	 */
+	public void remover(String tipo, String chave, String titular) {
+		Map<String, String> indice = getIndice(tipo);
+		if (indice != null && chave != null) {
+			indice.remove(chave, titular);
+		}
+	}
+
+	/**
+	 * Registra todas as chaves de um conjunto de chaves Pix. Chaves que já pertencem a outro titular são ignoradas.
+	 *
+	 * @param chavesPix chaves do cliente
+	 * @return {@code true} caso todas as chaves tenham sido registradas
+	 */
+	public boolean indexar(ChavePix chavesPix) {
+		boolean registrouTodas = true;
+		for (String tipo : TIPOS_CHAVE) {
+			try {
+				registrar(tipo, chavesPix.getChave(tipo), chavesPix.getIdentificacao());
+			} catch (InsercaoException ex) {
+				registrouTodas = false;
+			}
+		}
+		return registrouTodas;
+	}
+
+	/**
+	 * Passa todas as chaves para um novo titular de uma vez. As chaves do titular anterior mudam de dono no lugar; se
+	 * alguma chave pertencer a um terceiro, as que já tinham sido passadas voltam para o anterior antes da exceção e o
+	 * diretório fica como estava.
+	 *
+	 * @param chavesPix chaves ainda com a identificação anterior
+	 * @param titular   nova identificação, que também é a chave do tipo identificação
+	 * @throws InsercaoException caso alguma chave já pertença a outro titular
+	 */
+	public void trocarTitular(ChavePix chavesPix, String titular) throws InsercaoException {
+		if (titular == null) {
+			throw new InsercaoException("Chave Pix sem titular");
+		}
+		String anterior = chavesPix.getIdentificacao();
+		List<String> tiposPassados = new ArrayList<>();
+		List<String> chavesPassadas = new ArrayList<>();
+		try {
+			for (String tipo : TIPOS_CHAVE) {
+				String chave = tipo.equals(DadosChavesPix.IDENTIFICACAO) ? titular : chavesPix.getChave(tipo);
+				if (chave == null || titular.equals(getIndice(tipo).get(chave))) {
+					continue;
+				}
+				if (anterior == null || !getIndice(tipo).replace(chave, anterior, titular)) {
+					registrar(tipo, chave, titular);
+				}
+				tiposPassados.add(tipo);
+				chavesPassadas.add(chave);
+			}
+		} catch (InsercaoException ex) {
+			for (int i = 0; i < tiposPassados.size(); i++) {
+				Map<String, String> indice = getIndice(tiposPassados.get(i));
+				if (anterior == null || !indice.replace(chavesPassadas.get(i), titular, anterior)) {
+					indice.remove(chavesPassadas.get(i), titular);
+				}
+			}
+			throw ex;
+		}
+		if (anterior != null && !anterior.equals(titular)) {
+			desindexar(chavesPix);
+		}
+	}
+
+	/**
+	 * Remove todas as chaves de um conjunto de chaves Pix
+	 */
+	public void desindexar(ChavePix chavesPix) {
+		for (String tipo : TIPOS_CHAVE) {
+			remover(tipo, chavesPix.getChave(tipo), chavesPix.getIdentificacao());
+		}
+	}
+
+	/**
+	 * @param tipo  Informa o tipo da chave, declarado em DadosChavesPix
+	 * @param chave Podendo ser de "email", chave aleatória, identificação, telefone
+	 * @return identificação do titular da chave
+	 * @throws BuscaException caso a chave não esteja cadastrada
+	 */
+	public String buscarTitular(String tipo, String chave) throws BuscaException {
+		Map<String, String> indice = getIndice(tipo);
+		String titular = (indice == null || chave == null) ? null : indice.get(chave);
+		if (titular == null) {
+			throw new BuscaException("Cliente nao encontrado");
+		}
+		return titular;
+	}
+
+	private Map<String, String> getIndice(String tipo) {
+		return tipo == null ? null : this.indices.get(tipo);
+	}
+}
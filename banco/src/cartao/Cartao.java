@@ -6,12 +6,8 @@ import utilsBank.GeracaoAleatoria;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
-import java.io.Serial;
-import java.io.Serializable;
 
-public abstract class Cartao implements Serializable {
-	@Serial
-	private static final long serialVersionUID = 6L;
+public abstract class Cartao {
 	protected final String numeroCartao;
 	protected final String cvc;
 	protected final String apelidoCartao;
@@ -29,6 +25,17 @@ public abstract class Cartao implements Serializable {
 		this.validade.somar(2, Data.ANO);
 	}
 
+	/**
+	 * Usado pelo {@link CodecCartao} para recriar um cartão já emitido
+	 */
+	protected Cartao(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		this.numeroCartao = numeroCartao;
+		this.cvc = cvc;
+		this.apelidoCartao = apelidoCartao;
+		this.validade = validade;
+		this.nomeTitular = nomeTitular;
+	}
+
 	/**
 	 * Retorna o limite maximo do Cartao
 	 *
@@ -1,18 +1,21 @@
 package cartao;
 
+import conta.TiposConta;
 import interfaceUsuario.dados.DadosCartao;
-import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import utilsBank.databank.Data;
 
-import java.io.Serial;
 
 public class CartaoDiamond extends CartaoPremium {
-	@Serial
-	private static final long serialVersionUID = 12L;
 	public final Double LIMITE_MAX = 90000.0;
 
 	public CartaoDiamond(String nomeTitular, DadosCartao dadosCartao) {
 		super(nomeTitular, dadosCartao);
-		this.tipoCartao = VerificadorEntrada.DIAMOND;
+		this.tipoCartao = TiposConta.DIAMOND;
+	}
+
+	CartaoDiamond(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		super(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+		this.tipoCartao = TiposConta.DIAMOND;
 	}
 
 	@Override
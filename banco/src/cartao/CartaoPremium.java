@@ -1,18 +1,21 @@
 package cartao;
 
+import conta.TiposConta;
 import interfaceUsuario.dados.DadosCartao;
-import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import utilsBank.databank.Data;
 
-import java.io.Serial;
 
 public class CartaoPremium extends CartaoStandard {
-	@Serial
-	private static final long serialVersionUID = 13L;
 	public final Double LIMITE_MAX = 30000.0;
 
 	public CartaoPremium(String nomeTitular, DadosCartao dadosCartao) {
 		super(nomeTitular, dadosCartao);
-		this.tipoCartao = VerificadorEntrada.PREMIUM;
+		this.tipoCartao = TiposConta.PREMIUM;
+	}
+
+	CartaoPremium(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		super(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+		this.tipoCartao = TiposConta.PREMIUM;
 	}
 
 	@Override
@@ -1,18 +1,21 @@
 package cartao;
 
+import conta.TiposConta;
 import interfaceUsuario.dados.DadosCartao;
-import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import utilsBank.databank.Data;
 
-import java.io.Serial;
 
 public class CartaoStandard extends Cartao {
-	@Serial
-	private static final long serialVersionUID = 14L;
 	public final Double LIMITE_MAX = 2500.0;
 
 	public CartaoStandard(String nomeTitular, DadosCartao dadosCartao) {
 		super(nomeTitular, dadosCartao);
-		this.tipoCartao = VerificadorEntrada.STANDARD;
+		this.tipoCartao = TiposConta.STANDARD;
+	}
+
+	CartaoStandard(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		super(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+		this.tipoCartao = TiposConta.STANDARD;
 	}
 
 	@Override
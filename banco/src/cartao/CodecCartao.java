@@ -0,0 +1,59 @@
+package cartao;
+
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.databank.CodecData;
+import utilsBank.databank.Data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Formato: tipo do cartão, número, cvc, apelido, titular e validade.
+ */
+public class CodecCartao implements Codec<Cartao> {
+	private static final byte STANDARD = 1;
+	private static final byte PREMIUM = 2;
+	private static final byte DIAMOND = 3;
+	private static final CodecData CODEC_DATA = new CodecData();
+
+	@Override
+	public void escrever(DataOutput saida, Cartao cartao, ContextoCodec contexto) throws IOException {
+		if (cartao instanceof CartaoDiamond) {
+			saida.writeByte(DIAMOND);
+		} else if (cartao instanceof CartaoPremium) {
+			saida.writeByte(PREMIUM);
+		} else if (cartao instanceof CartaoStandard) {
+			saida.writeByte(STANDARD);
+		} else {
+			throw new IOException("Tipo do cartao invalido");
+		}
+		DadosBinarios.escreverTexto(saida, cartao.numeroCartao);
+		DadosBinarios.escreverTexto(saida, cartao.cvc);
+		DadosBinarios.escreverTexto(saida, cartao.apelidoCartao);
+		DadosBinarios.escreverTexto(saida, cartao.nomeTitular);
+		CODEC_DATA.escreverOpcional(saida, cartao.validade, contexto);
+	}
+
+	@Override
+	public Cartao ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		byte tipo = entrada.readByte();
+		String numeroCartao = DadosBinarios.lerTexto(entrada);
+		String cvc = DadosBinarios.lerTexto(entrada);
+		String apelidoCartao = DadosBinarios.lerTexto(entrada);
+		String nomeTitular = DadosBinarios.lerTexto(entrada);
+		Data validade = CODEC_DATA.lerOpcional(entrada, contexto);
+		switch (tipo) {
+			case STANDARD:
+				return new CartaoStandard(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			case PREMIUM:
+				return new CartaoPremium(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			case DIAMOND:
+				return new CartaoDiamond(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			default:
+				throw new IOException("Tipo do cartao invalido");
+		}
+	}
+}
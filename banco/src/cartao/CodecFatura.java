@@ -0,0 +1,41 @@
+package cartao;
+
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+import utilsBank.databank.CodecData;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Formato: data do pagamento, valor, pagador, agência e conta.
+ * <p>
+ * Versão 1: valor em reais (double opcional). Versão 2: em centavos (long).
+ */
+public class CodecFatura implements Codec<Fatura> {
+	private static final int VERSAO_CENTAVOS = 2;
+	private static final CodecData CODEC_DATA = new CodecData();
+
+	@Override
+	public void escrever(DataOutput saida, Fatura fatura, ContextoCodec contexto) throws IOException {
+		CODEC_DATA.escreverOpcional(saida, fatura.getDataPagamento(), contexto);
+		saida.writeLong(fatura.getValorCentavos());
+		DadosBinarios.escreverTexto(saida, fatura.getNomePagador());
+		DadosBinarios.escreverTexto(saida, fatura.getNumeroAgencia());
+		DadosBinarios.escreverTexto(saida, fatura.getConta());
+	}
+
+	@Override
+	public Fatura ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		return new Fatura(
+				CODEC_DATA.lerOpcional(entrada, contexto),
+				DadosBinarios.lerCentavosOpcional(entrada, contexto.getVersao(Esquema.FATURA) < VERSAO_CENTAVOS),
+				DadosBinarios.lerTexto(entrada),
+				DadosBinarios.lerTexto(entrada),
+				DadosBinarios.lerTexto(entrada)
+		);
+	}
+}
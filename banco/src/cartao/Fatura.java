@@ -2,29 +2,57 @@ package cartao;
 
 import agencia.Agencia;
 import cliente.Cliente;
+import utilsBank.Dinheiro;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
-import java.io.Serial;
-import java.io.Serializable;
 
-public class Fatura implements Serializable {
-	@Serial
-	private static final long serialVersionUID = 18L;
+public class Fatura {
 	private final Data DATA_PAGAMENTO;
-	private final Double VALOR;
+	/**
+	 * Em centavos
+	 */
+	private final long VALOR;
 	private final String NOME_PAGADOR;
 	private final String NUMERO_AGENCIA;
 	private final String CONTA;
 
-	public Fatura(Double VALOR, Cliente cliente) {
+	public Fatura(double valor, Cliente cliente) {
 		this.DATA_PAGAMENTO = DataBank.criarData(DataBank.COM_HORA);
-		this.VALOR = VALOR;
+		this.VALOR = Dinheiro.centavos(valor);
 		this.NOME_PAGADOR = cliente.getNome();
 		this.NUMERO_AGENCIA = Agencia.ID_AGENCIA;
 		this.CONTA = cliente.getConta().getIdConta();
 	}
 
+	Fatura(Data dataPagamento, long valor, String nomePagador, String numeroAgencia, String conta) {
+		this.DATA_PAGAMENTO = dataPagamento;
+		this.VALOR = valor;
+		this.NOME_PAGADOR = nomePagador;
+		this.NUMERO_AGENCIA = numeroAgencia;
+		this.CONTA = conta;
+	}
+
+	public Data getDataPagamento() {
+		return DATA_PAGAMENTO;
+	}
+
+	long getValorCentavos() {
+		return VALOR;
+	}
+
+	String getNomePagador() {
+		return NOME_PAGADOR;
+	}
+
+	String getNumeroAgencia() {
+		return NUMERO_AGENCIA;
+	}
+
+	String getConta() {
+		return CONTA;
+	}
+
 	@SuppressWarnings("unused")
 	public boolean equals(Fatura outraFatura) {
 		return this.DATA_PAGAMENTO.equals(outraFatura.DATA_PAGAMENTO);
@@ -38,9 +66,7 @@ public class Fatura implements Serializable {
 		if (DATA_PAGAMENTO != null) {
 			toString = toString + "" + DATA_PAGAMENTO + "\n";
 		}
-		if (VALOR != null) {
-			toString = toString + "VALOR >>>> " + VALOR + "\n";
-		}
+		toString = toString + "VALOR >>>> " + Dinheiro.reais(VALOR) + "\n";
 		if (NOME_PAGADOR != null) {
 			toString = toString + "PAGADOR >>>> " + NOME_PAGADOR + "\n";
 		}
@@ -1,27 +1,23 @@
 package cliente;
 
+import agencia.DiretorioPix;
+import agencia.exceptions.InsercaoException;
 import cartao.Fatura;
 import cliente.exceptions.LoginException;
 import conta.Conta;
 import conta.ContaDiamond;
 import conta.ContaPremium;
 import conta.ContaStandard;
+import conta.TiposConta;
 import conta.exceptions.DadosInvalidosException;
 import conta.exceptions.TipoInvalido;
-import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.dados.DadosCartao;
 import interfaceUsuario.dados.DadosConta;
-import interfaceUsuario.exceptions.ValorInvalido;
-import interfaceUsuario.menus.MenuConta;
-import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 
-import java.io.Serial;
-import java.io.Serializable;
 
 @SuppressWarnings({"SameReturnValue", "CanBeFinal"})
-public abstract class Cliente implements Serializable {
-	@Serial
-	private static final long serialVersionUID = 1L;
+public abstract class Cliente {
 	protected final String NOME;
 	private final String senha;
 	protected String email;
@@ -31,14 +27,34 @@ public abstract class Cliente implements Serializable {
 	protected Conta conta;
 	protected Double renda;
 
-	public Cliente(String nome, String email, String telefone, Integer idade, Endereco end, String senha) throws ValorInvalido {
+	/**
+	 * Cria um cliente novo com os dados da conta e do cartão já coletados (no console, por
+	 * {@code MenuConta.criacaoConta()})
+	 */
+	protected Cliente(String nome, String email, String telefone, Integer idade, Endereco end, String senha,
+	                  DadosConta dadosConta, DadosCartao dadosCartao, Double renda) {
 		this.NOME = nome;
 		this.email = email;
 		this.telefone = telefone;
 		this.idade = idade;
 		this.end = end;
-		this.conta = criarConta();
 		this.senha = senha;
+		this.renda = renda;
+		this.conta = criarConta(dadosConta, dadosCartao);
+	}
+
+	/**
+	 * Recria um cliente já cadastrado, com a conta já carregada. Usado pelo {@link CodecCliente}.
+	 */
+	protected Cliente(String nome, String email, String telefone, Integer idade, Endereco end, String senha, Conta conta, Double renda) {
+		this.NOME = nome;
+		this.email = email;
+		this.telefone = telefone;
+		this.idade = idade;
+		this.end = end;
+		this.senha = senha;
+		this.conta = conta;
+		this.renda = renda;
 	}
 
 	@SuppressWarnings("unused")
@@ -55,9 +71,9 @@ public abstract class Cliente implements Serializable {
 		return getString(toString);
 	}
 
-	public Fatura pagarFatura(Double valor) {
+	public Fatura pagarFatura(double valor) {
 		Fatura fatura = new Fatura(valor, this);
-		this.getConta().getHistorico().addFaturas(fatura);
+		this.getConta().addHistorico(fatura);
 		this.getConta().pagarFatura(valor);
 		return fatura;
 	}
@@ -73,20 +89,17 @@ public abstract class Cliente implements Serializable {
 		return toString;
 	}
 
-	public Conta criarConta() throws ValorInvalido {
-		this.renda = MenuConta.criacaoConta();
-		DadosConta dadosConta = InterfaceUsuario.getDadosConta();
-		DadosCartao dadosCartao = InterfaceUsuario.getDadosCartao();
+	public Conta criarConta(DadosConta dadosConta, DadosCartao dadosCartao) {
 		Conta conta;
 
 		if (dadosConta == null || dadosCartao == null) {
 			throw new DadosInvalidosException("Dados inseridos incorretamente, Por favor, logue novamente!");
 		} else {
-			if (dadosConta.getTipoDaConta().equalsIgnoreCase(VerificadorEntrada.DIAMOND)) {
+			if (dadosConta.getTipoDaConta().equalsIgnoreCase(TiposConta.DIAMOND)) {
 				conta = new ContaDiamond();
-			} else if (dadosConta.getTipoDaConta().equalsIgnoreCase(VerificadorEntrada.PREMIUM)) {
+			} else if (dadosConta.getTipoDaConta().equalsIgnoreCase(TiposConta.PREMIUM)) {
 				conta = new ContaPremium();
-			} else if (dadosConta.getTipoDaConta().equalsIgnoreCase(VerificadorEntrada.STANDARD)) {
+			} else if (dadosConta.getTipoDaConta().equalsIgnoreCase(TiposConta.STANDARD)) {
 				conta = new ContaStandard();
 			} else {
 				throw new TipoInvalido("Por favor, escolha um tipo de conta valido");
@@ -107,13 +120,22 @@ public abstract class Cliente implements Serializable {
 		return NOME;
 	}
 
+	String getSenha() {
+		return senha;
+	}
+
 	public Conta getConta() {
 		return this.conta;
 	}
 
 	public abstract String getIdentificacao();
 
-	public void setChavesPix() {
-		this.getConta().getChavesPix().setIdentificacao(this.getIdentificacao());
+	/**
+	 * Registra as chaves Pix da conta em nome do cliente
+	 *
+	 * @param diretorio diretório Pix da agência
+	 */
+	public void setChavesPix(DiretorioPix diretorio) throws InsercaoException, EscritaArquivoException {
+		this.getConta().setIdentificacaoPix(this.getIdentificacao(), diretorio);
 	}
 }
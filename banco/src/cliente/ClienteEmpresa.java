@@ -3,21 +3,29 @@ package cliente;
 import cliente.exceptions.GerenteJaExistenteException;
 import cliente.exceptions.GerenteNaoEncontradoException;
 import conta.Conta;
-import interfaceUsuario.exceptions.ValorInvalido;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosConta;
+import transacao.FolhaPagamento;
+import transacao.LoteTransferencias;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 
-import java.io.Serial;
 import java.util.HashSet;
 import java.util.Set;
 
 public class ClienteEmpresa extends Cliente {
-    @Serial
-    private static final long serialVersionUID = 18L;
     private final Set<String> GERENTES_EMPRESA = new HashSet<>(); //Guardara as identificacoes de quem pode acessar a conta
     private final String CNPJ;
 
 
-    public ClienteEmpresa(String nome, String email, String telefone, Integer idade, Endereco end, String cnpj, String senha) throws ValorInvalido {
-        super(nome, email, telefone, idade, end, senha);
+    public ClienteEmpresa(String nome, String email, String telefone, Integer idade, Endereco end, String cnpj, String senha,
+                          DadosConta dadosConta, DadosCartao dadosCartao, Double renda) {
+        super(nome, email, telefone, idade, end, senha, dadosConta, dadosCartao, renda);
+        this.CNPJ = cnpj;
+    }
+
+    ClienteEmpresa(String nome, String email, String telefone, Integer idade, Endereco end, String cnpj, String senha, Conta conta, Double renda) {
+        super(nome, email, telefone, idade, end, senha, conta, renda);
         this.CNPJ = cnpj;
     }
 
@@ -39,6 +47,19 @@ public class ClienteEmpresa extends Cliente {
         return GERENTES_EMPRESA.contains(chave);
     }
 
+    Set<String> getGerentes() {
+        return GERENTES_EMPRESA;
+    }
+
+    /**
+     * Paga a folha com a conta da empresa, em um só lote, ver {@link Conta#transferirLote(LoteTransferencias)}
+     */
+    public LoteTransferencias pagarFolha(FolhaPagamento folha) throws TransacaoException, EscritaArquivoException {
+        LoteTransferencias lote = LoteTransferencias.criar(this, folha);
+        this.conta.transferirLote(lote);
+        return lote;
+    }
+
     @Override
     public String toString() {
         String toString = "[CLIENTE]\n";
@@ -1,16 +1,21 @@
 package cliente;
 
-import interfaceUsuario.exceptions.ValorInvalido;
+import conta.Conta;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosConta;
 
-import java.io.Serial;
 
 public class ClientePessoa extends Cliente {
-	@Serial
-	private static final long serialVersionUID = 19L;
 	private final String CPF;
 
-	public ClientePessoa(String nome, String email, String telefone, Integer idade, Endereco end, String cpf, String senha) throws ValorInvalido {
-		super(nome, email, telefone, idade, end, senha);
+	public ClientePessoa(String nome, String email, String telefone, Integer idade, Endereco end, String cpf, String senha,
+	                     DadosConta dadosConta, DadosCartao dadosCartao, Double renda) {
+		super(nome, email, telefone, idade, end, senha, dadosConta, dadosCartao, renda);
+		this.CPF = cpf;
+	}
+
+	ClientePessoa(String nome, String email, String telefone, Integer idade, Endereco end, String cpf, String senha, Conta conta, Double renda) {
+		super(nome, email, telefone, idade, end, senha, conta, renda);
 		this.CPF = cpf;
 	}
 
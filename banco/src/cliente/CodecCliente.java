@@ -0,0 +1,206 @@
+package cliente;
+
+import conta.BlocoMovimentacoes;
+import conta.CodecConta;
+import conta.Conta;
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.EntradaArquivo;
+import utilsBank.arquivo.SaidaArquivo;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Formato: tipo, identificação, nome, senha, email, telefone, idade, endereço, renda, gerentes (empresa) e
+ * os dados da conta, seguidos das movimentações da conta.
+ * <p>
+ * Em {@link #escreverColecao} os dados de todos os clientes são gravados antes das movimentações, para que na
+ * leitura toda transação encontre os dois clientes já carregados. A partir de {@link #VERSAO_BLOCOS} as movimentações
+ * de cada conta são gravadas como um bloco precedido do tamanho, com referências de transação só dentro do bloco, para
+ * que a leitura de um arquivo possa pular os blocos e deixá-los para o primeiro acesso à conta
+ * (ver {@link ContextoCodec#adiarMovimentacoes}).
+ */
+public class CodecCliente implements Codec<Cliente> {
+	/**
+	 * Primeira versão de {@link Esquema#CLIENTE} com as movimentações em blocos independentes
+	 */
+	static final int VERSAO_BLOCOS = 2;
+	private static final byte PESSOA = 1;
+	private static final byte EMPRESA = 2;
+	private static final CodecConta CODEC_CONTA = new CodecConta();
+
+	@Override
+	public void escrever(DataOutput saida, Cliente cliente, ContextoCodec contexto) throws IOException {
+		escreverDados(saida, cliente, contexto);
+		CODEC_CONTA.escreverMovimentacoes(saida, cliente.getConta(), contexto);
+	}
+
+	@Override
+	public Cliente ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		Cliente cliente = lerDados(entrada, contexto);
+		CODEC_CONTA.lerMovimentacoes(entrada, cliente.getConta(), contexto);
+		return cliente;
+	}
+
+	@Override
+	public void escreverColecao(DataOutput saida, Collection<? extends Cliente> clientes, ContextoCodec contexto) throws IOException {
+		saida.writeInt(clientes.size());
+		for (Cliente cliente : clientes) {
+			escreverDados(saida, cliente, contexto);
+		}
+		SaidaArquivo arquivo = saida instanceof SaidaArquivo saidaArquivo ? saidaArquivo : null;
+		ContextoCodec contextoBlocos = null;
+		if (arquivo != null && contexto.getContextoBlocos() != null) {
+			contextoBlocos = contexto.getContextoBlocos().derivar(contexto.getVersoes());
+		}
+		for (Cliente cliente : clientes) {
+			Conta conta = cliente.getConta();
+			// lidos antes da trava da conta: se ela for usada no meio, o acesso gravado fica mais antigo que o atual e
+			// o bloco anterior deixa de ser o da conta, então o bloco novo não é despejado nem substitui o anterior
+			long acesso = conta.getUltimoAcesso();
+			BlocoMovimentacoes noArquivo = conta.getMovimentacoesNoArquivo();
+			byte[] bloco = CODEC_CONTA.codificarMovimentacoes(conta, contexto);
+			saida.writeInt(bloco.length);
+			if (contextoBlocos != null) {
+				contexto.registrarBlocoGravado(new BlocoMovimentacoes(conta, arquivo.getCaminho(), arquivo.getPosicao(),
+						bloco.length, contextoBlocos, noArquivo, acesso));
+			}
+			saida.write(bloco);
+		}
+	}
+
+	@Override
+	public void lerColecao(DataInput entrada, Collection<? super Cliente> destino, ContextoCodec contexto) throws IOException {
+		int quantidade = entrada.readInt();
+		if (quantidade < 0) {
+			throw new IOException("Quantidade invalida");
+		}
+		List<Cliente> clientes = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			clientes.add(lerDados(entrada, contexto));
+		}
+		if (contexto.getVersao(Esquema.CLIENTE) < VERSAO_BLOCOS) {
+			for (Cliente cliente : clientes) {
+				CODEC_CONTA.lerMovimentacoes(entrada, cliente.getConta(), contexto);
+			}
+		} else {
+			lerBlocos(entrada, clientes, contexto);
+		}
+		destino.addAll(clientes);
+	}
+
+	/**
+	 * Lê os blocos de movimentações na hora ou, quando o contexto adia as movimentações e a entrada é um arquivo, só
+	 * guarda a posição de cada bloco na conta
+	 */
+	private void lerBlocos(DataInput entrada, List<Cliente> clientes, ContextoCodec contexto) throws IOException {
+		EntradaArquivo arquivo = entrada instanceof EntradaArquivo entradaArquivo ? entradaArquivo : null;
+		ContextoCodec contextoBlocos = null;
+		if (arquivo != null && contexto.getContextoBlocos() != null) {
+			contextoBlocos = contexto.getContextoBlocos().derivar(contexto.getVersoes());
+		}
+		for (Cliente cliente : clientes) {
+			int tamanho = entrada.readInt();
+			if (tamanho < 0) {
+				throw new IOException("Tamanho invalido");
+			}
+			if (contextoBlocos != null) {
+				cliente.getConta().adiarMovimentacoes(new BlocoMovimentacoes(cliente.getConta(), arquivo.getCaminho(),
+						arquivo.getPosicao(), tamanho, contextoBlocos, null, 0));
+				pular(entrada, tamanho);
+			} else {
+				contexto.iniciarBloco();
+				CODEC_CONTA.lerMovimentacoes(entrada, cliente.getConta(), contexto);
+			}
+		}
+	}
+
+	private static void pular(DataInput entrada, int tamanho) throws IOException {
+		int restante = tamanho;
+		while (restante > 0) {
+			int pulados = entrada.skipBytes(restante);
+			if (pulados <= 0) {
+				entrada.readByte();
+				pulados = 1;
+			}
+			restante -= pulados;
+		}
+	}
+
+	private void escreverDados(DataOutput saida, Cliente cliente, ContextoCodec contexto) throws IOException {
+		if (cliente instanceof ClienteEmpresa) {
+			saida.writeByte(EMPRESA);
+		} else if (cliente instanceof ClientePessoa) {
+			saida.writeByte(PESSOA);
+		} else {
+			throw new IOException("Tipo de cliente invalido");
+		}
+		DadosBinarios.escreverTexto(saida, cliente.getIdentificacao());
+		DadosBinarios.escreverTexto(saida, cliente.NOME);
+		DadosBinarios.escreverTexto(saida, cliente.getSenha());
+		DadosBinarios.escreverTexto(saida, cliente.email);
+		DadosBinarios.escreverTexto(saida, cliente.telefone);
+		DadosBinarios.escreverInteiroOpcional(saida, cliente.idade);
+		saida.writeBoolean(cliente.end != null);
+		if (cliente.end != null) {
+			DadosBinarios.escreverTexto(saida, cliente.end.getCep());
+			DadosBinarios.escreverInteiroOpcional(saida, cliente.end.getNumeroCasa());
+			DadosBinarios.escreverTexto(saida, cliente.end.getComplemento());
+		}
+		DadosBinarios.escreverDoubleOpcional(saida, cliente.renda);
+		if (cliente instanceof ClienteEmpresa empresa) {
+			saida.writeInt(empresa.getGerentes().size());
+			for (String gerente : empresa.getGerentes()) {
+				saida.writeUTF(gerente);
+			}
+		}
+		CODEC_CONTA.escreverDados(saida, cliente.getConta(), contexto);
+	}
+
+	/**
+	 * Lê o cliente e os dados da conta, e o registra no contexto para as transações lidas em seguida
+	 */
+	private Cliente lerDados(DataInput entrada, ContextoCodec contexto) throws IOException {
+		byte tipo = entrada.readByte();
+		String identificacao = DadosBinarios.lerTexto(entrada);
+		String nome = DadosBinarios.lerTexto(entrada);
+		String senha = DadosBinarios.lerTexto(entrada);
+		String email = DadosBinarios.lerTexto(entrada);
+		String telefone = DadosBinarios.lerTexto(entrada);
+		Integer idade = DadosBinarios.lerInteiroOpcional(entrada);
+		Endereco endereco = null;
+		if (entrada.readBoolean()) {
+			endereco = new Endereco(DadosBinarios.lerTexto(entrada), DadosBinarios.lerInteiroOpcional(entrada), DadosBinarios.lerTexto(entrada));
+		}
+		Double renda = DadosBinarios.lerDoubleOpcional(entrada);
+		Cliente cliente;
+		switch (tipo) {
+			case PESSOA:
+				Conta contaPessoa = CODEC_CONTA.lerDados(entrada, contexto);
+				cliente = new ClientePessoa(nome, email, telefone, idade, endereco, identificacao, senha, contaPessoa, renda);
+				break;
+			case EMPRESA:
+				List<String> gerentes = new ArrayList<>();
+				int quantidade = entrada.readInt();
+				for (int i = 0; i < quantidade; i++) {
+					gerentes.add(entrada.readUTF());
+				}
+				Conta contaEmpresa = CODEC_CONTA.lerDados(entrada, contexto);
+				ClienteEmpresa empresa = new ClienteEmpresa(nome, email, telefone, idade, endereco, identificacao, senha, contaEmpresa, renda);
+				empresa.getGerentes().addAll(gerentes);
+				cliente = empresa;
+				break;
+			default:
+				throw new IOException("Tipo de cliente invalido");
+		}
+		contexto.registrarCliente(cliente);
+		return cliente;
+	}
+}
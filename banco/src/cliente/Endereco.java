@@ -1,12 +1,8 @@
 package cliente;
 
-import java.io.Serial;
-import java.io.Serializable;
 
 @SuppressWarnings("unused")
-public class Endereco implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 3L;
+public class Endereco {
     private final String CEP;
     private final Integer NUMERO_CASA;
     private String complemento;
@@ -33,4 +29,12 @@ public class Endereco implements Serializable {
     protected Integer getNumeroCasa() {
         return NUMERO_CASA;
     }
+
+    String getCep() {
+        return CEP;
+    }
+
+    String getComplemento() {
+        return complemento;
+    }
 }
@@ -0,0 +1,105 @@
+package conta;
+
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Onde estão gravadas, no arquivo de clientes, as movimentações de uma conta (transações realizadas e agendadas,
+ * histórico e notificações): posição e tamanho do bloco escrito por {@code CodecCliente#escreverColecao}.
+ * <p>
+ * Uma conta lida com as movimentações adiadas guarda só o bloco e o lê no primeiro acesso
+ * (ver {@link Conta#carregarMovimentacoes()}). O arquivo é trocado a cada snapshot, então a leitura dos blocos e a troca
+ * do arquivo seguida da atualização dos blocos das contas não podem acontecer ao mesmo tempo: ver
+ * {@link #travarGravacao()}. Os blocos são lidos com a trava da conta ({@link TravasContas}) já obtida, e quem tem a
+ * trava de gravação não pede a trava de nenhuma conta.
+ */
+public class BlocoMovimentacoes {
+	private static final ReadWriteLock TRAVA_ARQUIVO = new ReentrantReadWriteLock();
+	private final Conta conta;
+	private final String caminho;
+	private final long posicao;
+	private final int tamanho;
+	private final ContextoCodec contexto;
+	private final BlocoMovimentacoes anterior;
+	private final long acessoGravado;
+
+	/**
+	 * @param contexto      de onde sai o contexto de leitura do bloco, com as versões do arquivo
+	 * @param anterior      bloco de onde a conta carregaria as movimentações quando este foi gravado, ou {@code null}
+	 *                      caso elas já estivessem em memória
+	 * @param acessoGravado {@link Conta#getUltimoAcesso()} quando o bloco foi gravado
+	 */
+	public BlocoMovimentacoes(Conta conta, String caminho, long posicao, int tamanho, ContextoCodec contexto,
+							  BlocoMovimentacoes anterior, long acessoGravado) {
+		this.conta = conta;
+		this.caminho = caminho;
+		this.posicao = posicao;
+		this.tamanho = tamanho;
+		this.contexto = contexto;
+		this.anterior = anterior;
+		this.acessoGravado = acessoGravado;
+	}
+
+	/**
+	 * Impede a leitura de blocos enquanto o arquivo de clientes é trocado e as contas passam a apontar para o novo
+	 */
+	public static void travarGravacao() {
+		TRAVA_ARQUIVO.writeLock().lock();
+	}
+
+	public static void destravarGravacao() {
+		TRAVA_ARQUIVO.writeLock().unlock();
+	}
+
+	static void travarLeitura() {
+		TRAVA_ARQUIVO.readLock().lock();
+	}
+
+	static void destravarLeitura() {
+		TRAVA_ARQUIVO.readLock().unlock();
+	}
+
+	public Conta getConta() {
+		return this.conta;
+	}
+
+	BlocoMovimentacoes getAnterior() {
+		return this.anterior;
+	}
+
+	long getAcessoGravado() {
+		return this.acessoGravado;
+	}
+
+	/**
+	 * @return um contexto novo para decodificar o bloco
+	 */
+	ContextoCodec novoContexto() {
+		return this.contexto.derivar(this.contexto.getVersoes());
+	}
+
+	/**
+	 * @return {@code true} caso o bloco tenha sido gravado com as mesmas versões do contexto, podendo ser copiado sem
+	 * ser decodificado
+	 */
+	boolean mesmasVersoes(ContextoCodec outro) {
+		return Arrays.equals(this.contexto.getVersoes(), outro.getVersoes());
+	}
+
+	/**
+	 * Lê o bloco do arquivo. Deve ser chamado com a trava de leitura ou de gravação.
+	 */
+	byte[] lerBytes() throws IOException {
+		byte[] bytes = new byte[this.tamanho];
+		try (RandomAccessFile arquivo = new RandomAccessFile(this.caminho, "r")) {
+			arquivo.seek(this.posicao);
+			arquivo.readFully(bytes);
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,182 @@
+package conta;
+
+import cartao.Cartao;
+import cartao.CodecCartao;
+import cartao.CodecFatura;
+import cartao.Fatura;
+import transacao.CodecTransacao;
+import transacao.Transacao;
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A conta é gravada em duas partes:
+ * <ul>
+ *     <li>dados: tipo, identificador, valores, cartões e chaves Pix;</li>
+ *     <li>movimentações: transações realizadas e agendadas, histórico e notificações.</li>
+ * </ul>
+ * As movimentações referenciam outros clientes, então ao gravar vários clientes os dados de todos vêm antes
+ * das movimentações (ver {@code CodecCliente}). No arquivo de clientes as movimentações de cada conta formam um bloco
+ * independente, que pode ser copiado ou lido sem os demais (ver {@link BlocoMovimentacoes}).
+ * <p>
+ * As duas partes são gravadas com a trava da conta ({@link TravasContas}), já que o snapshot grava as contas enquanto
+ * os atendimentos continuam.
+ */
+public class CodecConta implements Codec<Conta> {
+	private static final byte CONTA = 0;
+	private static final byte STANDARD = 1;
+	private static final byte PREMIUM = 2;
+	private static final byte DIAMOND = 3;
+	private static final CodecCartao CODEC_CARTAO = new CodecCartao();
+	private static final CodecFatura CODEC_FATURA = new CodecFatura();
+	private static final CodecTransacao CODEC_TRANSACAO = new CodecTransacao();
+
+	@Override
+	public void escrever(DataOutput saida, Conta conta, ContextoCodec contexto) throws IOException {
+		escreverDados(saida, conta, contexto);
+		escreverMovimentacoes(saida, conta, contexto);
+	}
+
+	@Override
+	public Conta ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		Conta conta = lerDados(entrada, contexto);
+		lerMovimentacoes(entrada, conta, contexto);
+		return conta;
+	}
+
+	public void escreverDados(DataOutput saida, Conta conta, ContextoCodec contexto) throws IOException {
+		if (conta instanceof ContaDiamond) {
+			saida.writeByte(DIAMOND);
+		} else if (conta instanceof ContaPremium) {
+			saida.writeByte(PREMIUM);
+		} else if (conta instanceof ContaStandard) {
+			saida.writeByte(STANDARD);
+		} else {
+			saida.writeByte(CONTA);
+		}
+		DadosBinarios.escreverTexto(saida, conta.ID_CONTA);
+		TravasContas.travar(conta);
+		try {
+			conta.gravarEstado(saida);
+			CODEC_CARTAO.escreverColecao(saida, conta.CARTEIRA.getListaDeCartoes(), contexto);
+		} finally {
+			TravasContas.destravar(conta);
+		}
+	}
+
+	public Conta lerDados(DataInput entrada, ContextoCodec contexto) throws IOException {
+		byte tipo = entrada.readByte();
+		String idConta = DadosBinarios.lerTexto(entrada);
+		Conta conta;
+		switch (tipo) {
+			case CONTA:
+				conta = new Conta(idConta);
+				break;
+			case STANDARD:
+				conta = new ContaStandard(idConta);
+				break;
+			case PREMIUM:
+				conta = new ContaPremium(idConta);
+				break;
+			case DIAMOND:
+				conta = new ContaDiamond(idConta);
+				break;
+			default:
+				throw new IOException("Tipo de conta invalido");
+		}
+		conta.restaurarEstado(entrada, contexto.getVersao(Esquema.CONTA));
+		List<Cartao> cartoes = new ArrayList<>();
+		CODEC_CARTAO.lerColecao(entrada, cartoes, contexto);
+		for (Cartao cartao : cartoes) {
+			conta.CARTEIRA.adicionarNovoCartao(cartao);
+		}
+		return conta;
+	}
+
+	public void escreverMovimentacoes(DataOutput saida, Conta conta, ContextoCodec contexto) throws IOException {
+		TravasContas.travar(conta);
+		try {
+			CODEC_TRANSACAO.escreverColecao(saida, conta.TRANSACOES_REALIZADAS, contexto);
+			CODEC_TRANSACAO.escreverColecao(saida, conta.TRANSACOES_AGENDADAS, contexto);
+			escreverHistorico(saida, conta.HISTORICO, contexto);
+			escreverHistorico(saida, conta.notificacoes, contexto);
+		} finally {
+			TravasContas.destravar(conta);
+		}
+	}
+
+	public void lerMovimentacoes(DataInput entrada, Conta conta, ContextoCodec contexto) throws IOException {
+		CODEC_TRANSACAO.lerColecao(entrada, conta.TRANSACOES_REALIZADAS, contexto);
+		CODEC_TRANSACAO.lerColecao(entrada, conta.TRANSACOES_AGENDADAS, contexto);
+		lerHistorico(entrada, conta.HISTORICO, contexto);
+		lerHistorico(entrada, conta.notificacoes, contexto);
+	}
+
+	/**
+	 * Codifica as movimentações da conta como um bloco independente (ver {@link ContextoCodec#iniciarBloco()}). Um bloco
+	 * ainda não lido e gravado com as mesmas versões é copiado como está; com versões antigas ele é decodificado em uma
+	 * conta temporária, sem carregar a conta. Se o bloco ainda não foi lido é conferido com a trava da conta, já que
+	 * outro atendimento pode carregar e alterar as movimentações a qualquer momento antes dela.
+	 */
+	public byte[] codificarMovimentacoes(Conta conta, ContextoCodec contexto) throws IOException {
+		TravasContas.travar(conta);
+		try {
+			Conta origem = conta;
+			BlocoMovimentacoes noArquivo = conta.getMovimentacoesNoArquivo();
+			if (noArquivo != null) {
+				byte[] gravado;
+				BlocoMovimentacoes.travarLeitura();
+				try {
+					gravado = noArquivo.lerBytes();
+				} finally {
+					BlocoMovimentacoes.destravarLeitura();
+				}
+				if (noArquivo.mesmasVersoes(contexto)) {
+					return gravado;
+				}
+				origem = new Conta(conta.ID_CONTA);
+				decodificarMovimentacoes(gravado, origem, noArquivo.novoContexto());
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream saida = new DataOutputStream(bytes);
+			contexto.iniciarBloco();
+			escreverMovimentacoes(saida, origem, contexto);
+			saida.flush();
+			return bytes.toByteArray();
+		} finally {
+			TravasContas.destravar(conta);
+		}
+	}
+
+	void decodificarMovimentacoes(byte[] bloco, Conta conta, ContextoCodec contexto) throws IOException {
+		lerMovimentacoes(new DataInputStream(new ByteArrayInputStream(bloco)), conta, contexto);
+	}
+
+	private void escreverHistorico(DataOutput saida, Historico historico, ContextoCodec contexto) throws IOException {
+		CODEC_TRANSACAO.escreverColecao(saida, historico.getTransacoes(), contexto);
+		CODEC_FATURA.escreverColecao(saida, historico.getFaturas(), contexto);
+	}
+
+	private void lerHistorico(DataInput entrada, Historico historico, ContextoCodec contexto) throws IOException {
+		List<Transacao> transacoes = new ArrayList<>();
+		CODEC_TRANSACAO.lerColecao(entrada, transacoes, contexto);
+		historico.restaurarTransacoes(transacoes);
+		List<Fatura> faturas = new ArrayList<>();
+		CODEC_FATURA.lerColecao(entrada, faturas, contexto);
+		for (Fatura fatura : faturas) {
+			historico.addFaturas(fatura);
+		}
+	}
+}
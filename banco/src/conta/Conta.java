@@ -1,101 +1,212 @@
 package conta;
 
 import agencia.Agencia;
+import agencia.DiretorioPix;
+import agencia.exceptions.InsercaoException;
 import cartao.*;
 import cliente.Cliente;
 import conta.exceptions.TipoInvalido;
 import conta.exceptions.TransacaoNaoRealizadaException;
 import funcionalidades.exceptions.EmprestimoException;
-import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.dados.DadosCartao;
 import interfaceUsuario.dados.DadosChavesPix;
 import interfaceUsuario.dados.DadosTransacao;
-import interfaceUsuario.menus.MenuUsuario;
 import transacao.Boleto;
 import transacao.ChavePix;
+import transacao.LoteTransferencias;
 import transacao.Transacao;
+import transacao.exceptions.LoteIncompletoException;
+import transacao.exceptions.SaldoInsuficienteException;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.LivroSaldos;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.cache.CacheMovimentacoes;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 import java.util.logging.Logger;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class Conta implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 2L;
+public class Conta {
+    /**
+     * Opções de {@link #setDinheiroGuardado(double, String)}
+     */
+    public static final String GUARDAR = "guardado";
+    public static final String RESGATAR = "resgatado";
     protected final String ID_CONTA;
-    protected final List<Transacao> TRANSACOES_REALIZADAS;
+    /**
+     * Na ordem em que foram realizadas; a busca por duplicatas é feita pelo hash
+     */
+    protected final Set<Transacao> TRANSACOES_REALIZADAS;
     protected final List<Transacao> TRANSACOES_AGENDADAS;
     protected final Historico HISTORICO;
     protected final GerenciamentoCartao CARTEIRA;
     protected final ChavePix CHAVES_PIX;
     protected Historico notificacoes;
-    protected Double saldo;
-    protected Double saldoTotalDepositado;
-    protected Double dinheiroGuardado;
-    protected Double emprestimo;
-    protected Double parcelaEmprestimo;
+    /**
+     * Valores em centavos, ver {@link Dinheiro}
+     */
+    protected long saldo;
+    protected long saldoTotalDepositado;
+    protected long dinheiroGuardado;
+    protected long emprestimo;
+    protected long parcelaEmprestimo;
+    /**
+     * Aumenta a cada valor alterado. Vai junto com os valores para o snapshot, o journal e o {@link LivroSaldos}, para
+     * que na inicialização valha o mais recente deles.
+     */
+    protected int sequenciaValores;
     private static final Logger LOGGER = Logger.getLogger(Conta.class.getName());
+    /**
+     * Enquanto verdadeiro as alterações não vão para o {@link LivroSaldos}, ver {@link #travarTodas()}. Só muda com
+     * todas as travas obtidas.
+     */
+    private static volatile boolean livroSuspenso;
+    private static final CodecConta CODEC_CONTA = new CodecConta();
+    /**
+     * Numera os acessos às movimentações de todas as contas, para saber quais foram usadas há mais tempo
+     */
+    private static final AtomicLong ACESSOS = new AtomicLong();
+    /**
+     * Recebido da agência junto com a identificação do titular, ver {@link #iniciarRegistro}
+     */
+    private volatile RegistroOperacoes registro = RegistroOperacoes.NENHUM;
+    private volatile String titular;
+    /**
+     * Créditos dos favorecidos de um lote, que esperam pela trava de cada conta; por isso não usam o pool comum
+     */
+    private static final ExecutorService CREDITOS_LOTE = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), tarefa -> {
+                Thread thread = new Thread(tarefa, "creditos-lote");
+                thread.setDaemon(true);
+                return thread;
+            });
+    /**
+     * Bloco de onde as movimentações ainda serão lidas, ou {@code null} caso já estejam em memória
+     */
+    private final AtomicReference<BlocoMovimentacoes> movimentacoesNoArquivo = new AtomicReference<>();
+    private volatile BlocoMovimentacoes ultimoBlocoGravado;
+    private volatile long ultimoAcesso;
+    /**
+     * Primeira versão de {@link utilsBank.arquivo.codec.Esquema#CONTA} com os valores em centavos
+     */
+    static final int VERSAO_CENTAVOS = 2;
+    /**
+     * Primeira versão de {@link utilsBank.arquivo.codec.Esquema#CONTA} com a {@link #sequenciaValores}
+     */
+    static final int VERSAO_SEQUENCIA = 3;
 
     protected Conta() {
-        this.ID_CONTA = GeracaoAleatoria.gerarIdConta(GeracaoAleatoria.TAMANHO_ID_CONTA);
-        this.saldo = 0.0;
-        this.dinheiroGuardado = 0.0;
-        this.saldoTotalDepositado = 0.0;
-        this.TRANSACOES_REALIZADAS = new ArrayList<>();
+        this(GeracaoAleatoria.gerarIdConta(GeracaoAleatoria.TAMANHO_ID_CONTA));
+    }
+
+    /**
+     * Cria uma conta vazia com um identificador já gerado. Usado pelo {@link CodecConta}.
+     */
+    protected Conta(String idConta) {
+        this.ID_CONTA = idConta;
+        this.TRANSACOES_REALIZADAS = new LinkedHashSet<>();
         this.TRANSACOES_AGENDADAS = new ArrayList<>();
         this.notificacoes = new Historico();
-        this.HISTORICO = new Historico();
+        this.HISTORICO = new Historico(idConta);
         this.CARTEIRA = new GerenciamentoCartao();
-        this.emprestimo = 0.0;
-        this.parcelaEmprestimo = 0.0;
         this.CHAVES_PIX = new ChavePix(null, null, null, null);
     }
 
     /**
      * Com os dados da chave pix tratados na Interface chama CHAVES_PIX.mudarAdicionarChavePix
      *
+     * @param diretorio diretório Pix da agência, onde a troca é registrada
      * @return @code true ou @code false caso mudou ou não
      */
+    public boolean modificarChavePix(DadosChavesPix dadosChavePix, DiretorioPix diretorio) throws EscritaArquivoException {
+        TravasContas.travar(this);
+        try {
+            if (CHAVES_PIX.mudarAdicionarChavePix(dadosChavePix.getTipoChave(), dadosChavePix, diretorio)) {
+                registrarEstado();
+                return true;
+            }
+            return false;
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
 
-    public boolean modificarChavePix() {
-        DadosChavesPix dadosChavePix = InterfaceUsuario.getDadosChavePix();
-        return CHAVES_PIX.mudarAdicionarChavePix(dadosChavePix.getTipoChave(), dadosChavePix);
+    /**
+     * Passa a chave de identificação (CPF ou CNPJ) para o titular e registra as chaves no diretório Pix
+     */
+    public void setIdentificacaoPix(String identificacao, DiretorioPix diretorio) throws InsercaoException, EscritaArquivoException {
+        TravasContas.travar(this);
+        try {
+            CHAVES_PIX.setIdentificacao(identificacao, diretorio);
+            registrarEstado();
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
     public boolean addTransacaoRealizada(Transacao t) {
-        if (!TRANSACOES_REALIZADAS.contains(t)) {
-            TRANSACOES_REALIZADAS.add(t);
-            return true;
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            return TRANSACOES_REALIZADAS.add(t);
+        } finally {
+            TravasContas.destravar(this);
         }
-        return false;
     }
 
     public boolean addTransacaoAgendadas(Transacao t) throws TransacaoException {
-        if (!TRANSACOES_AGENDADAS.contains(t)) {
-            this.HISTORICO.addTransacao(t);
-            TRANSACOES_AGENDADAS.add(t);
-            return true;
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            if (!TRANSACOES_AGENDADAS.contains(t)) {
+                this.HISTORICO.addTransacao(t);
+                TRANSACOES_AGENDADAS.add(t);
+                return true;
+            }
+            return false;
+        } finally {
+            TravasContas.destravar(this);
         }
-        return false;
     }
 
-    public Transacao agendarTransacao() throws TransacaoException {
-        DadosTransacao dadosTransacao = InterfaceUsuario.getDadosTransacao();
+    public Transacao agendarTransacao(DadosTransacao dadosTransacao) throws TransacaoException, EscritaArquivoException {
         Data dataAgendada = dadosTransacao.getDataAgendada();
         Transacao transacao = Transacao.criarTransacaoAgendada(dadosTransacao, dataAgendada);
-        if (addTransacaoAgendadas(transacao)) {
-            Agencia.getInstance().addTransacao(transacao);
-            return transacao;
+        TravasContas.travar(this);
+        try {
+            if (addTransacaoAgendadas(transacao)) {
+                Agencia.getInstance().addTransacao(transacao);
+                this.registro.registrarAgendamento(transacao);
+                return transacao;
+            }
+        } finally {
+            TravasContas.destravar(this);
         }
         throw new TransacaoNaoRealizadaException("Ocorreu algum erro ao realizar a Transacao. Tente novamente");
     }
 
+    /**
+     * Realiza uma transação agendada que venceu. Não é registrada no journal aqui: a atualização diária registra as
+     * transações do dia junto com o resto do dia, ver {@link #travarTodas()}.
+     */
     public Transacao realizarTransacaoAgendada(Transacao transacao) throws TransacaoException {
         if (transacao.getDataAgendada() == null) {
             throw new TransacaoException("Essa transacao ja foi realizada");
@@ -106,10 +217,14 @@ public class Conta implements Serializable {
     }
 
     public void apagarTransacaoAgendada(Transacao transacao) throws TransacaoException {
+        TravasContas.travar(this);
         try {
+            carregarMovimentacoes();
             this.TRANSACOES_AGENDADAS.remove(transacao);
         } catch (Exception ex) {
             throw new TransacaoException("Transacao nao encontrada");
+        } finally {
+            TravasContas.destravar(this);
         }
     }
 
@@ -120,40 +235,282 @@ public class Conta implements Serializable {
     }
 
     public void addHistorico(Transacao transacao) throws TransacaoException {
-        this.HISTORICO.addTransacao(transacao);
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            this.HISTORICO.addTransacao(transacao);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    public void addHistorico(Fatura fatura) {
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            this.HISTORICO.addFaturas(fatura);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    /**
+     * Refaz o histórico e as notificações de uma transferência ou depósito já realizado, sem mexer nos saldos.
+     * Usado na reprodução do journal, onde os saldos são restaurados pelo estado da conta. Cada conta é conferida
+     * separadamente: o snapshot grava uma conta de cada vez, então a transação pode já estar no histórico gravado da
+     * origem e ainda não no do destino.
+     */
+    public void restaurarTransacaoRealizada(Transacao transacao) throws TransacaoException {
+        addTransacaoRealizada(transacao);
+        restaurarHistoricoNotificacao(transacao);
+    }
+
+    /**
+     * Refaz uma transação agendada que a atualização diária realizou, sem mexer nos saldos, como
+     * {@link #restaurarTransacaoRealizada(Transacao)}
+     */
+    public static void restaurarTransacaoAgendada(Transacao transacao) throws TransacaoException {
+        if (transacao.getDataAgendada() != null) {
+            transacao.atualizar();
+        }
+        restaurarHistoricoNotificacao(transacao);
+    }
+
+    /**
+     * Refaz o histórico e as notificações de um boleto já pago, sem mexer nos saldos, como
+     * {@link #restaurarTransacaoRealizada(Transacao)}
+     */
+    public void restaurarBoletoPago(Boleto boleto) throws TransacaoException {
+        restaurarHistoricoNotificacao(boleto);
+    }
+
+    private static void restaurarHistoricoNotificacao(Transacao transacao) throws TransacaoException {
+        Conta origem = transacao.getContaOrigem();
+        Conta destino = transacao.getContaDestino();
+        origem.restaurarHistorico(transacao, false);
+        if (!destino.equals(origem)) {
+            destino.restaurarHistorico(transacao, true);
+        }
+    }
+
+    /**
+     * Coloca a transação no histórico caso ainda não esteja, e nas notificações junto quando {@code notificar}
+     */
+    private void restaurarHistorico(Transacao transacao, boolean notificar) throws TransacaoException {
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            if (!this.HISTORICO.contemTransacao(transacao.getNossoNumero())) {
+                this.HISTORICO.addTransacao(transacao);
+                if (notificar && !this.notificacoes.contemTransacao(transacao.getNossoNumero())) {
+                    this.notificacoes.addTransacao(transacao);
+                }
+            }
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    /**
+     * Debita o valor da origem e credita no destino como uma operação só: as duas contas ficam travadas (ver
+     * {@link TravasContas}) durante o débito e o crédito, então nenhuma outra operação vê ou altera os saldos no meio.
+     *
+     * @param valor em centavos
+     * @throws SaldoInsuficienteException caso a origem não tenha o valor, conferido com as duas contas travadas
+     */
+    static void movimentar(Conta origem, Conta destino, long valor) throws SaldoInsuficienteException {
+        TravasContas.travar(origem, destino);
+        try {
+            if (origem.saldo < valor) {
+                throw new SaldoInsuficienteException();
+            }
+            destino.aumentarSaldoCentavos(valor);
+            origem.diminuirSaldoCentavos(valor);
+        } finally {
+            TravasContas.destravar(origem, destino);
+        }
     }
 
     private void transferir(Transacao transacao) throws TransacaoException {
-        Double valorT = transacao.getValor();
-        transacao.getContaDestino().aumentarSaldo(valorT);
-        transacao.getContaOrigem().diminuirSaldo(valorT);
-        transacao.getContaDestino().addHistorico(transacao);
-        transacao.getContaDestino().addNotificacao(transacao);
+        Conta origem = transacao.getContaOrigem();
+        Conta destino = transacao.getContaDestino();
+        TravasContas.travar(origem, destino);
+        try {
+            movimentar(origem, destino, transacao.getValorCentavos());
+            destino.addHistorico(transacao);
+            destino.addNotificacao(transacao);
+        } finally {
+            TravasContas.destravar(origem, destino);
+        }
     }
 
-    public Transacao transferir() throws TransacaoException {
-        DadosTransacao dadosTransacao = InterfaceUsuario.getDadosTransacao();
+    /**
+     * Realiza a transferência (ou o depósito, quando origem e destino são a mesma conta) descrita pelos dados e a
+     * registra antes de destravar as contas
+     */
+    public Transacao transferir(DadosTransacao dadosTransacao) throws TransacaoException, EscritaArquivoException {
         Transacao transacao = new Transacao(dadosTransacao);
-        Double valorT = transacao.getValor();
+        long valorT = transacao.getValorCentavos();
+        Conta origem = transacao.getContaOrigem();
+        Conta destino = transacao.getContaDestino();
 
-        if (addTransacaoRealizada(transacao)) {
-            if (transacao.getContaDestino().equals(transacao.getContaOrigem())) {
-                this.setSaldoTotalDepositado(valorT);
-                transacao.getContaDestino().aumentarSaldo(valorT);
-                transacao.getContaOrigem().addHistorico(transacao);
-            } else {
-                transacao.getContaDestino().aumentarSaldo(valorT);
-                transacao.getContaOrigem().diminuirSaldo(valorT);
-                adicionarHistoricoNotificacao(transacao);
+        TravasContas.travar(origem, destino);
+        try {
+            // conferido antes de a transação entrar nas realizadas, para uma recusa não deixar rastro
+            if (!destino.equals(origem) && origem.saldo < valorT) {
+                throw new SaldoInsuficienteException();
+            }
+            if (addTransacaoRealizada(transacao)) {
+                if (destino.equals(origem)) {
+                    this.saldoTotalDepositado = valorT;
+                    destino.aumentarSaldoCentavos(valorT);
+                    origem.addHistorico(transacao);
+                } else {
+                    movimentar(origem, destino, valorT);
+                    adicionarHistoricoNotificacao(transacao);
+                }
+                origem.registro.registrarTransacao(transacao);
+                return transacao;
             }
-            return transacao;
+        } finally {
+            TravasContas.destravar(origem, destino);
         }
 
         throw new TransacaoNaoRealizadaException("Ocorreu algum erro ao realizar a Transacao. Tente novamente");
     }
 
-    public Transacao depositar() throws TransacaoException {
-        return transferir();
+    /**
+     * Paga as transações de um lote (ver {@link LoteTransferencias}) como uma operação só: com esta conta travada,
+     * carrega as movimentações, confere o saldo e os itens, debita a soma de uma vez e coloca os itens no histórico;
+     * depois credita os favorecidos em paralelo, cada um com a trava da própria conta. Enquanto os créditos não
+     * terminam, o dinheiro ainda não creditado não aparece em nenhuma conta. Os itens cujo crédito falha são
+     * estornados para esta conta e tirados do histórico.
+     * <p>
+     * O lote é registrado com os itens pagos depois dos créditos, já sem as travas: as contas dos favorecidos não podem
+     * ficar todas travadas de uma vez, e o estado de cada conta vai no registro com a sua sequência de valores.
+     *
+     * @throws LoteIncompletoException  caso algum favorecido não tenha sido creditado, com os itens que foram pagos
+     * @throws TransacaoException caso o saldo não cubra o lote ou algum item já tenha sido realizado, e nesse caso nada
+     *                            é movimentado
+     */
+    public void transferirLote(LoteTransferencias lote) throws TransacaoException, EscritaArquivoException {
+        if (lote.getOrigem().getConta() != this) {
+            throw new TransacaoException("O lote nao pertence a esta conta");
+        }
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            if (this.saldo < lote.getTotalCentavos()) {
+                throw new SaldoInsuficienteException();
+            }
+            for (Transacao item : lote.getItens()) {
+                if (this.TRANSACOES_REALIZADAS.contains(item) || this.HISTORICO.contemTransacao(item.getNossoNumero())) {
+                    throw new TransacaoException("Transacao ja existe");
+                }
+            }
+            diminuirSaldoCentavos(lote.getTotalCentavos());
+            this.TRANSACOES_REALIZADAS.addAll(lote.getItens());
+            for (Transacao item : lote.getItens()) {
+                this.HISTORICO.addTransacao(item);
+            }
+        } finally {
+            TravasContas.destravar(this);
+        }
+
+        List<Future<Exception>> creditos = new ArrayList<>(lote.getItens().size());
+        for (Transacao item : lote.getItens()) {
+            creditos.add(CREDITOS_LOTE.submit(() -> creditarItemLote(item)));
+        }
+        List<Transacao> pagos = new ArrayList<>(lote.getItens().size());
+        List<String> erros = new ArrayList<>();
+        for (int i = 0; i < creditos.size(); i++) {
+            Transacao item = lote.getItens().get(i);
+            Exception falha = aguardar(creditos.get(i));
+            if (falha == null) {
+                pagos.add(item);
+            } else {
+                estornarItemLote(item);
+                erros.add(item.getClienteDestino().getNome() + ": " + falha.getMessage());
+            }
+        }
+        LoteTransferencias realizado = erros.isEmpty() ? lote : lote.comItens(pagos);
+        if (!pagos.isEmpty()) {
+            this.registro.registrarLote(realizado);
+        }
+        if (!erros.isEmpty()) {
+            throw new LoteIncompletoException("Transferencias nao realizadas e estornadas\n" + String.join("\n", erros),
+                    realizado);
+        }
+    }
+
+    /**
+     * Credita um item de lote no favorecido. Tudo que pode falhar é feito antes do crédito, então se há falha nada foi
+     * alterado no favorecido.
+     *
+     * @return a falha, ou {@code null} caso o item tenha sido creditado
+     */
+    private static Exception creditarItemLote(Transacao item) {
+        Conta destino = item.getContaDestino();
+        TravasContas.travar(destino);
+        try {
+            destino.carregarMovimentacoes();
+            if (destino.HISTORICO.contemTransacao(item.getNossoNumero())) {
+                throw new TransacaoException("Transacao ja existe");
+            }
+            destino.HISTORICO.addTransacao(item);
+            if (!destino.notificacoes.contemTransacao(item.getNossoNumero())) {
+                destino.notificacoes.addTransacao(item);
+            }
+            destino.aumentarSaldoCentavos(item.getValorCentavos());
+            return null;
+        } catch (TransacaoException | RuntimeException ex) {
+            return ex;
+        } finally {
+            TravasContas.destravar(destino);
+        }
+    }
+
+    /**
+     * Devolve para a origem um item de lote que não foi creditado. O saldo volta antes de o item sair do histórico,
+     * que pode precisar ser lido do arquivo.
+     */
+    private static void estornarItemLote(Transacao item) {
+        Conta origem = item.getContaOrigem();
+        TravasContas.travar(origem);
+        try {
+            origem.aumentarSaldoCentavos(item.getValorCentavos());
+            origem.carregarMovimentacoes();
+            origem.TRANSACOES_REALIZADAS.remove(item);
+            origem.HISTORICO.removerTransacao(item);
+        } finally {
+            TravasContas.destravar(origem);
+        }
+    }
+
+    /**
+     * Espera o crédito de um item terminar mesmo se a thread for interrompida, já que o débito já foi feito
+     */
+    private static Exception aguardar(Future<Exception> credito) {
+        boolean interrompida = false;
+        try {
+            while (true) {
+                try {
+                    return credito.get();
+                } catch (InterruptedException ex) {
+                    interrompida = true;
+                } catch (ExecutionException ex) {
+                    return ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+                }
+            }
+        } finally {
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public Transacao depositar(DadosTransacao dadosTransacao) throws TransacaoException, EscritaArquivoException {
+        return transferir(dadosTransacao);
     }
 
     public void mostrarCartoes() {
@@ -164,16 +521,71 @@ public class Conta implements Serializable {
         }
     }
 
-    public void pagarBoleto(Boleto boleto, Cliente origem) throws TransacaoException {
+    public void pagarBoleto(Boleto boleto, Cliente origem) throws TransacaoException, EscritaArquivoException {
+        Conta destino = boleto.getContaDestino();
+        TravasContas.travar(this, destino);
+        try {
+            liquidarBoleto(boleto, origem, destino);
+            this.registro.registrarBoletoPago(boleto);
+        } finally {
+            TravasContas.destravar(this, destino);
+        }
+    }
+
+    /**
+     * Paga um lote de boletos como uma operação só: trava as contas de todos os pagadores e beneficiários, paga os
+     * boletos na ordem e registra os pagos em um registro só antes de destravar as contas, então nenhuma outra operação
+     * vê os pagamentos antes do registro. Um boleto recusado (já pago, saldo insuficiente) não altera nenhuma conta e
+     * fica fora do registro.
+     *
+     * @param pagadores quem paga cada boleto, na mesma posição
+     * @return o motivo da recusa de cada boleto, na mesma posição, ou {@code null} para os pagos
+     */
+    public static List<TransacaoException> pagarBoletos(List<Boleto> boletos, List<Cliente> pagadores,
+                                                        RegistroOperacoes registro) throws EscritaArquivoException {
+        List<Conta> contas = new ArrayList<>(boletos.size() * 2);
+        for (int i = 0; i < boletos.size(); i++) {
+            contas.add(pagadores.get(i).getConta());
+            contas.add(boletos.get(i).getContaDestino());
+        }
+        List<TransacaoException> recusas = new ArrayList<>(boletos.size());
+        List<Boleto> pagos = new ArrayList<>(boletos.size());
+        TravasContas.travar(contas);
+        try {
+            for (int i = 0; i < boletos.size(); i++) {
+                Boleto boleto = boletos.get(i);
+                Cliente pagador = pagadores.get(i);
+                try {
+                    pagador.getConta().liquidarBoleto(boleto, pagador, contas.get(2 * i + 1));
+                    pagos.add(boleto);
+                    recusas.add(null);
+                } catch (TransacaoException ex) {
+                    recusas.add(ex);
+                }
+            }
+            if (!pagos.isEmpty()) {
+                registro.registrarBoletosPagos(pagos);
+            }
+        } finally {
+            TravasContas.destravar(contas);
+        }
+        return recusas;
+    }
+
+    /**
+     * Paga o boleto com a multa por atraso, sem registrar. Chamado com esta conta e a do beneficiário (destino)
+     * travadas.
+     */
+    private void liquidarBoleto(Boleto boleto, Cliente origem, Conta destino) throws TransacaoException {
         int intervalo = DataBank.criarData(DataBank.SEM_HORA).calcularIntervalo(boleto.getDataVencimento());
-        Double valorTratado = (intervalo < 0) ? boleto.getMultaPorDias() * -intervalo : boleto.getMultaPorDias();
-        valorTratado += boleto.getValor();
+        long multa = boleto.getMultaDiasCentavos();
+        long valorTratado = (intervalo < 0) ? multa * -intervalo : multa;
+        valorTratado += boleto.getValorCentavos();
         if (this.saldo < valorTratado) {
-            throw new TransacaoException("Saldo insuficiente");
+            throw new SaldoInsuficienteException();
         }
         boleto.pagar(origem);
-        this.diminuirSaldo(valorTratado);
-        boleto.getContaDestino().aumentarSaldo(valorTratado);
+        movimentar(this, destino, valorTratado);
         adicionarHistoricoNotificacao(boleto);
     }
 
@@ -190,90 +602,196 @@ public class Conta implements Serializable {
             throw new TipoInvalido("Tipo do cartao invalido.");
         }
 
-        this.CARTEIRA.adicionarNovoCartao(cartao);
+        TravasContas.travar(this);
+        try {
+            this.CARTEIRA.adicionarNovoCartao(cartao);
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
-    public void criarEmprestimo(Double valor, Integer parcelas) {
-        this.emprestimo = valor;
-        this.parcelaEmprestimo = valor / parcelas;
-        this.aumentarSaldo(valor);
+    public void criarEmprestimo(double valor, int parcelas) throws EscritaArquivoException {
+        TravasContas.travar(this);
+        try {
+            this.emprestimo = Dinheiro.centavos(valor);
+            this.parcelaEmprestimo = Dinheiro.dividirEmParcelas(this.emprestimo, parcelas);
+            gravarNoLivro(LivroSaldos.Campo.EMPRESTIMO, this.emprestimo);
+            gravarNoLivro(LivroSaldos.Campo.PARCELA_EMPRESTIMO, this.parcelaEmprestimo);
+            this.aumentarSaldoCentavos(this.emprestimo);
+            registrarEstado();
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
-    public void pagarEmprestimo() throws EmprestimoException {
-        if (this.emprestimo <= this.saldo) {
-            Agencia.getInstance().addSaldo(this.emprestimo);
-            this.saldo -= this.emprestimo;
-            this.emprestimo = 0.0;
-            this.parcelaEmprestimo = 0.0;
-        } else {
-            throw new EmprestimoException("Saldo insuficiente");
+    public void pagarEmprestimo() throws EmprestimoException, EscritaArquivoException {
+        TravasContas.travar(this);
+        try {
+            if (this.emprestimo <= this.saldo) {
+                Agencia.getInstance().addSaldoCentavos(this.emprestimo);
+                this.saldo -= this.emprestimo;
+                this.emprestimo = 0;
+                this.parcelaEmprestimo = 0;
+                gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+                gravarNoLivro(LivroSaldos.Campo.EMPRESTIMO, this.emprestimo);
+                gravarNoLivro(LivroSaldos.Campo.PARCELA_EMPRESTIMO, this.parcelaEmprestimo);
+                registrarEstado();
+            } else {
+                throw new EmprestimoException("Saldo insuficiente");
+            }
+        } finally {
+            TravasContas.destravar(this);
         }
     }
 
-    public void pagarParcelaEmprestimo() throws EmprestimoException {
-        double parcela;
-        if (this.emprestimo < this.parcelaEmprestimo) {
-            parcela = this.emprestimo;
-        } else {
-            parcela = this.parcelaEmprestimo;
-        }
-        if (parcela <= this.saldo) {
-            Agencia.getInstance().addSaldo(parcela);
-            this.saldo -= parcela;
-            this.emprestimo -= parcela;
-            if (this.emprestimo == 0) {
-                this.parcelaEmprestimo = 0.0;
+    public void pagarParcelaEmprestimo() throws EmprestimoException, EscritaArquivoException {
+        TravasContas.travar(this);
+        try {
+            long parcela;
+            if (this.emprestimo < this.parcelaEmprestimo) {
+                parcela = this.emprestimo;
+            } else {
+                parcela = this.parcelaEmprestimo;
             }
-        } else {
-            throw new EmprestimoException("Saldo insuficiente");
+            if (parcela <= this.saldo) {
+                Agencia.getInstance().addSaldoCentavos(parcela);
+                this.saldo -= parcela;
+                this.emprestimo -= parcela;
+                if (this.emprestimo == 0) {
+                    this.parcelaEmprestimo = 0;
+                    gravarNoLivro(LivroSaldos.Campo.PARCELA_EMPRESTIMO, this.parcelaEmprestimo);
+                }
+                gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+                gravarNoLivro(LivroSaldos.Campo.EMPRESTIMO, this.emprestimo);
+                registrarEstado();
+            } else {
+                throw new EmprestimoException("Saldo insuficiente");
+            }
+        } finally {
+            TravasContas.destravar(this);
         }
     }
 
-    public void pagarFatura(Double valor) {
-        this.CARTEIRA.aumentarLimiteAtual(valor);
-        this.saldo -= valor;
+    public void pagarFatura(double valor) {
+        long centavos = Dinheiro.centavos(valor);
+        TravasContas.travar(this);
+        try {
+            this.CARTEIRA.aumentarLimiteAtualCentavos(centavos);
+            this.diminuirSaldoCentavos(centavos);
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
-    public boolean aumentarFatura(Double valor) {
-        this.CARTEIRA.diminuirLimiteAtual(valor);
+    public boolean aumentarFatura(double valor) {
+        TravasContas.travar(this);
+        try {
+            this.CARTEIRA.diminuirLimiteAtual(valor);
+        } finally {
+            TravasContas.destravar(this);
+        }
         return true;
     }
 
-    public void aumentarSaldo(Double valor) {
-        this.saldo += valor;
+    public void aumentarSaldo(double valor) {
+        this.aumentarSaldoCentavos(Dinheiro.centavos(valor));
     }
 
-    private void diminuirSaldo(Double valor) {
-        this.saldo -= valor;
+    public void aumentarSaldoCentavos(long valor) {
+        TravasContas.travar(this);
+        try {
+            this.saldo += valor;
+            gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    private void diminuirSaldoCentavos(long valor) {
+        TravasContas.travar(this);
+        try {
+            this.saldo -= valor;
+            gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    protected void renderSaldo(double fator) {
+        TravasContas.travar(this);
+        try {
+            this.saldo += Dinheiro.aplicarTaxa(this.saldo, fator);
+            gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    protected void renderDinheiroGuardado(double fator) {
+        TravasContas.travar(this);
+        try {
+            this.dinheiroGuardado += Dinheiro.aplicarTaxa(this.dinheiroGuardado, fator);
+            gravarNoLivro(LivroSaldos.Campo.DINHEIRO_GUARDADO, this.dinheiroGuardado);
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
     public boolean hasEmprestimo() {
-        return this.emprestimo > 0.0;
+        return this.emprestimo > 0;
     }
 
     public boolean hasNotificacoes() {
+        carregarMovimentacoes();
         return !this.notificacoes.getTransacoes().isEmpty();
     }
 
     public void addNotificacao(Transacao transacao) throws TransacaoException {
-        this.notificacoes.addTransacao(transacao);
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            this.notificacoes.addTransacao(transacao);
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
     public void addNotificacao(Fatura fatura) {
-        this.notificacoes.addFaturas(fatura);
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            this.notificacoes.addFaturas(fatura);
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
     public void resetarNotificacoes() {
-        this.notificacoes = new Historico();
+        TravasContas.travar(this);
+        try {
+            carregarMovimentacoes();
+            this.notificacoes = new Historico();
+        } finally {
+            TravasContas.destravar(this);
+        }
     }
 
-    public void setDinheiroGuardado(Double valor, String opcao) {
-        if (opcao.equals(MenuUsuario.GUARDAR)) {
-            this.saldo -= valor;
-            this.dinheiroGuardado += valor;
-        } else if (opcao.equals(MenuUsuario.RESGATAR)) {
-            this.saldo += valor;
-            this.dinheiroGuardado -= valor;
+    public void setDinheiroGuardado(double valor, String opcao) throws EscritaArquivoException {
+        long centavos = Dinheiro.centavos(valor);
+        TravasContas.travar(this);
+        try {
+            if (opcao.equals(GUARDAR)) {
+                this.saldo -= centavos;
+                this.dinheiroGuardado += centavos;
+            } else if (opcao.equals(RESGATAR)) {
+                this.saldo += centavos;
+                this.dinheiroGuardado -= centavos;
+            }
+            gravarNoLivro(LivroSaldos.Campo.SALDO, this.saldo);
+            gravarNoLivro(LivroSaldos.Campo.DINHEIRO_GUARDADO, this.dinheiroGuardado);
+            registrarEstado();
+        } finally {
+            TravasContas.destravar(this);
         }
 
     }
@@ -286,41 +804,336 @@ public class Conta implements Serializable {
         return CHAVES_PIX;
     }
 
-    public Double getSaldoTotalDepositado() {
-        return saldoTotalDepositado;
+    public double getSaldoTotalDepositado() {
+        return Dinheiro.reais(saldoTotalDepositado);
     }
 
-    public void setSaldoTotalDepositado(Double saldoTotalDepositado) {
-        this.saldoTotalDepositado = saldoTotalDepositado;
+    public void setSaldoTotalDepositado(double saldoTotalDepositado) {
+        this.saldoTotalDepositado = Dinheiro.centavos(saldoTotalDepositado);
     }
 
-    public Double getDinheiroGuardado() {
-        return dinheiroGuardado;
+    public double getDinheiroGuardado() {
+        return Dinheiro.reais(dinheiroGuardado);
     }
 
     public GerenciamentoCartao getCARTEIRA() {
         return this.CARTEIRA;
     }
 
-    public Double getSaldo() {
+    public double getSaldo() {
+        return Dinheiro.reais(saldo);
+    }
+
+    public long getSaldoCentavos() {
         return saldo;
     }
 
-    public Double getEmprestimo() {
-        return emprestimo;
+    public double getEmprestimo() {
+        return Dinheiro.reais(emprestimo);
     }
 
-    public Double getParcelaEmprestimo() {
-        return this.parcelaEmprestimo;
+    public double getParcelaEmprestimo() {
+        return Dinheiro.reais(this.parcelaEmprestimo);
     }
 
     public List<Transacao> getNotificacoes() {
+        carregarMovimentacoes();
         return this.notificacoes.getTransacoes();
     }
 
     public Historico getHistorico() {
+        carregarMovimentacoes();
         return HISTORICO;
     }
+
+    /**
+     * Tira da memória o histórico anterior ao limite (ver {@link Historico#DIAS_EM_MEMORIA}). As transações realizadas
+     * antigas também saem da lista usada para evitar transações repetidas, já que nenhuma transação nova tem data
+     * anterior ao limite. Movimentações que ainda estão no arquivo de clientes ficam para quando forem carregadas.
+     *
+     * @return quantidade de transações arquivadas
+     */
+    public int arquivarHistorico(Data limite) throws EscritaArquivoException {
+        if (!isMovimentacoesCarregadas()) {
+            return 0;
+        }
+        TravasContas.travar(this);
+        try {
+            int arquivadas = HISTORICO.arquivarAntesDe(limite);
+            TRANSACOES_REALIZADAS.removeIf(transacao -> Historico.dataEfetiva(transacao).antesDe(limite));
+            return arquivadas;
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    /**
+     * Extrato das transações da conta no período, em páginas da mais recente para a mais antiga
+     *
+     * @param inicio primeiro dia do período, {@code null} para desde o começo
+     * @param fim    último dia do período, {@code null} para até hoje
+     */
+    public CursorExtrato<Transacao> extrato(Data inicio, Data fim, int tamanhoPagina) {
+        carregarMovimentacoes();
+        return HISTORICO.consultarTransacoes(inicio, fim, tamanhoPagina);
+    }
+
+    /**
+     * Extrato das faturas pagas no período, nos mesmos moldes de {@link #extrato(Data, Data, int)}
+     */
+    public CursorExtrato<Fatura> extratoFaturas(Data inicio, Data fim, int tamanhoPagina) {
+        carregarMovimentacoes();
+        return HISTORICO.consultarFaturas(inicio, fim, tamanhoPagina);
+    }
+
+    /**
+     * Deixa as movimentações no arquivo até o primeiro acesso. Usado pelo {@code CodecCliente} na leitura de uma conta
+     * ainda vazia.
+     */
+    public void adiarMovimentacoes(BlocoMovimentacoes bloco) {
+        this.movimentacoesNoArquivo.set(bloco);
+    }
+
+    public BlocoMovimentacoes getMovimentacoesNoArquivo() {
+        return this.movimentacoesNoArquivo.get();
+    }
+
+    public boolean isMovimentacoesCarregadas() {
+        return this.movimentacoesNoArquivo.get() == null;
+    }
+
+    /**
+     * @return número do último acesso às movimentações; quanto menor, há mais tempo a conta não é usada
+     */
+    public long getUltimoAcesso() {
+        return this.ultimoAcesso;
+    }
+
+    /**
+     * Lê do arquivo as movimentações adiadas, caso ainda não tenham sido lidas. Chamado antes de todo acesso ao
+     * histórico, às notificações e às listas de transações. Uma leitura do arquivo é avisada ao
+     * {@link CacheMovimentacoes}, depois de soltar a trava da conta.
+     *
+     * @throws LeituraArquivoException caso o bloco não possa ser lido
+     */
+    public void carregarMovimentacoes() {
+        if (this.movimentacoesNoArquivo.get() != null) {
+            boolean carregou = false;
+            TravasContas.travar(this);
+            try {
+                synchronized (this) {
+                    BlocoMovimentacoes bloco;
+                    byte[] bytes = null;
+                    BlocoMovimentacoes.travarLeitura();
+                    try {
+                        bloco = this.movimentacoesNoArquivo.get();
+                        if (bloco != null) {
+                            bytes = bloco.lerBytes();
+                        }
+                    } catch (IOException ex) {
+                        throw new LeituraArquivoException("Movimentacoes da conta nao puderam ser lidas");
+                    } finally {
+                        BlocoMovimentacoes.destravarLeitura();
+                    }
+                    if (bloco != null) {
+                        try {
+                            CODEC_CONTA.decodificarMovimentacoes(bytes, this, bloco.novoContexto());
+                        } catch (IOException ex) {
+                            throw new LeituraArquivoException("Movimentacoes da conta nao puderam ser lidas");
+                        }
+                        this.movimentacoesNoArquivo.set(null);
+                        carregou = true;
+                    }
+                }
+            } finally {
+                TravasContas.destravar(this);
+            }
+            CacheMovimentacoes cache = CacheMovimentacoes.getInstance();
+            if (carregou && cache != null) {
+                cache.registrarCarga(this);
+            }
+        }
+        this.ultimoAcesso = ACESSOS.incrementAndGet();
+    }
+
+    /**
+     * @return quantidade de transações e faturas em memória nas movimentações, sem carregá-las
+     */
+    public long getPesoMovimentacoes() {
+        return (long) this.TRANSACOES_REALIZADAS.size() + this.TRANSACOES_AGENDADAS.size()
+                + this.HISTORICO.getTransacoes().size() + this.HISTORICO.getFaturas().size()
+                + this.notificacoes.getTransacoes().size() + this.notificacoes.getFaturas().size();
+    }
+
+    /**
+     * Chamado depois que um novo arquivo de clientes substitui o anterior. Se as movimentações ainda não foram lidas,
+     * a conta passa a lê-las do novo arquivo; senão o bloco fica guardado para {@link #descarregarMovimentacoes()}.
+     */
+    public void atualizarBlocoGravado(BlocoMovimentacoes bloco) {
+        this.ultimoBlocoGravado = bloco;
+        if (bloco.getAnterior() != null) {
+            this.movimentacoesNoArquivo.compareAndSet(bloco.getAnterior(), bloco);
+        }
+    }
+
+    /**
+     * Tira as movimentações da memória, voltando a lê-las do último arquivo gravado no próximo acesso. Só acontece se
+     * a conta não foi usada desde que o bloco foi gravado e se não tem transferências esperando a data agendada, que
+     * precisam continuar sendo o mesmo objeto da agenda da agência.
+     *
+     * @return {@code true} caso as movimentações tenham saído da memória
+     */
+    public boolean descarregarMovimentacoes() {
+        TravasContas.travar(this);
+        try {
+            synchronized (this) {
+                BlocoMovimentacoes.travarLeitura();
+                try {
+                    BlocoMovimentacoes bloco = this.ultimoBlocoGravado;
+                    if (!isMovimentacoesCarregadas() || bloco == null || bloco.getAcessoGravado() != this.ultimoAcesso) {
+                        return false;
+                    }
+                    for (Transacao transacao : this.TRANSACOES_AGENDADAS) {
+                        if (transacao.hasDataAgendada()) {
+                            return false;
+                        }
+                    }
+                    this.TRANSACOES_REALIZADAS.clear();
+                    this.TRANSACOES_AGENDADAS.clear();
+                    this.HISTORICO.limpar();
+                    this.notificacoes = new Historico();
+                    this.movimentacoesNoArquivo.set(bloco);
+                    return true;
+                } finally {
+                    BlocoMovimentacoes.destravarLeitura();
+                }
+            }
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    /**
+     * Grava os valores da conta, do cartão e as chaves Pix, sem o histórico. Usado pelos registros do journal e pelo
+     * snapshot; os valores são lidos com a trava da conta, então são todos do mesmo momento.
+     */
+    public void gravarEstado(DataOutput saida) throws IOException {
+        TravasContas.travar(this);
+        try {
+            saida.writeLong(saldo);
+            saida.writeLong(saldoTotalDepositado);
+            saida.writeLong(dinheiroGuardado);
+            saida.writeLong(emprestimo);
+            saida.writeLong(parcelaEmprestimo);
+            saida.writeInt(sequenciaValores);
+            CARTEIRA.gravarEstado(saida);
+            CHAVES_PIX.gravar(saida);
+        } finally {
+            TravasContas.destravar(this);
+        }
+    }
+
+    /**
+     * Restaura os valores gravados por {@link #gravarEstado(DataOutput)}
+     *
+     * @param versao versão de {@link utilsBank.arquivo.codec.Esquema#CONTA} com que os valores foram gravados
+     */
+    public void restaurarEstado(DataInput entrada, int versao) throws IOException {
+        boolean emReais = versao < VERSAO_CENTAVOS;
+        this.saldo = DadosBinarios.lerCentavos(entrada, emReais);
+        this.saldoTotalDepositado = DadosBinarios.lerCentavos(entrada, emReais);
+        this.dinheiroGuardado = DadosBinarios.lerCentavos(entrada, emReais);
+        this.emprestimo = DadosBinarios.lerCentavos(entrada, emReais);
+        this.parcelaEmprestimo = DadosBinarios.lerCentavos(entrada, emReais);
+        this.sequenciaValores = versao >= VERSAO_SEQUENCIA ? entrada.readInt() : 0;
+        CARTEIRA.restaurarEstado(entrada, emReais);
+        CHAVES_PIX.restaurar(entrada);
+    }
+
+    /**
+     * Avança a {@link #sequenciaValores} e grava o valor na posição da conta no {@link LivroSaldos}, caso o livro esteja
+     * aberto. Chamado com a trava da conta.
+     */
+    protected void gravarNoLivro(LivroSaldos.Campo campo, long valor) {
+        this.sequenciaValores++;
+        LivroSaldos livro = LivroSaldos.getInstance();
+        if (livro != null && !livroSuspenso) {
+            livro.gravar(this.ID_CONTA, campo, valor, this.sequenciaValores);
+        }
+    }
+
+    /**
+     * Alinha a conta, já reconstruída pelo snapshot e pelo journal, com o {@link LivroSaldos}. A posição da conta só
+     * substitui os valores se tiver uma sequência maior, ou seja, se o livro foi forçado para o disco depois do último
+     * registro do journal da conta; senão é o livro que volta a ter os valores da conta.
+     */
+    public void sincronizarLivroSaldos(LivroSaldos livro) {
+        if (livro.contem(this.ID_CONTA) && livro.lerSequencia(this.ID_CONTA) > this.sequenciaValores) {
+            this.saldo = livro.ler(this.ID_CONTA, LivroSaldos.Campo.SALDO);
+            this.dinheiroGuardado = livro.ler(this.ID_CONTA, LivroSaldos.Campo.DINHEIRO_GUARDADO);
+            this.emprestimo = livro.ler(this.ID_CONTA, LivroSaldos.Campo.EMPRESTIMO);
+            this.parcelaEmprestimo = livro.ler(this.ID_CONTA, LivroSaldos.Campo.PARCELA_EMPRESTIMO);
+            this.sequenciaValores = livro.lerSequencia(this.ID_CONTA);
+        } else {
+            iniciarLivroSaldos(livro);
+        }
+    }
+
+    /**
+     * Passa a registrar as operações da conta no registro da agência, ver {@link RegistroOperacoes}
+     *
+     * @param titular identificação do cliente dono da conta, que vai junto com o estado da conta
+     */
+    public void iniciarRegistro(RegistroOperacoes registro, String titular) {
+        this.titular = titular;
+        this.registro = registro;
+    }
+
+    /**
+     * Registra o estado atual da conta. Chamado com a trava da conta, logo depois da alteração.
+     */
+    private void registrarEstado() throws EscritaArquivoException {
+        this.registro.registrarEstado(this.titular, this);
+    }
+
+    /**
+     * Trava todas as contas e para de gravar no {@link LivroSaldos} até {@link #destravarTodas(Collection)}. Usado pela
+     * atualização diária, que só é registrada no journal ao fim de cada dia: nenhuma operação vê o dia pela metade e,
+     * se o programa cair antes do registro, o livro não tem valores mais novos que o journal para repetir o dia por
+     * cima deles.
+     */
+    public static void travarTodas() {
+        TravasContas.travarTodas();
+        livroSuspenso = true;
+    }
+
+    /**
+     * Volta a gravar no {@link LivroSaldos}, com os valores atuais das contas, e libera as travas de
+     * {@link #travarTodas()}. Deve ser chamado depois que o dia foi registrado no journal.
+     */
+    public static void destravarTodas(Collection<Conta> contas) {
+        try {
+            livroSuspenso = false;
+            LivroSaldos livro = LivroSaldos.getInstance();
+            if (livro != null) {
+                for (Conta conta : contas) {
+                    conta.iniciarLivroSaldos(livro);
+                }
+            }
+        } finally {
+            TravasContas.destravarTodas();
+        }
+    }
+
+    /**
+     * Grava todos os valores atuais da conta no {@link LivroSaldos}, sobrescrevendo o que estiver na posição
+     */
+    public void iniciarLivroSaldos(LivroSaldos livro) {
+        livro.gravar(this.ID_CONTA, LivroSaldos.Campo.SALDO, this.saldo, this.sequenciaValores);
+        livro.gravar(this.ID_CONTA, LivroSaldos.Campo.DINHEIRO_GUARDADO, this.dinheiroGuardado, this.sequenciaValores);
+        livro.gravar(this.ID_CONTA, LivroSaldos.Campo.EMPRESTIMO, this.emprestimo, this.sequenciaValores);
+        livro.gravar(this.ID_CONTA, LivroSaldos.Campo.PARCELA_EMPRESTIMO, this.parcelaEmprestimo, this.sequenciaValores);
+    }
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[CONTA]\n");
@@ -328,15 +1141,9 @@ public class Conta implements Serializable {
         if (ID_CONTA != null) {
             sb.append("ID_CONTA: ").append(ID_CONTA).append("\n");
         }
-        if (saldo != null) {
-            sb.append("SALDO: ").append(saldo).append("\n");
-        }
-        if (dinheiroGuardado != null) {
-            sb.append("DINHEIRO GUARDADO: ").append(dinheiroGuardado).append("\n");
-        }
-        if (emprestimo != null) {
-            sb.append("EMPRESTIMO: ").append(emprestimo).append("\n");
-        }
+        sb.append("SALDO: ").append(getSaldo()).append("\n");
+        sb.append("DINHEIRO GUARDADO: ").append(getDinheiroGuardado()).append("\n");
+        sb.append("EMPRESTIMO: ").append(getEmprestimo()).append("\n");
         if (CHAVES_PIX != null) {
             sb.append(CHAVES_PIX).append("\n");
         }
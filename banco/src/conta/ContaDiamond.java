@@ -1,23 +1,24 @@
 package conta;
 
-import java.io.Serial;
 
 public class ContaDiamond extends ContaPremium implements Rentavel {
     public static final int DEPOSITO_MAXIMO = 80000;
-    @Serial
-    private static final long serialVersionUID = 15L;
 
     public ContaDiamond() {
         super();
     }
 
+    ContaDiamond(String idConta) {
+        super(idConta);
+    }
+
     @Override
     public void renderSaldo() {
-        this.saldo = this.saldo + (this.saldo * Rentavel.FATOR_RENDER_DIAMOND);
+        this.renderSaldo(Rentavel.FATOR_RENDER_DIAMOND);
     }
 
     @Override
     public void renderDinheiroGuardado() {
-        this.dinheiroGuardado = this.dinheiroGuardado + (this.dinheiroGuardado * Rentavel.FATOR_RENDER__GUARDADO_DIAMOND);
+        this.renderDinheiroGuardado(Rentavel.FATOR_RENDER__GUARDADO_DIAMOND);
     }
 }
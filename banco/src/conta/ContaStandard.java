@@ -1,23 +1,24 @@
 package conta;
 
-import java.io.Serial;
 
 public class ContaStandard extends Conta implements Rentavel {
     public static final int DEPOSITO_MAXIMO = 1000;
-    @Serial
-    private static final long serialVersionUID = 17L;
 
     public ContaStandard() {
         super();
     }
 
+    ContaStandard(String idConta) {
+        super(idConta);
+    }
+
     @Override
     public void renderSaldo() {
-        this.saldo = this.saldo + (this.saldo * Rentavel.FATOR_RENDER_STANDARD);
+        this.renderSaldo(Rentavel.FATOR_RENDER_STANDARD);
     }
 
     @Override
     public void renderDinheiroGuardado() {
-        this.dinheiroGuardado = this.dinheiroGuardado + (this.dinheiroGuardado * Rentavel.FATOR_RENDER_GUARDADO_STANDARD);
+        this.renderDinheiroGuardado(Rentavel.FATOR_RENDER_GUARDADO_STANDARD);
     }
 }
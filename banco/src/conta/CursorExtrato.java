@@ -0,0 +1,75 @@
+package conta;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Percorre em páginas, da mais recente para a mais antiga, um período de um histórico. O período é localizado por
+ * busca binária na criação do cursor; cada página copia só os seus próprios itens.
+ * <p>
+ * O cursor guarda as posições do período: itens adicionados depois no fim do histórico não aparecem, mas um item
+ * inserido no meio do período durante a consulta desloca as páginas seguintes em uma posição.
+ *
+ * @param <T> {@link transacao.Transacao} ou {@link cartao.Fatura}
+ */
+public class CursorExtrato<T> implements Iterator<List<T>> {
+	private final List<T> itens;
+	private final int inicio;
+	private final int fim;
+	private final int tamanhoPagina;
+	private int posicao;
+
+	/**
+	 * @param itens   histórico em ordem crescente de data
+	 * @param inicio  primeira posição do período
+	 * @param fim     posição seguinte à última do período
+	 */
+	CursorExtrato(List<T> itens, int inicio, int fim, int tamanhoPagina) {
+		if (tamanhoPagina <= 0) {
+			throw new IllegalArgumentException("Tamanho de pagina invalido");
+		}
+		this.itens = itens;
+		this.inicio = inicio;
+		this.fim = fim;
+		this.tamanhoPagina = tamanhoPagina;
+		this.posicao = fim;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.posicao > this.inicio;
+	}
+
+	/**
+	 * @return a próxima página, com no máximo {@code tamanhoPagina} itens, do mais recente para o mais antigo
+	 */
+	@Override
+	public List<T> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("Fim do extrato");
+		}
+		int primeiro = Math.max(this.inicio, this.posicao - this.tamanhoPagina);
+		List<T> pagina = new ArrayList<>(this.posicao - primeiro);
+		for (int i = this.posicao - 1; i >= primeiro; i--) {
+			pagina.add(this.itens.get(i));
+		}
+		this.posicao = primeiro;
+		return pagina;
+	}
+
+	/**
+	 * @return quantidade de itens no período
+	 */
+	public int getTotal() {
+		return this.fim - this.inicio;
+	}
+
+	/**
+	 * @return quantidade de itens ainda não devolvidos
+	 */
+	public int getRestantes() {
+		return this.posicao - this.inicio;
+	}
+}
@@ -3,29 +3,37 @@ package conta;
 import cartao.Cartao;
 import interfaceUsuario.exceptions.ValorInvalido;
 
-import java.io.Serial;
-import java.io.Serializable;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.DadosBinarios;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-public class GerenciamentoCartao implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 7L;
+public class GerenciamentoCartao {
     private final List<Cartao> LISTA_DE_CARTOES;
-    private Double limiteUsado;
+    /**
+     * Em centavos
+     */
+    private long limiteUsado;
     private boolean debitoAutomatico = false;
     private int dataDebitoAutomatico;
 
     protected GerenciamentoCartao() {
         this.LISTA_DE_CARTOES = new ArrayList<>();
-        this.limiteUsado = 0.0;
     }
 
 
     /**
      * Diminui o Limite usado com base no parametro informado
      */
-    protected void aumentarLimiteAtual(Double valorPagoFatura) {
+    protected void aumentarLimiteAtual(double valorPagoFatura) {
+        aumentarLimiteAtualCentavos(Dinheiro.centavos(valorPagoFatura));
+    }
+
+    protected void aumentarLimiteAtualCentavos(long valorPagoFatura) {
         this.limiteUsado -= valorPagoFatura;
     }
 
@@ -33,8 +41,8 @@ public class GerenciamentoCartao implements Serializable {
      * Aumenta o limite usado com base no parametor informado
      */
 
-    public void diminuirLimiteAtual(Double valorGasto) {
-        this.limiteUsado += valorGasto;
+    public void diminuirLimiteAtual(double valorGasto) {
+        this.limiteUsado += Dinheiro.centavos(valorGasto);
     }
 
     /**
@@ -64,19 +72,19 @@ public class GerenciamentoCartao implements Serializable {
     /**
      * Retorna o valor do Limite utilizado [FATURA]
      *
-     * @return Double
+     * @return double
      */
 
-    public Double getFatura() {
-        return limiteUsado;
+    public double getFatura() {
+        return Dinheiro.reais(limiteUsado);
     }
 
     /**
      * Retorna o limite maximo do Cartao
      *
-     * @return Double
+     * @return double
      */
-    public Double getLimiteMaximo() throws ValorInvalido {
+    public double getLimiteMaximo() throws ValorInvalido {
         if (!LISTA_DE_CARTOES.isEmpty()) {
             return LISTA_DE_CARTOES.get(0).getLimiteMaximo();
         }
@@ -86,10 +94,10 @@ public class GerenciamentoCartao implements Serializable {
     /**
      * Retorna o valor do limite restante para ser gasto
      *
-     * @return Double
+     * @return double
      */
-    public Double getLimiteRestante() throws ValorInvalido {
-        return getLimiteMaximo() - limiteUsado;
+    public double getLimiteRestante() throws ValorInvalido {
+        return Dinheiro.reais(Dinheiro.centavos(getLimiteMaximo()) - limiteUsado);
     }
 
     protected List<Cartao> getListaDeCartoes() {
@@ -100,4 +108,19 @@ public class GerenciamentoCartao implements Serializable {
         return this.debitoAutomatico && this.dataDebitoAutomatico > 0;
     }
 
+    protected void gravarEstado(DataOutput saida) throws IOException {
+        saida.writeLong(limiteUsado);
+        saida.writeBoolean(debitoAutomatico);
+        saida.writeInt(dataDebitoAutomatico);
+    }
+
+    /**
+     * @param emReais {@code true} para estados gravados antes dos valores em centavos
+     */
+    protected void restaurarEstado(DataInput entrada, boolean emReais) throws IOException {
+        this.limiteUsado = DadosBinarios.lerCentavos(entrada, emReais);
+        this.debitoAutomatico = entrada.readBoolean();
+        this.dataDebitoAutomatico = entrada.readInt();
+    }
+
 }
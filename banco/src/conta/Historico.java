@@ -3,50 +3,257 @@ package conta;
 import cartao.Fatura;
 import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.ArquivoHistorico;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
-public class Historico implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 8L;
+/**
+ * Histórico de transações de uma conta, mostrado da mais recente para a mais antiga.
+ * <p>
+ * Por dentro as transações ficam da mais antiga para a mais recente: como quase toda transação nova é a mais recente,
+ * ela só é adicionada no fim da lista. As demais (ex.: uma agendada para depois de outras) têm a posição achada por
+ * busca binária, que também localiza os períodos consultados por {@link #consultarTransacoes}. Duplicatas são detectadas
+ * pelo nosso número.
+ * <p>
+ * O histórico de uma conta guarda em memória só os últimos {@link #DIAS_EM_MEMORIA} dias; as transações mais antigas são
+ * movidas para o {@link ArquivoHistorico} e lidas de lá apenas quando um extrato pede um período anterior.
+ */
+public class Historico {
+    public static final int DIAS_EM_MEMORIA = 90;
+    /**
+     * Conta dona do histórico, ou {@code null} nos históricos que não são arquivados (notificações)
+     */
+    private final String ID_CONTA;
     private final ArrayList<Transacao> TRANSACOES;
+    private final List<Transacao> TRANSACOES_RECENTES_PRIMEIRO;
+    private final Set<Object> NOSSOS_NUMEROS;
     private final ArrayList<Fatura> FATURAS;
+    private final Set<Fatura> FATURAS_ADICIONADAS;
 
     protected Historico() {
+        this(null);
+    }
+
+    Historico(String idConta) {
+        this.ID_CONTA = idConta;
         this.FATURAS = new ArrayList<>();
+        this.FATURAS_ADICIONADAS = new HashSet<>();
         this.TRANSACOES = new ArrayList<>();
+        this.NOSSOS_NUMEROS = new HashSet<>();
+        this.TRANSACOES_RECENTES_PRIMEIRO = new AbstractList<>() {
+            @Override
+            public Transacao get(int index) {
+                return TRANSACOES.get(TRANSACOES.size() - 1 - index);
+            }
+
+            @Override
+            public int size() {
+                return TRANSACOES.size();
+            }
+        };
+    }
+
+    /**
+     * Transações sem nosso número são identificadas pela própria instância
+     */
+    private static Object chave(Transacao transacao) {
+        String nossoNumero = transacao.getNossoNumero();
+        return nossoNumero != null ? nossoNumero : transacao;
+    }
+
+    static Data dataEfetiva(Transacao transacao) {
+        return transacao.hasDataAgendada() ? transacao.getDataAgendada() : transacao.getDataEmissaoTransacao();
+    }
+
+    /**
+     * Esvazia o histórico em memória. Usado quando a conta volta a ler as movimentações do arquivo de clientes.
+     */
+    void limpar() {
+        this.TRANSACOES.clear();
+        this.NOSSOS_NUMEROS.clear();
+        this.FATURAS.clear();
+        this.FATURAS_ADICIONADAS.clear();
     }
 
     public void addTransacao(Transacao novaTransacao) throws TransacaoException {
-        if (!this.TRANSACOES.contains(novaTransacao)) {
-            int index = 0;
-            boolean achouPos = false;
-            for (int i = 0; i < TRANSACOES.size() && !achouPos; i++) {
-                Data dataNovaCmp = novaTransacao.hasDataAgendada() ? novaTransacao.getDataAgendada() : novaTransacao.getDataEmissaoTransacao();
-                Data dataAtualCmp = TRANSACOES.get(i).hasDataAgendada() ? TRANSACOES.get(i).getDataAgendada() : TRANSACOES.get(i).getDataEmissaoTransacao();
-                index = i + 1;
-                if (dataNovaCmp.depoisDe(dataAtualCmp)) {
-                    index--;
-                    achouPos = true;
+        if (!this.NOSSOS_NUMEROS.add(chave(novaTransacao))) {
+            throw new TransacaoException("Transacao ja existe");
+        }
+        TRANSACOES.add(primeiraNaoAnterior(TRANSACOES, Historico::dataEfetiva, dataEfetiva(novaTransacao)), novaTransacao);
+    }
+
+    /**
+     * Primeira posição de uma lista em ordem crescente de data cuja data não é anterior à data informada. Ao inserir
+     * nessa posição, itens com a mesma data ficam com o mais novo antes (nas transações, que são mostradas de trás
+     * para frente, eles aparecem na ordem em que foram adicionados).
+     *
+     * @param data {@code null} para o início da lista
+     */
+    private static <T> int primeiraNaoAnterior(List<T> itens, Function<T, Data> dataDe, Data data) {
+        int fim = itens.size();
+        if (data == null) {
+            return 0;
+        }
+        if (fim == 0 || data.depoisDe(dataDe.apply(itens.get(fim - 1)))) {
+            return fim;
+        }
+        int inicio = 0;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (data.depoisDe(dataDe.apply(itens.get(meio)))) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Cursor sobre as transações com data efetiva no período (os dois dias inclusive)
+     *
+     * @param inicio {@code null} para desde a primeira transação
+     * @param fim    {@code null} para até a última transação
+     */
+    public CursorExtrato<Transacao> consultarTransacoes(Data inicio, Data fim, int tamanhoPagina) {
+        return consultar(transacoesDoPeriodo(inicio, fim), Historico::dataEfetiva, inicio, fim, tamanhoPagina);
+    }
+
+    /**
+     * @return as transações em memória, precedidas pelas arquivadas nos meses do período quando ele começa antes da
+     * primeira transação em memória
+     */
+    private List<Transacao> transacoesDoPeriodo(Data inicio, Data fim) {
+        ArquivoHistorico arquivo = ArquivoHistorico.getInstance();
+        if (ID_CONTA == null || arquivo == null) {
+            return TRANSACOES;
+        }
+        if (inicio != null && !TRANSACOES.isEmpty() && !dataEfetiva(TRANSACOES.get(0)).depoisDe(inicio)) {
+            return TRANSACOES;
+        }
+        String primeiroMes = inicio == null ? null : ArquivoHistorico.mes(inicio);
+        String ultimoMes = fim == null ? null : ArquivoHistorico.mes(fim);
+        List<Transacao> arquivadas = new ArrayList<>();
+        for (String mes : arquivo.listarMeses(ID_CONTA)) {
+            if ((primeiroMes == null || mes.compareTo(primeiroMes) >= 0) && (ultimoMes == null || mes.compareTo(ultimoMes) <= 0)) {
+                for (Transacao transacao : arquivo.ler(ID_CONTA, mes)) {
+                    // pode estar nos dois lugares caso o programa tenha caído logo depois de arquivar
+                    if (!NOSSOS_NUMEROS.contains(chave(transacao))) {
+                        arquivadas.add(transacao);
+                    }
                 }
             }
-            TRANSACOES.add(index, novaTransacao);
-        } else {
-            throw new TransacaoException("Transacao ja existe");
+        }
+        if (arquivadas.isEmpty()) {
+            return TRANSACOES;
+        }
+        return new AbstractList<>() {
+            @Override
+            public Transacao get(int index) {
+                return index < arquivadas.size() ? arquivadas.get(index) : TRANSACOES.get(index - arquivadas.size());
+            }
+
+            @Override
+            public int size() {
+                return arquivadas.size() + TRANSACOES.size();
+            }
+        };
+    }
+
+    /**
+     * Move para o {@link ArquivoHistorico} as transações anteriores ao limite. Os segmentos são gravados antes de
+     * qualquer transação sair da memória, então uma falha na gravação não perde nada.
+     *
+     * @return quantidade de transações arquivadas
+     */
+    int arquivarAntesDe(Data limite) throws EscritaArquivoException {
+        ArquivoHistorico arquivo = ArquivoHistorico.getInstance();
+        if (ID_CONTA == null || arquivo == null) {
+            return 0;
+        }
+        int quantidade = primeiraNaoAnterior(TRANSACOES, Historico::dataEfetiva, limite);
+        int inicioMes = 0;
+        while (inicioMes < quantidade) {
+            String mes = ArquivoHistorico.mes(dataEfetiva(TRANSACOES.get(inicioMes)));
+            int fimMes = inicioMes + 1;
+            while (fimMes < quantidade && mes.equals(ArquivoHistorico.mes(dataEfetiva(TRANSACOES.get(fimMes))))) {
+                fimMes++;
+            }
+            arquivo.arquivar(ID_CONTA, mes, TRANSACOES.subList(inicioMes, fimMes));
+            inicioMes = fimMes;
+        }
+        List<Transacao> arquivadas = TRANSACOES.subList(0, quantidade);
+        for (Transacao transacao : arquivadas) {
+            NOSSOS_NUMEROS.remove(chave(transacao));
+        }
+        arquivadas.clear();
+        return quantidade;
+    }
+
+    /**
+     * Cursor sobre as faturas pagas no período (os dois dias inclusive)
+     *
+     * @param inicio {@code null} para desde a primeira fatura
+     * @param fim    {@code null} para até a última fatura
+     */
+    public CursorExtrato<Fatura> consultarFaturas(Data inicio, Data fim, int tamanhoPagina) {
+        return consultar(FATURAS, Fatura::getDataPagamento, inicio, fim, tamanhoPagina);
+    }
+
+    private static <T> CursorExtrato<T> consultar(List<T> itens, Function<T, Data> dataDe, Data inicio, Data fim,
+                                                  int tamanhoPagina) {
+        int primeira = primeiraNaoAnterior(itens, dataDe, inicio);
+        int depoisDaUltima = fim == null ? itens.size() : primeiraNaoAnterior(itens, dataDe, fim.diaSeguinte());
+        return new CursorExtrato<>(itens, primeira, Math.max(primeira, depoisDaUltima), tamanhoPagina);
+    }
+
+    /**
+     * @param nossoNumero identificação da transação
+     * @return {@code true} caso o histórico já tenha uma transação com esse nosso número
+     */
+    /**
+     * Desfaz um {@link #addTransacao(Transacao)}, como no estorno de um item de lote que não foi creditado
+     */
+    boolean removerTransacao(Transacao transacao) {
+        return this.NOSSOS_NUMEROS.remove(chave(transacao)) && this.TRANSACOES.remove(transacao);
+    }
+
+    public boolean contemTransacao(String nossoNumero) {
+        return this.NOSSOS_NUMEROS.contains(nossoNumero);
+    }
+
+    /**
+     * Restaura o histórico gravado pelo {@link CodecConta}, que já está na ordem de {@link #getTransacoes()}
+     */
+    void restaurarTransacoes(List<Transacao> transacoes) {
+        for (int i = transacoes.size() - 1; i >= 0; i--) {
+            Transacao transacao = transacoes.get(i);
+            this.TRANSACOES.add(transacao);
+            this.NOSSOS_NUMEROS.add(chave(transacao));
         }
     }
 
+    /**
+     * As faturas ficam em ordem crescente de data de pagamento. Duplicatas são detectadas pelo hash, sem percorrer a lista.
+     */
     public void addFaturas(Fatura novaFatura) {
-        if (!this.FATURAS.contains(novaFatura)) {
-            FATURAS.add(novaFatura);
+        if (this.FATURAS_ADICIONADAS.add(novaFatura)) {
+            FATURAS.add(primeiraNaoAnterior(FATURAS, Fatura::getDataPagamento, novaFatura.getDataPagamento()), novaFatura);
         }
     }
 
-    public ArrayList<Transacao> getTransacoes() {
-        return this.TRANSACOES;
+    /**
+     * @return as transações da mais recente para a mais antiga, somente leitura
+     */
+    public List<Transacao> getTransacoes() {
+        return this.TRANSACOES_RECENTES_PRIMEIRO;
     }
 
     public ArrayList<Fatura> getFaturas() {
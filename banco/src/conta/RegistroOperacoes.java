@@ -0,0 +1,55 @@
+package conta;
+
+import transacao.Boleto;
+import transacao.LoteTransferencias;
+import transacao.Transacao;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.util.Collection;
+
+/**
+ * Onde as operações das contas ficam registradas, como o journal da {@link agencia.Agencia}. A conta recebe o registro
+ * ao entrar na agência (ver {@link Conta#iniciarRegistro(RegistroOperacoes, String)}) e cada operação se registra com
+ * as contas ainda travadas, então os registros ficam na ordem das alterações e nenhuma alteração fica sem registro.
+ * <p>
+ * Por padrão os métodos não fazem nada, como nas contas que não fazem parte de uma agência.
+ */
+public interface RegistroOperacoes {
+    RegistroOperacoes NENHUM = new RegistroOperacoes() {
+    };
+
+    /**
+     * Transferência ou depósito realizado, junto com o novo estado das contas envolvidas
+     */
+    default void registrarTransacao(Transacao transacao) throws EscritaArquivoException {
+    }
+
+    default void registrarAgendamento(Transacao transacao) throws EscritaArquivoException {
+    }
+
+    /**
+     * Pagamento de um boleto, junto com o novo estado das contas envolvidas
+     */
+    default void registrarBoletoPago(Boleto boleto) throws EscritaArquivoException {
+    }
+
+    /**
+     * Lote de boletos pagos, com os boletos que foram de fato pagos e o novo estado das contas envolvidas
+     */
+    default void registrarBoletosPagos(Collection<Boleto> boletos) throws EscritaArquivoException {
+    }
+
+    /**
+     * Lote de transferências, com os itens que foram de fato pagos
+     */
+    default void registrarLote(LoteTransferencias lote) throws EscritaArquivoException {
+    }
+
+    /**
+     * Valores, cartão e chaves Pix da conta
+     *
+     * @param identificacao do titular da conta
+     */
+    default void registrarEstado(String identificacao, Conta conta) throws EscritaArquivoException {
+    }
+}
@@ -0,0 +1,10 @@
+package conta;
+
+/**
+ * Tipos de conta, que também dão o tipo do cartão da conta
+ */
+public class TiposConta {
+    public static final String STANDARD = "standard";
+    public static final String PREMIUM = "premium";
+    public static final String DIAMOND = "diamond";
+}
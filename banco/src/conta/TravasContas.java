@@ -0,0 +1,90 @@
+package conta;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Travas das contas, divididas em faixas pelo ID_CONTA. Toda alteração de valores de uma conta é feita com a trava da
+ * sua faixa; operações que mexem em duas contas travam as duas faixas sempre na mesma ordem (menor índice primeiro),
+ * então duas transferências em sentidos opostos não entram em deadlock. Transferências entre contas de faixas
+ * diferentes rodam em paralelo.
+ * <p>
+ * As travas são reentrantes: uma operação que já tem a trava pode chamar outra que trava a mesma conta.
+ * {@link #travarTodas()} trava todas as faixas na mesma ordem crescente, sem conflitar com as operações acima.
+ */
+final class TravasContas {
+	private static final int FAIXAS = 256;
+	private static final ReentrantLock[] TRAVAS = new ReentrantLock[FAIXAS];
+
+	static {
+		for (int i = 0; i < FAIXAS; i++) {
+			TRAVAS[i] = new ReentrantLock();
+		}
+	}
+
+	private TravasContas() {
+	}
+
+	private static int faixa(Conta conta) {
+		String idConta = conta.ID_CONTA;
+		return idConta == null ? 0 : Math.floorMod(idConta.hashCode(), FAIXAS);
+	}
+
+	static void travar(Conta conta) {
+		TRAVAS[faixa(conta)].lock();
+	}
+
+	static void destravar(Conta conta) {
+		TRAVAS[faixa(conta)].unlock();
+	}
+
+	static void travar(Conta primeira, Conta segunda) {
+		int a = faixa(primeira);
+		int b = faixa(segunda);
+		TRAVAS[Math.min(a, b)].lock();
+		if (a != b) {
+			TRAVAS[Math.max(a, b)].lock();
+		}
+	}
+
+	/**
+	 * Trava as faixas de todas as contas, em ordem crescente
+	 */
+	static void travar(Collection<Conta> contas) {
+		for (int faixa : faixas(contas)) {
+			TRAVAS[faixa].lock();
+		}
+	}
+
+	static void destravar(Collection<Conta> contas) {
+		int[] faixas = faixas(contas);
+		for (int i = faixas.length - 1; i >= 0; i--) {
+			TRAVAS[faixas[i]].unlock();
+		}
+	}
+
+	private static int[] faixas(Collection<Conta> contas) {
+		return contas.stream().mapToInt(TravasContas::faixa).distinct().sorted().toArray();
+	}
+
+	static void travarTodas() {
+		for (ReentrantLock trava : TRAVAS) {
+			trava.lock();
+		}
+	}
+
+	static void destravarTodas() {
+		for (int i = FAIXAS - 1; i >= 0; i--) {
+			TRAVAS[i].unlock();
+		}
+	}
+
+	static void destravar(Conta primeira, Conta segunda) {
+		int a = faixa(primeira);
+		int b = faixa(segunda);
+		if (a != b) {
+			TRAVAS[Math.max(a, b)].unlock();
+		}
+		TRAVAS[Math.min(a, b)].unlock();
+	}
+}
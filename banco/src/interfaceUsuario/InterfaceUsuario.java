@@ -4,64 +4,81 @@ import cliente.Cliente;
 import conta.Conta;
 import interfaceUsuario.dados.*;
 
+/**
+ * Acesso dos menus aos dados da {@link Sessao} da thread atual. As regras de negócio recebem esses dados por
+ * parâmetro (ex.: {@code Conta.transferir(DadosTransacao)}); os métodos sem parâmetros só leem daqui.
+ */
 public class InterfaceUsuario {
-	private static DadosConta dadosConta;
-	private static DadosCartao dadosCartao;
-	private static Cliente clienteAtual;
-	private static DadosTransacao dadosTransacao;
-	private static DadosChavesPix dadosChavePix;
-	private static DadosBoleto dadosBoleto;
+	private static final ThreadLocal<Sessao> SESSAO = ThreadLocal.withInitial(Sessao::new);
+
+	public static Sessao getSessao() {
+		return SESSAO.get();
+	}
+
+	/**
+	 * Associa uma sessão à thread atual, para atender um cliente em uma thread diferente da que começou o atendimento
+	 */
+	public static void iniciarSessao(Sessao sessao) {
+		SESSAO.set(sessao);
+	}
+
+	/**
+	 * Descarta a sessão da thread atual. Deve ser chamado ao final de cada atendimento em threads reaproveitadas.
+	 */
+	public static void encerrarSessao() {
+		SESSAO.remove();
+	}
 
 	public static DadosTransacao getDadosTransacao() {
-		return dadosTransacao;
+		return getSessao().getDadosTransacao();
 	}
 
 	public static void setDadosTransacao(DadosTransacao dadosTransacao) {
-		InterfaceUsuario.dadosTransacao = dadosTransacao;
+		getSessao().setDadosTransacao(dadosTransacao);
 	}
 
 	public static DadosBoleto getDadosBoleto() {
-		return dadosBoleto;
+		return getSessao().getDadosBoleto();
 	}
 
 	public static void setDadosBoleto(DadosBoleto dadosBoleto) {
-		InterfaceUsuario.dadosBoleto = dadosBoleto;
+		getSessao().setDadosBoleto(dadosBoleto);
 	}
 
 	public static DadosChavesPix getDadosChavePix() {
-		return dadosChavePix;
+		return getSessao().getDadosChavePix();
 	}
 
 	public static void setDadosChavePix(DadosChavesPix dadosChavePix) {
-		InterfaceUsuario.dadosChavePix = dadosChavePix;
+		getSessao().setDadosChavePix(dadosChavePix);
 	}
 
 	public static Cliente getClienteAtual() {
-		return clienteAtual;
+		return getSessao().getClienteAtual();
 	}
 
 	public static void setClienteAtual(Cliente clienteAtual) {
-		InterfaceUsuario.clienteAtual = clienteAtual;
+		getSessao().setClienteAtual(clienteAtual);
 	}
 
 	public static Conta usuarioAtualConta() {
-		return clienteAtual.getConta();
+		return getClienteAtual().getConta();
 	}
 
 	public static DadosConta getDadosConta() {
-		return dadosConta;
+		return getSessao().getDadosConta();
 	}
 
 	public static void setDadosConta(DadosConta dadosConta) {
-		InterfaceUsuario.dadosConta = dadosConta;
+		getSessao().setDadosConta(dadosConta);
 	}
 
 	public static DadosCartao getDadosCartao() {
-		return dadosCartao;
+		return getSessao().getDadosCartao();
 	}
 
 	public static void setDadosCartao(DadosCartao dadosCartao) {
-		InterfaceUsuario.dadosCartao = dadosCartao;
+		getSessao().setDadosCartao(dadosCartao);
 	}
 
 
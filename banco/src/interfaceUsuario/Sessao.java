@@ -0,0 +1,80 @@
+package interfaceUsuario;
+
+import cliente.Cliente;
+import interfaceUsuario.dados.*;
+
+import java.util.Scanner;
+
+/**
+ * Dados de um atendimento em andamento: o cliente logado e os dados que os menus já coletaram para a próxima
+ * operação. Cada thread tem a sua sessão (ver {@link InterfaceUsuario#getSessao()}), então vários atendimentos podem
+ * rodar ao mesmo tempo sem um sobrescrever os dados do outro.
+ */
+public class Sessao {
+	private DadosConta dadosConta;
+	private DadosCartao dadosCartao;
+	private Cliente clienteAtual;
+	private DadosTransacao dadosTransacao;
+	private DadosChavesPix dadosChavePix;
+	private DadosBoleto dadosBoleto;
+	/**
+	 * De onde os menus leem as entradas deste atendimento. Sem um teclado próprio, os menus usam o teclado do console.
+	 */
+	private Scanner teclado;
+
+	public DadosConta getDadosConta() {
+		return dadosConta;
+	}
+
+	public void setDadosConta(DadosConta dadosConta) {
+		this.dadosConta = dadosConta;
+	}
+
+	public DadosCartao getDadosCartao() {
+		return dadosCartao;
+	}
+
+	public void setDadosCartao(DadosCartao dadosCartao) {
+		this.dadosCartao = dadosCartao;
+	}
+
+	public Cliente getClienteAtual() {
+		return clienteAtual;
+	}
+
+	public void setClienteAtual(Cliente clienteAtual) {
+		this.clienteAtual = clienteAtual;
+	}
+
+	public DadosTransacao getDadosTransacao() {
+		return dadosTransacao;
+	}
+
+	public void setDadosTransacao(DadosTransacao dadosTransacao) {
+		this.dadosTransacao = dadosTransacao;
+	}
+
+	public DadosChavesPix getDadosChavePix() {
+		return dadosChavePix;
+	}
+
+	public void setDadosChavePix(DadosChavesPix dadosChavePix) {
+		this.dadosChavePix = dadosChavePix;
+	}
+
+	public DadosBoleto getDadosBoleto() {
+		return dadosBoleto;
+	}
+
+	public void setDadosBoleto(DadosBoleto dadosBoleto) {
+		this.dadosBoleto = dadosBoleto;
+	}
+
+	public Scanner getTeclado() {
+		return teclado;
+	}
+
+	public void setTeclado(Scanner teclado) {
+		this.teclado = teclado;
+	}
+}
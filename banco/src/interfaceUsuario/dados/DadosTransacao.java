@@ -6,25 +6,21 @@ import cliente.Cliente;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
-import java.io.Serial;
-import java.io.Serializable;
 
-public class DadosTransacao implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 9L;
-    private final Double VALOR;
+public class DadosTransacao {
+    private final double VALOR;
     private final Data DATA_AGENDADA;
     private Cliente destino;  //destino o dinheiro vai para o destino
     private Cliente origem; //origem o dinheiro sai da origem
 
-    public DadosTransacao(Double valor, String chaveDestino, String chaveorigem, String tipoChaveDestino, String tipoChaveOrigem) throws BuscaException {
+    public DadosTransacao(double valor, String chaveDestino, String chaveorigem, String tipoChaveDestino, String tipoChaveOrigem) throws BuscaException {
         this.VALOR = valor;
         this.DATA_AGENDADA = null;
         setDestinoPix(chaveDestino, tipoChaveDestino);
         setOrigemPix(chaveorigem, tipoChaveOrigem);
     }
 
-    public DadosTransacao(Double valor, String chaveDestino, String chaveorigem, String tipoChaveDestino, String tipoChaveOrigem, String dataAgendada) throws BuscaException {
+    public DadosTransacao(double valor, String chaveDestino, String chaveorigem, String tipoChaveDestino, String tipoChaveOrigem, String dataAgendada) throws BuscaException {
         this.VALOR = valor;
         this.DATA_AGENDADA = DataBank.criarData(dataAgendada, DataBank.SEM_HORA);
         setDestinoPix(chaveDestino, tipoChaveDestino);
@@ -32,13 +28,13 @@ public class DadosTransacao implements Serializable {
     }
 
 
-    public DadosTransacao(Double valor, Cliente destino) {
+    public DadosTransacao(double valor, Cliente destino) {
         this.VALOR = valor;
         this.destino = destino;
         this.DATA_AGENDADA = null;
     }
 
-    public DadosTransacao(Double valor, Cliente destino, Cliente origem) {
+    public DadosTransacao(double valor, Cliente destino, Cliente origem) {
         this.VALOR = valor;
         this.destino = destino;
         this.origem = origem;
@@ -67,7 +63,7 @@ public class DadosTransacao implements Serializable {
         return this.origem;
     }
 
-    public Double getValor() {
+    public double getValor() {
         return VALOR;
     }
 
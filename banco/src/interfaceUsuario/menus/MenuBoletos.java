@@ -10,6 +10,7 @@ import interfaceUsuario.exceptions.ValorInvalido;
 import interfaceUsuario.verificadores.dados.VerificadorTransacao;
 import transacao.Boleto;
 import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 
 import java.util.HashSet;
 
@@ -45,9 +46,9 @@ public class MenuBoletos {
         }
     }
 
-    protected static void pagarBoleto() throws BuscaException, TransacaoException {
+    protected static void pagarBoleto() throws BuscaException, TransacaoException, EscritaArquivoException {
         System.out.print("Numero do boleto: \n> ");
-        String numBoleto = TECLADO.nextLine();
+        String numBoleto = teclado().nextLine();
         Boleto boleto = Agencia.getInstance().buscarBoleto(numBoleto);
         Conta origem = InterfaceUsuario.usuarioAtualConta();
         origem.pagarBoleto(boleto, InterfaceUsuario.getClienteAtual());
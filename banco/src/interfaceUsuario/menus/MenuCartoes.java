@@ -23,7 +23,7 @@ public class MenuCartoes {
                 System.out.println("[0] - Cancelar");
                 System.out.println("[1] - Mostrar Cartoes");
                 System.out.println("[2] - Adicionar Cartao");
-                entrada = TECLADO.nextLine();
+                entrada = teclado().nextLine();
                 switch (entrada) {
                     case "0":
                         loop = false;
@@ -72,7 +72,7 @@ public class MenuCartoes {
             System.out.print("\n> ");
             GerenciamentoCartao carteiraCli = cliente.getConta().getCARTEIRA();
             try {
-                String op = TECLADO.nextLine();
+                String op = teclado().nextLine();
                 switch (op) {
                     case "0":
                         loop = false;
@@ -90,7 +90,7 @@ public class MenuCartoes {
                         if (carteiraCli.getFatura() > 0.0) {
                             do {
                                 System.out.println("Deseja pagar o valor total da fatura? [1] SIM [0] NAO");
-                                entrada = TECLADO.nextLine();
+                                entrada = teclado().nextLine();
                             } while (VerificadorEntrada.verificarEntradasZeroUm(entrada));
 
                             if (GerenciadorBanco.intToBoolean(Integer.parseInt(entrada))) {
@@ -102,7 +102,7 @@ public class MenuCartoes {
                             } else {
                                 do {
                                     System.out.println("Digite o valor para pagar a fatura");
-                                    entrada = TECLADO.nextLine();
+                                    entrada = teclado().nextLine();
                                 } while (VerificadorTransacao.valorFatura(String.valueOf(entrada), MenuUsuarioConstantes.PAGAR_FATURA, carteiraCli));
 
                                 cliente.pagarFatura(Double.parseDouble(entrada));
@@ -115,7 +115,7 @@ public class MenuCartoes {
                         break;
                     case "4":
                         System.out.println("[INSIRA SUA SENHA]");
-                        entrada = TECLADO.nextLine();
+                        entrada = teclado().nextLine();
 
                         if (cliente.verificarSenha(entrada)) {
                             MenuCartoes.gerenciadorCartoes(cliente);
@@ -128,7 +128,7 @@ public class MenuCartoes {
                         do {
                             System.out.println("[LEMBRANDO: APENAS UMA FERRAMENTA ADMINISTRATIVA PARA GERENCIAR O BANCO]]");
                             System.out.println("DIGITE O VALOR QUE FOI GASTO NO CARTAO");
-                            entrada = TECLADO.nextLine();
+                            entrada = teclado().nextLine();
                         } while (VerificadorTransacao.valorFatura(String.valueOf(entrada), MenuUsuarioConstantes.AUMENTAR_FATURA, carteiraCli));
 
                         if (cliente.getConta().aumentarFatura(Double.parseDouble(entrada))) {
@@ -2,7 +2,6 @@ package interfaceUsuario.menus;
 
 import agencia.Agencia;
 import agencia.exceptions.InsercaoException;
-import cartao.Fatura;
 import cliente.Cliente;
 import cliente.ClienteEmpresa;
 import cliente.ClientePessoa;
@@ -10,21 +9,29 @@ import cliente.Endereco;
 import cliente.exceptions.GerenteJaExistenteException;
 import cliente.exceptions.GerenteNaoEncontradoException;
 import cliente.exceptions.TiposClientes;
+import conta.CursorExtrato;
 import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.exceptions.ValorInvalido;
 import interfaceUsuario.verificadores.dados.VerificadorClientes;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import transacao.Boleto;
+import transacao.FolhaPagamento;
+import transacao.LoteTransferencias;
+import transacao.RelatorioProcessamento;
+import transacao.RemessaBoletos;
 import transacao.Transacao;
+import transacao.exceptions.LoteIncompletoException;
 import utilsBank.GerenciadorBanco;
 import utilsBank.arquivo.exception.EscritaArquivoException;
 
-import java.util.ArrayList;
+import java.nio.file.Paths;
 
 import static interfaceUsuario.menus.MenuUsuario.*;
 import static transacao.Boleto.criarBoleto;
 
 public class MenuClientes {
+    private static final int TAMANHO_PAGINA_EXTRATO = 10;
+
     protected static void menuCliente() {
         boolean loop = true;
         Cliente cliente = InterfaceUsuario.getClienteAtual();
@@ -44,7 +51,7 @@ public class MenuClientes {
             }
 
             try {
-                String value = TECLADO.nextLine();
+                String value = teclado().nextLine();
                 Transacao t;
                 TiposClientes tiposClientes;
                 if (isClientePessoa) {
@@ -64,7 +71,7 @@ public class MenuClientes {
                         break;
                     case "3":
                         MenuTransacoes.receberDadosTransacoes(TRANSFERENCIA, tipoConta);
-                        t = cliente.getConta().transferir();
+                        t = cliente.getConta().transferir(InterfaceUsuario.getDadosTransacao());
                         t.gerarComprovante();
                         GerenciadorBanco.imprimirDireitos();
                         break;
@@ -74,7 +81,7 @@ public class MenuClientes {
                         break;
                     case "5":
                         MenuTransacoes.receberDadosTransacoes(DEPOSITO, tipoConta);
-                        t = cliente.getConta().depositar();
+                        t = cliente.getConta().depositar(InterfaceUsuario.getDadosTransacao());
                         t.gerarComprovante();
                         GerenciadorBanco.imprimirDireitos();
                         break;
@@ -83,22 +90,26 @@ public class MenuClientes {
                         break;
                     case "7":
                         MenuTransacoes.agendamentoTransferencia(tipoConta);
-                        t = cliente.getConta().agendarTransacao();
+                        t = cliente.getConta().agendarTransacao(InterfaceUsuario.getDadosTransacao());
                         t.gerarComprovante();
                         GerenciadorBanco.imprimirMensagemTransferenciaAgendada();
                         GerenciadorBanco.imprimirDireitos();
                         break;
                     case "8":
                         MenuCartoes.gerenciarCarteira(cliente);
+                        Agencia.getInstance().solicitarSnapshot();
                         break;
                     case "9":
                         System.out.println(cliente.getConta().getChavesPix().toString());
                         break;
                     case "10":
                         MenuTransacoes.adicionarChavePix(tiposClientes);
-                        if (cliente.getConta().modificarChavePix()) {
+                        if (cliente.getConta().modificarChavePix(InterfaceUsuario.getDadosChavePix(),
+                                Agencia.getInstance().getDiretorioPix())) {
                             System.out.println("Chave Pix modificada com sucesso");
                             System.out.println(cliente.getConta().getChavesPix());
+                        } else {
+                            System.out.println("Nao foi possivel modificar a chave Pix. Verifique se ela ja esta cadastrada");
                         }
                         break;
                     case "11":
@@ -115,34 +126,18 @@ public class MenuClientes {
                             System.out.println("[1]: Mostrar Transacoes");
                             System.out.println("[2]: Mostrar Faturas");
 
-                            switch (TECLADO.nextLine()) {
+                            switch (teclado().nextLine()) {
                                 case "0":
                                     menuLoopHistorico = false;
                                     break;
                                 case "1":
-                                    ArrayList<Transacao> transacoesCliente = cliente.getConta().getHistorico().getTransacoes();
-                                    if (transacoesCliente.isEmpty()) {
-                                        System.out.println("Nenhuma transacao ocorrida.");
-                                    } else {
-                                        for (Transacao transacao : transacoesCliente) {
-                                            imprimirBorda("=");
-                                            System.out.println(transacao);
-                                        }
-                                    }
-
+                                    mostrarExtrato(cliente.getConta().extrato(null, null, TAMANHO_PAGINA_EXTRATO),
+                                            "Nenhuma transacao ocorrida.");
                                     menuLoopHistorico = false;
                                     break;
                                 case "2":
-                                    ArrayList<Fatura> faturaCliente = cliente.getConta().getHistorico().getFaturas();
-                                    if (faturaCliente.isEmpty()) {
-                                        System.out.println("Nenhuma fatura paga");
-                                    } else {
-                                        for (Fatura fatura : cliente.getConta().getHistorico().getFaturas()) {
-                                            imprimirBorda("=");
-                                            System.out.println(fatura);
-                                        }
-                                    }
-
+                                    mostrarExtrato(cliente.getConta().extratoFaturas(null, null, TAMANHO_PAGINA_EXTRATO),
+                                            "Nenhuma fatura paga");
                                     menuLoopHistorico = false;
                                     break;
                             }
@@ -154,6 +149,7 @@ public class MenuClientes {
                     case "14":
                         mostrarNotificacoes();
                         cliente.getConta().resetarNotificacoes();
+                        Agencia.getInstance().solicitarSnapshot();
                         break;
                     case "15":
                         if (!isClientePessoa) {
@@ -161,6 +157,7 @@ public class MenuClientes {
                             try {
                                 assert cliente instanceof ClienteEmpresa;
                                 if (((ClienteEmpresa) cliente).addGerentes(identificacaoNovoGerente)) {
+                                    Agencia.getInstance().solicitarSnapshot();
                                     System.out.println("Novo gerente adicionado com sucesso!");
                                 }
                             } catch (GerenteJaExistenteException ex) {
@@ -174,6 +171,7 @@ public class MenuClientes {
                             assert cliente instanceof ClienteEmpresa;
                             try {
                                 if (((ClienteEmpresa) cliente).removerGerentes(identificacaoNovoGerente)) {
+                                    Agencia.getInstance().solicitarSnapshot();
                                     System.out.println("Gerente removido com sucesso!");
                                 }
                             } catch (GerenteNaoEncontradoException ex) {
@@ -181,6 +179,34 @@ public class MenuClientes {
                             }
                         }
                         break;
+                    case "17":
+                        if (!isClientePessoa) {
+                            String arquivo = usuarioEntradas(new String[]{"Arquivo da folha (.csv ou largura fixa)"})[0];
+                            FolhaPagamento folha = FolhaPagamento.ler(Paths.get(arquivo));
+                            assert cliente instanceof ClienteEmpresa;
+                            LoteTransferencias lote;
+                            try {
+                                lote = ((ClienteEmpresa) cliente).pagarFolha(folha);
+                            } catch (LoteIncompletoException ex) {
+                                // o que foi pago continua pago, mesmo com o estorno do resto
+                                if (!ex.getRealizado().getItens().isEmpty()) {
+                                    System.out.println(ex.getRealizado().gerarComprovante());
+                                }
+                                throw ex;
+                            }
+                            System.out.println(lote.gerarComprovante());
+                            GerenciadorBanco.imprimirDireitos();
+                        }
+                        break;
+                    case "18":
+                        if (!isClientePessoa) {
+                            String arquivo = usuarioEntradas(new String[]{"Arquivo de remessa (valor;vencimento;multa)"})[0];
+                            RelatorioProcessamento relatorio = new RemessaBoletos(cliente)
+                                    .processar(Paths.get(arquivo), System.out::println);
+                            relatorio.getErros().forEach(System.out::println);
+                            System.out.println("BOLETOS EMITIDOS: " + relatorio);
+                        }
+                        break;
                     default:
                         GerenciadorBanco.imprimirErroOpcao();
                         break;
@@ -189,7 +215,7 @@ public class MenuClientes {
                 System.out.println(ex.getMessage());
             } finally {
                 try {
-                    Agencia.getInstance().atualizarArquivos();
+                    Agencia.getInstance().sincronizarArquivos();
                 } catch (EscritaArquivoException ex) {
                     System.out.println("Ocorreu um erro ao atualizar os nosso banco de dados. Verifique sua conexao e tente novamente.");
                 }
@@ -206,7 +232,7 @@ public class MenuClientes {
                     "[1] - Pessoa fisica\n" +
                     "[2] - Pessoa juridica\n" +
                     "> \n");
-            entrada = TECLADO.nextLine();
+            entrada = teclado().nextLine();
         } while (!VerificadorEntrada.verificarEntradaTipo(entrada));
 
         TiposClientes tipo;
@@ -264,6 +290,7 @@ public class MenuClientes {
                 entradaEndereco[2]
         );
 
+        Double renda = MenuConta.criacaoConta();
         Cliente cliente;
         int idade = Integer.parseInt(entradaGeral[3]);
         if (tipo == TiposClientes.CLIENTE_PESSOA) {
@@ -274,7 +301,10 @@ public class MenuClientes {
                     idade,
                     endereco,
                     entradaGeral[4],
-                    entradaGeral[5]
+                    entradaGeral[5],
+                    InterfaceUsuario.getDadosConta(),
+                    InterfaceUsuario.getDadosCartao(),
+                    renda
             );
         } else {
             cliente = new ClienteEmpresa(
@@ -284,7 +314,10 @@ public class MenuClientes {
                     idade,
                     endereco,
                     entradaGeral[4],
-                    entradaGeral[5]
+                    entradaGeral[5],
+                    InterfaceUsuario.getDadosConta(),
+                    InterfaceUsuario.getDadosCartao(),
+                    renda
             );
         }
 
@@ -292,6 +325,28 @@ public class MenuClientes {
         return cliente;
     }
 
+    /**
+     * Imprime o extrato uma página por vez, perguntando antes de buscar a próxima
+     */
+    private static void mostrarExtrato(CursorExtrato<?> extrato, String mensagemVazio) {
+        if (!extrato.hasNext()) {
+            System.out.println(mensagemVazio);
+            return;
+        }
+        while (extrato.hasNext()) {
+            for (Object item : extrato.next()) {
+                imprimirBorda("=");
+                System.out.println(item);
+            }
+            if (extrato.hasNext()) {
+                System.out.println("[ENTER] Mostrar mais (" + extrato.getRestantes() + " restantes) [0] Voltar");
+                if (teclado().nextLine().equals("0")) {
+                    return;
+                }
+            }
+        }
+    }
+
     private static String identificarNovoGerente() {
         imprimirBorda("=");
         String[] cabecalhoNovoGerente = {
@@ -7,7 +7,7 @@ import interfaceUsuario.verificadores.dados.VerificadorConta;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import utilsBank.GerenciadorBanco;
 
-import static interfaceUsuario.menus.MenuUsuario.TECLADO;
+import static interfaceUsuario.menus.MenuUsuario.teclado;
 
 public class MenuConta {
     public static Double criacaoConta() throws ValorInvalido {
@@ -15,10 +15,10 @@ public class MenuConta {
 
         String entrada;
         System.out.println("Deseja debito automatico? [1] SIM [0] NAO");
-        entrada = TECLADO.nextLine();
+        entrada = teclado().nextLine();
         while (VerificadorEntrada.verificarEntradasZeroUm(entrada)) {
             System.out.println("Por favor, insira corretamente a opcao!");
-            entrada = TECLADO.nextLine();
+            entrada = teclado().nextLine();
         }
         boolean debitoAutomatico = GerenciadorBanco.intToBoolean(Integer.parseInt(entrada));
         MenuCartoes.criacaoCartao();
@@ -36,7 +36,7 @@ public class MenuConta {
         while (renda < VerificadorEntrada.RENDA_MINIMA) {
             try {
                 System.out.println("Por favor, Insira sua Renda");
-                renda = Double.parseDouble(TECLADO.nextLine());
+                renda = Double.parseDouble(teclado().nextLine());
                 VerificadorConta.verificarRenda(renda);
             } catch (ValorInvalido ex) {
                 System.out.println(ex.getMessage());
@@ -5,16 +5,16 @@ import interfaceUsuario.verificadores.dados.VerificadorData;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import utilsBank.GerenciadorBanco;
 
-import static interfaceUsuario.menus.MenuUsuario.TECLADO;
+import static interfaceUsuario.menus.MenuUsuario.teclado;
 
 public class MenuDebitoAutomatico {
     protected static void escolherDebitoAutomatico(GerenciamentoCartao carteira) {
         System.out.println("DIGITE O DIA PARA DEBITAR AUTOMATICAMENTE ENTRE [" + VerificadorEntrada.DIA_MINIMO_DEB_AUTO + " - " + VerificadorEntrada.DIA_MAX_DEB_AUTO + "]");
-        String entrada = TECLADO.nextLine();
+        String entrada = teclado().nextLine();
 
         while (!VerificadorData.verificarDataDebitoAuto(entrada)) {
             System.out.println("DIA INVALIDO, POR FAVOR, INSIRA CORRETAMENTE UM DIA ENTRE [" + VerificadorEntrada.DIA_MINIMO_DEB_AUTO + " - " + VerificadorEntrada.DIA_MAX_DEB_AUTO + "]");
-            entrada = TECLADO.nextLine();
+            entrada = teclado().nextLine();
         }
         carteira.setDebitoAutomatico(true, Integer.parseInt(entrada));
     }
@@ -31,9 +31,9 @@ public class MenuDebitoAutomatico {
 
         if (carteiraCliente.isDebitoAutomatico()) {
             System.out.println(DEBITO_ATIVADO);
-            entrada = TECLADO.nextLine();
+            entrada = teclado().nextLine();
             while (VerificadorEntrada.verificarEntradasZeroUm(entrada)) {
-                entrada = TECLADO.nextLine();
+                entrada = teclado().nextLine();
             }
 
             if (GerenciadorBanco.intToBoolean(Integer.parseInt(entrada))) {
@@ -49,9 +49,9 @@ public class MenuDebitoAutomatico {
     protected static void gerenciarAtivarDesativarDebito(GerenciamentoCartao carteiraCliente, String ESTADO_MENSAGEM) {
         String entrada;
         System.out.println(ESTADO_MENSAGEM);
-        entrada = TECLADO.nextLine();
+        entrada = teclado().nextLine();
         while (VerificadorEntrada.verificarEntradasZeroUm(entrada)) {
-            entrada = TECLADO.nextLine();
+            entrada = teclado().nextLine();
         }
 
         if (GerenciadorBanco.intToBoolean(Integer.parseInt(entrada))) {
@@ -20,7 +20,7 @@ public class MenuDinheiroGuardado {
             imprimirBorda("=");
             System.out.print("\n> ");
             try {
-                String op = TECLADO.nextLine();
+                String op = teclado().nextLine();
                 double valor;
                 switch (op) {
                     case "0":
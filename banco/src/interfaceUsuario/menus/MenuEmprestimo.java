@@ -6,6 +6,7 @@ import funcionalidades.exceptions.EmprestimoException;
 import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.exceptions.ValorInvalido;
 import utilsBank.GerenciadorBanco;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 
 import static interfaceUsuario.menus.MenuUsuario.*;
 
@@ -19,7 +20,7 @@ public class MenuEmprestimo {
         imprimirBorda("=");
         System.out.print("\n> ");
         try {
-            String op = TECLADO.nextLine();
+            String op = teclado().nextLine();
             switch (op) {
                 case "0":
                     break;
@@ -38,7 +39,7 @@ public class MenuEmprestimo {
         }
     }
 
-    protected static void gerarEmprestimo() throws EmprestimoException, ValorInvalido {
+    protected static void gerarEmprestimo() throws EmprestimoException, ValorInvalido, EscritaArquivoException {
         Conta contaAtual = InterfaceUsuario.usuarioAtualConta();
         if (contaAtual.hasEmprestimo()) {
             throw new EmprestimoException("Voce ja possui um emprestimo");
@@ -65,7 +66,7 @@ public class MenuEmprestimo {
         System.out.printf("EMPRESTIMO REALIZADO! (Novo saldo: %.2f)\n", contaAtual.getSaldo());
     }
 
-    protected static void pagarEmprestimo() throws EmprestimoException {
+    protected static void pagarEmprestimo() throws EmprestimoException, EscritaArquivoException {
         Conta contaAtual = InterfaceUsuario.usuarioAtualConta();
         if (contaAtual.hasEmprestimo()) {
             imprimirBorda("=");
@@ -75,7 +76,7 @@ public class MenuEmprestimo {
             imprimirBorda("=");
             System.out.print("\n> ");
             try {
-                String op = TECLADO.nextLine();
+                String op = teclado().nextLine();
                 switch (op) {
                     case "0":
                         break;
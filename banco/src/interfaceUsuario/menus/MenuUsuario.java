@@ -15,8 +15,8 @@ import java.util.Scanner;
 public class MenuUsuario {
     public static final String DEPOSITO = "do seu Deposito";
     public static final String TRANSFERENCIA = "da sua transferencia";
-    public static final String GUARDAR = "guardado";
-    public static final String RESGATAR = "resgatado";
+    public static final String GUARDAR = Conta.GUARDAR;
+    public static final String RESGATAR = Conta.RESGATAR;
     public static final String FORMATO_DATAS = "31/12/2022";
     public static final int TAM_BORDA = 50;
     public static final String CHAVES_DISPONIVEIS = "[ESCREVA O TIPO DA CHAVE EXATAMENTE COMO ALGUMAS DESSES TIPOS, IDENTIFICACAO [CPF OU CNPJ]\n" +
@@ -24,6 +24,14 @@ public class MenuUsuario {
     public static final String CHAVES_DISPONIVEIS_ALTERACAO = "chave_aleatoria | telefone | email";
     public static Scanner TECLADO = new Scanner(System.in);
 
+    /**
+     * @return o teclado da sessão da thread atual ou, caso ela não tenha um próprio, o {@link #TECLADO} do console
+     */
+    public static Scanner teclado() {
+        Scanner teclado = InterfaceUsuario.getSessao().getTeclado();
+        return teclado != null ? teclado : TECLADO;
+    }
+
     public static void iniciar() {
         boolean loop = true;
         while (loop) {
@@ -34,7 +42,7 @@ public class MenuUsuario {
             imprimirBorda("=");
             System.out.print("\n> ");
             try {
-                switch (TECLADO.nextLine()) {
+                switch (teclado().nextLine()) {
                     case "0":
                         loop = false;
                         break;
@@ -48,7 +56,7 @@ public class MenuUsuario {
                         if (InterfaceUsuario.getDadosConta().isDebitoAutomatico()) {
                             MenuDebitoAutomatico.escolherDebitoAutomatico(InterfaceUsuario.getClienteAtual().getConta().getCARTEIRA());
                         }
-                        InterfaceUsuario.getClienteAtual().setChavesPix();
+                        InterfaceUsuario.getClienteAtual().setChavesPix(Agencia.getInstance().getDiretorioPix());
                         MenuClientes.menuCliente();
                         InterfaceUsuario.setClienteAtual(null);
                         break;
@@ -83,6 +91,8 @@ public class MenuUsuario {
         if (!isClientePessoa) {
             System.out.println("[15] - Adicionar Gerentes");
             System.out.println("[16] - Remover Gerentes");
+            System.out.println("[17] - Pagar folha de pagamento");
+            System.out.println("[18] - Emitir boletos de arquivo de remessa");
 
         }
         imprimirBorda("=");
@@ -95,7 +105,7 @@ public class MenuUsuario {
 
         for (int i = 0; i < cabecalhoUsuario.length; i++) {
             System.out.printf("%s:\n> ", cabecalhoUsuario[i]);
-            entradas[i] = TECLADO.nextLine();
+            entradas[i] = teclado().nextLine();
         }
         imprimirBorda("=");
         return entradas;
@@ -126,7 +136,7 @@ public class MenuUsuario {
             System.out.println("[2] - Empresa");
             imprimirBorda("=");
             System.out.print("> ");
-            String op = TECLADO.nextLine();
+            String op = teclado().nextLine();
             switch (op) {
                 case "1":
                     break;
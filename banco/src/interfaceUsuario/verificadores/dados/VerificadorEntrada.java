@@ -1,5 +1,6 @@
 package interfaceUsuario.verificadores.dados;
 
+import conta.TiposConta;
 import conta.exceptions.TipoInvalido;
 import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.MenuUsuarioConstantes;
@@ -12,9 +13,9 @@ import static interfaceUsuario.menus.MenuUsuario.RESGATAR;
 import static interfaceUsuario.verificadores.dados.VerificadorClientes.isAlphanumeric;
 
 public class VerificadorEntrada {
-    public static final String STANDARD = "standard";
-    public static final String PREMIUM = "premium";
-    public static final String DIAMOND = "diamond";
+    public static final String STANDARD = TiposConta.STANDARD;
+    public static final String PREMIUM = TiposConta.PREMIUM;
+    public static final String DIAMOND = TiposConta.DIAMOND;
     public static final String IDENTIFICACAO = "identificacao";
     public static final int MAX_CARACTERES_ENTRADA = 60;
     public static final int DIA_MINIMO_DEB_AUTO = 1;
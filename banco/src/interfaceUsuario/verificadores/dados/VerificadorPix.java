@@ -3,13 +3,13 @@ package interfaceUsuario.verificadores.dados;
 import interfaceUsuario.dados.DadosChavesPix;
 import utilsBank.GeracaoAleatoria;
 
-import static interfaceUsuario.menus.MenuUsuario.TECLADO;
+import static interfaceUsuario.menus.MenuUsuario.teclado;
 import static interfaceUsuario.verificadores.dados.VerificadorEntrada.ENTRADAS_CHAVE_PIX;
 
 public class VerificadorPix {
     public static boolean chavePix(String entrada, String tipoChavePix) {
         System.out.println("A CHAVE INSERIDA " + entrada + " ESTA CORRETA? [1] SIM! [0] NAO, PRECISO TROCAR");
-        if (TECLADO.nextLine().equals("0")) {
+        if (teclado().nextLine().equals("0")) {
             return true;
         } else {
             switch (tipoChavePix) {
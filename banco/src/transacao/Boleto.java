@@ -6,24 +6,33 @@ import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.dados.DadosBoleto;
 import interfaceUsuario.dados.DadosTransacao;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 
-import java.io.Serial;
-import java.io.Serializable;
 
-public class Boleto extends Transacao implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 10L;
+public class Boleto extends Transacao {
     private static final String NOME_TRANSACAO = "Boleto";
     private final Data DATA_VENCIMENTO;
-    private final Double MULTA_DIAS;
+    /**
+     * Em centavos
+     */
+    private final long MULTA_DIAS;
     private Boolean foiPago;
 
     public Boleto(DadosTransacao dadosTransacao, DadosBoleto dadosBoleto) {
         super(dadosTransacao);
         this.foiPago = dadosBoleto.getFoiPago();
         this.DATA_VENCIMENTO = dadosBoleto.getDataVencimento();
-        this.MULTA_DIAS = Double.valueOf(dadosBoleto.getMultaPorDias());
+        this.MULTA_DIAS = Dinheiro.centavos(dadosBoleto.getMultaPorDias());
+    }
+
+    Boleto(long valor, String nossoNumero, String idPagamento, Cliente origem, Cliente destino, Data dataEmissaoTransacao,
+           Data dataAgendada, Data dataVencimento, long multaDias, Boolean foiPago) {
+        super(valor, nossoNumero, idPagamento, origem, destino, dataEmissaoTransacao, dataAgendada);
+        this.DATA_VENCIMENTO = dataVencimento;
+        this.MULTA_DIAS = multaDias;
+        this.foiPago = foiPago;
     }
 
     public void pagar(Cliente origem) throws TransacaoException {
@@ -34,12 +43,13 @@ public class Boleto extends Transacao implements Serializable {
         this.foiPago = true;
     }
 
-    public static Boleto criarBoleto() {
-        DadosBoleto dadosBoleto = InterfaceUsuario.getDadosBoleto();
-        DadosTransacao dadosTransacao = InterfaceUsuario.getDadosTransacao();
+    public static Boleto criarBoleto() throws EscritaArquivoException {
+        return criarBoleto(InterfaceUsuario.getDadosTransacao(), InterfaceUsuario.getDadosBoleto());
+    }
 
+    public static Boleto criarBoleto(DadosTransacao dadosTransacao, DadosBoleto dadosBoleto) throws EscritaArquivoException {
         Boleto boleto = new Boleto(dadosTransacao, dadosBoleto);
-        Agencia.getInstance().addBoleto(boleto);
+        Agencia.getInstance().emitirBoleto(boleto);
 
         return boleto;
     }
@@ -49,15 +59,21 @@ public class Boleto extends Transacao implements Serializable {
     }
 
     public double getMultaPorDias() {
+        return Dinheiro.reais(MULTA_DIAS);
+    }
+
+    public long getMultaDiasCentavos() {
         return MULTA_DIAS;
     }
 
+    Boolean getFoiPago() {
+        return foiPago;
+    }
+
     @Override
     public String toString() {
         String toString = "[" + NOME_TRANSACAO + "]\n";
-        if (VALOR != null) {
-            toString = toString + "VALOR: " + VALOR + "\n";
-        }
+        toString = toString + "VALOR: " + getValor() + "\n";
         if (NOSSO_NUMERO != null) {
             toString = toString + "NUMERO DO BOLETO: " + NOSSO_NUMERO + "\n";
         }
@@ -71,7 +87,7 @@ public class Boleto extends Transacao implements Serializable {
             toString = toString + "VENCIMENTO: " + DATA_VENCIMENTO + "\n";
         }
         if (MULTA_DIAS != 0) {
-            toString = toString + "MULTA POR DIAS: " + MULTA_DIAS + "\n";
+            toString = toString + "MULTA POR DIAS: " + getMultaPorDias() + "\n";
         }
         if (foiPago != null) {
             if (foiPago) {
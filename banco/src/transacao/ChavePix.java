@@ -1,14 +1,16 @@
 package transacao;
 
+import agencia.DiretorioPix;
+import agencia.exceptions.InsercaoException;
 import interfaceUsuario.dados.DadosChavesPix;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.DadosBinarios;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
-public class ChavePix implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 11L;
+public class ChavePix {
     private String telefone;
     private String chaveAleatoria; //gerar
     private String email;
@@ -21,21 +23,46 @@ public class ChavePix implements Serializable {
         this.identificacao = identificacao;
     }
 
-    public boolean mudarAdicionarChavePix(String tipoDechave, DadosChavesPix dadosChavesPix) {
+    /**
+     * Muda ou adiciona uma chave, registrando a troca no diretório Pix da agência.
+     *
+     * @param diretorio diretório Pix da agência
+     * @return {@code false} caso o tipo seja inválido ou a chave já pertença a outro cliente
+     */
+    public boolean mudarAdicionarChavePix(String tipoDechave, DadosChavesPix dadosChavesPix, DiretorioPix diretorio) {
         switch (tipoDechave) {
             case DadosChavesPix.TELEFONE:
-                this.telefone = dadosChavesPix.getTelefone();
-                return true;
+                if (registrarNoDiretorio(diretorio, tipoDechave, this.telefone, dadosChavesPix.getTelefone())) {
+                    this.telefone = dadosChavesPix.getTelefone();
+                    return true;
+                }
+                return false;
             case DadosChavesPix.EMAIL:
-                this.email = dadosChavesPix.getEmail();
-                return true;
+                if (registrarNoDiretorio(diretorio, tipoDechave, this.email, dadosChavesPix.getEmail())) {
+                    this.email = dadosChavesPix.getEmail();
+                    return true;
+                }
+                return false;
             case DadosChavesPix.CHAVE_ALEATORIA:
-                this.chaveAleatoria = GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
-                return true;
+                String novaChave = GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
+                if (registrarNoDiretorio(diretorio, tipoDechave, this.chaveAleatoria, novaChave)) {
+                    this.chaveAleatoria = novaChave;
+                    return true;
+                }
+                return false;
         }
         return false;
     }
 
+    private boolean registrarNoDiretorio(DiretorioPix diretorio, String tipoDeChave, String chaveAntiga, String chaveNova) {
+        try {
+            diretorio.trocar(tipoDeChave, chaveAntiga, chaveNova, this.identificacao);
+            return true;
+        } catch (InsercaoException ex) {
+            return false;
+        }
+    }
+
     @Override
     public String toString() {
         String toString = "[CHAVES PIX]\n";
@@ -70,7 +97,63 @@ public class ChavePix implements Serializable {
         return identificacao;
     }
 
-    public void setIdentificacao(String identificacao) {
+    public void gravar(DataOutput saida) throws IOException {
+        DadosBinarios.escreverTexto(saida, telefone);
+        DadosBinarios.escreverTexto(saida, chaveAleatoria);
+        DadosBinarios.escreverTexto(saida, email);
+        DadosBinarios.escreverTexto(saida, identificacao);
+    }
+
+    /**
+     * Restaura as chaves gravadas por {@link #gravar(DataOutput)}. Não atualiza o diretório Pix.
+     */
+    public void restaurar(DataInput entrada) throws IOException {
+        this.telefone = DadosBinarios.lerTexto(entrada);
+        this.chaveAleatoria = DadosBinarios.lerTexto(entrada);
+        this.email = DadosBinarios.lerTexto(entrada);
+        this.identificacao = DadosBinarios.lerTexto(entrada);
+    }
+
+    /**
+     * Define todas as chaves sem passar pelo diretório Pix, como em {@link #restaurar(DataInput)}. Usado para montar
+     * clientes fora da agência; o diretório recebe as chaves quando a agência carrega os clientes.
+     */
+    public void definir(String telefone, String chaveAleatoria, String email, String identificacao) {
+        this.telefone = telefone;
+        this.chaveAleatoria = chaveAleatoria;
+        this.email = email;
+        this.identificacao = identificacao;
+    }
+
+    /**
+     * Retorna a chave do tipo informado
+     *
+     * @param tipoDeChave declarado em DadosChavesPix
+     * @return a chave ou null caso não exista
+     */
+    public String getChave(String tipoDeChave) {
+        switch (tipoDeChave) {
+            case DadosChavesPix.TELEFONE:
+                return telefone;
+            case DadosChavesPix.EMAIL:
+                return email;
+            case DadosChavesPix.IDENTIFICACAO:
+                return identificacao;
+            case DadosChavesPix.CHAVE_ALEATORIA:
+                return chaveAleatoria;
+        }
+        return null;
+    }
+
+    /**
+     * Define a identificação do titular e registra novamente todas as chaves em nome dele no diretório Pix. Se alguma
+     * chave já pertencer a outro cliente, nem as chaves nem o diretório mudam.
+     *
+     * @param diretorio diretório Pix da agência
+     * @throws InsercaoException caso alguma chave já pertença a outro cliente
+     */
+    public void setIdentificacao(String identificacao, DiretorioPix diretorio) throws InsercaoException {
+        diretorio.trocarTitular(this, identificacao);
         this.identificacao = identificacao;
     }
 }
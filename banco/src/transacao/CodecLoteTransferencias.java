@@ -0,0 +1,41 @@
+package transacao;
+
+import cliente.Cliente;
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.databank.CodecData;
+import utilsBank.databank.Data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato: nosso número do lote, identificação da origem, data de emissão e os itens (coleção do
+ * {@link CodecTransacao}). Só é gravado no journal; nos snapshots os itens ficam nos históricos das contas.
+ */
+public class CodecLoteTransferencias implements Codec<LoteTransferencias> {
+	private static final CodecTransacao CODEC_TRANSACAO = new CodecTransacao();
+	private static final CodecData CODEC_DATA = new CodecData();
+
+	@Override
+	public void escrever(DataOutput saida, LoteTransferencias lote, ContextoCodec contexto) throws IOException {
+		DadosBinarios.escreverTexto(saida, lote.getNossoNumero());
+		DadosBinarios.escreverTexto(saida, lote.getOrigem().getIdentificacao());
+		CODEC_DATA.escrever(saida, lote.getDataEmissao(), contexto);
+		CODEC_TRANSACAO.escreverColecao(saida, lote.getItens(), contexto);
+	}
+
+	@Override
+	public LoteTransferencias ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		String nossoNumero = DadosBinarios.lerTexto(entrada);
+		Cliente origem = contexto.buscarCliente(DadosBinarios.lerTexto(entrada));
+		Data dataEmissao = CODEC_DATA.ler(entrada, contexto);
+		List<Transacao> itens = new ArrayList<>();
+		CODEC_TRANSACAO.lerColecao(entrada, itens, contexto);
+		return new LoteTransferencias(nossoNumero, origem, dataEmissao, itens);
+	}
+}
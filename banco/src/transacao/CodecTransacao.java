@@ -0,0 +1,83 @@
+package transacao;
+
+import cliente.Cliente;
+import utilsBank.arquivo.DadosBinarios;
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+import utilsBank.databank.CodecData;
+import utilsBank.databank.Data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Formato: referência (ver {@link ContextoCodec#escreverReferencia}) e, na primeira ocorrência dentro do arquivo,
+ * tipo, valor, nosso número, identificação do pagamento, identificação da origem e do destino, data de emissão e
+ * data agendada. Boletos gravam também vencimento, multa por dias e se foram pagos.
+ * <p>
+ * Versão 1: valor e multa em reais (double opcional). Versão 2: em centavos (long).
+ */
+public class CodecTransacao implements Codec<Transacao> {
+	private static final int VERSAO_CENTAVOS = 2;
+	private static final byte TRANSACAO = 1;
+	private static final byte BOLETO = 2;
+	private static final CodecData CODEC_DATA = new CodecData();
+
+	@Override
+	public void escrever(DataOutput saida, Transacao transacao, ContextoCodec contexto) throws IOException {
+		if (!contexto.escreverReferencia(saida, transacao)) {
+			return;
+		}
+		saida.writeByte(transacao instanceof Boleto ? BOLETO : TRANSACAO);
+		saida.writeLong(transacao.getValorCentavos());
+		DadosBinarios.escreverTexto(saida, transacao.getNossoNumero());
+		DadosBinarios.escreverTexto(saida, transacao.getIdPagamento());
+		DadosBinarios.escreverTexto(saida, identificacao(transacao.getClienteOrigem()));
+		DadosBinarios.escreverTexto(saida, identificacao(transacao.getClienteDestino()));
+		CODEC_DATA.escreverOpcional(saida, transacao.getDataEmissaoTransacao(), contexto);
+		CODEC_DATA.escreverOpcional(saida, transacao.getDataAgendada(), contexto);
+		if (transacao instanceof Boleto boleto) {
+			CODEC_DATA.escreverOpcional(saida, boleto.getDataVencimento(), contexto);
+			saida.writeLong(boleto.getMultaDiasCentavos());
+			DadosBinarios.escreverBooleanOpcional(saida, boleto.getFoiPago());
+		}
+	}
+
+	@Override
+	public Transacao ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		Transacao referencia = contexto.lerReferencia(entrada);
+		if (referencia != null) {
+			return referencia;
+		}
+		boolean emReais = contexto.getVersao(Esquema.TRANSACAO) < VERSAO_CENTAVOS;
+		byte tipo = entrada.readByte();
+		long valor = DadosBinarios.lerCentavosOpcional(entrada, emReais);
+		String nossoNumero = DadosBinarios.lerTexto(entrada);
+		String idPagamento = DadosBinarios.lerTexto(entrada);
+		Cliente origem = contexto.buscarCliente(DadosBinarios.lerTexto(entrada));
+		Cliente destino = contexto.buscarCliente(DadosBinarios.lerTexto(entrada));
+		Data dataEmissao = CODEC_DATA.lerOpcional(entrada, contexto);
+		Data dataAgendada = CODEC_DATA.lerOpcional(entrada, contexto);
+		Transacao transacao;
+		switch (tipo) {
+			case TRANSACAO:
+				transacao = new Transacao(valor, nossoNumero, idPagamento, origem, destino, dataEmissao, dataAgendada);
+				break;
+			case BOLETO:
+				transacao = new Boleto(valor, nossoNumero, idPagamento, origem, destino, dataEmissao, dataAgendada,
+						CODEC_DATA.lerOpcional(entrada, contexto),
+						DadosBinarios.lerCentavosOpcional(entrada, emReais),
+						DadosBinarios.lerBooleanOpcional(entrada));
+				break;
+			default:
+				throw new IOException("Tipo de transacao invalido");
+		}
+		return contexto.registrarTransacao(transacao);
+	}
+
+	private static String identificacao(Cliente cliente) {
+		return cliente == null ? null : cliente.getIdentificacao();
+	}
+}
@@ -0,0 +1,196 @@
+package transacao;
+
+import interfaceUsuario.dados.DadosChavesPix;
+import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Arquivo de folha de pagamento de uma empresa, pago de uma vez por {@link LoteTransferencias}. Cada linha é um
+ * pagamento com o tipo da chave Pix do favorecido (ver {@link DadosChavesPix}), a chave e o valor. Linhas em branco e
+ * comentários ({@code #}) são ignorados.
+ * <p>
+ * Formatos aceitos:
+ * <ul>
+ * <li>{@link Formato#CSV}: {@code tipo;chave;valor}, com o valor em reais ({@code 1500.00} ou {@code 1500,00}). A
+ * primeira linha pode ser o cabeçalho {@code tipo;chave;valor}.</li>
+ * <li>{@link Formato#LARGURA_FIXA}: tipo nas colunas 1 a 15 e chave nas colunas 16 a 92, completados com espaços à
+ * direita, e valor em centavos nas colunas 93 a 107, com zeros à esquerda.</li>
+ * </ul>
+ * Todas as linhas são conferidas antes de a folha ser aceita, e os erros de todas elas são informados juntos.
+ */
+public class FolhaPagamento {
+	public static final int TAMANHO_TIPO = 15;
+	public static final int TAMANHO_CHAVE = 77;
+	public static final int TAMANHO_VALOR = 15;
+	public static final int TAMANHO_LINHA = TAMANHO_TIPO + TAMANHO_CHAVE + TAMANHO_VALOR;
+	private static final String SEPARADOR_CSV = ";";
+	private static final String CABECALHO_CSV = "tipo;chave;valor";
+	private static final Set<String> TIPOS_CHAVE = Set.of(DadosChavesPix.TELEFONE, DadosChavesPix.CHAVE_ALEATORIA,
+			DadosChavesPix.EMAIL, DadosChavesPix.IDENTIFICACAO);
+	private final List<Pagamento> PAGAMENTOS;
+	/**
+	 * Em centavos
+	 */
+	private final long TOTAL;
+
+	public enum Formato {
+		CSV,
+		LARGURA_FIXA;
+
+		/**
+		 * @return {@link #CSV} para arquivos terminados em .csv, {@link #LARGURA_FIXA} para os demais
+		 */
+		public static Formato doArquivo(Path arquivo) {
+			return arquivo.toString().toLowerCase().endsWith(".csv") ? CSV : LARGURA_FIXA;
+		}
+	}
+
+	/**
+	 * Um pagamento da folha, ainda com a chave Pix do favorecido sem resolver
+	 */
+	public static final class Pagamento {
+		private final int LINHA;
+		private final String TIPO_CHAVE;
+		private final String CHAVE;
+		/**
+		 * Em centavos
+		 */
+		private final long VALOR;
+
+		Pagamento(int linha, String tipoChave, String chave, long valor) {
+			this.LINHA = linha;
+			this.TIPO_CHAVE = tipoChave;
+			this.CHAVE = chave;
+			this.VALOR = valor;
+		}
+
+		public int getLinha() {
+			return LINHA;
+		}
+
+		public String getTipoChave() {
+			return TIPO_CHAVE;
+		}
+
+		public String getChave() {
+			return CHAVE;
+		}
+
+		public long getValorCentavos() {
+			return VALOR;
+		}
+	}
+
+	private FolhaPagamento(List<Pagamento> pagamentos, long total) {
+		this.PAGAMENTOS = Collections.unmodifiableList(pagamentos);
+		this.TOTAL = total;
+	}
+
+	/**
+	 * Lê a folha de um arquivo em UTF-8, no formato indicado pela extensão (ver {@link Formato#doArquivo(Path)})
+	 *
+	 * @throws LeituraArquivoException caso o arquivo não possa ser lido
+	 */
+	public static FolhaPagamento ler(Path arquivo) throws TransacaoException {
+		List<String> linhas;
+		try {
+			linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Arquivo da folha de pagamento nao pode ser lido");
+		}
+		return ler(linhas, Formato.doArquivo(arquivo));
+	}
+
+	/**
+	 * @throws TransacaoException com todas as linhas inválidas, ou caso a folha não tenha nenhum pagamento
+	 */
+	public static FolhaPagamento ler(List<String> linhas, Formato formato) throws TransacaoException {
+		List<Pagamento> pagamentos = new ArrayList<>(linhas.size());
+		List<String> erros = new ArrayList<>();
+		long total = 0;
+		for (int i = 0; i < linhas.size(); i++) {
+			String linha = linhas.get(i);
+			if (linha.isBlank() || linha.startsWith("#")
+					|| (i == 0 && formato == Formato.CSV && linha.trim().equalsIgnoreCase(CABECALHO_CSV))) {
+				continue;
+			}
+			try {
+				Pagamento pagamento = formato == Formato.CSV ? lerCsv(i + 1, linha) : lerLarguraFixa(i + 1, linha);
+				total = Math.addExact(total, pagamento.VALOR);
+				pagamentos.add(pagamento);
+			} catch (TransacaoException ex) {
+				erros.add("Linha " + (i + 1) + ": " + ex.getMessage());
+			} catch (ArithmeticException ex) {
+				erros.add("Linha " + (i + 1) + ": total da folha muito grande");
+			}
+		}
+		if (!erros.isEmpty()) {
+			throw new TransacaoException("Folha de pagamento invalida\n" + String.join("\n", erros));
+		}
+		if (pagamentos.isEmpty()) {
+			throw new TransacaoException("Folha de pagamento sem nenhum pagamento");
+		}
+		return new FolhaPagamento(pagamentos, total);
+	}
+
+	private static Pagamento lerCsv(int numero, String linha) throws TransacaoException {
+		String[] campos = linha.split(SEPARADOR_CSV, -1);
+		if (campos.length != 3) {
+			throw new TransacaoException("esperados 3 campos separados por '" + SEPARADOR_CSV + "'");
+		}
+		long valor;
+		try {
+			valor = Dinheiro.centavos(campos[2]);
+		} catch (NumberFormatException ex) {
+			throw new TransacaoException("valor invalido");
+		}
+		return criarPagamento(numero, campos[0].trim(), campos[1].trim(), valor);
+	}
+
+	private static Pagamento lerLarguraFixa(int numero, String linha) throws TransacaoException {
+		if (linha.length() != TAMANHO_LINHA) {
+			throw new TransacaoException("esperados " + TAMANHO_LINHA + " caracteres, encontrados " + linha.length());
+		}
+		String tipo = linha.substring(0, TAMANHO_TIPO).trim();
+		String chave = linha.substring(TAMANHO_TIPO, TAMANHO_TIPO + TAMANHO_CHAVE).trim();
+		String valor = linha.substring(TAMANHO_TIPO + TAMANHO_CHAVE);
+		for (int i = 0; i < valor.length(); i++) {
+			if (valor.charAt(i) < '0' || valor.charAt(i) > '9') {
+				throw new TransacaoException("valor invalido");
+			}
+		}
+		return criarPagamento(numero, tipo, chave, Long.parseLong(valor));
+	}
+
+	private static Pagamento criarPagamento(int numero, String tipo, String chave, long valor) throws TransacaoException {
+		if (!TIPOS_CHAVE.contains(tipo)) {
+			throw new TransacaoException("tipo de chave invalido");
+		}
+		if (chave.isEmpty()) {
+			throw new TransacaoException("chave vazia");
+		}
+		if (valor <= 0) {
+			throw new TransacaoException("valor deve ser maior que zero");
+		}
+		return new Pagamento(numero, tipo, chave, valor);
+	}
+
+	public List<Pagamento> getPagamentos() {
+		return PAGAMENTOS;
+	}
+
+	public long getTotalCentavos() {
+		return TOTAL;
+	}
+}
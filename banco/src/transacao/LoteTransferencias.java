@@ -0,0 +1,172 @@
+package transacao;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transferências de uma conta para vários favorecidos feitas como uma operação só, como o pagamento de uma
+ * {@link FolhaPagamento}. Cada pagamento é uma {@link Transacao} própria, que aparece no histórico da origem e do
+ * favorecido; a soma é debitada de uma vez da origem (ver {@link conta.Conta#transferirLote(LoteTransferencias)}) e o
+ * lote inteiro vai para o journal como um registro só.
+ */
+public class LoteTransferencias {
+	private final String NOSSO_NUMERO;
+	private final Cliente ORIGEM;
+	private final Data DATA_EMISSAO;
+	private final List<Transacao> ITENS;
+	/**
+	 * Em centavos
+	 */
+	private final long TOTAL;
+
+	/**
+	 * Busca o titular de uma chave Pix, como {@link Agencia#buscarClientePorChavePix(String, String)}
+	 */
+	@FunctionalInterface
+	public interface BuscaChavePix {
+		Cliente buscar(String tipoChave, String chave) throws BuscaException;
+	}
+
+	/**
+	 * Usado pelo {@link CodecLoteTransferencias} para recriar um lote gravado
+	 */
+	LoteTransferencias(String nossoNumero, Cliente origem, Data dataEmissao, List<Transacao> itens) {
+		this.NOSSO_NUMERO = nossoNumero;
+		this.ORIGEM = origem;
+		this.DATA_EMISSAO = dataEmissao;
+		this.ITENS = Collections.unmodifiableList(itens);
+		long total = 0;
+		for (Transacao item : itens) {
+			total += item.getValorCentavos();
+		}
+		this.TOTAL = total;
+	}
+
+	public static LoteTransferencias criar(Cliente origem, FolhaPagamento folha) throws TransacaoException {
+		return criar(origem, folha, Agencia.getInstance()::buscarClientePorChavePix);
+	}
+
+	/**
+	 * Resolve as chaves de todos os pagamentos em uma passada, buscando cada chave repetida uma vez só, e cria as
+	 * transações do lote com nossos números gerados de uma vez. Nada é criado se alguma chave não for encontrada.
+	 *
+	 * @throws TransacaoException com todas as linhas cujas chaves não foram encontradas ou são da própria origem
+	 */
+	public static LoteTransferencias criar(Cliente origem, FolhaPagamento folha, BuscaChavePix busca) throws TransacaoException {
+		List<FolhaPagamento.Pagamento> pagamentos = folha.getPagamentos();
+		Map<String, Cliente> titulares = new HashMap<>();
+		List<Cliente> destinos = new ArrayList<>(pagamentos.size());
+		List<String> erros = new ArrayList<>();
+		for (FolhaPagamento.Pagamento pagamento : pagamentos) {
+			String chave = pagamento.getTipoChave() + ':' + pagamento.getChave();
+			if (!titulares.containsKey(chave)) {
+				Cliente titular;
+				try {
+					titular = busca.buscar(pagamento.getTipoChave(), pagamento.getChave());
+				} catch (BuscaException ex) {
+					titular = null;
+				}
+				titulares.put(chave, titular);
+			}
+			Cliente destino = titulares.get(chave);
+			if (destino == null) {
+				erros.add("Linha " + pagamento.getLinha() + ": chave Pix nao encontrada");
+			} else if (destino.getIdentificacao().equals(origem.getIdentificacao())) {
+				erros.add("Linha " + pagamento.getLinha() + ": a chave Pix e da propria conta de origem");
+			}
+			destinos.add(destino);
+		}
+		if (!erros.isEmpty()) {
+			throw new TransacaoException("Folha de pagamento nao realizada\n" + String.join("\n", erros));
+		}
+
+		List<String> nossosNumeros = GeracaoAleatoria.gerarNossosNumeros(25, pagamentos.size() + 1);
+		Data dataEmissao = DataBank.criarData(DataBank.COM_HORA);
+		List<Transacao> itens = new ArrayList<>(pagamentos.size());
+		for (int i = 0; i < pagamentos.size(); i++) {
+			String nossoNumero = nossosNumeros.get(i + 1);
+			itens.add(new Transacao(pagamentos.get(i).getValorCentavos(), nossoNumero,
+					Transacao.gerarIdPagamento(nossoNumero, dataEmissao), origem, destinos.get(i), dataEmissao, null));
+		}
+		return new LoteTransferencias(nossosNumeros.get(0), origem, dataEmissao, itens);
+	}
+
+	/**
+	 * @return o mesmo lote (nosso número, origem e data) só com os itens informados, como os que foram de fato pagos
+	 */
+	public LoteTransferencias comItens(List<Transacao> itens) {
+		return new LoteTransferencias(NOSSO_NUMERO, ORIGEM, DATA_EMISSAO, new ArrayList<>(itens));
+	}
+
+	/**
+	 * @return o comprovante do lote, para quem chamou mostrar
+	 */
+	public String gerarComprovante() {
+		return toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder toString = new StringBuilder("[LOTE DE TRANSFERENCIAS]\n");
+		toString.append("IDENTIFICACAO DO LOTE: ").append(NOSSO_NUMERO).append("\n");
+		toString.append("ORIGEM DO LOTE: ").append(ORIGEM.getNome()).append("\n");
+		toString.append("DATA EMISSAO DO LOTE: ").append(DATA_EMISSAO).append("\n");
+		toString.append("TRANSFERENCIAS: ").append(ITENS.size()).append("\n");
+		for (Transacao item : ITENS) {
+			toString.append("  ").append(item.getClienteDestino().getNome()).append(" >> ")
+					.append(item.getValor()).append(" (").append(item.getIdPagamento()).append(")\n");
+		}
+		toString.append("VALOR TOTAL: ").append(getValor()).append("\n");
+		return toString.toString();
+	}
+
+	/**
+	 * @return a origem e os favorecidos, sem repetição, cujas contas o lote altera
+	 */
+	public Set<Cliente> getClientes() {
+		Set<Cliente> clientes = new LinkedHashSet<>();
+		clientes.add(ORIGEM);
+		for (Transacao item : ITENS) {
+			clientes.add(item.getClienteDestino());
+		}
+		return clientes;
+	}
+
+	public String getNossoNumero() {
+		return NOSSO_NUMERO;
+	}
+
+	public Cliente getOrigem() {
+		return ORIGEM;
+	}
+
+	public Data getDataEmissao() {
+		return DATA_EMISSAO;
+	}
+
+	public List<Transacao> getItens() {
+		return ITENS;
+	}
+
+	public double getValor() {
+		return Dinheiro.reais(TOTAL);
+	}
+
+	public long getTotalCentavos() {
+		return TOTAL;
+	}
+}
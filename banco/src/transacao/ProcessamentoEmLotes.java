@@ -0,0 +1,91 @@
+package transacao;
+
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Leitura em fluxo de um arquivo de registros com campos separados por {@code ;}, processado em lotes de
+ * {@link #TAMANHO_LOTE} linhas sem carregar o arquivo inteiro. Linhas em branco, comentários ({@code #}) e o
+ * cabeçalho na primeira linha são ignorados. Uma linha recusada não interrompe o arquivo: o motivo vai para os erros
+ * do {@link RelatorioProcessamento}.
+ */
+abstract class ProcessamentoEmLotes {
+	public static final int TAMANHO_LOTE = 1000;
+	private static final String SEPARADOR = ";";
+	private final String CABECALHO;
+	private final int QUANTIDADE_CAMPOS;
+
+	ProcessamentoEmLotes(String cabecalho) {
+		this.CABECALHO = cabecalho;
+		this.QUANTIDADE_CAMPOS = cabecalho.split(SEPARADOR).length;
+	}
+
+	/**
+	 * Processa um arquivo em UTF-8
+	 *
+	 * @param acompanhamento recebe o relatório parcial em intervalos regulares, ou {@code null}
+	 * @throws LeituraArquivoException caso o arquivo não possa ser lido
+	 * @throws EscritaArquivoException caso um lote ou registro não possa ser gravado no journal
+	 */
+	public RelatorioProcessamento processar(Path arquivo, Consumer<RelatorioProcessamento> acompanhamento) throws EscritaArquivoException {
+		try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+			return processar(leitor, acompanhamento);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Arquivo " + arquivo.getFileName() + " nao pode ser lido");
+		}
+	}
+
+	public RelatorioProcessamento processar(BufferedReader leitor, Consumer<RelatorioProcessamento> acompanhamento)
+			throws IOException, EscritaArquivoException {
+		RelatorioProcessamento relatorio = new RelatorioProcessamento(acompanhamento);
+		int numeroLinha = 0;
+		int linhasNoLote = 0;
+		String linha;
+		while ((linha = leitor.readLine()) != null) {
+			numeroLinha++;
+			if (linha.isBlank() || linha.startsWith("#") || (numeroLinha == 1 && linha.trim().equalsIgnoreCase(CABECALHO))) {
+				continue;
+			}
+			String[] campos = linha.split(SEPARADOR, -1);
+			try {
+				if (campos.length != QUANTIDADE_CAMPOS) {
+					throw new TransacaoException("esperados " + QUANTIDADE_CAMPOS + " campos separados por '" + SEPARADOR + "'");
+				}
+				for (int i = 0; i < campos.length; i++) {
+					campos[i] = campos[i].trim();
+				}
+				lerLinha(numeroLinha, campos, relatorio);
+			} catch (TransacaoException ex) {
+				relatorio.registrarErro(numeroLinha, ex.getMessage());
+			}
+			if (++linhasNoLote == TAMANHO_LOTE) {
+				fecharLote(relatorio);
+				linhasNoLote = 0;
+			}
+		}
+		fecharLote(relatorio);
+		relatorio.concluir();
+		return relatorio;
+	}
+
+	/**
+	 * @throws TransacaoException      caso o registro seja recusado, com o motivo
+	 * @throws EscritaArquivoException caso o registro não possa ser gravado no journal, o que interrompe o arquivo
+	 */
+	protected abstract void lerLinha(int numeroLinha, String[] campos, RelatorioProcessamento relatorio)
+			throws TransacaoException, EscritaArquivoException;
+
+	/**
+	 * Conclui o lote das linhas lidas desde o último, que pode estar vazio
+	 */
+	protected abstract void fecharLote(RelatorioProcessamento relatorio) throws EscritaArquivoException;
+}
@@ -0,0 +1,86 @@
+package transacao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Andamento e resultado de um processamento em massa ({@link RemessaBoletos}, {@link RetornoBoletos}): registros
+ * processados, erros de cada linha recusada e vazão. Durante o processamento o relatório é passado ao acompanhamento
+ * a cada {@link #INTERVALO_PROGRESSO_MS}, então um arquivo grande mostra a vazão em intervalos regulares.
+ */
+public class RelatorioProcessamento {
+	public static final long INTERVALO_PROGRESSO_MS = 1000;
+	private final Consumer<RelatorioProcessamento> ACOMPANHAMENTO;
+	private final List<String> ERROS;
+	private final long INICIO;
+	private long ultimoProgresso;
+	private long fim;
+	private int processados;
+
+	/**
+	 * @param acompanhamento chamado com o relatório parcial a cada {@link #INTERVALO_PROGRESSO_MS}, ou {@code null}
+	 */
+	RelatorioProcessamento(Consumer<RelatorioProcessamento> acompanhamento) {
+		this.ACOMPANHAMENTO = acompanhamento;
+		this.ERROS = new ArrayList<>();
+		this.INICIO = System.nanoTime();
+		this.ultimoProgresso = this.INICIO;
+	}
+
+	void registrarProcessados(int quantidade) {
+		this.processados += quantidade;
+		avisarProgresso();
+	}
+
+	void registrarErro(int linha, String mensagem) {
+		this.ERROS.add("Linha " + linha + ": " + mensagem);
+		avisarProgresso();
+	}
+
+	private void avisarProgresso() {
+		long agora = System.nanoTime();
+		if (this.ACOMPANHAMENTO != null && agora - this.ultimoProgresso >= INTERVALO_PROGRESSO_MS * 1_000_000) {
+			this.ultimoProgresso = agora;
+			this.ACOMPANHAMENTO.accept(this);
+		}
+	}
+
+	void concluir() {
+		this.fim = System.nanoTime();
+	}
+
+	public boolean isConcluido() {
+		return this.fim != 0;
+	}
+
+	public int getProcessados() {
+		return processados;
+	}
+
+	/**
+	 * @return uma mensagem por linha recusada, na ordem do arquivo
+	 */
+	public List<String> getErros() {
+		return Collections.unmodifiableList(ERROS);
+	}
+
+	public long getDuracaoMs() {
+		return ((isConcluido() ? this.fim : System.nanoTime()) - this.INICIO) / 1_000_000;
+	}
+
+	/**
+	 * @return registros lidos (processados ou recusados) por segundo
+	 */
+	public double getVazao() {
+		long duracao = (isConcluido() ? this.fim : System.nanoTime()) - this.INICIO;
+		return duracao == 0 ? 0 : (this.processados + this.ERROS.size()) / (duracao / 1e9);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d processados, %d com erro em %d ms (%.0f registros/s)%s", processados, ERROS.size(),
+				getDuracaoMs(), getVazao(), isConcluido() ? "" : "...");
+	}
+}
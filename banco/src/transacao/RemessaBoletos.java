@@ -0,0 +1,106 @@
+package transacao;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emissão de boletos em massa a partir do arquivo de remessa de um beneficiário. Cada linha é um boleto
+ * {@code valor;vencimento;multa}, com o valor e a multa por dia em reais e o vencimento em {@code DD/MM/AAAA}.
+ * <p>
+ * As linhas de cada lote são conferidas primeiro; depois os nossos números do lote são gerados de uma vez, os boletos
+ * entram na agência e o lote vai para o journal como um registro só.
+ */
+public class RemessaBoletos extends ProcessamentoEmLotes {
+	private static final DateTimeFormatter FORMATO_VENCIMENTO = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+			.withResolverStyle(ResolverStyle.STRICT);
+	private final Agencia AGENCIA;
+	private final Cliente BENEFICIARIO;
+	private final List<Pendente> PENDENTES;
+
+	/**
+	 * Boleto conferido, esperando os nossos números do lote
+	 */
+	private static final class Pendente {
+		private final long VALOR;
+		private final Data VENCIMENTO;
+		private final long MULTA_DIAS;
+
+		private Pendente(long valor, Data vencimento, long multaDias) {
+			this.VALOR = valor;
+			this.VENCIMENTO = vencimento;
+			this.MULTA_DIAS = multaDias;
+		}
+	}
+
+	public RemessaBoletos(Cliente beneficiario) {
+		this(Agencia.getInstance(), beneficiario);
+	}
+
+	public RemessaBoletos(Agencia agencia, Cliente beneficiario) {
+		super("valor;vencimento;multa");
+		this.AGENCIA = agencia;
+		this.BENEFICIARIO = beneficiario;
+		this.PENDENTES = new ArrayList<>(TAMANHO_LOTE);
+	}
+
+	@Override
+	protected void lerLinha(int numeroLinha, String[] campos, RelatorioProcessamento relatorio) throws TransacaoException {
+		long valor;
+		long multa;
+		try {
+			valor = Dinheiro.centavos(campos[0]);
+			multa = Dinheiro.centavos(campos[2]);
+		} catch (NumberFormatException ex) {
+			throw new TransacaoException("valor invalido");
+		}
+		if (valor <= 0) {
+			throw new TransacaoException("valor deve ser maior que zero");
+		}
+		if (multa < 0) {
+			throw new TransacaoException("multa nao pode ser negativa");
+		}
+		try {
+			LocalDate.parse(campos[1], FORMATO_VENCIMENTO);
+		} catch (DateTimeParseException ex) {
+			throw new TransacaoException("vencimento invalido");
+		}
+		this.PENDENTES.add(new Pendente(valor, DataBank.criarData(campos[1], DataBank.SEM_HORA), multa));
+	}
+
+	@Override
+	protected void fecharLote(RelatorioProcessamento relatorio) throws EscritaArquivoException {
+		if (this.PENDENTES.isEmpty()) {
+			return;
+		}
+		List<String> nossosNumeros = GeracaoAleatoria.gerarNossosNumeros(25, this.PENDENTES.size());
+		Data dataEmissao = DataBank.criarData(DataBank.COM_HORA);
+		List<Boleto> emitidos = new ArrayList<>(this.PENDENTES.size());
+		for (int i = 0; i < this.PENDENTES.size(); i++) {
+			Pendente pendente = this.PENDENTES.get(i);
+			String nossoNumero = nossosNumeros.get(i);
+			Boleto boleto = new Boleto(pendente.VALOR, nossoNumero, Transacao.gerarIdPagamento(nossoNumero, dataEmissao),
+					null, this.BENEFICIARIO, dataEmissao, null, pendente.VENCIMENTO, pendente.MULTA_DIAS, false);
+			emitidos.add(boleto);
+		}
+		// no journal antes de entrar na agência, para nenhum boleto ser pago sem ter sido registrado
+		this.AGENCIA.registrarBoletosEmitidos(emitidos);
+		for (Boleto boleto : emitidos) {
+			this.AGENCIA.addBoleto(boleto);
+		}
+		this.PENDENTES.clear();
+		relatorio.registrarProcessados(emitidos.size());
+	}
+}
@@ -0,0 +1,113 @@
+package transacao;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import conta.Conta;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liquidação em massa de boletos a partir de um arquivo de retorno de pagamentos. Cada linha é um pagamento
+ * {@code nossoNumero;tipoChave;chave}, com a chave Pix de quem paga, feito como no menu
+ * ({@link conta.Conta#pagarBoleto(Boleto, Cliente)}, com multa por atraso).
+ * <p>
+ * As linhas de cada lote são conferidas primeiro, com as chaves dos pagadores buscadas uma vez por lote; depois o lote
+ * é pago de uma vez ({@link Conta#pagarBoletos(List, List, conta.RegistroOperacoes)}) e vai para o journal como um
+ * registro só, com os boletos que foram de fato pagos, antes de as contas serem destravadas. Os boletos pagos só saem da
+ * agência depois do registro. Um pagamento recusado (boleto não encontrado ou já pago, saldo insuficiente) fica nos
+ * erros do relatório com o motivo.
+ */
+public class RetornoBoletos extends ProcessamentoEmLotes {
+	private final Agencia AGENCIA;
+	private final Map<String, Cliente> PAGADORES;
+	private final List<Pendente> PENDENTES;
+
+	/**
+	 * Linha conferida, esperando o pagamento do lote, ou recusada na conferência
+	 */
+	private static final class Pendente {
+		private final int NUMERO_LINHA;
+		private final Boleto BOLETO;
+		private final Cliente PAGADOR;
+		private final String RECUSA;
+
+		private Pendente(int numeroLinha, Boleto boleto, Cliente pagador, String recusa) {
+			this.NUMERO_LINHA = numeroLinha;
+			this.BOLETO = boleto;
+			this.PAGADOR = pagador;
+			this.RECUSA = recusa;
+		}
+	}
+
+	public RetornoBoletos() {
+		this(Agencia.getInstance());
+	}
+
+	public RetornoBoletos(Agencia agencia) {
+		super("nossoNumero;tipoChave;chave");
+		this.AGENCIA = agencia;
+		this.PAGADORES = new HashMap<>();
+		this.PENDENTES = new ArrayList<>(TAMANHO_LOTE);
+	}
+
+	/**
+	 * As recusas da conferência ficam no lote, para os erros do relatório seguirem a ordem do arquivo
+	 */
+	@Override
+	protected void lerLinha(int numeroLinha, String[] campos, RelatorioProcessamento relatorio) {
+		try {
+			Boleto boleto = this.AGENCIA.buscarBoleto(campos[0]);
+			Cliente pagador = buscarPagador(campos[1], campos[2]);
+			this.PENDENTES.add(new Pendente(numeroLinha, boleto, pagador, null));
+		} catch (BuscaException ex) {
+			this.PENDENTES.add(new Pendente(numeroLinha, null, null, ex.getMessage()));
+		}
+	}
+
+	private Cliente buscarPagador(String tipoChave, String chave) throws BuscaException {
+		String chaveCache = tipoChave + ':' + chave;
+		Cliente pagador = this.PAGADORES.get(chaveCache);
+		if (pagador == null) {
+			pagador = this.AGENCIA.buscarClientePorChavePix(tipoChave, chave);
+			this.PAGADORES.put(chaveCache, pagador);
+		}
+		return pagador;
+	}
+
+	@Override
+	protected void fecharLote(RelatorioProcessamento relatorio) throws EscritaArquivoException {
+		List<Boleto> boletos = new ArrayList<>(this.PENDENTES.size());
+		List<Cliente> pagadores = new ArrayList<>(this.PENDENTES.size());
+		for (Pendente pendente : this.PENDENTES) {
+			if (pendente.RECUSA == null) {
+				boletos.add(pendente.BOLETO);
+				pagadores.add(pendente.PAGADOR);
+			}
+		}
+		List<TransacaoException> recusas = boletos.isEmpty() ? List.of() : Conta.pagarBoletos(boletos, pagadores, this.AGENCIA);
+		int pagos = 0;
+		int conferido = 0;
+		for (Pendente pendente : this.PENDENTES) {
+			if (pendente.RECUSA != null) {
+				relatorio.registrarErro(pendente.NUMERO_LINHA, pendente.RECUSA);
+				continue;
+			}
+			TransacaoException recusa = recusas.get(conferido++);
+			if (recusa == null) {
+				this.AGENCIA.apagarBoleto(pendente.BOLETO);
+				pagos++;
+			} else {
+				relatorio.registrarErro(pendente.NUMERO_LINHA, recusa.getMessage());
+			}
+		}
+		this.PENDENTES.clear();
+		this.PAGADORES.clear();
+		relatorio.registrarProcessados(pagos);
+	}
+}
@@ -4,17 +4,17 @@ import agencia.Agencia;
 import cliente.Cliente;
 import conta.Conta;
 import interfaceUsuario.dados.DadosTransacao;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
-import java.io.Serial;
-import java.io.Serializable;
 
-public class Transacao implements Serializable {
-	@Serial
-	private static final long serialVersionUID = 5L;
-	protected final Double VALOR;
+public class Transacao {
+	/**
+	 * Em centavos
+	 */
+	protected final long VALOR;
 	protected final String NOSSO_NUMERO;
 	protected final String ID_PAGAMENTO;
 	private final Cliente DESTINO; //@Lembrando DESTINO, QUEM RECEBE
@@ -23,16 +23,44 @@ public class Transacao implements Serializable {
 	private Data dataAgendada;
 
 	public Transacao(DadosTransacao dadosTransacao) {
-		this.VALOR = dadosTransacao.getValor();
+		this.VALOR = Dinheiro.centavos(dadosTransacao.getValor());
 		this.NOSSO_NUMERO = GeracaoAleatoria.gerarNossosNumeros(25);
 		this.dataEmissaoTransacao = DataBank.criarData(DataBank.COM_HORA);
-		this.ID_PAGAMENTO = Agencia.ID_AGENCIA + Agencia.CODIGO_MOEDA + GeracaoAleatoria.gerarNumeros(4) +
-				this.NOSSO_NUMERO + dataEmissaoTransacao.toString(new int[]{DataBank.SEM_HORA, DataBank.SEM_BARRA});
+		this.ID_PAGAMENTO = gerarIdPagamento(this.NOSSO_NUMERO, this.dataEmissaoTransacao);
 		this.DESTINO = dadosTransacao.getdestino();
 		this.origem = dadosTransacao.getorigem();
 		this.dataAgendada = null;
 	}
 
+	/**
+	 * Usado pelo {@link CodecTransacao} para recriar uma transação gravada
+	 */
+	Transacao(long valor, String nossoNumero, String idPagamento, Cliente origem, Cliente destino, Data dataEmissaoTransacao, Data dataAgendada) {
+		this.VALOR = valor;
+		this.NOSSO_NUMERO = nossoNumero;
+		this.ID_PAGAMENTO = idPagamento;
+		this.origem = origem;
+		this.DESTINO = destino;
+		this.dataEmissaoTransacao = dataEmissaoTransacao;
+		this.dataAgendada = dataAgendada;
+	}
+
+	/**
+	 * Cria uma transferência já realizada na data informada, sem mexer nos saldos nem registrá-la nas contas (ver
+	 * {@link Conta#restaurarTransacaoRealizada(Transacao)}). Usado para montar históricos fora da agência, como os dos
+	 * bancos sintéticos de teste de carga.
+	 */
+	public static Transacao criarTransacaoRealizada(DadosTransacao dadosTransacao, Data dataEmissao) {
+		String nossoNumero = GeracaoAleatoria.gerarNossosNumeros(25);
+		return new Transacao(Dinheiro.centavos(dadosTransacao.getValor()), nossoNumero, gerarIdPagamento(nossoNumero, dataEmissao),
+				dadosTransacao.getorigem(), dadosTransacao.getdestino(), dataEmissao, null);
+	}
+
+	static String gerarIdPagamento(String nossoNumero, Data dataEmissao) {
+		return Agencia.ID_AGENCIA + Agencia.CODIGO_MOEDA + GeracaoAleatoria.gerarNumeros(4) +
+				nossoNumero + dataEmissao.toString(new int[]{DataBank.SEM_HORA, DataBank.SEM_BARRA});
+	}
+
 	public static Transacao criarTransacaoAgendada(DadosTransacao dadosTransacao, Data dataAgendada) {
 		Transacao transacao = new Transacao(dadosTransacao);
 		transacao.dataAgendada = dataAgendada;
@@ -56,9 +84,7 @@ public class Transacao implements Serializable {
 	@Override
 	public String toString() {
 		String toString = "[TRANSACAO]\n";
-		if (VALOR != null) {
-			toString = toString + "VALOR: " + VALOR + "\n";
-		}
+		toString = toString + "VALOR: " + getValor() + "\n";
 		if (ID_PAGAMENTO != null) {
 			toString = toString + "IDENTIFICACAO DA TRANSACAO: " + ID_PAGAMENTO + "\n";
 		}
@@ -93,7 +119,11 @@ public class Transacao implements Serializable {
 		return origem.getConta();
 	}
 
-	public Double getValor() {
+	public double getValor() {
+		return Dinheiro.reais(VALOR);
+	}
+
+	public long getValorCentavos() {
 		return VALOR;
 	}
 
@@ -105,5 +135,17 @@ public class Transacao implements Serializable {
 		return DESTINO.getConta();
 	}
 
+	public Cliente getClienteOrigem() {
+		return origem;
+	}
+
+	public Cliente getClienteDestino() {
+		return DESTINO;
+	}
+
+	String getIdPagamento() {
+		return ID_PAGAMENTO;
+	}
+
 
 }
@@ -0,0 +1,20 @@
+package transacao.exceptions;
+
+import transacao.LoteTransferencias;
+
+/**
+ * Lote de transferências em que parte dos favorecidos não foi creditada. Os itens que falharam já foram estornados
+ * para a origem; {@link #getRealizado()} tem os que foram de fato pagos, que já foram registrados.
+ */
+public class LoteIncompletoException extends TransacaoException {
+	private final LoteTransferencias REALIZADO;
+
+	public LoteIncompletoException(String msg, LoteTransferencias realizado) {
+		super(msg);
+		this.REALIZADO = realizado;
+	}
+
+	public LoteTransferencias getRealizado() {
+		return REALIZADO;
+	}
+}
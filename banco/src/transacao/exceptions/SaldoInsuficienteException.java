@@ -0,0 +1,10 @@
+package transacao.exceptions;
+
+/**
+ * A origem não tem saldo para a operação, conferido com a conta travada. Nada foi movimentado.
+ */
+public class SaldoInsuficienteException extends TransacaoException {
+	public SaldoInsuficienteException() {
+		super("Saldo insuficiente");
+	}
+}
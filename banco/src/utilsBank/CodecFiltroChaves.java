@@ -0,0 +1,62 @@
+package utilsBank;
+
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato: quantidade de camadas e, para cada uma, capacidade, taxa de falsos positivos, quantidade de funções de
+ * hash, quantidade de bits, quantidade de chaves e as palavras de 64 bits.
+ */
+public class CodecFiltroChaves implements Codec<FiltroChaves> {
+
+    @Override
+    public void escrever(DataOutput saida, FiltroChaves filtro, ContextoCodec contexto) throws IOException {
+        List<FiltroChaves.Camada> camadas = filtro.getCamadas();
+        saida.writeInt(camadas.size());
+        for (FiltroChaves.Camada camada : camadas) {
+            saida.writeLong(camada.getCapacidade());
+            saida.writeDouble(camada.getTaxa());
+            saida.writeInt(camada.getFuncoes());
+            saida.writeLong(camada.getBits());
+            saida.writeLong(camada.getQuantidade());
+            for (long palavra : camada.getPalavras()) {
+                saida.writeLong(palavra);
+            }
+        }
+    }
+
+    @Override
+    public FiltroChaves ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+        int quantidadeCamadas = entrada.readInt();
+        if (quantidadeCamadas <= 0) {
+            throw new IOException("Quantidade invalida");
+        }
+        List<FiltroChaves.Camada> camadas = new ArrayList<>(quantidadeCamadas);
+        for (int i = 0; i < quantidadeCamadas; i++) {
+            long capacidade = entrada.readLong();
+            double taxa = entrada.readDouble();
+            int funcoes = entrada.readInt();
+            long bits = entrada.readLong();
+            long quantidade = entrada.readLong();
+            if (bits <= 0 || (bits + Long.SIZE - 1) / Long.SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Quantidade invalida");
+            }
+            long[] palavras = new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)];
+            for (int j = 0; j < palavras.length; j++) {
+                palavras[j] = entrada.readLong();
+            }
+            try {
+                camadas.add(new FiltroChaves.Camada(capacidade, taxa, funcoes, bits, palavras, quantidade));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Camada invalida");
+            }
+        }
+        return new FiltroChaves(camadas);
+    }
+}
@@ -0,0 +1,54 @@
+package utilsBank;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores em dinheiro são guardados como {@code long} em centavos, para que somas e subtrações sejam exatas e não
+ * aloquem objetos. Os reais em {@code double} ficam só na fronteira com o usuário (entrada e exibição).
+ */
+public class Dinheiro {
+	public static final long CENTAVOS_POR_REAL = 100;
+
+	private Dinheiro() {
+	}
+
+	/**
+	 * @return o valor em reais arredondado para o centavo mais próximo
+	 */
+	public static long centavos(double reais) {
+		return Math.round(reais * CENTAVOS_POR_REAL);
+	}
+
+	/**
+	 * Lê um valor em reais escrito em um arquivo, com ponto ou vírgula decimal, sem arredondar
+	 *
+	 * @throws NumberFormatException caso o texto não seja um número ou tenha mais de duas casas decimais
+	 */
+	public static long centavos(String reais) {
+		try {
+			return new BigDecimal(reais.trim().replace(',', '.')).movePointRight(2).longValueExact();
+		} catch (ArithmeticException ex) {
+			throw new NumberFormatException("Valor com mais de duas casas decimais: " + reais);
+		}
+	}
+
+	public static double reais(long centavos) {
+		return (double) centavos / CENTAVOS_POR_REAL;
+	}
+
+	/**
+	 * Aplica uma taxa (rendimento, juros) sobre um valor, arredondando para o centavo mais próximo
+	 *
+	 * @return o acréscimo em centavos
+	 */
+	public static long aplicarTaxa(long centavos, double taxa) {
+		return Math.round(centavos * taxa);
+	}
+
+	/**
+	 * Divide um valor em parcelas arredondando para cima, para que as parcelas nunca somem menos que o total
+	 */
+	public static long dividirEmParcelas(long centavos, int parcelas) {
+		return (centavos + parcelas - 1) / parcelas;
+	}
+}
@@ -0,0 +1,193 @@
+package utilsBank;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filtro de Bloom escalável das chaves já geradas: guarda só alguns bits por chave em vez da {@code String}, então
+ * responde "talvez já gerada" ou "com certeza nunca gerada".
+ * <p>
+ * O filtro nunca esquece uma chave (não há falso negativo), mas pode dizer que uma chave nova já foi gerada (falso
+ * positivo). Na geração isso só faz a chave ser descartada e a próxima ser tentada, então nenhuma chave é repetida; o
+ * custo é perder, em média, uma chave a cada {@code 1 / taxa} geradas.
+ * <p>
+ * Quando a camada atual enche é criada outra com o dobro da capacidade e metade da taxa de falsos positivos, então a
+ * taxa total fica abaixo de {@code 2 * TAXA_FALSOS_POSITIVOS} qualquer que seja a quantidade de chaves. Com a taxa
+ * padrão cada chave ocupa cerca de 29 bits na primeira camada e 1,44 bit a mais em cada camada seguinte.
+ */
+public class FiltroChaves {
+    public static final int CAPACIDADE_INICIAL = 1024;
+    public static final double TAXA_FALSOS_POSITIVOS = 1e-6;
+    private final List<Camada> camadas;
+    private long quantidade;
+
+    public FiltroChaves() {
+        this.camadas = new ArrayList<>();
+        this.camadas.add(new Camada(CAPACIDADE_INICIAL, TAXA_FALSOS_POSITIVOS));
+    }
+
+    /**
+     * Filtro lido do arquivo ({@link CodecFiltroChaves})
+     */
+    FiltroChaves(List<Camada> camadas) {
+        if (camadas.isEmpty()) {
+            throw new IllegalArgumentException("Filtro sem camadas");
+        }
+        this.camadas = new ArrayList<>(camadas);
+        for (Camada camada : camadas) {
+            this.quantidade += camada.quantidade;
+        }
+    }
+
+    /**
+     * @return {@code false} caso a chave certamente nunca tenha sido adicionada
+     */
+    public synchronized boolean contem(String chave) {
+        long hash = hash(chave);
+        long passo = passo(hash);
+        for (Camada camada : this.camadas) {
+            if (camada.contem(hash, passo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code false} caso a chave talvez já tenha sido adicionada, e nesse caso ela não é adicionada de novo
+     */
+    public synchronized boolean adicionar(String chave) {
+        if (contem(chave)) {
+            return false;
+        }
+        Camada atual = this.camadas.get(this.camadas.size() - 1);
+        if (atual.quantidade >= atual.capacidade) {
+            atual = new Camada(atual.capacidade * 2, atual.taxa / 2);
+            this.camadas.add(atual);
+        }
+        long hash = hash(chave);
+        atual.adicionar(hash, passo(hash));
+        this.quantidade++;
+        return true;
+    }
+
+    public synchronized long getQuantidade() {
+        return this.quantidade;
+    }
+
+    /**
+     * @return memória ocupada pelos bits das camadas
+     */
+    public synchronized long getTamanhoEmBytes() {
+        long bytes = 0;
+        for (Camada camada : this.camadas) {
+            bytes += (long) camada.palavras.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    synchronized List<Camada> getCamadas() {
+        return Collections.unmodifiableList(new ArrayList<>(this.camadas));
+    }
+
+    /**
+     * FNV-1a dos bytes da chave seguido do finalizador do SplitMix64
+     */
+    private static long hash(String chave) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return misturar(h);
+    }
+
+    /**
+     * Segundo hash, ímpar, para as posições {@code hash + i * passo} (Kirsch e Mitzenmacher)
+     */
+    private static long passo(long hash) {
+        return misturar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Filtro de Bloom de tamanho fixo, dimensionado para {@code capacidade} chaves com a taxa de falsos positivos dada
+     */
+    static class Camada {
+        private final long capacidade;
+        private final double taxa;
+        private final int funcoes;
+        private final long bits;
+        private final long[] palavras;
+        private long quantidade;
+
+        Camada(long capacidade, double taxa) {
+            this.capacidade = capacidade;
+            this.taxa = taxa;
+            double ln2 = Math.log(2);
+            this.bits = Math.max(Long.SIZE, (long) Math.ceil(-capacidade * Math.log(taxa) / (ln2 * ln2)));
+            this.funcoes = Math.max(1, (int) Math.round((double) this.bits / capacidade * ln2));
+            this.palavras = new long[(int) ((this.bits + Long.SIZE - 1) / Long.SIZE)];
+        }
+
+        Camada(long capacidade, double taxa, int funcoes, long bits, long[] palavras, long quantidade) {
+            if (funcoes <= 0 || bits <= 0 || palavras.length != (bits + Long.SIZE - 1) / Long.SIZE) {
+                throw new IllegalArgumentException("Camada invalida");
+            }
+            this.capacidade = capacidade;
+            this.taxa = taxa;
+            this.funcoes = funcoes;
+            this.bits = bits;
+            this.palavras = palavras;
+            this.quantidade = quantidade;
+        }
+
+        private boolean contem(long hash, long passo) {
+            for (int i = 0; i < this.funcoes; i++) {
+                long bit = Math.floorMod(hash + i * passo, this.bits);
+                if ((this.palavras[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void adicionar(long hash, long passo) {
+            for (int i = 0; i < this.funcoes; i++) {
+                long bit = Math.floorMod(hash + i * passo, this.bits);
+                this.palavras[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            this.quantidade++;
+        }
+
+        long getCapacidade() {
+            return this.capacidade;
+        }
+
+        double getTaxa() {
+            return this.taxa;
+        }
+
+        int getFuncoes() {
+            return this.funcoes;
+        }
+
+        long getBits() {
+            return this.bits;
+        }
+
+        long[] getPalavras() {
+            return this.palavras;
+        }
+
+        long getQuantidade() {
+            return this.quantidade;
+        }
+    }
+}
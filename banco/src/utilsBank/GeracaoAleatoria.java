@@ -1,113 +1,232 @@
 package utilsBank;
 
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.LogChaves;
+import utilsBank.exceptions.ChavesEsgotadasException;
 
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
+import java.util.List;
 
 public class GeracaoAleatoria {
     public static final int TAMANHO_ID_CONTA = 4;
     public static final int TAMANHO_CHAVE_ALEATORIA = 48;
     private static final int NUMERO_CARTAO_SEM_AGENCIA = 12;
-    private static final Set<String> CHAVES_NOSSO_NUMEROS = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS);
-    private static final Set<String> CHAVES_GERADAS_ALEATORIA = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA);
-    private static final Set<String> CHAVES_GERADAS_NUMERO_CARTAO = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO);
-    private static final Set<String> CHAVES_ID_CONTA = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_ID_CONTA);
+    private static final ChavesGeradas CHAVES_NOSSO_NUMEROS = new ChavesGeradas(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS,
+            GerenciadorArquivo.PATH_FILTRO_NOSSO_NUMEROS);
+    private static final ChavesGeradas CHAVES_GERADAS_ALEATORIA = new ChavesGeradas(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA,
+            GerenciadorArquivo.PATH_FILTRO_CHAVES_ALEATORIAS);
+    private static final ChavesGeradas CHAVES_GERADAS_NUMERO_CARTAO = new ChavesGeradas(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO);
+    private static final ChavesGeradas CHAVES_ID_CONTA = new ChavesGeradas(GerenciadorArquivo.PATH_CHAVES_ID_CONTA);
+
+    /**
+     * Chaves já geradas de um tipo. O arquivo só é lido na primeira geração, e só é gravado de novo se tiver sido lido:
+     * a inicialização do banco não precisa carregar chaves que não vai gerar.
+     * <p>
+     * Cada chave nova só é acrescentada ao {@link LogChaves}; o conjunto completo é gravado no snapshot
+     * ({@link #salvar()}), que esvazia o log. Na leitura o log é somado ao último conjunto gravado.
+     * <p>
+     * As chaves numéricas saem de uma {@link PermutacaoDecimal} de um contador ({@link #gerar(int)}). O contador é
+     * gravado ao lado do log junto com o conjunto, e depois de reiniciar continua dele: só pula as posições geradas
+     * depois do último snapshot, que estão no log. Sem contador gravado ele começa do zero e pula as posições cujas
+     * chaves já estão no conjunto, o que também cobre as chaves sorteadas antes da permutação.
+     * <p>
+     * Nossos números e chaves aleatórias, que só crescem e têm espaço de sobra, ficam em um {@link FiltroChaves} em vez
+     * do conjunto: um falso positivo só descarta uma chave nova. Ids de contas e números de cartões continuam exatos,
+     * já que o espaço deles é pequeno o bastante para ser esgotado.
+     */
+    private static class ChavesGeradas {
+        private final String path;
+        private final String pathFiltro;
+        private HashSet<String> chaves;
+        private FiltroChaves filtro;
+        private LogChaves log;
+        private PermutacaoDecimal permutacao;
+        private long proximoIndice;
+
+        private ChavesGeradas(String path) {
+            this(path, null);
+        }
 
-    public static String gerarNossosNumeros(int quantidadeNumeros) {
-        Random random = new Random();
-        StringBuilder numberRandom;
-        do {
-            numberRandom = new StringBuilder();
-            for (int i = 0; i < quantidadeNumeros; i++) {
-                numberRandom.append(random.nextInt(10));
+        /**
+         * @param pathFiltro onde gravar o {@link FiltroChaves}, ou {@code null} para guardar o conjunto exato
+         */
+        private ChavesGeradas(String path, String pathFiltro) {
+            this.path = path;
+            this.pathFiltro = pathFiltro;
+        }
+
+        private synchronized void carregar() {
+            if (this.log != null) {
+                return;
+            }
+            LogChaves aberto = GerenciadorGeracaoAleatoria.abrirLog(this.path);
+            List<String> doLog = GerenciadorGeracaoAleatoria.lerLog(aberto);
+            if (this.pathFiltro == null) {
+                this.chaves = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(this.path);
+                this.chaves.addAll(doLog);
+            } else {
+                this.filtro = GerenciadorGeracaoAleatoria.inicializarFiltro(this.pathFiltro, this.path);
+                for (String chave : doLog) {
+                    this.filtro.adicionar(chave);
+                }
             }
+            this.log = aberto;
+        }
 
-        } while (CHAVES_NOSSO_NUMEROS.contains(String.valueOf(numberRandom)));
+        private synchronized long tamanho() {
+            carregar();
+            return this.filtro != null ? this.filtro.getQuantidade() : this.chaves.size();
+        }
 
-        CHAVES_NOSSO_NUMEROS.add(String.valueOf(numberRandom));
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS, (HashSet<String>) CHAVES_NOSSO_NUMEROS);
-        return numberRandom.toString();
-    }
+        /**
+         * @return {@code false} caso a chave já tenha sido gerada (ou, com o filtro, talvez já tenha sido)
+         */
+        private synchronized boolean adicionar(String chave) {
+            carregar();
+            boolean nova = this.filtro != null ? this.filtro.adicionar(chave) : this.chaves.add(chave);
+            if (!nova) {
+                return false;
+            }
+            GerenciadorGeracaoAleatoria.registrarChave(this.log, chave);
+            return true;
+        }
 
-    public static String gerarNumeros(int quantidade) {
-        Random random = new Random();
-        StringBuilder numberRandom;
+        /**
+         * @return uma chave de {@code digitos} dígitos ainda não gerada
+         * @throws ChavesEsgotadasException caso todas as chaves com essa quantidade de dígitos já tenham sido geradas
+         */
+        private synchronized String gerar(int digitos) {
+            if (this.permutacao == null || this.permutacao.getDigitos() != digitos) {
+                this.permutacao = new PermutacaoDecimal(digitos, GerenciadorGeracaoAleatoria.chavePermutacao(this.path));
+                this.proximoIndice = GerenciadorGeracaoAleatoria.lerIndicePermutacao(this.path, digitos);
+            }
+            while (this.proximoIndice < this.permutacao.getCapacidade()) {
+                String chave = this.permutacao.permutar(this.proximoIndice++);
+                if (adicionar(chave)) {
+                    return chave;
+                }
+            }
+            throw new ChavesEsgotadasException("Todas as chaves de " + digitos + " digitos ja foram geradas");
+        }
 
-        numberRandom = new StringBuilder();
-        for (int i = 0; i < quantidade; i++) {
-            numberRandom.append(random.nextInt(10));
+        /**
+         * @return {@code quantidade} chaves de {@code digitos} dígitos ainda não geradas, com uma só trava do conjunto
+         */
+        private synchronized List<String> gerar(int digitos, int quantidade) {
+            List<String> geradas = new ArrayList<>(quantidade);
+            while (geradas.size() < quantidade) {
+                geradas.add(gerar(digitos));
+            }
+            return geradas;
         }
 
-        return String.valueOf(numberRandom);
-    }
+        /**
+         * @return {@code quantidade} chaves de {@code tamanho} caracteres sorteadas de {@code alfabeto} e ainda não
+         * geradas, registradas de uma vez
+         * @throws ChavesEsgotadasException caso não existam chaves suficientes ainda não geradas
+         */
+        private synchronized List<String> sortear(String alfabeto, int tamanho, int quantidade) {
+            if (tamanho() + quantidade > Math.pow(alfabeto.length(), tamanho)) {
+                throw new ChavesEsgotadasException("Tamanho maximo de chaves atingido");
+            }
+            List<String> sorteadas = new ArrayList<>(quantidade);
+            while (sorteadas.size() < quantidade) {
+                String chave = GeradorAleatorio.sortear(alfabeto, tamanho);
+                if (adicionar(chave)) {
+                    sorteadas.add(chave);
+                }
+            }
+            return sorteadas;
+        }
 
-    public static String gerarNumeroCartao() {
-        Random random = new Random();
-        StringBuilder numberRandom;
-        do {
-            numberRandom = new StringBuilder();
-            for (int i = 0; i < NUMERO_CARTAO_SEM_AGENCIA; i++) {
-                numberRandom.append(random.nextInt(10));
+        private synchronized void salvar() {
+            if (this.log == null) {
+                return;
             }
+            boolean salvo = this.filtro != null
+                    ? GerenciadorGeracaoAleatoria.salvandoFiltro(this.pathFiltro, this.filtro)
+                    : GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(this.path, this.chaves);
+            if (salvo) {
+                if (this.permutacao != null) {
+                    GerenciadorGeracaoAleatoria.salvandoIndicePermutacao(this.path, this.permutacao.getDigitos(), this.proximoIndice);
+                }
+                GerenciadorGeracaoAleatoria.reiniciarLog(this.log);
+            }
+        }
 
-        } while (CHAVES_GERADAS_NUMERO_CARTAO.contains(String.valueOf(numberRandom)));
+        private synchronized void fechar() {
+            if (this.log != null) {
+                GerenciadorGeracaoAleatoria.fecharLog(this.log);
+                this.log = null;
+                this.chaves = null;
+                this.filtro = null;
+                this.permutacao = null;
+                this.proximoIndice = 0;
+            }
+        }
+    }
 
-        CHAVES_GERADAS_NUMERO_CARTAO.add((String.valueOf(numberRandom)));
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO, (HashSet<String>) CHAVES_GERADAS_NUMERO_CARTAO);
-        return String.valueOf(numberRandom);
+    public static String gerarNossosNumeros(int quantidadeNumeros) {
+        return CHAVES_NOSSO_NUMEROS.gerar(quantidadeNumeros);
     }
 
-    public static String gerarChaveAleatoria(int tamanhoChave) {
-        String caracteres = "abcdefghijklmnopqrstuvwxyz1234567890";
-        if (CHAVES_GERADAS_ALEATORIA.size() < Math.pow(caracteres.length(), tamanhoChave)) {
-            Random aleatorio = new Random();
-            String chaveAleatoria;
-            do {
-                chaveAleatoria = "";
-                for (int i = 0; i < tamanhoChave; i++) {
-                    chaveAleatoria += caracteres.charAt(aleatorio.nextInt(caracteres.length()));
-                }
-            } while (!CHAVES_GERADAS_ALEATORIA.add(chaveAleatoria));
-            GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA, (HashSet<String>) CHAVES_GERADAS_ALEATORIA);
-            return chaveAleatoria;
-        } else {
-            throw new RuntimeException("Tamanho maximo de chaves atingido");
-        }
+    /**
+     * Gera vários nossos números de uma vez, para as transações de um lote
+     */
+    public static List<String> gerarNossosNumeros(int quantidadeNumeros, int quantidade) {
+        return CHAVES_NOSSO_NUMEROS.gerar(quantidadeNumeros, quantidade);
+    }
 
+    public static String gerarNumeros(int quantidade) {
+        return GeradorAleatorio.numeros(quantidade);
     }
 
-    public static String gerarIdConta(int quantidadeDeNumeros) {
-        Random random = new Random();
-        StringBuilder numberRandom;
-        do {
-            numberRandom = new StringBuilder();
-            for (int i = 0; i < quantidadeDeNumeros; i++) {
-                numberRandom.append(random.nextInt(10));
-            }
+    public static String gerarNumeroCartao() {
+        return CHAVES_GERADAS_NUMERO_CARTAO.gerar(NUMERO_CARTAO_SEM_AGENCIA);
+    }
 
-        } while (CHAVES_ID_CONTA.contains(String.valueOf(numberRandom)));
+    public static String gerarChaveAleatoria(int tamanhoChave) {
+        return CHAVES_GERADAS_ALEATORIA.sortear(GeradorAleatorio.ALFABETO_CHAVE, tamanhoChave, 1).get(0);
+    }
 
+    /**
+     * Gera várias chaves aleatórias de uma vez, com uma só trava do conjunto de chaves geradas
+     */
+    public static List<String> gerarChavesAleatorias(int tamanhoChave, int quantidade) {
+        return CHAVES_GERADAS_ALEATORIA.sortear(GeradorAleatorio.ALFABETO_CHAVE, tamanhoChave, quantidade);
+    }
 
-        CHAVES_ID_CONTA.add(String.valueOf(numberRandom));
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_ID_CONTA, (HashSet<String>) CHAVES_ID_CONTA);
-        return numberRandom.toString();
+    /**
+     * @throws ChavesEsgotadasException caso todos os ids com essa quantidade de dígitos já estejam em uso
+     */
+    public static String gerarIdConta(int quantidadeDeNumeros) {
+        return CHAVES_ID_CONTA.gerar(quantidadeDeNumeros);
     }
 
     public static void salvarNossosNumeros() {
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS, (HashSet<String>) CHAVES_NOSSO_NUMEROS);
+        CHAVES_NOSSO_NUMEROS.salvar();
     }
 
     public static void salvarNumerosCartoes() {
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO, (HashSet<String>) CHAVES_GERADAS_NUMERO_CARTAO);
+        CHAVES_GERADAS_NUMERO_CARTAO.salvar();
     }
 
     public static void salvarChavesAleatorias() {
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA, (HashSet<String>) CHAVES_GERADAS_ALEATORIA);
+        CHAVES_GERADAS_ALEATORIA.salvar();
     }
 
     public static void salvarIdsContas() {
-        GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_ID_CONTA, (HashSet<String>) CHAVES_ID_CONTA);
+        CHAVES_ID_CONTA.salvar();
+    }
+
+    /**
+     * Força para o disco as chaves pendentes nos logs e os fecha. As chaves são lidas de novo na próxima geração.
+     */
+    public static void fechar() {
+        CHAVES_NOSSO_NUMEROS.fechar();
+        CHAVES_GERADAS_ALEATORIA.fechar();
+        CHAVES_GERADAS_NUMERO_CARTAO.fechar();
+        CHAVES_ID_CONTA.fechar();
     }
 }
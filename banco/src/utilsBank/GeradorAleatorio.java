@@ -0,0 +1,80 @@
+package utilsBank;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Sorteia sequências de caracteres de um alfabeto para as chaves e números do banco ({@link GeracaoAleatoria}).
+ * <p>
+ * Usa um único {@link SecureRandom}, que é thread-safe, já que chaves Pix, CVCs e códigos de pagamento não podem ser
+ * previsíveis. Os bytes sorteados e os caracteres da chave vão para buffers de cada thread, então a única alocação por
+ * chave é a própria {@code String}. Cada byte é aceito só se estiver abaixo do maior múltiplo do tamanho do alfabeto,
+ * para que todos os caracteres tenham a mesma chance.
+ */
+public class GeradorAleatorio {
+    public static final String ALFABETO_CHAVE = "abcdefghijklmnopqrstuvwxyz1234567890";
+    public static final String ALFABETO_NUMEROS = "0123456789";
+    private static final int TAMANHO_BUFFER = 256;
+    private static final SecureRandom ALEATORIO = criarAleatorio();
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private static class Buffers {
+        private final byte[] bytes = new byte[TAMANHO_BUFFER];
+        private int usados = TAMANHO_BUFFER;
+        private char[] caracteres = new char[64];
+
+        private int proximoByte() {
+            if (this.usados == this.bytes.length) {
+                ALEATORIO.nextBytes(this.bytes);
+                this.usados = 0;
+            }
+            return this.bytes[this.usados++] & 0xFF;
+        }
+
+        private char[] caracteres(int tamanho) {
+            if (this.caracteres.length < tamanho) {
+                this.caracteres = new char[tamanho];
+            }
+            return this.caracteres;
+        }
+    }
+
+    /**
+     * O DRBG é implementado em Java e só lê a entropia do sistema ao ser semeado; o padrão do sistema (NativePRNG) lê
+     * {@code /dev/urandom} a cada sorteio.
+     */
+    private static SecureRandom criarAleatorio() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException ex) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * @return {@code tamanho} caracteres sorteados de {@code alfabeto}, com até 256 caracteres
+     */
+    public static String sortear(String alfabeto, int tamanho) {
+        if (alfabeto.isEmpty() || alfabeto.length() > 256) {
+            throw new IllegalArgumentException("Alfabeto invalido");
+        }
+        Buffers buffers = BUFFERS.get();
+        char[] caracteres = buffers.caracteres(tamanho);
+        int limite = 256 - 256 % alfabeto.length();
+        for (int i = 0; i < tamanho; ) {
+            int sorteado = buffers.proximoByte();
+            if (sorteado < limite) {
+                caracteres[i++] = alfabeto.charAt(sorteado % alfabeto.length());
+            }
+        }
+        return new String(caracteres, 0, tamanho);
+    }
+
+    public static String numeros(int quantidade) {
+        return sortear(ALFABETO_NUMEROS, quantidade);
+    }
+
+    public static String chave(int tamanho) {
+        return sortear(ALFABETO_CHAVE, tamanho);
+    }
+}
@@ -5,14 +5,19 @@ import conta.Conta;
 import conta.ContaDiamond;
 import conta.ContaPremium;
 import conta.ContaStandard;
-import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import conta.TiposConta;
 import transacao.Boleto;
 import transacao.Transacao;
+import utilsBank.arquivo.ArquivoHistorico;
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.LivroSaldos;
+import utilsBank.arquivo.codec.ContextoCodec;
 import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.arquivo.journal.Journal;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.function.Function;
 
 public class GerenciadorBanco {
     public static final Double JUROS_FATURA = 0.03;
@@ -24,16 +29,28 @@ public class GerenciadorBanco {
         return value != 0;
     }
 
-    public static HashSet<Cliente> inicializarClientes() throws LeituraArquivoException {
-        return GerenciadorArquivo.listarSet(GerenciadorArquivo.PATH_CLIENTES);
+    public static HashSet<Cliente> inicializarClientes(ContextoCodec contexto) throws LeituraArquivoException {
+        return GerenciadorArquivo.listarSet(GerenciadorArquivo.PATH_CLIENTES, contexto);
     }
 
-    public static ArrayList<Transacao> inicializarTransacoes() throws LeituraArquivoException {
-        return GerenciadorArquivo.listarTransacoes(GerenciadorArquivo.PATH_TRANSACOES);
+    public static ArrayList<Transacao> inicializarTransacoes(ContextoCodec contexto) throws LeituraArquivoException {
+        return GerenciadorArquivo.listarTransacoes(GerenciadorArquivo.PATH_TRANSACOES, contexto);
     }
 
-    public static HashSet<Boleto> inicializarBoletos() {
-        return GerenciadorArquivo.listarSetBoleto(GerenciadorArquivo.PATH_BOLETOS);
+    public static HashSet<Boleto> inicializarBoletos(ContextoCodec contexto) {
+        return GerenciadorArquivo.listarSetBoleto(GerenciadorArquivo.PATH_BOLETOS, contexto);
+    }
+
+    public static Journal inicializarJournal() throws LeituraArquivoException {
+        return new Journal(GerenciadorArquivo.PATH_JOURNAL);
+    }
+
+    public static LivroSaldos inicializarLivroSaldos() throws LeituraArquivoException {
+        return LivroSaldos.abrir(GerenciadorArquivo.PATH_SALDOS);
+    }
+
+    public static ArquivoHistorico inicializarArquivoHistorico(Function<String, Cliente> resolvedor) {
+        return ArquivoHistorico.abrir(GerenciadorArquivo.PATH_HISTORICO, resolvedor);
     }
 
     public static void imprimirDireitos() {
@@ -51,13 +68,13 @@ public class GerenciadorBanco {
 
     public static String getTipoConta(Conta c) {
         if (c instanceof ContaDiamond) {
-            return VerificadorEntrada.DIAMOND;
+            return TiposConta.DIAMOND;
         }
         if (c instanceof ContaPremium) {
-            return VerificadorEntrada.PREMIUM;
+            return TiposConta.PREMIUM;
         }
         if (c instanceof ContaStandard) {
-            return VerificadorEntrada.STANDARD;
+            return TiposConta.STANDARD;
         }
         return " ";
     }
@@ -1,11 +1,18 @@
 package utilsBank;
 
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.LogChaves;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.arquivo.exception.LeituraArquivoException;
 
+import java.security.SecureRandom;
 import java.util.HashSet;
+import java.util.List;
 
 public class GerenciadorGeracaoAleatoria {
+    private static final String EXTENSAO_LOG = ".log";
+    private static final String EXTENSAO_INDICE = ".indice";
+    private static Long semente;
 
     public static HashSet<String> inicializarGeracaoAleatoria(String path) {
         try {
@@ -15,7 +22,137 @@ public class GerenciadorGeracaoAleatoria {
         }
     }
 
-    public static void salvandoGeracaoAleatoria(String path, HashSet<String> dados) {
-        GerenciadorArquivo.inserirSetGeracao(path, dados);
+    /**
+     * @return {@code true} caso o conjunto tenha sido gravado
+     */
+    public static boolean salvandoGeracaoAleatoria(String path, HashSet<String> dados) {
+        return GerenciadorArquivo.inserirSetGeracao(path, dados);
+    }
+
+    /**
+     * Lê o filtro das chaves geradas. Enquanto o filtro não foi gravado ele é montado a partir do conjunto completo
+     * gravado em {@code pathConjunto} pelas versões anteriores.
+     */
+    public static FiltroChaves inicializarFiltro(String pathFiltro, String pathConjunto) {
+        try {
+            FiltroChaves filtro = GerenciadorArquivo.lerFiltroChaves(pathFiltro);
+            if (filtro == null) {
+                filtro = new FiltroChaves();
+                for (String chave : GerenciadorArquivo.listarSetGeracaoAleatoria(pathConjunto)) {
+                    filtro.adicionar(chave);
+                }
+            }
+            return filtro;
+        } catch (LeituraArquivoException ex) {
+            throw new RuntimeException("Erro de carregamento. O banco nao foi iniciado.");
+        }
+    }
+
+    /**
+     * @return {@code true} caso o filtro tenha sido gravado
+     */
+    public static boolean salvandoFiltro(String path, FiltroChaves filtro) {
+        return GerenciadorArquivo.salvarFiltroChaves(path, filtro);
+    }
+
+    /**
+     * Chave da {@link PermutacaoDecimal} das chaves gravadas em {@code path}. Sai de uma semente sorteada na primeira
+     * geração e gravada em {@link GerenciadorArquivo#PATH_SEMENTE_CHAVES}, para que a permutação seja a mesma depois
+     * de reiniciar. Se a semente não puder ser gravada a permutação muda na próxima execução, o que só faz o contador
+     * pular mais chaves já geradas.
+     */
+    public static synchronized long chavePermutacao(String path) {
+        if (semente == null) {
+            try {
+                semente = GerenciadorArquivo.lerSementeChaves(GerenciadorArquivo.PATH_SEMENTE_CHAVES);
+            } catch (LeituraArquivoException ex) {
+                throw new RuntimeException("Erro de carregamento. O banco nao foi iniciado.");
+            }
+            if (semente == null) {
+                semente = new SecureRandom().nextLong();
+                try {
+                    GerenciadorArquivo.salvarSementeChaves(GerenciadorArquivo.PATH_SEMENTE_CHAVES, semente);
+                } catch (LeituraArquivoException | EscritaArquivoException ex) {
+                    /* Arquivo nao pode ser acessado */
+                }
+            }
+        }
+        return semente ^ path.hashCode() * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Próximo índice da {@link PermutacaoDecimal} de {@code digitos} dígitos das chaves gravadas em {@code path}, como
+     * gravado no último snapshot. Todas as posições anteriores já foram geradas; as geradas depois do snapshot estão no
+     * log e são puladas.
+     *
+     * @return 0 caso o índice não tenha sido gravado ou seja de outra quantidade de dígitos
+     */
+    public static long lerIndicePermutacao(String path, int digitos) {
+        long[] gravado;
+        try {
+            gravado = GerenciadorArquivo.lerIndicePermutacao(aoLado(path, EXTENSAO_INDICE));
+        } catch (LeituraArquivoException ex) {
+            throw new RuntimeException("Erro de carregamento. O banco nao foi iniciado.");
+        }
+        return gravado != null && gravado[0] == digitos ? gravado[1] : 0;
+    }
+
+    /**
+     * Grava o índice ao lado do log. Deve ser chamado depois que o conjunto com as chaves até o índice foi gravado.
+     */
+    public static void salvandoIndicePermutacao(String path, int digitos, long indice) {
+        try {
+            GerenciadorArquivo.salvarIndicePermutacao(aoLado(path, EXTENSAO_INDICE), digitos, indice);
+        } catch (LeituraArquivoException | EscritaArquivoException ex) {
+            /* Arquivo nao pode ser acessado */
+        }
+    }
+
+    private static String aoLado(String path, String extensao) {
+        return path.endsWith(".dat") ? path.substring(0, path.length() - 4) + extensao : path + extensao;
+    }
+
+    /**
+     * @return o log das chaves geradas depois do último {@link #salvandoGeracaoAleatoria}, ao lado do arquivo do conjunto
+     */
+    public static LogChaves abrirLog(String path) {
+        String pathLog = aoLado(path, EXTENSAO_LOG);
+        try {
+            return new LogChaves(pathLog);
+        } catch (LeituraArquivoException ex) {
+            throw new RuntimeException("Erro de carregamento. O banco nao foi iniciado.");
+        }
+    }
+
+    public static List<String> lerLog(LogChaves log) {
+        try {
+            return log.ler();
+        } catch (LeituraArquivoException ex) {
+            throw new RuntimeException("Erro de carregamento. O banco nao foi iniciado.");
+        }
+    }
+
+    public static void registrarChave(LogChaves log, String chave) {
+        try {
+            log.registrar(chave);
+        } catch (EscritaArquivoException ex) {
+            /* Arquivo nao pode ser acessado */
+        }
+    }
+
+    public static void reiniciarLog(LogChaves log) {
+        try {
+            log.reiniciar();
+        } catch (EscritaArquivoException ex) {
+            /* Arquivo nao pode ser acessado */
+        }
+    }
+
+    public static void fecharLog(LogChaves log) {
+        try {
+            log.fechar();
+        } catch (EscritaArquivoException ex) {
+            /* Arquivo nao pode ser acessado */
+        }
     }
 }
@@ -0,0 +1,91 @@
+package utilsBank;
+
+/**
+ * Embaralha os números de {@code digitos} dígitos decimais sem repetir nenhum: {@link #permutar(long)} é uma bijeção de
+ * {@code [0, 10^digitos)} nele mesmo, então permutar um contador devolve números únicos que não parecem sequenciais.
+ * <p>
+ * É uma rede de Feistel desbalanceada sobre os dígitos (como o FF1): o número é dividido em uma metade alta de
+ * {@code u} dígitos e uma baixa de {@code v}, e cada rodada soma à metade que muda, módulo {@code 10^u} ou
+ * {@code 10^v}, um hash da outra metade com a chave. Como cada rodada é invertível, o todo também é, qualquer que seja
+ * o hash.
+ */
+public class PermutacaoDecimal {
+    public static final int MAXIMO_DIGITOS = 36;
+    private static final int RODADAS = 10;
+    private final int digitos;
+    private final int digitosAltos;
+    private final int digitosBaixos;
+    private final long moduloAlto;
+    private final long moduloBaixo;
+    private final long chave;
+
+    public PermutacaoDecimal(int digitos, long chave) {
+        if (digitos < 2 || digitos > MAXIMO_DIGITOS) {
+            throw new IllegalArgumentException("Quantidade de digitos invalida");
+        }
+        this.digitos = digitos;
+        this.digitosAltos = digitos / 2;
+        this.digitosBaixos = digitos - this.digitosAltos;
+        this.moduloAlto = potenciaDeDez(this.digitosAltos);
+        this.moduloBaixo = potenciaDeDez(this.digitosBaixos);
+        this.chave = chave;
+    }
+
+    private static long potenciaDeDez(int expoente) {
+        long resultado = 1;
+        for (int i = 0; i < expoente; i++) {
+            resultado *= 10;
+        }
+        return resultado;
+    }
+
+    /**
+     * @return quantos números diferentes podem ser gerados: {@code 10^digitos}, limitado a {@link Long#MAX_VALUE} já
+     * que o índice é um {@code long}
+     */
+    public long getCapacidade() {
+        if (this.moduloAlto > Long.MAX_VALUE / this.moduloBaixo) {
+            return Long.MAX_VALUE;
+        }
+        return this.moduloAlto * this.moduloBaixo;
+    }
+
+    public int getDigitos() {
+        return this.digitos;
+    }
+
+    /**
+     * @param indice entre 0 e {@link #getCapacidade()}, exclusive
+     * @return o número na posição {@code indice} da permutação, com exatamente {@link #getDigitos()} dígitos
+     */
+    public String permutar(long indice) {
+        if (indice < 0 || indice >= getCapacidade()) {
+            throw new IllegalArgumentException("Indice fora da permutacao");
+        }
+        long alto = indice / this.moduloBaixo;
+        long baixo = indice % this.moduloBaixo;
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            if (rodada % 2 == 0) {
+                alto = (alto + Math.floorMod(misturar(rodada, baixo), this.moduloAlto)) % this.moduloAlto;
+            } else {
+                baixo = (baixo + Math.floorMod(misturar(rodada, alto), this.moduloBaixo)) % this.moduloBaixo;
+            }
+        }
+        return formatar(alto, this.digitosAltos) + formatar(baixo, this.digitosBaixos);
+    }
+
+    private static String formatar(long valor, int digitos) {
+        String texto = Long.toString(valor);
+        return "0".repeat(digitos - texto.length()) + texto;
+    }
+
+    /**
+     * Função de rodada: o finalizador do SplitMix64 sobre a chave, a rodada e a metade que não muda
+     */
+    private long misturar(int rodada, long metade) {
+        long z = this.chave ^ (metade * 0x9E3779B97F4A7C15L) ^ ((long) rodada << 56);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
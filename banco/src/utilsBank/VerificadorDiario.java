@@ -1,77 +1,191 @@
 package utilsBank;
 
 import agencia.Agencia;
+import agencia.AgendaTransacoes;
 import cartao.Fatura;
 import cliente.Cliente;
 import conta.Conta;
 import conta.GerenciamentoCartao;
+import conta.Historico;
 import transacao.Transacao;
+import transacao.exceptions.SaldoInsuficienteException;
 import transacao.exceptions.TransacaoException;
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-public class VerificadorDiario extends Thread {
+/**
+ * Faz a atualização diária do banco (transações agendadas, débito automático das faturas e rendimento das contas).
+ * <p>
+ * Em vez de ficar consultando a data, a verificação é agendada para a meia-noite seguinte e a thread fica parada até
+ * lá. As transações agendadas têm só a data, então vencem sempre na virada do dia. Se o programa ficou fechado por
+ * alguns dias, cada dia perdido é processado em ordem na primeira verificação. Cada verificação também arquiva o
+ * histórico das contas que saiu da janela de {@link Historico#DIAS_EM_MEMORIA} dias.
+ * <p>
+ * Cada dia é feito com todas as contas travadas e registrado no journal como um registro só, com o novo dia, antes de
+ * as contas serem liberadas ({@link Conta#travarTodas()}). Assim, uma queda no meio da atualização refaz o dia a partir
+ * do estado anterior a ele, e uma queda depois do registro não refaz o dia.
+ */
+public class VerificadorDiario {
 	private static VerificadorDiario instance;
-	private boolean loop;
-	private Data ultimaAtualizacao;
+	private final ScheduledThreadPoolExecutor AGENDADOR;
+	private volatile Data ultimaAtualizacao;
 
 	private VerificadorDiario() {
-		this.loop = true;
-		this.ultimaAtualizacao = GerenciadorArquivo.lerData(GerenciadorArquivo.PATH_DATA);
+		this(maisRecente(GerenciadorArquivo.lerData(GerenciadorArquivo.PATH_DATA),
+				Agencia.getInstance().getUltimaAtualizacaoRegistrada()));
 	}
 
-	public static VerificadorDiario getInstance() {
+	/**
+	 * Último dia atualizado, para o snapshot. Não cria o verificador: sem ele nenhum dia foi feito desde o início e
+	 * vale o dia lido na inicialização.
+	 *
+	 * @param registrada último dia encontrado no journal, ou {@code null}
+	 */
+	public static synchronized Data ultimaAtualizacao(Data registrada) {
+		if (instance != null) {
+			return instance.getUltimaAtualizacao();
+		}
+		return maisRecente(GerenciadorArquivo.lerData(GerenciadorArquivo.PATH_DATA), registrada);
+	}
+
+	/**
+	 * @return o dia do snapshot, ou o do journal caso o journal tenha dias atualizados depois do snapshot
+	 */
+	private static Data maisRecente(Data snapshot, Data registrada) {
+		return registrada != null && registrada.depoisDe(snapshot) ? registrada : snapshot;
+	}
+
+	VerificadorDiario(Data ultimaAtualizacao) {
+		this.ultimaAtualizacao = ultimaAtualizacao;
+		this.AGENDADOR = new ScheduledThreadPoolExecutor(1, tarefa -> {
+			Thread thread = new Thread(tarefa, "verificador-diario");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.AGENDADOR.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+	}
+
+	public static synchronized VerificadorDiario getInstance() {
 		if (instance == null) {
 			instance = new VerificadorDiario();
-			instance.start();
+			instance.agendarVerificacao(0);
 		}
 		return instance;
 	}
 
-	@Override
-	public void run() {
-		while (loop) {
-			Data dataAtual = DataBank.criarData(DataBank.SEM_HORA);
-			if (dataAtual.depoisDe(this.ultimaAtualizacao)) {
+	private void agendarVerificacao(long atraso) {
+		try {
+			AGENDADOR.schedule(this::verificar, atraso, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException ignore) {
+			/* Verificador encerrado */
+		}
+	}
+
+	private void verificar() {
+		try {
+			Data hoje = DataBank.criarData(DataBank.SEM_HORA);
+			int dias = atualizarAte(hoje);
+			int arquivadas = Agencia.getInstance().arquivarHistoricos(hoje.deslocarDias(-Historico.DIAS_EM_MEMORIA));
+			if (dias > 0 || arquivadas > 0) {
+				Agencia.getInstance().solicitarSnapshot();
+			}
+		} catch (RuntimeException | EscritaArquivoException ex) {
+			System.out.println("Nao foi possivel concluir a atualizacao diaria: " + ex.getMessage());
+		} finally {
+			agendarVerificacao(DataBank.milissegundosAte(DataBank.criarData(DataBank.SEM_HORA).diaSeguinte()));
+		}
+	}
+
+	/**
+	 * Processa, um por vez, os dias entre a última atualização e a data atual
+	 *
+	 * @return quantidade de dias processados
+	 */
+	int atualizarAte(Data dataAtual) throws EscritaArquivoException {
+		int dias = 0;
+		while (dataAtual.depoisDe(this.ultimaAtualizacao) && !dataAtual.equals(this.ultimaAtualizacao)) {
+			if (dias == 0) {
 				System.out.println("ATUALIZANDO...");
-				verificarTransacoesAgendadas(dataAtual);
-				verificarFaturas(dataAtual);
-				Agencia.getInstance().renderContas();
-				this.ultimaAtualizacao = dataAtual;
-				System.out.println("ATUALIZACAO FINALIZADA!");
 			}
+			Data dia = this.ultimaAtualizacao.diaSeguinte();
+			atualizarDia(dia);
+			this.ultimaAtualizacao = dia;
+			dias++;
+		}
+		if (dias > 0) {
+			System.out.println("ATUALIZACAO FINALIZADA!");
+		}
+		return dias;
+	}
+
+	void atualizarDia(Data dia) throws EscritaArquivoException {
+		Agencia agencia = Agencia.getInstance();
+		List<Transacao> realizadas = new ArrayList<>();
+		List<Transacao> canceladas = new ArrayList<>();
+		Conta.travarTodas();
+		try {
+			verificarTransacoesAgendadas(dia, realizadas, canceladas);
+			verificarFaturas(dia);
+			agencia.renderContas();
+			agencia.registrarDia(dia, realizadas, canceladas);
+		} finally {
+			Conta.destravarTodas(contas(agencia.getClientes()));
+		}
+	}
+
+	private static List<Conta> contas(Set<Cliente> clientes) {
+		List<Conta> contas = new ArrayList<>(clientes.size());
+		for (Cliente cliente : clientes) {
+			contas.add(cliente.getConta());
 		}
+		return contas;
 	}
 
+	/**
+	 * Cancela as próximas verificações e espera a que estiver em andamento terminar
+	 */
 	public void end() {
-		this.loop = false;
+		AGENDADOR.shutdown();
+		try {
+			AGENDADOR.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
-	public void verificarTransacoesAgendadas(Data dataAtual) {
-		ArrayList<Transacao> transacoesAgendadas = Agencia.getInstance().getTransacoes();
-		ArrayList<Transacao> transacoesRealizadas = new ArrayList<>();
-		for (Transacao transacao : transacoesAgendadas) {
-			if (transacao.getDataAgendada().equals(dataAtual) || transacao.getDataAgendada().antesDe(dataAtual)) {
-				Conta origem = transacao.getContaOrigem();
+	/**
+	 * Realiza as transações agendadas que venceram até a data. As que não têm saldo são canceladas; as que falharem
+	 * voltam para a agenda e são tentadas de novo no próximo dia. O saldo é conferido pela própria transferência, com as
+	 * contas travadas.
+	 *
+	 * @param realizadas recebe as transações realizadas
+	 * @param canceladas recebe as transações canceladas por falta de saldo
+	 */
+	public void verificarTransacoesAgendadas(Data dataAtual, List<Transacao> realizadas, List<Transacao> canceladas) {
+		AgendaTransacoes agenda = Agencia.getInstance().getAgendaTransacoes();
+		for (Transacao transacao : agenda.retirarVencidas(dataAtual)) {
+			Conta origem = transacao.getContaOrigem();
+			try {
 				try {
-					if (origem.getSaldo() < transacao.getValor()) {
-						transacoesAgendadas.remove(transacao);
-						origem.apagarTransacaoAgendada(transacao);
-					} else {
-						transacoesRealizadas.add(origem.realizarTransacaoAgendada(transacao));
-					}
-				} catch (TransacaoException ignore) {
+					origem.realizarTransacaoAgendada(transacao);
+					realizadas.add(transacao);
+				} catch (SaldoInsuficienteException ex) {
+					origem.apagarTransacaoAgendada(transacao);
+					canceladas.add(transacao);
 				}
+			} catch (TransacaoException ex) {
+				agenda.adicionar(transacao);
 			}
 		}
-		try {
-			transacoesAgendadas.removeAll(transacoesRealizadas);
-		} catch (Exception ignore) {
-		}
 	}
 
 	public void verificarFaturas(Data dataAtual) {
@@ -0,0 +1,118 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+import transacao.Transacao;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.databank.Data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Histórico antigo das contas, fora da memória: um segmento por conta e por mês em
+ * {@code <pasta>/<idConta>/<aaaa-mm>.dat}, no formato de {@link GerenciadorArquivo#listarTransacoes}, com as
+ * transações em ordem crescente de data. Os segmentos só são lidos quando um extrato pede um período que não está mais
+ * em memória (ver {@link conta.Historico}).
+ * <p>
+ * Assim como o {@link LivroSaldos}, existe um único arquivo aberto por vez; sem ele as contas mantêm todo o histórico
+ * em memória.
+ */
+public class ArquivoHistorico {
+	private static final String EXTENSAO = ".dat";
+	private static volatile ArquivoHistorico instance;
+	private final Path pasta;
+	private final Function<String, Cliente> resolvedor;
+
+	private ArquivoHistorico(String pasta, Function<String, Cliente> resolvedor) {
+		this.pasta = Paths.get(pasta);
+		this.resolvedor = resolvedor;
+	}
+
+	/**
+	 * @param resolvedor busca pela identificação os clientes de origem e destino das transações lidas
+	 */
+	public static synchronized ArquivoHistorico abrir(String pasta, Function<String, Cliente> resolvedor) {
+		instance = new ArquivoHistorico(pasta, resolvedor);
+		return instance;
+	}
+
+	/**
+	 * @return o arquivo aberto, ou {@code null} caso nenhum tenha sido aberto
+	 */
+	public static ArquivoHistorico getInstance() {
+		return instance;
+	}
+
+	public static synchronized void fechar() {
+		instance = null;
+	}
+
+	/**
+	 * @return o nome do segmento que guarda a data, no formato aaaa-mm
+	 */
+	public static String mes(Data data) {
+		return String.format("%04d-%02d", data.getAno(), data.getMes());
+	}
+
+	private Path segmento(String idConta, String mes) {
+		return this.pasta.resolve(idConta).resolve(mes + EXTENSAO);
+	}
+
+	/**
+	 * Junta as transações ao fim do segmento do mês. As que já estão no segmento são ignoradas, então arquivar de novo
+	 * (ex.: depois de uma queda entre a gravação do segmento e a do snapshot) não duplica o histórico.
+	 *
+	 * @param transacoes em ordem crescente de data, todas mais recentes que as já arquivadas
+	 */
+	public void arquivar(String idConta, String mes, List<Transacao> transacoes) throws EscritaArquivoException {
+		List<Transacao> segmento = ler(idConta, mes);
+		Set<String> arquivadas = new HashSet<>();
+		for (Transacao transacao : segmento) {
+			arquivadas.add(transacao.getNossoNumero());
+		}
+		for (Transacao transacao : transacoes) {
+			if (arquivadas.add(transacao.getNossoNumero())) {
+				segmento.add(transacao);
+			}
+		}
+		Path caminho = segmento(idConta, mes);
+		try {
+			Files.createDirectories(caminho.getParent());
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Diretorio nao pode ser criado");
+		}
+		GerenciadorArquivo.salvarTransacoes(caminho.toString(), segmento);
+	}
+
+	/**
+	 * @return os meses com segmento gravado para a conta, em ordem crescente
+	 */
+	public List<String> listarMeses(String idConta) {
+		String[] arquivos = this.pasta.resolve(idConta).toFile().list((diretorio, nome) -> nome.endsWith(EXTENSAO));
+		List<String> meses = new ArrayList<>();
+		if (arquivos != null) {
+			Arrays.sort(arquivos);
+			for (String arquivo : arquivos) {
+				meses.add(arquivo.substring(0, arquivo.length() - EXTENSAO.length()));
+			}
+		}
+		return meses;
+	}
+
+	/**
+	 * @return as transações do segmento, ou uma lista vazia caso ele não exista
+	 */
+	public List<Transacao> ler(String idConta, String mes) throws LeituraArquivoException {
+		return GerenciadorArquivo.listarTransacoes(segmento(idConta, mes).toString(), new ContextoCodec(this.resolvedor));
+	}
+}
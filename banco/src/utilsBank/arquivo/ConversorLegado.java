@@ -0,0 +1,530 @@
+package utilsBank.arquivo;
+
+import utilsBank.arquivo.codec.Esquema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamField;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converte os arquivos .dat gravados com {@link java.io.ObjectOutputStream}, de antes dos codecs, para o formato atual.
+ * <p>
+ * As classes do banco não são mais serializáveis, então o arquivo antigo é lido com as classes espelho abaixo, que têm
+ * os mesmos campos e serialVersionUID que as classes tinham, e gravado na primeira versão de cada tipo de
+ * {@link Esquema}, que os codecs continuam sabendo ler.
+ */
+public class ConversorLegado {
+	/**
+	 * Classes do banco que podiam aparecer nos arquivos serializados e os espelhos usados para lê-las
+	 */
+	static final Map<String, Class<?>> CLASSES_ANTIGAS = Map.ofEntries(
+			Map.entry("cliente.Cliente", Cliente.class),
+			Map.entry("cliente.ClientePessoa", ClientePessoa.class),
+			Map.entry("cliente.ClienteEmpresa", ClienteEmpresa.class),
+			Map.entry("cliente.Endereco", Endereco.class),
+			Map.entry("conta.Conta", Conta.class),
+			Map.entry("conta.ContaStandard", ContaStandard.class),
+			Map.entry("conta.ContaPremium", ContaPremium.class),
+			Map.entry("conta.ContaDiamond", ContaDiamond.class),
+			Map.entry("conta.GerenciamentoCartao", GerenciamentoCartao.class),
+			Map.entry("conta.Historico", Historico.class),
+			Map.entry("cartao.Cartao", Cartao.class),
+			Map.entry("cartao.CartaoStandard", CartaoStandard.class),
+			Map.entry("cartao.CartaoPremium", CartaoPremium.class),
+			Map.entry("cartao.CartaoDiamond", CartaoDiamond.class),
+			Map.entry("cartao.Fatura", Fatura.class),
+			Map.entry("transacao.Transacao", Transacao.class),
+			Map.entry("transacao.Boleto", Boleto.class),
+			Map.entry("transacao.ChavePix", ChavePix.class),
+			Map.entry("utilsBank.databank.Data", Data.class)
+	);
+	/**
+	 * Só as classes espelho e os tipos do Java usados pelos campos delas podem ser criados na leitura
+	 */
+	private static final ObjectInputFilter FILTRO = ObjectInputFilter.Config.createFilter(
+			"java.lang.*;java.util.*;sun.util.calendar.ZoneInfo;" + ConversorLegado.class.getName() + "$*;!*");
+	private static final int VERSAO_INICIAL = 1;
+	private static final int NOVA_TRANSACAO = -1;
+	private static final byte CLIENTE_PESSOA = 1;
+	private static final byte CLIENTE_EMPRESA = 2;
+	private static final byte CONTA = 0;
+	private static final byte STANDARD = 1;
+	private static final byte PREMIUM = 2;
+	private static final byte DIAMOND = 3;
+	private static final byte TRANSACAO = 1;
+	private static final byte BOLETO = 2;
+	private final DataOutputStream saida;
+	private final Map<Transacao, Integer> transacoesEscritas = new IdentityHashMap<>();
+
+	private ConversorLegado(DataOutputStream saida) {
+		this.saida = saida;
+	}
+
+	/**
+	 * @return {@code true} caso o arquivo exista e tenha sido gravado com ObjectOutputStream
+	 */
+	public static boolean ehSerializado(String path) throws IOException {
+		try (DataInputStream arquivo = new DataInputStream(new FileInputStream(path))) {
+			return arquivo.readShort() == ObjectStreamConstants.STREAM_MAGIC;
+		} catch (FileNotFoundException | EOFException ex) {
+			/* Arquivo nao encontrado ou vazio */
+			return false;
+		}
+	}
+
+	/**
+	 * Lê o objeto gravado no arquivo antigo, com as classes do banco trocadas pelos espelhos
+	 *
+	 * @throws InvalidClassException caso uma classe do banco no arquivo não tenha os campos esperados
+	 */
+	public static Object ler(InputStream arquivo) throws IOException {
+		EntradaSerializada entrada = new EntradaSerializada(arquivo);
+		entrada.setObjectInputFilter(FILTRO);
+		try {
+			return entrada.readObject();
+		} catch (ClassNotFoundException ex) {
+			/* Classe invalida */
+			throw new IOException("Classe invalida", ex);
+		}
+	}
+
+	/**
+	 * @return o conteúdo do arquivo antigo no formato dos codecs, com cabeçalho
+	 */
+	public static byte[] converter(InputStream arquivo) throws IOException {
+		Object lido = ler(arquivo);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ConversorLegado conversor = new ConversorLegado(new DataOutputStream(bytes));
+		conversor.escreverCabecalho();
+		if (lido instanceof Data data) {
+			conversor.escreverData(data);
+		} else if (lido instanceof Collection<?> colecao) {
+			conversor.escreverColecao(colecao);
+		} else {
+			throw new IOException("Formato de arquivo invalido");
+		}
+		conversor.saida.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Cabeçalho com a versão inicial dos tipos que já existiam quando os arquivos eram serializados; os demais ficam
+	 * com versão 0
+	 */
+	private void escreverCabecalho() throws IOException {
+		saida.writeInt(Esquema.MAGICO);
+		saida.writeByte(Esquema.CLIENTE.ordinal() + 1);
+		for (int i = 0; i <= Esquema.CLIENTE.ordinal(); i++) {
+			saida.writeByte(VERSAO_INICIAL);
+		}
+	}
+
+	/**
+	 * Os arquivos antigos eram conjuntos de chaves, clientes ou transações. Como no codec dos clientes, os dados de
+	 * todos vêm antes das movimentações.
+	 */
+	private void escreverColecao(Collection<?> colecao) throws IOException {
+		saida.writeInt(colecao.size());
+		List<Cliente> clientes = new ArrayList<>();
+		for (Object objeto : colecao) {
+			if (objeto instanceof String chave) {
+				saida.writeUTF(chave);
+			} else if (objeto instanceof Transacao transacao) {
+				escreverTransacao(transacao);
+			} else if (objeto instanceof Cliente cliente) {
+				escreverCliente(cliente);
+				clientes.add(cliente);
+			} else {
+				throw new IOException("Formato de arquivo invalido");
+			}
+		}
+		for (Cliente cliente : clientes) {
+			escreverTransacoes(cliente.conta.TRANSACOES_REALIZADAS);
+			escreverTransacoes(cliente.conta.TRANSACOES_AGENDADAS);
+			escreverHistorico(cliente.conta.HISTORICO);
+			escreverHistorico(cliente.conta.notificacoes);
+		}
+	}
+
+	private void escreverCliente(Cliente cliente) throws IOException {
+		if (cliente instanceof ClienteEmpresa) {
+			saida.writeByte(CLIENTE_EMPRESA);
+		} else if (cliente instanceof ClientePessoa) {
+			saida.writeByte(CLIENTE_PESSOA);
+		} else {
+			throw new IOException("Tipo de cliente invalido");
+		}
+		DadosBinarios.escreverTexto(saida, identificacao(cliente));
+		DadosBinarios.escreverTexto(saida, cliente.NOME);
+		DadosBinarios.escreverTexto(saida, cliente.senha);
+		DadosBinarios.escreverTexto(saida, cliente.email);
+		DadosBinarios.escreverTexto(saida, cliente.telefone);
+		DadosBinarios.escreverInteiroOpcional(saida, cliente.idade);
+		saida.writeBoolean(cliente.end != null);
+		if (cliente.end != null) {
+			DadosBinarios.escreverTexto(saida, cliente.end.CEP);
+			DadosBinarios.escreverInteiroOpcional(saida, cliente.end.NUMERO_CASA);
+			DadosBinarios.escreverTexto(saida, cliente.end.complemento);
+		}
+		DadosBinarios.escreverDoubleOpcional(saida, cliente.renda);
+		if (cliente instanceof ClienteEmpresa empresa) {
+			Set<String> gerentes = empresa.GERENTES_EMPRESA == null ? Set.of() : empresa.GERENTES_EMPRESA;
+			saida.writeInt(gerentes.size());
+			for (String gerente : gerentes) {
+				saida.writeUTF(gerente);
+			}
+		}
+		escreverConta(cliente.conta);
+	}
+
+	private void escreverConta(Conta conta) throws IOException {
+		if (conta instanceof ContaDiamond) {
+			saida.writeByte(DIAMOND);
+		} else if (conta instanceof ContaPremium) {
+			saida.writeByte(PREMIUM);
+		} else if (conta instanceof ContaStandard) {
+			saida.writeByte(STANDARD);
+		} else {
+			saida.writeByte(CONTA);
+		}
+		DadosBinarios.escreverTexto(saida, conta.ID_CONTA);
+		saida.writeDouble(valor(conta.saldo));
+		saida.writeDouble(valor(conta.saldoTotalDepositado));
+		saida.writeDouble(valor(conta.dinheiroGuardado));
+		saida.writeDouble(valor(conta.emprestimo));
+		saida.writeDouble(valor(conta.parcelaEmprestimo));
+		saida.writeDouble(valor(conta.CARTEIRA.limiteUsado));
+		saida.writeBoolean(conta.CARTEIRA.debitoAutomatico);
+		saida.writeInt(conta.CARTEIRA.dataDebitoAutomatico);
+		ChavePix chaves = conta.CHAVES_PIX == null ? new ChavePix() : conta.CHAVES_PIX;
+		DadosBinarios.escreverTexto(saida, chaves.telefone);
+		DadosBinarios.escreverTexto(saida, chaves.chaveAleatoria);
+		DadosBinarios.escreverTexto(saida, chaves.email);
+		DadosBinarios.escreverTexto(saida, chaves.identificacao);
+		List<Cartao> cartoes = lista(conta.CARTEIRA.LISTA_DE_CARTOES);
+		saida.writeInt(cartoes.size());
+		for (Cartao cartao : cartoes) {
+			if (cartao instanceof CartaoDiamond) {
+				saida.writeByte(DIAMOND);
+			} else if (cartao instanceof CartaoPremium) {
+				saida.writeByte(PREMIUM);
+			} else if (cartao instanceof CartaoStandard) {
+				saida.writeByte(STANDARD);
+			} else {
+				throw new IOException("Tipo do cartao invalido");
+			}
+			DadosBinarios.escreverTexto(saida, cartao.numeroCartao);
+			DadosBinarios.escreverTexto(saida, cartao.cvc);
+			DadosBinarios.escreverTexto(saida, cartao.apelidoCartao);
+			DadosBinarios.escreverTexto(saida, cartao.nomeTitular);
+			escreverDataOpcional(cartao.validade);
+		}
+	}
+
+	private void escreverHistorico(Historico historico) throws IOException {
+		if (historico == null) {
+			saida.writeInt(0);
+			saida.writeInt(0);
+			return;
+		}
+		escreverTransacoes(historico.TRANSACOES);
+		List<Fatura> faturas = lista(historico.FATURAS);
+		saida.writeInt(faturas.size());
+		for (Fatura fatura : faturas) {
+			escreverDataOpcional(fatura.DATA_PAGAMENTO);
+			DadosBinarios.escreverDoubleOpcional(saida, fatura.VALOR);
+			DadosBinarios.escreverTexto(saida, fatura.NOME_PAGADOR);
+			DadosBinarios.escreverTexto(saida, fatura.NUMERO_AGENCIA);
+			DadosBinarios.escreverTexto(saida, fatura.CONTA);
+		}
+	}
+
+	private void escreverTransacoes(List<Transacao> transacoes) throws IOException {
+		List<Transacao> lidas = lista(transacoes);
+		saida.writeInt(lidas.size());
+		for (Transacao transacao : lidas) {
+			escreverTransacao(transacao);
+		}
+	}
+
+	/**
+	 * Grava cada transação uma vez por arquivo, como o {@link utilsBank.arquivo.codec.ContextoCodec}; o histórico da
+	 * origem e o do destino apontavam para o mesmo objeto no arquivo serializado e continuam apontando depois da leitura
+	 */
+	private void escreverTransacao(Transacao transacao) throws IOException {
+		Integer indice = transacoesEscritas.get(transacao);
+		if (indice != null) {
+			saida.writeInt(indice);
+			return;
+		}
+		transacoesEscritas.put(transacao, transacoesEscritas.size());
+		saida.writeInt(NOVA_TRANSACAO);
+		saida.writeByte(transacao instanceof Boleto ? BOLETO : TRANSACAO);
+		DadosBinarios.escreverDoubleOpcional(saida, transacao.VALOR);
+		DadosBinarios.escreverTexto(saida, transacao.NOSSO_NUMERO);
+		DadosBinarios.escreverTexto(saida, transacao.ID_PAGAMENTO);
+		DadosBinarios.escreverTexto(saida, identificacao(transacao.origem));
+		DadosBinarios.escreverTexto(saida, identificacao(transacao.DESTINO));
+		escreverDataOpcional(transacao.dataEmissaoTransacao);
+		escreverDataOpcional(transacao.dataAgendada);
+		if (transacao instanceof Boleto boleto) {
+			escreverDataOpcional(boleto.DATA_VENCIMENTO);
+			DadosBinarios.escreverDoubleOpcional(saida, boleto.MULTA_DIAS);
+			DadosBinarios.escreverBooleanOpcional(saida, boleto.foiPago);
+		}
+	}
+
+	private void escreverDataOpcional(Data data) throws IOException {
+		saida.writeBoolean(data != null);
+		if (data != null) {
+			escreverData(data);
+		}
+	}
+
+	private void escreverData(Data data) throws IOException {
+		saida.writeLong(data.CALENDAR.getTimeInMillis());
+		saida.writeShort(data.dia);
+		saida.writeShort(data.mes);
+		saida.writeShort(data.ano);
+		saida.writeByte(data.HORA);
+		saida.writeByte(data.MINUTO);
+		saida.writeByte(data.SEGUNDO);
+	}
+
+	private static String identificacao(Cliente cliente) {
+		if (cliente instanceof ClienteEmpresa empresa) {
+			return empresa.CNPJ;
+		}
+		return cliente instanceof ClientePessoa pessoa ? pessoa.CPF : null;
+	}
+
+	private static double valor(Double valor) {
+		return valor == null ? 0.0 : valor;
+	}
+
+	private static <T> List<T> lista(List<T> lista) {
+		return lista == null ? List.of() : lista;
+	}
+
+	/**
+	 * Troca a descrição de cada classe do banco gravada no arquivo pela do espelho, depois de conferir que o
+	 * serialVersionUID e os campos são os mesmos
+	 */
+	private static class EntradaSerializada extends ObjectInputStream {
+
+		EntradaSerializada(InputStream entrada) throws IOException {
+			super(entrada);
+		}
+
+		@Override
+		protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+			ObjectStreamClass gravada = super.readClassDescriptor();
+			Class<?> espelho = CLASSES_ANTIGAS.get(gravada.getName());
+			if (espelho == null) {
+				return gravada;
+			}
+			ObjectStreamClass local = ObjectStreamClass.lookup(espelho);
+			if (gravada.getSerialVersionUID() != local.getSerialVersionUID() || !mesmosCampos(gravada, local)) {
+				throw new InvalidClassException(gravada.getName(), "Versao da classe nao suportada");
+			}
+			return local;
+		}
+
+		private static boolean mesmosCampos(ObjectStreamClass gravada, ObjectStreamClass local) {
+			ObjectStreamField[] camposGravados = gravada.getFields();
+			ObjectStreamField[] camposLocais = local.getFields();
+			if (camposGravados.length != camposLocais.length) {
+				return false;
+			}
+			for (int i = 0; i < camposGravados.length; i++) {
+				if (!camposGravados[i].getName().equals(camposLocais[i].getName())
+						|| camposGravados[i].getTypeCode() != camposLocais[i].getTypeCode()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	static abstract class Cliente implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 1L;
+		String NOME;
+		String senha;
+		String email;
+		String telefone;
+		Integer idade;
+		Endereco end;
+		Conta conta;
+		Double renda;
+	}
+
+	static class ClientePessoa extends Cliente {
+		@Serial
+		private static final long serialVersionUID = 19L;
+		String CPF;
+	}
+
+	static class ClienteEmpresa extends Cliente {
+		@Serial
+		private static final long serialVersionUID = 18L;
+		Set<String> GERENTES_EMPRESA;
+		String CNPJ;
+	}
+
+	static class Endereco implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 3L;
+		String CEP;
+		Integer NUMERO_CASA;
+		String complemento;
+	}
+
+	static class Conta implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 2L;
+		String ID_CONTA;
+		List<Transacao> TRANSACOES_REALIZADAS;
+		List<Transacao> TRANSACOES_AGENDADAS;
+		Historico HISTORICO;
+		GerenciamentoCartao CARTEIRA;
+		ChavePix CHAVES_PIX;
+		Historico notificacoes;
+		Double saldo;
+		Double saldoTotalDepositado;
+		Double dinheiroGuardado;
+		Double emprestimo;
+		Double parcelaEmprestimo;
+	}
+
+	static class ContaStandard extends Conta {
+		@Serial
+		private static final long serialVersionUID = 17L;
+	}
+
+	static class ContaPremium extends ContaStandard {
+		@Serial
+		private static final long serialVersionUID = 16L;
+	}
+
+	static class ContaDiamond extends ContaPremium {
+		@Serial
+		private static final long serialVersionUID = 15L;
+	}
+
+	static class GerenciamentoCartao implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 7L;
+		List<Cartao> LISTA_DE_CARTOES;
+		Double limiteUsado;
+		boolean debitoAutomatico;
+		int dataDebitoAutomatico;
+	}
+
+	static class Historico implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 8L;
+		ArrayList<Transacao> TRANSACOES;
+		ArrayList<Fatura> FATURAS;
+	}
+
+	static abstract class Cartao implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 6L;
+		String numeroCartao;
+		String cvc;
+		String apelidoCartao;
+		Data validade;
+		String nomeTitular;
+		String tipoCartao;
+	}
+
+	static class CartaoStandard extends Cartao {
+		@Serial
+		private static final long serialVersionUID = 14L;
+		Double LIMITE_MAX;
+	}
+
+	static class CartaoPremium extends CartaoStandard {
+		@Serial
+		private static final long serialVersionUID = 13L;
+		Double LIMITE_MAX;
+	}
+
+	static class CartaoDiamond extends CartaoPremium {
+		@Serial
+		private static final long serialVersionUID = 12L;
+		Double LIMITE_MAX;
+	}
+
+	static class Fatura implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 18L;
+		Data DATA_PAGAMENTO;
+		Double VALOR;
+		String NOME_PAGADOR;
+		String NUMERO_AGENCIA;
+		String CONTA;
+	}
+
+	static class Transacao implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 5L;
+		Double VALOR;
+		String NOSSO_NUMERO;
+		String ID_PAGAMENTO;
+		Cliente DESTINO;
+		Data dataEmissaoTransacao;
+		Cliente origem;
+		Data dataAgendada;
+	}
+
+	static class Boleto extends Transacao {
+		@Serial
+		private static final long serialVersionUID = 10L;
+		Data DATA_VENCIMENTO;
+		Double MULTA_DIAS;
+		Boolean foiPago;
+	}
+
+	static class ChavePix implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 11L;
+		String telefone;
+		String chaveAleatoria;
+		String email;
+		String identificacao;
+	}
+
+	static class Data implements Serializable {
+		@Serial
+		private static final long serialVersionUID = 4L;
+		Calendar CALENDAR;
+		int HORA;
+		int MINUTO;
+		int SEGUNDO;
+		int dia;
+		int mes;
+		int ano;
+	}
+}
@@ -0,0 +1,78 @@
+package utilsBank.arquivo;
+
+import utilsBank.Dinheiro;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Funções auxiliares para gravar campos que podem ser nulos nos formatos binários do banco.
+ */
+public class DadosBinarios {
+
+	public static void escreverTexto(DataOutput saida, String texto) throws IOException {
+		saida.writeBoolean(texto != null);
+		if (texto != null) {
+			saida.writeUTF(texto);
+		}
+	}
+
+	public static String lerTexto(DataInput entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readUTF() : null;
+	}
+
+	public static void escreverDoubleOpcional(DataOutput saida, Double valor) throws IOException {
+		saida.writeBoolean(valor != null);
+		if (valor != null) {
+			saida.writeDouble(valor);
+		}
+	}
+
+	public static Double lerDoubleOpcional(DataInput entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readDouble() : null;
+	}
+
+	/**
+	 * Lê um valor em centavos
+	 *
+	 * @param emReais {@code true} para os formatos antigos, que gravavam reais em double
+	 */
+	public static long lerCentavos(DataInput entrada, boolean emReais) throws IOException {
+		return emReais ? Dinheiro.centavos(entrada.readDouble()) : entrada.readLong();
+	}
+
+	/**
+	 * Como {@link #lerCentavos(DataInput, boolean)}, mas nos formatos antigos o double era opcional. Nulo vira zero.
+	 */
+	public static long lerCentavosOpcional(DataInput entrada, boolean emReais) throws IOException {
+		if (!emReais) {
+			return entrada.readLong();
+		}
+		Double reais = lerDoubleOpcional(entrada);
+		return reais == null ? 0 : Dinheiro.centavos(reais);
+	}
+
+	public static void escreverInteiroOpcional(DataOutput saida, Integer valor) throws IOException {
+		saida.writeBoolean(valor != null);
+		if (valor != null) {
+			saida.writeInt(valor);
+		}
+	}
+
+	public static Integer lerInteiroOpcional(DataInput entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readInt() : null;
+	}
+
+	/**
+	 * Grava um {@link Boolean} em um byte: -1 para nulo, 0 para falso e 1 para verdadeiro
+	 */
+	public static void escreverBooleanOpcional(DataOutput saida, Boolean valor) throws IOException {
+		saida.writeByte(valor == null ? -1 : (valor ? 1 : 0));
+	}
+
+	public static Boolean lerBooleanOpcional(DataInput entrada) throws IOException {
+		byte valor = entrada.readByte();
+		return valor < 0 ? null : valor == 1;
+	}
+}
@@ -0,0 +1,77 @@
+package utilsBank.arquivo;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Entrada de um arquivo .dat que sabe quantos bytes já foram lidos, para que os codecs possam guardar a posição de um
+ * trecho e voltar a ele depois (ver {@link conta.BlocoMovimentacoes}).
+ */
+public class EntradaArquivo extends DataInputStream {
+	private final String caminho;
+	private final Contador contador;
+
+	public EntradaArquivo(String caminho) throws FileNotFoundException {
+		this(caminho, new Contador(new BufferedInputStream(new FileInputStream(caminho))));
+	}
+
+	private EntradaArquivo(String caminho, Contador contador) {
+		super(contador);
+		this.caminho = caminho;
+		this.contador = contador;
+	}
+
+	public String getCaminho() {
+		return this.caminho;
+	}
+
+	/**
+	 * @return quantidade de bytes lidos desde o início do arquivo
+	 */
+	public long getPosicao() {
+		return this.contador.posicao;
+	}
+
+	private static class Contador extends FilterInputStream {
+		private long posicao;
+
+		private Contador(InputStream entrada) {
+			super(entrada);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int lido = super.read();
+			if (lido >= 0) {
+				this.posicao++;
+			}
+			return lido;
+		}
+
+		@Override
+		public int read(byte[] destino, int inicio, int quantidade) throws IOException {
+			int lidos = super.read(destino, inicio, quantidade);
+			if (lidos > 0) {
+				this.posicao += lidos;
+			}
+			return lidos;
+		}
+
+		@Override
+		public long skip(long quantidade) throws IOException {
+			long pulados = super.skip(quantidade);
+			this.posicao += pulados;
+			return pulados;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
@@ -1,203 +1,385 @@
 package utilsBank.arquivo;
 
 import cliente.Cliente;
+import cliente.CodecCliente;
+import conta.BlocoMovimentacoes;
 import transacao.Boleto;
+import transacao.CodecTransacao;
 import transacao.Transacao;
+import utilsBank.CodecFiltroChaves;
+import utilsBank.FiltroChaves;
+import utilsBank.arquivo.codec.ContextoCodec;
 import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.databank.CodecData;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 
+/**
+ * Leitura e gravação dos arquivos .dat no formato binário dos codecs. Todo arquivo começa com o cabeçalho de
+ * {@link utilsBank.arquivo.codec.Esquema}; os arquivos são gravados em um temporário e depois renomeados, para que
+ * uma queda durante a gravação não deixe um snapshot pela metade. O temporário é forçado para o disco antes da troca
+ * e o diretório depois dela, de modo que o journal só é esvaziado quando o snapshot novo já está no disco.
+ * <p>
+ * Arquivos ainda gravados com ObjectOutputStream são convertidos na primeira leitura (ver {@link ConversorLegado}).
+ */
 public class GerenciadorArquivo {
 	public static final String PATH_CLIENTES = "banco/clientes.dat";
 	public static final String PATH_CHAVES_NOSSO_NUMEROS = "banco/chaves_nossos_numeros.dat";
 	public static final String PATH_CHAVES_GERADAS_ALEATORIA = "banco/chaves_geradas_aleatoria.dat";
 	public static final String PATH_CHAVES_GERADAS_NUMERO_CARTAO = "banco/geradas_numero_cartao.dat";
 	public static final String PATH_CHAVES_ID_CONTA = "banco/chaves_id_conta.dat";
+	public static final String PATH_SEMENTE_CHAVES = "banco/semente_chaves.dat";
+	public static final String PATH_FILTRO_NOSSO_NUMEROS = "banco/filtro_nossos_numeros.dat";
+	public static final String PATH_FILTRO_CHAVES_ALEATORIAS = "banco/filtro_chaves_aleatorias.dat";
 	public static final String PATH_BOLETOS = "banco/boletos.dat";
 	public static final String PATH_DATA = "banco/data.dat";
 	public static final String PATH_TRANSACOES = "banco/transacoes.dat";
+	public static final String PATH_JOURNAL = "banco/journal.dat";
+	public static final String PATH_SALDOS = "banco/saldos.dat";
+	public static final String PATH_HISTORICO = "banco/historico";
+	/**
+	 * Sufixo da cópia guardada de um arquivo serializado depois da conversão
+	 */
+	public static final String SUFIXO_SERIALIZADO = ".serializado";
+	private static final CodecCliente CODEC_CLIENTE = new CodecCliente();
+	private static final CodecTransacao CODEC_TRANSACAO = new CodecTransacao();
+	private static final CodecData CODEC_DATA = new CodecData();
+	private static final CodecFiltroChaves CODEC_FILTRO_CHAVES = new CodecFiltroChaves();
 
+	private interface Leitura<T> {
+		T ler(EntradaArquivo entrada) throws IOException;
+	}
+
+	private interface Escrita {
+		void escrever(SaidaArquivo saida, ContextoCodec contexto) throws IOException;
+	}
+
+	/**
+	 * Troca o arquivo final pelo temporário já gravado
+	 */
+	private interface Troca {
+		void trocar(Path temporario, Path destino, ContextoCodec contexto) throws IOException;
+	}
+
+	/**
+	 * @return {@code null} caso o arquivo não exista
+	 */
+	private static <T> T lerArquivo(String path, ContextoCodec contexto, Leitura<T> leitura) throws IOException {
+		converterSerializado(path);
+		try (EntradaArquivo entrada = new EntradaArquivo(path)) {
+			contexto.lerCabecalho(entrada);
+			return leitura.ler(entrada);
+		} catch (FileNotFoundException ex) {
+			/* Arquivo nao encontrado */
+			return null;
+		}
+	}
+
+	/**
+	 * Regrava no formato dos codecs um arquivo gravado com ObjectOutputStream, antes dos codecs. O original fica em
+	 * {@link #SUFIXO_SERIALIZADO} e o convertido substitui o arquivo como um snapshot, então a conversão só acontece uma
+	 * vez.
+	 */
+	private static void converterSerializado(String path) throws IOException {
+		if (!ConversorLegado.ehSerializado(path)) {
+			return;
+		}
+		byte[] convertido;
+		try (InputStream arquivo = new BufferedInputStream(new FileInputStream(path))) {
+			convertido = ConversorLegado.converter(arquivo);
+		}
+		Path destino = Paths.get(path);
+		Path temporario = Paths.get(path + ".tmp");
+		Files.copy(destino, Paths.get(path + SUFIXO_SERIALIZADO), StandardCopyOption.REPLACE_EXISTING);
+		try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile())) {
+			arquivo.write(convertido);
+			arquivo.getChannel().force(true);
+		}
+		moverArquivo(temporario, destino);
+		sincronizarDiretorio(destino);
+	}
+
+	private static ContextoCodec gravarArquivo(String path, Escrita escrita) throws LeituraArquivoException, EscritaArquivoException {
+		return gravarArquivo(path, escrita, (temporario, destino, contexto) -> moverArquivo(temporario, destino));
+	}
+
+	/**
+	 * @return o contexto usado na escrita
+	 */
+	private static ContextoCodec gravarArquivo(String path, Escrita escrita, Troca troca) throws LeituraArquivoException, EscritaArquivoException {
+		Path destino = Paths.get(path);
+		Path temporario = Paths.get(path + ".tmp");
+		try {
+			ContextoCodec contexto = new ContextoCodec();
+			try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile());
+			     SaidaArquivo saida = new SaidaArquivo(path, new BufferedOutputStream(arquivo))) {
+				contexto.escreverCabecalho(saida);
+				escrita.escrever(saida, contexto);
+				saida.flush();
+				arquivo.getChannel().force(true);
+			}
+			troca.trocar(temporario, destino, contexto);
+			sincronizarDiretorio(destino);
+			return contexto;
+		} catch (FileNotFoundException ex) {
+			/* Diretorio nao encontrado */
+			throw new LeituraArquivoException("Diretorio nao encontrado");
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Arquivo nao pode ser acessado");
+		}
+	}
+
+	private static void moverArquivo(Path temporario, Path destino) throws IOException {
+		try {
+			Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Força para o disco a entrada do diretório alterada pela troca do temporário pelo arquivo final
+	 */
+	private static void sincronizarDiretorio(Path arquivo) throws IOException {
+		Path diretorio = arquivo.toAbsolutePath().getParent();
+		FileChannel canal;
+		try {
+			canal = FileChannel.open(diretorio, StandardOpenOption.READ);
+		} catch (IOException ex) {
+			/* Sistema nao permite abrir diretorios (Windows), a troca ja e duravel */
+			return;
+		}
+		try (canal) {
+			canal.force(true);
+		}
+	}
+
+	/**
+	 * @return a data da última atualização diária, ou ontem caso o arquivo não exista (só o dia atual será processado)
+	 */
 	public static Data lerData(String path) throws RuntimeException {
 		try {
-			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
-			Data data = (Data) arquivo.readObject();
-			arquivo.close();
+			ContextoCodec contexto = new ContextoCodec();
+			Data data = lerArquivo(path, contexto, entrada -> CODEC_DATA.ler(entrada, contexto));
 			if (data != null) {
 				return data;
 			}
-			return DataBank.criarData("01/01/2000", DataBank.SEM_HORA);
-		} catch (FileNotFoundException ex) {
-			/* Arquivo nao encontrado */
-			return DataBank.criarData("01/01/2000", DataBank.SEM_HORA);
+			return DataBank.criarData(DataBank.SEM_HORA).diaAnterior();
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
 			throw new RuntimeException("Arquivo nao pode ser acessado");
-		} catch (ClassNotFoundException ex) {
-			/* Classe invalida */
-			throw new RuntimeException("Classe invalida");
 		}
 	}
 
-	public static HashSet<Cliente> listarSet(String path) throws RuntimeException {
+	/**
+	 * @param contexto contexto de leitura usado em seguida para os boletos e transações, que referenciam estes clientes.
+	 *                 Com {@link ContextoCodec#adiarMovimentacoes} só os dados dos clientes e das contas são lidos agora.
+	 */
+	public static HashSet<Cliente> listarSet(String path, ContextoCodec contexto) throws RuntimeException {
 		try {
-			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
-			HashSet<Cliente> dados = (HashSet<Cliente>) arquivo.readObject();
-			arquivo.close();
-			if (dados.size() > 0) {
-				return dados;
-			}
-			/* Lista vazia */
-			return new HashSet<>();
-		} catch (FileNotFoundException ex) {
-			/* Arquivo nao encontrado */
-			return new HashSet<>();
+			HashSet<Cliente> dados = lerArquivo(path, contexto, entrada -> {
+				HashSet<Cliente> clientes = new HashSet<>();
+				CODEC_CLIENTE.lerColecao(entrada, clientes, contexto);
+				return clientes;
+			});
+			return dados == null ? new HashSet<>() : dados;
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
 			System.out.println(ex.getMessage());
 			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
-		} catch (ClassNotFoundException ex) {
-			/* Classe invalida */
-			throw new LeituraArquivoException("Classe invalida");
 		}
 	}
 
-	public static HashSet<Boleto> listarSetBoleto(String path) throws RuntimeException {
+	public static HashSet<Boleto> listarSetBoleto(String path, ContextoCodec contexto) throws RuntimeException {
 		try {
-			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
-			HashSet<Boleto> dados = (HashSet<Boleto>) arquivo.readObject();
-			arquivo.close();
-			if (dados.size() > 0) {
-				return dados;
-			}
-			/* Lista vazia */
-			return new HashSet<>();
-		} catch (FileNotFoundException ex) {
-			/* Arquivo nao encontrado */
-			return new HashSet<>();
+			HashSet<Boleto> dados = lerArquivo(path, contexto, entrada -> {
+				ArrayList<Transacao> transacoes = new ArrayList<>();
+				CODEC_TRANSACAO.lerColecao(entrada, transacoes, contexto);
+				HashSet<Boleto> boletos = new HashSet<>();
+				for (Transacao transacao : transacoes) {
+					if (!(transacao instanceof Boleto boleto)) {
+						throw new IOException("Boleto invalido");
+					}
+					boletos.add(boleto);
+				}
+				return boletos;
+			});
+			return dados == null ? new HashSet<>() : dados;
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
 			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
-		} catch (ClassNotFoundException ex) {
-			/* Classe invalida */
-			throw new LeituraArquivoException("Classe invalida");
 		}
 	}
 
 	public static HashSet<String> listarSetGeracaoAleatoria(String path) throws LeituraArquivoException {
 		try {
-			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
-			HashSet<String> dados = (HashSet<String>) arquivo.readObject();
-			arquivo.close();
-			if (dados.size() > 0) {
-				return dados;
-			}
-			/* Lista vazia */
-			return new HashSet<>();
-		} catch (FileNotFoundException ex) {
-			/* Arquivo nao encontrado */
-			return new HashSet<>();
+			HashSet<String> dados = lerArquivo(path, new ContextoCodec(), entrada -> {
+				int quantidade = entrada.readInt();
+				HashSet<String> chaves = new HashSet<>();
+				for (int i = 0; i < quantidade; i++) {
+					chaves.add(entrada.readUTF());
+				}
+				return chaves;
+			});
+			return dados == null ? new HashSet<>() : dados;
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
 			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
-		} catch (ClassNotFoundException ex) {
-			/* Classe invalida */
-			throw new LeituraArquivoException("Classe invalida");
 		}
 	}
 
-	public static void salvarClientes(HashSet<Cliente> clientes) throws LeituraArquivoException, EscritaArquivoException {
+	public static void salvarClientes(Collection<Cliente> clientes, ContextoCodec contextoBlocos) throws LeituraArquivoException, EscritaArquivoException {
+		salvarClientes(GerenciadorArquivo.PATH_CLIENTES, clientes, contextoBlocos);
+	}
+
+	/**
+	 * Grava o arquivo de clientes e faz as contas apontarem para os seus blocos no novo arquivo. Movimentações que ainda
+	 * não foram lidas são copiadas do arquivo anterior. Cada conta é gravada com a sua trava, então as operações nas
+	 * demais contas continuam durante a gravação; só a troca do arquivo impede a leitura de blocos.
+	 *
+	 * @param clientes       não deve mudar durante a gravação, já que é percorrido duas vezes
+	 * @param contextoBlocos contexto de onde saem os contextos de leitura dos blocos, ver
+	 *                       {@link ContextoCodec#adiarMovimentacoes}
+	 */
+	public static void salvarClientes(String path, Collection<Cliente> clientes, ContextoCodec contextoBlocos) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(path, (saida, contexto) -> {
+			contexto.adiarMovimentacoes(contextoBlocos);
+			CODEC_CLIENTE.escreverColecao(saida, clientes, contexto);
+		}, (temporario, destino, gravado) -> {
+			BlocoMovimentacoes.travarGravacao();
+			try {
+				moverArquivo(temporario, destino);
+				for (BlocoMovimentacoes bloco : gravado.getBlocosGravados()) {
+					bloco.getConta().atualizarBlocoGravado(bloco);
+				}
+			} finally {
+				BlocoMovimentacoes.destravarGravacao();
+			}
+		});
+	}
+
+	public static void salvarBoletos(HashSet<Boleto> boletos) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(GerenciadorArquivo.PATH_BOLETOS, (saida, contexto) -> CODEC_TRANSACAO.escreverColecao(saida, boletos, contexto));
+	}
+
+	public static void salvarData(Data data) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(GerenciadorArquivo.PATH_DATA, (saida, contexto) -> CODEC_DATA.escrever(saida, data, contexto));
+	}
+
+	/**
+	 * @return {@code null} caso a semente ainda não tenha sido gravada
+	 */
+	public static Long lerSementeChaves(String path) throws LeituraArquivoException {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(GerenciadorArquivo.PATH_CLIENTES));
-			arquivo.writeObject(clientes);
-			arquivo.close();
-		} catch (FileNotFoundException ex) {
-			/* Diretorio nao encontrado */
-			throw new LeituraArquivoException("Diretorio nao encontrado");
+			return lerArquivo(path, new ContextoCodec(), DataInputStream::readLong);
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
-			throw new EscritaArquivoException("Arquivo nao pode ser acessado");
+			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
 		}
 	}
 
-	public static void salvarBoletos(HashSet<Boleto> boletos) throws LeituraArquivoException, EscritaArquivoException {
+	public static void salvarSementeChaves(String path, long semente) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(path, (saida, contexto) -> saida.writeLong(semente));
+	}
+
+	/**
+	 * @return a quantidade de dígitos e o próximo índice gravados por {@link #salvarIndicePermutacao}, ou
+	 * {@code null} caso ainda não tenham sido gravados
+	 */
+	public static long[] lerIndicePermutacao(String path) throws LeituraArquivoException {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(GerenciadorArquivo.PATH_BOLETOS));
-			arquivo.writeObject(boletos);
-			arquivo.close();
-		} catch (FileNotFoundException ex) {
-			/* Diretorio nao encontrado */
-			throw new LeituraArquivoException("Diretorio nao encontrado");
+			return lerArquivo(path, new ContextoCodec(), entrada -> new long[]{entrada.readInt(), entrada.readLong()});
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
-			throw new EscritaArquivoException("Arquivo nao pode ser acessado");
+			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
 		}
 	}
 
-	public static void salvarData(Data data) throws LeituraArquivoException, EscritaArquivoException {
+	public static void salvarIndicePermutacao(String path, int digitos, long indice) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(path, (saida, contexto) -> {
+			saida.writeInt(digitos);
+			saida.writeLong(indice);
+		});
+	}
+
+	/**
+	 * @return {@code null} caso o filtro ainda não tenha sido gravado
+	 */
+	public static FiltroChaves lerFiltroChaves(String path) throws LeituraArquivoException {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(GerenciadorArquivo.PATH_DATA));
-			arquivo.writeObject(data);
-			arquivo.close();
-		} catch (FileNotFoundException ex) {
-			/* Diretorio nao encontrado */
-			throw new LeituraArquivoException("Diretorio nao encontrado");
+			ContextoCodec contexto = new ContextoCodec();
+			return lerArquivo(path, contexto, entrada -> CODEC_FILTRO_CHAVES.ler(entrada, contexto));
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
-			throw new EscritaArquivoException("Arquivo nao pode ser acessado");
+			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
 		}
 	}
 
-	public static void inserirSetGeracao(String path, HashSet<String> novosDados) {
+	/**
+	 * @return {@code true} caso o filtro tenha sido gravado
+	 */
+	public static boolean salvarFiltroChaves(String path, FiltroChaves filtro) {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(path));
-			arquivo.writeObject(novosDados);
-			arquivo.close();
-		} catch (FileNotFoundException ex) {
-			/* Diretorio nao encontrado */
-		} catch (IOException ex) {
+			gravarArquivo(path, (saida, contexto) -> CODEC_FILTRO_CHAVES.escrever(saida, filtro, contexto));
+			return true;
+		} catch (LeituraArquivoException | EscritaArquivoException ex) {
 			/* Arquivo nao pode ser acessado */
+			return false;
 		}
 	}
 
-	public static ArrayList<Transacao> listarTransacoes(String path) {
+	/**
+	 * @return {@code true} caso o conjunto tenha sido gravado
+	 */
+	public static boolean inserirSetGeracao(String path, HashSet<String> novosDados) {
 		try {
-			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
-			ArrayList<Transacao> dados = (ArrayList<Transacao>) arquivo.readObject();
-			arquivo.close();
-			if (dados.size() > 0) {
-				return dados;
-			}
-			/* Lista vazia */
-			return new ArrayList<>();
-		} catch (FileNotFoundException ex) {
-			/* Arquivo nao encontrado */
-			return new ArrayList<>();
-		} catch (IOException ex) {
+			gravarArquivo(path, (saida, contexto) -> {
+				saida.writeInt(novosDados.size());
+				for (String chave : novosDados) {
+					saida.writeUTF(chave);
+				}
+			});
+			return true;
+		} catch (LeituraArquivoException | EscritaArquivoException ex) {
 			/* Arquivo nao pode ser acessado */
-			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
-		} catch (ClassNotFoundException ex) {
-			/* Classe invalida */
-			throw new LeituraArquivoException("Classe invalida");
+			return false;
 		}
 	}
 
-
-	public static void salvarTransacoes(ArrayList<Transacao> transacaos) throws LeituraArquivoException, EscritaArquivoException {
+	public static ArrayList<Transacao> listarTransacoes(String path, ContextoCodec contexto) {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(GerenciadorArquivo.PATH_TRANSACOES));
-			arquivo.writeObject(transacaos);
-			arquivo.close();
-		} catch (FileNotFoundException ex) {
-			/* Diretorio nao encontrado */
-			throw new LeituraArquivoException("Diretorio nao encontrado");
+			ArrayList<Transacao> dados = lerArquivo(path, contexto, entrada -> {
+				ArrayList<Transacao> transacoes = new ArrayList<>();
+				CODEC_TRANSACAO.lerColecao(entrada, transacoes, contexto);
+				return transacoes;
+			});
+			return dados == null ? new ArrayList<>() : dados;
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
-			throw new EscritaArquivoException("Arquivo nao pode ser acessado");
+			throw new LeituraArquivoException("Arquivo nao pode ser acessado");
 		}
 	}
+
+
+	public static void salvarTransacoes(ArrayList<Transacao> transacaos) throws LeituraArquivoException, EscritaArquivoException {
+		salvarTransacoes(GerenciadorArquivo.PATH_TRANSACOES, transacaos);
+	}
+
+	public static void salvarTransacoes(String path, Collection<Transacao> transacoes) throws LeituraArquivoException, EscritaArquivoException {
+		gravarArquivo(path, (saida, contexto) -> CODEC_TRANSACAO.escreverColecao(saida, transacoes, contexto));
+	}
 }
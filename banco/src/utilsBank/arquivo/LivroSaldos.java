@@ -0,0 +1,233 @@
+package utilsBank.arquivo;
+
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Livro de saldos mapeado em memória ({@link FileChannel#map}).
+ * <p>
+ * Cada conta tem uma posição de tamanho fixo endereçada pelo próprio ID_CONTA, com saldo, dinheiro guardado,
+ * empréstimo e parcela do empréstimo em centavos. Uma alteração de valor é uma escrita de 8 bytes no lugar, sem regravar o
+ * clientes.dat. As páginas alteradas são forçadas para o disco a cada {@link #LOTE_SINCRONIZACAO} escritas, quando passa
+ * {@link #INTERVALO_SINCRONIZACAO_MS} desde a última vez, ou em {@link #sincronizar()}. Uma queda do processo não perde
+ * nada, pois as páginas já estão no cache do sistema; uma queda da máquina perde no máximo a janela não forçada.
+ * <p>
+ * Como o livro e o journal são forçados em momentos diferentes, cada posição guarda também a sequência da conta
+ * ({@code Conta#sincronizarLivroSaldos}) na última escrita. Na inicialização a posição só vale se for mais nova que o
+ * estado reconstruído pelo snapshot e pelo journal.
+ * <p>
+ * O livro só fica ativo depois de {@link #abrir(String)}, feito pela agência. Sem ele as contas funcionam normalmente.
+ * <p>
+ * As escritas não passam por uma trava do livro: cada posição só é alterada com a trava da sua conta, e as escritas
+ * absolutas no mapa não mexem no estado do buffer, então contas diferentes gravam em paralelo.
+ */
+public class LivroSaldos {
+	public static final int LOTE_SINCRONIZACAO = 64;
+	public static final long INTERVALO_SINCRONIZACAO_MS = 1000;
+	/**
+	 * "BICS"
+	 */
+	private static final int MAGICO = 0x42494353;
+	/**
+	 * Versão 1: valores em reais (double). Versão 2: em centavos (long). Versão 3: com a sequência da conta. Um livro
+	 * de versão anterior é esvaziado ao abrir e as contas voltam a ser preenchidas pelo snapshot e pelo journal.
+	 */
+	private static final int VERSAO = 3;
+	private static final int TAMANHO_CABECALHO = 16;
+	/**
+	 * Posição: [int ocupado][int sequência][saldo][dinheiro guardado][empréstimo][parcela do empréstimo]
+	 */
+	private static final int TAMANHO_POSICAO = 2 * Integer.BYTES + Campo.values().length * Long.BYTES;
+	private static final int OCUPADO = 1;
+	private static volatile LivroSaldos instance;
+	private final FileChannel canal;
+	private final MappedByteBuffer mapa;
+	private final int quantidadePosicoes;
+	private final AtomicInteger escritasPendentes = new AtomicInteger();
+	private volatile long ultimaSincronizacao;
+
+	public enum Campo {
+		SALDO,
+		DINHEIRO_GUARDADO,
+		EMPRESTIMO,
+		PARCELA_EMPRESTIMO
+	}
+
+	private LivroSaldos(String path, int quantidadePosicoes) throws IOException {
+		Path arquivo = Paths.get(path);
+		if (arquivo.getParent() != null) {
+			Files.createDirectories(arquivo.getParent());
+		}
+		this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long tamanho = TAMANHO_CABECALHO + (long) quantidadePosicoes * TAMANHO_POSICAO;
+		boolean novo = this.canal.size() == 0;
+		this.mapa = this.canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+		this.quantidadePosicoes = quantidadePosicoes;
+		if (novo) {
+			this.mapa.putInt(0, MAGICO);
+			this.mapa.putInt(4, VERSAO);
+			this.mapa.putInt(8, TAMANHO_POSICAO);
+			this.mapa.putInt(12, quantidadePosicoes);
+			this.mapa.force();
+		} else if (this.mapa.getInt(0) != MAGICO || this.mapa.getInt(4) > VERSAO
+				|| this.mapa.getInt(8) != TAMANHO_POSICAO || this.mapa.getInt(12) != quantidadePosicoes) {
+			this.canal.close();
+			throw new IOException("Livro de saldos invalido");
+		} else if (this.mapa.getInt(4) < VERSAO) {
+			esvaziar();
+		}
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Abre (ou cria) o livro de saldos e o torna o livro ativo. Um livro já aberto é fechado antes.
+	 */
+	public static synchronized LivroSaldos abrir(String path) throws LeituraArquivoException {
+		fechar();
+		try {
+			instance = new LivroSaldos(path, (int) Math.pow(10, GeracaoAleatoria.TAMANHO_ID_CONTA));
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Livro de saldos nao pode ser acessado");
+		}
+		return instance;
+	}
+
+	/**
+	 * @return o livro ativo, ou null caso nenhum tenha sido aberto
+	 */
+	public static LivroSaldos getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Força as escritas pendentes e desativa o livro
+	 */
+	public static synchronized void fechar() {
+		if (instance != null) {
+			instance.sincronizar();
+			try {
+				instance.canal.close();
+			} catch (IOException ignore) {
+				/* O mapa continua válido até ser coletado */
+			}
+			instance = null;
+		}
+	}
+
+	/**
+	 * @return {@code true} caso a conta já tenha valores gravados no livro
+	 */
+	public boolean contem(String idConta) {
+		int posicao = posicao(idConta);
+		return posicao >= 0 && this.mapa.getInt(posicao) == OCUPADO;
+	}
+
+	/**
+	 * @return o valor em centavos
+	 */
+	public long ler(String idConta, Campo campo) {
+		int posicao = posicao(idConta);
+		if (posicao < 0) {
+			throw new IllegalArgumentException("Conta sem posicao no livro de saldos");
+		}
+		return this.mapa.getLong(posicao + deslocamento(campo));
+	}
+
+	/**
+	 * @return a sequência da conta na última escrita da posição
+	 */
+	public int lerSequencia(String idConta) {
+		int posicao = posicao(idConta);
+		if (posicao < 0) {
+			throw new IllegalArgumentException("Conta sem posicao no livro de saldos");
+		}
+		return this.mapa.getInt(posicao + Integer.BYTES);
+	}
+
+	/**
+	 * Grava um valor da conta no lugar. Contas cujo ID não corresponde a uma posição do livro são ignoradas.
+	 *
+	 * @param sequencia sequência da conta depois da alteração
+	 */
+	public void gravar(String idConta, Campo campo, long valor, int sequencia) {
+		int posicao = posicao(idConta);
+		if (posicao < 0) {
+			return;
+		}
+		this.mapa.putLong(posicao + deslocamento(campo), valor);
+		this.mapa.putInt(posicao + Integer.BYTES, sequencia);
+		if (this.mapa.getInt(posicao) != OCUPADO) {
+			this.mapa.putInt(posicao, OCUPADO);
+		}
+		if (this.escritasPendentes.incrementAndGet() >= LOTE_SINCRONIZACAO
+				|| System.currentTimeMillis() - this.ultimaSincronizacao >= INTERVALO_SINCRONIZACAO_MS) {
+			sincronizar();
+		}
+	}
+
+	/**
+	 * Força as páginas alteradas para o disco
+	 */
+	public synchronized void sincronizar() {
+		int pendentes = this.escritasPendentes.getAndSet(0);
+		if (pendentes == 0) {
+			return;
+		}
+		try {
+			this.mapa.force();
+		} catch (UncheckedIOException ex) {
+			/* Tentado de novo na próxima escrita */
+			this.escritasPendentes.addAndGet(pendentes);
+			return;
+		}
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return posição da conta no arquivo, ou -1 caso o ID não seja um número dentro do livro
+	 */
+	private int posicao(String idConta) {
+		if (idConta == null || idConta.isEmpty()) {
+			return -1;
+		}
+		int indice = 0;
+		for (int i = 0; i < idConta.length(); i++) {
+			char digito = idConta.charAt(i);
+			if (digito < '0' || digito > '9') {
+				return -1;
+			}
+			indice = indice * 10 + (digito - '0');
+			if (indice >= this.quantidadePosicoes) {
+				return -1;
+			}
+		}
+		return TAMANHO_CABECALHO + indice * TAMANHO_POSICAO;
+	}
+
+	private static int deslocamento(Campo campo) {
+		return 2 * Integer.BYTES + campo.ordinal() * Long.BYTES;
+	}
+
+	/**
+	 * Marca todas as posições como livres. A versão só é atualizada depois, então uma queda no meio recomeça do zero.
+	 */
+	private void esvaziar() {
+		for (int i = 0; i < this.quantidadePosicoes; i++) {
+			this.mapa.putInt(TAMANHO_CABECALHO + i * TAMANHO_POSICAO, 0);
+		}
+		this.mapa.force();
+		this.mapa.putInt(4, VERSAO);
+		this.mapa.force();
+	}
+}
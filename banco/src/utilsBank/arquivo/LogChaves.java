@@ -0,0 +1,157 @@
+package utilsBank.arquivo;
+
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Log das chaves geradas desde o último snapshot do conjunto de chaves (ver {@link utilsBank.GeracaoAleatoria}).
+ * <p>
+ * Cada chave é gravada no fim do arquivo como {@code [tamanho][bytes][crc32]}, uma escrita só por chave, sem regravar
+ * as anteriores. Como no {@link utilsBank.arquivo.journal.Journal}, o fsync é feito em lotes: a cada
+ * {@link #LOTE_SINCRONIZACAO} chaves, quando passa {@link #INTERVALO_SINCRONIZACAO_MS} desde o último, ou em
+ * {@link #sincronizar()}. Uma chave incompleta ou corrompida no fim do arquivo é descartada na leitura.
+ */
+public class LogChaves {
+	public static final int LOTE_SINCRONIZACAO = 64;
+	public static final long INTERVALO_SINCRONIZACAO_MS = 1000;
+	private static final int TAMANHO_MAXIMO_CHAVE = 1024;
+	private final FileChannel canal;
+	private int chavesPendentes;
+	private long ultimaSincronizacao;
+
+	public LogChaves(String path) throws LeituraArquivoException {
+		try {
+			Path arquivo = Paths.get(path);
+			if (arquivo.getParent() != null) {
+				Files.createDirectories(arquivo.getParent());
+			}
+			this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.canal.position(this.canal.size());
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Log de chaves nao pode ser acessado");
+		}
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Lê as chaves gravadas desde o início. O arquivo é cortado depois da última chave íntegra, para que as próximas
+	 * escritas continuem a partir dela.
+	 */
+	public synchronized List<String> ler() throws LeituraArquivoException {
+		try {
+			long tamanhoArquivo = this.canal.size();
+			DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(this.canal.position(0))));
+			List<String> chaves = new ArrayList<>();
+			long posicaoValida = 0;
+			while (posicaoValida + Short.BYTES + Integer.BYTES <= tamanhoArquivo) {
+				int tamanho = entrada.readUnsignedShort();
+				if (tamanho > TAMANHO_MAXIMO_CHAVE || posicaoValida + Short.BYTES + tamanho + Integer.BYTES > tamanhoArquivo) {
+					break;
+				}
+				byte[] bytes = new byte[tamanho];
+				entrada.readFully(bytes);
+				if (entrada.readInt() != calcularCrc(bytes)) {
+					break;
+				}
+				chaves.add(new String(bytes, StandardCharsets.UTF_8));
+				posicaoValida += Short.BYTES + tamanho + Integer.BYTES;
+			}
+			this.canal.truncate(posicaoValida);
+			this.canal.position(posicaoValida);
+			return chaves;
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Log de chaves nao pode ser lido");
+		}
+	}
+
+	/**
+	 * Grava a chave no fim do log. O fsync só é feito quando o lote fecha.
+	 */
+	public synchronized void registrar(String chave) throws EscritaArquivoException {
+		byte[] bytes = chave.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocate(Short.BYTES + bytes.length + Integer.BYTES);
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+		buffer.putInt(calcularCrc(bytes));
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				this.canal.write(buffer);
+			}
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Log de chaves nao pode ser gravado");
+		}
+		this.chavesPendentes++;
+		if (this.chavesPendentes >= LOTE_SINCRONIZACAO
+				|| System.currentTimeMillis() - this.ultimaSincronizacao >= INTERVALO_SINCRONIZACAO_MS) {
+			sincronizar();
+		}
+	}
+
+	/**
+	 * Força as chaves pendentes para o disco
+	 */
+	public synchronized void sincronizar() throws EscritaArquivoException {
+		if (this.chavesPendentes == 0) {
+			return;
+		}
+		try {
+			this.canal.force(false);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Log de chaves nao pode ser sincronizado");
+		}
+		this.chavesPendentes = 0;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Esvazia o log. Deve ser chamado apenas depois que o conjunto completo de chaves foi gravado.
+	 */
+	public synchronized void reiniciar() throws EscritaArquivoException {
+		try {
+			this.canal.truncate(0);
+			this.canal.position(0);
+			this.canal.force(true);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Log de chaves nao pode ser reiniciado");
+		}
+		this.chavesPendentes = 0;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	public synchronized void fechar() throws EscritaArquivoException {
+		sincronizar();
+		try {
+			this.canal.close();
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Log de chaves nao pode ser fechado");
+		}
+	}
+
+	private static int calcularCrc(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,31 @@
+package utilsBank.arquivo;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Saída de um arquivo .dat que sabe o caminho final do arquivo e quantos bytes já foram gravados. Par da
+ * {@link EntradaArquivo} na escrita.
+ */
+public class SaidaArquivo extends DataOutputStream {
+	private final String caminho;
+
+	/**
+	 * @param caminho onde o arquivo fica depois de gravado, mesmo que a gravação seja feita em um temporário
+	 */
+	public SaidaArquivo(String caminho, OutputStream saida) {
+		super(saida);
+		this.caminho = caminho;
+	}
+
+	public String getCaminho() {
+		return this.caminho;
+	}
+
+	/**
+	 * @return quantidade de bytes gravados desde o início do arquivo
+	 */
+	public long getPosicao() {
+		return size();
+	}
+}
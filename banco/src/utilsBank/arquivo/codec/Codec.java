@@ -0,0 +1,50 @@
+package utilsBank.arquivo.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Converte um objeto do banco para o formato binário dos arquivos .dat e do journal, e vice-versa.
+ * <p>
+ * Cada implementação grava apenas os campos do próprio objeto; clientes referenciados por outros objetos
+ * são gravados pela identificação e resolvidos pelo {@link ContextoCodec} na leitura.
+ */
+public interface Codec<T> {
+
+	void escrever(DataOutput saida, T objeto, ContextoCodec contexto) throws IOException;
+
+	T ler(DataInput entrada, ContextoCodec contexto) throws IOException;
+
+	default void escreverOpcional(DataOutput saida, T objeto, ContextoCodec contexto) throws IOException {
+		saida.writeBoolean(objeto != null);
+		if (objeto != null) {
+			escrever(saida, objeto, contexto);
+		}
+	}
+
+	default T lerOpcional(DataInput entrada, ContextoCodec contexto) throws IOException {
+		return entrada.readBoolean() ? ler(entrada, contexto) : null;
+	}
+
+	default void escreverColecao(DataOutput saida, Collection<? extends T> objetos, ContextoCodec contexto) throws IOException {
+		saida.writeInt(objetos.size());
+		for (T objeto : objetos) {
+			escrever(saida, objeto, contexto);
+		}
+	}
+
+	/**
+	 * Lê uma coleção gravada por {@link #escreverColecao} adicionando os objetos em {@code destino}
+	 */
+	default void lerColecao(DataInput entrada, Collection<? super T> destino, ContextoCodec contexto) throws IOException {
+		int quantidade = entrada.readInt();
+		if (quantidade < 0) {
+			throw new IOException("Quantidade invalida");
+		}
+		for (int i = 0; i < quantidade; i++) {
+			destino.add(ler(entrada, contexto));
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package utilsBank.arquivo.codec;
+
+import cliente.Cliente;
+import conta.BlocoMovimentacoes;
+import transacao.Transacao;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Estado compartilhado pelos codecs durante a escrita ou a leitura de um arquivo.
+ * <ul>
+ *     <li>Resolve as identificações gravadas nas transações para os clientes já carregados.</li>
+ *     <li>Grava cada transação uma única vez por arquivo; as demais ocorrências viram uma referência para a primeira.
+ *     Assim o histórico da origem e o do destino continuam apontando para o mesmo objeto depois da leitura.</li>
+ *     <li>Na leitura, transações com o mesmo nosso número vindas de arquivos diferentes viram o mesmo objeto.</li>
+ * </ul>
+ * Um contexto de leitura pode ser usado em vários arquivos seguidos, como na inicialização da agência.
+ * <p>
+ * Com {@link #adiarMovimentacoes} as coleções de clientes lidas de um arquivo deixam as movimentações das contas no
+ * disco (ver {@link BlocoMovimentacoes}); cada bloco é lido depois com um contexto próprio, derivado deste.
+ */
+public class ContextoCodec {
+	private static final int NOVA_TRANSACAO = -1;
+	private final Function<String, Cliente> resolvedor;
+	private final Function<String, Transacao> resolvedorTransacoes;
+	private final Map<String, Cliente> clientes = new HashMap<>();
+	private final Map<String, Transacao> transacoesPorNossoNumero = new HashMap<>();
+	private final Map<Transacao, Integer> transacoesEscritas = new IdentityHashMap<>();
+	private final List<Transacao> transacoesLidas = new ArrayList<>();
+	private final List<BlocoMovimentacoes> blocosGravados = new ArrayList<>();
+	private ContextoCodec contextoBlocos;
+	private int[] versoes;
+
+	public ContextoCodec() {
+		this(identificacao -> null);
+	}
+
+	/**
+	 * @param resolvedor busca clientes que não foram lidos por este contexto, como os já carregados pela agência
+	 */
+	public ContextoCodec(Function<String, Cliente> resolvedor) {
+		this(resolvedor, nossoNumero -> null);
+	}
+
+	/**
+	 * @param resolvedorTransacoes busca pelo nosso número transações que já estão em memória e ainda podem mudar, como
+	 *                             as agendadas; uma transação lida com o mesmo nosso número vira esse objeto
+	 */
+	public ContextoCodec(Function<String, Cliente> resolvedor, Function<String, Transacao> resolvedorTransacoes) {
+		this.resolvedor = resolvedor;
+		this.resolvedorTransacoes = resolvedorTransacoes;
+		this.versoes = new int[Esquema.values().length];
+		for (Esquema esquema : Esquema.values()) {
+			this.versoes[esquema.ordinal()] = esquema.getVersaoAtual();
+		}
+	}
+
+	public void escreverCabecalho(DataOutput saida) throws IOException {
+		Esquema.escreverCabecalho(saida);
+		this.transacoesEscritas.clear();
+	}
+
+	/**
+	 * Lê o cabeçalho de um novo arquivo. As referências de transação valem apenas dentro do arquivo.
+	 */
+	public void lerCabecalho(DataInput entrada) throws IOException {
+		this.versoes = Esquema.lerCabecalho(entrada);
+		this.transacoesLidas.clear();
+	}
+
+	public void escreverVersoes(DataOutput saida) throws IOException {
+		Esquema.escreverVersoes(saida);
+	}
+
+	public void lerVersoes(DataInput entrada) throws IOException {
+		this.versoes = Esquema.lerVersoes(entrada);
+	}
+
+	public int getVersao(Esquema esquema) {
+		return this.versoes[esquema.ordinal()];
+	}
+
+	/**
+	 * @return as versões em uso, na ordem de {@link Esquema}
+	 */
+	public int[] getVersoes() {
+		return this.versoes.clone();
+	}
+
+	/**
+	 * Faz as próximas coleções de clientes lidas de arquivo deixarem as movimentações para depois; na escrita, guarda
+	 * onde ficou o bloco de cada conta. Os blocos são lidos com contextos derivados de {@code contextoBlocos}, cujos
+	 * resolvedores devem enxergar os clientes e as transações agendadas da agência.
+	 */
+	public void adiarMovimentacoes(ContextoCodec contextoBlocos) {
+		this.contextoBlocos = contextoBlocos;
+	}
+
+	/**
+	 * @return o contexto de onde saem os contextos dos blocos, ou {@code null} caso as movimentações sejam lidas na hora
+	 */
+	public ContextoCodec getContextoBlocos() {
+		return this.contextoBlocos;
+	}
+
+	/**
+	 * @return um contexto novo, com os mesmos resolvedores, para ler dados gravados com as versões informadas
+	 */
+	public ContextoCodec derivar(int[] versoes) {
+		ContextoCodec contexto = new ContextoCodec(this.resolvedor, this.resolvedorTransacoes);
+		contexto.versoes = versoes.clone();
+		return contexto;
+	}
+
+	/**
+	 * Começa um bloco independente dentro do arquivo: as referências de transação, na escrita e na leitura, passam a
+	 * valer só dentro do bloco
+	 */
+	public void iniciarBloco() {
+		this.transacoesEscritas.clear();
+		this.transacoesLidas.clear();
+	}
+
+	/**
+	 * Guarda um bloco escrito neste arquivo. As contas só passam a apontar para ele depois que o arquivo substitui o
+	 * anterior.
+	 */
+	public void registrarBlocoGravado(BlocoMovimentacoes bloco) {
+		this.blocosGravados.add(bloco);
+	}
+
+	public List<BlocoMovimentacoes> getBlocosGravados() {
+		return this.blocosGravados;
+	}
+
+	public void registrarCliente(Cliente cliente) {
+		this.clientes.put(cliente.getIdentificacao(), cliente);
+	}
+
+	/**
+	 * @return o cliente com essa identificação, ou null caso a identificação seja nula
+	 * @throws IOException caso o cliente não tenha sido carregado
+	 */
+	public Cliente buscarCliente(String identificacao) throws IOException {
+		if (identificacao == null) {
+			return null;
+		}
+		Cliente cliente = this.clientes.get(identificacao);
+		if (cliente == null) {
+			cliente = this.resolvedor.apply(identificacao);
+		}
+		if (cliente == null) {
+			throw new IOException("Cliente nao encontrado");
+		}
+		return cliente;
+	}
+
+	/**
+	 * Grava a referência da transação caso ela já tenha sido escrita neste arquivo.
+	 *
+	 * @return {@code true} caso a transação ainda precise ser gravada por completo
+	 */
+	public boolean escreverReferencia(DataOutput saida, Transacao transacao) throws IOException {
+		Integer indice = this.transacoesEscritas.get(transacao);
+		if (indice != null) {
+			saida.writeInt(indice);
+			return false;
+		}
+		this.transacoesEscritas.put(transacao, this.transacoesEscritas.size());
+		saida.writeInt(NOVA_TRANSACAO);
+		return true;
+	}
+
+	/**
+	 * @return a transação referenciada, ou null caso a próxima transação esteja gravada por completo
+	 */
+	public Transacao lerReferencia(DataInput entrada) throws IOException {
+		int indice = entrada.readInt();
+		if (indice == NOVA_TRANSACAO) {
+			return null;
+		}
+		if (indice < 0 || indice >= this.transacoesLidas.size()) {
+			throw new IOException("Referencia de transacao invalida");
+		}
+		return this.transacoesLidas.get(indice);
+	}
+
+	/**
+	 * Registra uma transação recém lida. Caso outra com o mesmo nosso número já tenha sido lida, devolve a anterior.
+	 */
+	public Transacao registrarTransacao(Transacao transacao) {
+		Transacao registrada = transacao;
+		if (transacao.getNossoNumero() != null) {
+			registrada = this.transacoesPorNossoNumero.computeIfAbsent(transacao.getNossoNumero(), numero -> {
+				Transacao emMemoria = this.resolvedorTransacoes.apply(numero);
+				return emMemoria != null ? emMemoria : transacao;
+			});
+		}
+		this.transacoesLidas.add(registrada);
+		return registrada;
+	}
+}
@@ -0,0 +1,82 @@
+package utilsBank.arquivo.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Versões do formato binário de cada tipo gravado pelos codecs. Substituem os antigos serialVersionUID.
+ * <p>
+ * Toda mudança no que um codec grava deve aumentar a versão do tipo correspondente, e o codec deve continuar
+ * sabendo ler as versões anteriores pelo {@link ContextoCodec#getVersao(Esquema)}. A ordem das constantes faz
+ * parte do formato: novos tipos só podem ser adicionados no fim.
+ */
+public enum Esquema {
+	DATA(1),
+	CARTAO(1),
+	FATURA(2),
+	TRANSACAO(2),
+	CONTA(3),
+	CLIENTE(2),
+	FILTRO_CHAVES(1),
+	LOTE_TRANSFERENCIAS(1);
+
+	/**
+	 * "BICD" no início de todo arquivo .dat
+	 */
+	public static final int MAGICO = 0x42494344;
+	private final int versaoAtual;
+
+	Esquema(int versaoAtual) {
+		this.versaoAtual = versaoAtual;
+	}
+
+	public int getVersaoAtual() {
+		return versaoAtual;
+	}
+
+	/**
+	 * Grava a versão atual de cada tipo. Usado no cabeçalho dos arquivos e no início dos registros do journal.
+	 */
+	public static void escreverVersoes(DataOutput saida) throws IOException {
+		saida.writeByte(values().length);
+		for (Esquema esquema : values()) {
+			saida.writeByte(esquema.versaoAtual);
+		}
+	}
+
+	/**
+	 * Lê as versões gravadas por {@link #escreverVersoes(DataOutput)}. Tipos que não existiam quando os dados foram
+	 * gravados ficam com versão 0.
+	 *
+	 * @throws IOException caso os dados tenham sido gravados por uma versão mais nova do banco
+	 */
+	public static int[] lerVersoes(DataInput entrada) throws IOException {
+		int quantidade = entrada.readUnsignedByte();
+		int[] versoes = new int[values().length];
+		for (int i = 0; i < quantidade; i++) {
+			int versao = entrada.readUnsignedByte();
+			if (i < versoes.length) {
+				if (versao > values()[i].versaoAtual) {
+					throw new IOException("Versao do arquivo nao suportada");
+				}
+				versoes[i] = versao;
+			} else if (versao != 0) {
+				throw new IOException("Versao do arquivo nao suportada");
+			}
+		}
+		return versoes;
+	}
+
+	public static void escreverCabecalho(DataOutput saida) throws IOException {
+		saida.writeInt(MAGICO);
+		escreverVersoes(saida);
+	}
+
+	public static int[] lerCabecalho(DataInput entrada) throws IOException {
+		if (entrada.readInt() != MAGICO) {
+			throw new IOException("Formato de arquivo invalido");
+		}
+		return lerVersoes(entrada);
+	}
+}
@@ -0,0 +1,354 @@
+package utilsBank.arquivo.journal;
+
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Journal de escrita antecipada (write-ahead log) do banco.
+ * <p>
+ * Cada alteração é gravada no fim do arquivo como um registro {@code [tamanho][tipo][dados][crc32]}.
+ * O fsync é feito em lotes: a cada {@link #LOTE_SINCRONIZACAO} registros, quando passa
+ * {@link #INTERVALO_SINCRONIZACAO_MS} desde o último, ou quando {@link #sincronizar()} é chamado.
+ * Na inicialização os registros são reproduzidos sobre o último snapshot. Um registro incompleto
+ * ou corrompido no fim do arquivo (queda no meio da escrita) é descartado.
+ * <p>
+ * No início de um snapshot o journal é rotacionado ({@link #rotacionar()}): os registros até ali passam para o journal
+ * anterior e os gravados durante o snapshot vão para um arquivo novo. O anterior só é apagado
+ * ({@link #descartarAnterior()}) depois que o snapshot está no disco; até lá ele é reproduzido antes do atual.
+ * <p>
+ * Registros íntegros que não podem ser aplicados vão para a quarentena ({@code <journal>.quarentena}, no mesmo
+ * formato). Enquanto ela existir o journal anterior não é apagado, para que esses registros continuem sendo
+ * reproduzidos até alguém resolvê-los e chamar {@link #liberarQuarentena()}.
+ */
+public class Journal {
+	public static final int LOTE_SINCRONIZACAO = 32;
+	public static final long INTERVALO_SINCRONIZACAO_MS = 1000;
+	private static final int CABECALHO_REGISTRO = Integer.BYTES + 1;
+	private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+	private static final Logger LOGGER = Logger.getLogger(Journal.class.getName());
+	private final Path arquivo;
+	private final Path anterior;
+	private final Path quarentena;
+	private FileChannel canal;
+	private int quantidadeRegistros;
+	private int registrosPendentes;
+	private long ultimaSincronizacao;
+
+	public Journal(String path) throws LeituraArquivoException {
+		this.arquivo = Paths.get(path);
+		this.anterior = Paths.get(path + ".anterior");
+		this.quarentena = Paths.get(path + ".quarentena");
+		try {
+			if (this.arquivo.getParent() != null) {
+				Files.createDirectories(this.arquivo.getParent());
+			}
+			this.canal = abrir(this.arquivo);
+			this.canal.position(this.canal.size());
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Journal nao pode ser acessado");
+		}
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Aplica um registro lido do journal sobre o estado carregado do snapshot.
+	 */
+	public interface Aplicador {
+		void aplicar(TipoRegistro tipo, DataInputStream dados) throws IOException;
+	}
+
+	private static FileChannel abrir(Path arquivo) throws IOException {
+		return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Lê o journal anterior, se houver, e depois o atual, desde o início, e aplica cada registro válido. A leitura de
+	 * cada arquivo para no primeiro registro incompleto ou corrompido, e o arquivo é cortado nesse ponto para que as
+	 * próximas escritas continuem a partir de um registro íntegro. Registros que não puderem ser aplicados são
+	 * gravados na quarentena, que é refeita a cada reprodução.
+	 *
+	 * @return quantidade de registros aplicados
+	 */
+	public synchronized int reproduzir(Aplicador aplicador) throws LeituraArquivoException {
+		try {
+			List<ByteBuffer> rejeitados = new ArrayList<>();
+			int[] anteriores = {0, 0};
+			if (Files.exists(this.anterior)) {
+				try (FileChannel canalAnterior = abrir(this.anterior)) {
+					anteriores = reproduzir(canalAnterior, aplicador, rejeitados);
+				}
+			}
+			int[] atuais = reproduzir(this.canal, aplicador, rejeitados);
+			gravarQuarentena(rejeitados);
+			this.quantidadeRegistros = anteriores[0] + atuais[0];
+			return anteriores[1] + atuais[1];
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new LeituraArquivoException("Journal nao pode ser lido");
+		}
+	}
+
+	/**
+	 * @return quantidade de registros lidos e de registros aplicados
+	 */
+	private static int[] reproduzir(FileChannel canal, Aplicador aplicador, List<ByteBuffer> rejeitados)
+			throws IOException {
+		long tamanhoArquivo = canal.size();
+		DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal.position(0))));
+		long posicaoValida = 0;
+		int registrosLidos = 0;
+		int registrosAplicados = 0;
+		while (posicaoValida + CABECALHO_REGISTRO + Integer.BYTES <= tamanhoArquivo) {
+			int tamanho = entrada.readInt();
+			if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_REGISTRO
+					|| posicaoValida + CABECALHO_REGISTRO + tamanho + Integer.BYTES > tamanhoArquivo) {
+				break;
+			}
+			byte codigo = entrada.readByte();
+			byte[] dados = new byte[tamanho];
+			entrada.readFully(dados);
+			int crc = entrada.readInt();
+			TipoRegistro tipo = TipoRegistro.porCodigo(codigo);
+			if (tipo == null || crc != calcularCrc(codigo, dados)) {
+				break;
+			}
+			posicaoValida += CABECALHO_REGISTRO + tamanho + Integer.BYTES;
+			registrosLidos++;
+			try {
+				aplicador.aplicar(tipo, new DataInputStream(new ByteArrayInputStream(dados)));
+				registrosAplicados++;
+			} catch (IOException | RuntimeException ex) {
+				/* Registro nao aplicavel ao snapshot atual */
+				LOGGER.warning("Registro " + tipo + " do journal em quarentena: " + ex.getMessage());
+				rejeitados.add(enquadrar(tipo, dados));
+			}
+		}
+		canal.truncate(posicaoValida);
+		canal.position(posicaoValida);
+		return new int[]{registrosLidos, registrosAplicados};
+	}
+
+	/**
+	 * Grava um registro no fim do journal. O fsync só é feito quando o lote fecha.
+	 *
+	 * @param tipo  tipo do registro
+	 * @param dados conteúdo já codificado do registro
+	 * @throws EscritaArquivoException caso o journal não possa ser gravado
+	 */
+	public synchronized void registrar(TipoRegistro tipo, byte[] dados) throws EscritaArquivoException {
+		ByteBuffer buffer = enquadrar(tipo, dados);
+		try {
+			while (buffer.hasRemaining()) {
+				this.canal.write(buffer);
+			}
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal nao pode ser gravado");
+		}
+		this.quantidadeRegistros++;
+		this.registrosPendentes++;
+		if (this.registrosPendentes >= LOTE_SINCRONIZACAO
+				|| System.currentTimeMillis() - this.ultimaSincronizacao >= INTERVALO_SINCRONIZACAO_MS) {
+			sincronizar();
+		}
+	}
+
+	private static ByteBuffer enquadrar(TipoRegistro tipo, byte[] dados) {
+		ByteBuffer buffer = ByteBuffer.allocate(CABECALHO_REGISTRO + dados.length + Integer.BYTES);
+		buffer.putInt(dados.length);
+		buffer.put(tipo.getCodigo());
+		buffer.put(dados);
+		buffer.putInt(calcularCrc(tipo.getCodigo(), dados));
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Regrava a quarentena com os registros rejeitados na última reprodução, ou a apaga se todos foram aplicados
+	 */
+	private void gravarQuarentena(List<ByteBuffer> rejeitados) throws IOException {
+		if (rejeitados.isEmpty()) {
+			Files.deleteIfExists(this.quarentena);
+			return;
+		}
+		try (FileChannel destino = FileChannel.open(this.quarentena, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (ByteBuffer buffer : rejeitados) {
+				while (buffer.hasRemaining()) {
+					destino.write(buffer);
+				}
+			}
+			destino.force(false);
+		}
+	}
+
+	/**
+	 * Força os registros pendentes para o disco
+	 */
+	public synchronized void sincronizar() throws EscritaArquivoException {
+		if (this.registrosPendentes == 0) {
+			return;
+		}
+		try {
+			this.canal.force(false);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal nao pode ser sincronizado");
+		}
+		this.registrosPendentes = 0;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Esvazia o journal, junto com o anterior. Deve ser chamado apenas depois que um snapshot completo foi gravado.
+	 *
+	 * @throws EscritaArquivoException caso haja registros em quarentena ou o journal não possa ser gravado
+	 */
+	public synchronized void reiniciar() throws EscritaArquivoException {
+		if (possuiQuarentena()) {
+			throw new EscritaArquivoException("Journal possui registros em quarentena");
+		}
+		try {
+			this.canal.truncate(0);
+			this.canal.position(0);
+			this.canal.force(true);
+			Files.deleteIfExists(this.anterior);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal nao pode ser reiniciado");
+		}
+		this.quantidadeRegistros = 0;
+		this.registrosPendentes = 0;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Passa os registros gravados até agora para o journal anterior, no início de um snapshot. Se o anterior ainda
+	 * existe (o último snapshot falhou), os registros são acrescentados a ele e o atual é esvaziado.
+	 */
+	public synchronized void rotacionar() throws EscritaArquivoException {
+		try {
+			this.canal.force(false);
+			if (Files.exists(this.anterior)) {
+				try (FileChannel destino = FileChannel.open(this.anterior, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+					long tamanho = this.canal.size();
+					long copiados = 0;
+					while (copiados < tamanho) {
+						copiados += this.canal.transferTo(copiados, tamanho - copiados, destino);
+					}
+					destino.force(false);
+				}
+				this.canal.truncate(0);
+				this.canal.position(0);
+				this.canal.force(true);
+			} else {
+				this.canal.close();
+				try {
+					Files.move(this.arquivo, this.anterior, StandardCopyOption.ATOMIC_MOVE);
+				} finally {
+					this.canal = abrir(this.arquivo);
+				}
+				sincronizarDiretorio();
+			}
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal nao pode ser rotacionado");
+		}
+		this.quantidadeRegistros = 0;
+		this.registrosPendentes = 0;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Apaga o journal anterior. Deve ser chamado apenas depois que o snapshot iniciado em {@link #rotacionar()} foi
+	 * gravado. Enquanto houver registros em quarentena o anterior é mantido.
+	 */
+	public synchronized void descartarAnterior() throws EscritaArquivoException {
+		if (possuiQuarentena()) {
+			LOGGER.warning("Journal anterior mantido: existem registros em quarentena");
+			return;
+		}
+		try {
+			Files.deleteIfExists(this.anterior);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal anterior nao pode ser apagado");
+		}
+	}
+
+	public synchronized boolean possuiQuarentena() {
+		return Files.exists(this.quarentena);
+	}
+
+	/**
+	 * Apaga a quarentena depois que os registros dela foram resolvidos, permitindo que o journal anterior seja
+	 * descartado no próximo snapshot.
+	 */
+	public synchronized void liberarQuarentena() throws EscritaArquivoException {
+		try {
+			Files.deleteIfExists(this.quarentena);
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Quarentena do journal nao pode ser apagada");
+		}
+	}
+
+	/**
+	 * Força para o disco a troca de nome do journal
+	 */
+	private void sincronizarDiretorio() throws IOException {
+		Path diretorio = this.arquivo.toAbsolutePath().getParent();
+		FileChannel canalDiretorio;
+		try {
+			canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ);
+		} catch (IOException ex) {
+			/* Sistema nao permite abrir diretorios (Windows), a troca ja e duravel */
+			return;
+		}
+		try (canalDiretorio) {
+			canalDiretorio.force(true);
+		}
+	}
+
+	public synchronized void fechar() throws EscritaArquivoException {
+		sincronizar();
+		try {
+			this.canal.close();
+		} catch (IOException ex) {
+			/* Arquivo nao pode ser acessado */
+			throw new EscritaArquivoException("Journal nao pode ser fechado");
+		}
+	}
+
+	/**
+	 * @return quantidade de registros gravados desde o início do último snapshot
+	 */
+	public synchronized int getQuantidadeRegistros() {
+		return this.quantidadeRegistros;
+	}
+
+	private static int calcularCrc(byte codigo, byte[] dados) {
+		CRC32 crc = new CRC32();
+		crc.update(codigo);
+		crc.update(dados);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,36 @@
+package utilsBank.arquivo.journal;
+
+/**
+ * Tipos de registro gravados no journal. O código de cada tipo é gravado no arquivo e não deve ser alterado.
+ */
+public enum TipoRegistro {
+	CLIENTE_NOVO(1),
+	TRANSACAO(2),
+	AGENDAMENTO(3),
+	BOLETO_EMITIDO(4),
+	BOLETO_PAGO(5),
+	ESTADO_CONTA(6),
+	LOTE_TRANSFERENCIAS(7),
+	BOLETOS_EMITIDOS(8),
+	BOLETOS_PAGOS(9),
+	DIA_ATUALIZADO(10);
+
+	private final byte codigo;
+
+	TipoRegistro(int codigo) {
+		this.codigo = (byte) codigo;
+	}
+
+	public byte getCodigo() {
+		return codigo;
+	}
+
+	public static TipoRegistro porCodigo(byte codigo) {
+		for (TipoRegistro tipo : values()) {
+			if (tipo.codigo == codigo) {
+				return tipo;
+			}
+		}
+		return null;
+	}
+}
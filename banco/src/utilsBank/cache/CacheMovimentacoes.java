@@ -0,0 +1,155 @@
+package utilsBank.cache;
+
+import conta.Conta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Limita quantas contas mantêm as movimentações em memória (ver {@link conta.BlocoMovimentacoes}) e, opcionalmente, o
+ * peso delas em itens ({@link Conta#getPesoMovimentacoes()}). Quem sai primeiro é decidido pela
+ * {@link PoliticaDespejo}.
+ * <p>
+ * O despejo acontece logo depois de um snapshot, que já gravou as contas alteradas (write-back): a conta volta a
+ * apontar para o seu bloco no arquivo recém gravado. Uma conta usada depois da gravação não é despejada e fica para o
+ * snapshot seguinte.
+ * <p>
+ * Assim como o {@link utilsBank.arquivo.LivroSaldos}, existe um único cache aberto por vez, aberto pela agência. Sem
+ * ele as contas carregadas ficam em memória até o fim.
+ */
+public class CacheMovimentacoes {
+	private static volatile CacheMovimentacoes instance;
+	private final int maximoContas;
+	private final long pesoMaximo;
+	private final PoliticaDespejo<Conta> politica;
+	private final Set<Conta> residentes = Collections.newSetFromMap(new IdentityHashMap<>());
+	private long acertos;
+	private long faltas;
+	private long despejos;
+
+	/**
+	 * @param pesoMaximo {@link Long#MAX_VALUE} para limitar só pela quantidade de contas
+	 */
+	public CacheMovimentacoes(int maximoContas, long pesoMaximo, PoliticaDespejo<Conta> politica) {
+		this.maximoContas = maximoContas;
+		this.pesoMaximo = pesoMaximo;
+		this.politica = politica;
+	}
+
+	public static synchronized CacheMovimentacoes abrir(int maximoContas, long pesoMaximo, PoliticaDespejo<Conta> politica) {
+		instance = new CacheMovimentacoes(maximoContas, pesoMaximo, politica);
+		return instance;
+	}
+
+	/**
+	 * @return o cache aberto, ou {@code null} caso nenhum tenha sido aberto
+	 */
+	public static CacheMovimentacoes getInstance() {
+		return instance;
+	}
+
+	public static synchronized void fechar() {
+		instance = null;
+	}
+
+	/**
+	 * Registra que a conta foi buscada. Conta como acerto se as movimentações já estão em memória; a falta só é contada
+	 * quando a conta realmente lê o arquivo ({@link #registrarCarga(Conta)}).
+	 */
+	public synchronized void acessar(Conta conta) {
+		if (this.residentes.contains(conta)) {
+			this.acertos++;
+		}
+		this.politica.registrarAcesso(conta);
+	}
+
+	/**
+	 * As movimentações da conta acabaram de ser lidas do arquivo
+	 */
+	public synchronized void registrarCarga(Conta conta) {
+		this.faltas++;
+		adicionar(conta);
+	}
+
+	/**
+	 * Passa a controlar uma conta que já está com as movimentações em memória, como um cliente novo
+	 */
+	public synchronized void adicionar(Conta conta) {
+		if (this.residentes.add(conta)) {
+			this.politica.inserir(conta);
+		}
+	}
+
+	public synchronized void remover(Conta conta) {
+		if (this.residentes.remove(conta)) {
+			this.politica.remover(conta);
+		}
+	}
+
+	/**
+	 * Despeja, na ordem da política, as contas que passam dos limites. As contas são descarregadas sem a trava do
+	 * cache, já que uma conta que está sendo carregada com as travas das contas avisa o cache no fim.
+	 *
+	 * @return quantidade de contas despejadas
+	 */
+	public int despejarExcedentes() {
+		List<Conta> candidatas;
+		long peso = 0;
+		synchronized (this) {
+			if (this.pesoMaximo != Long.MAX_VALUE) {
+				for (Conta conta : this.residentes) {
+					peso += conta.getPesoMovimentacoes();
+				}
+			}
+			if (this.residentes.size() <= this.maximoContas && peso <= this.pesoMaximo) {
+				return 0;
+			}
+			candidatas = this.politica.ordemDeDespejo();
+		}
+		int restantes = candidatas.size();
+		List<Conta> despejadas = new ArrayList<>();
+		for (Conta conta : candidatas) {
+			if (restantes <= this.maximoContas && peso <= this.pesoMaximo) {
+				break;
+			}
+			long pesoConta = this.pesoMaximo != Long.MAX_VALUE ? conta.getPesoMovimentacoes() : 0;
+			if (conta.descarregarMovimentacoes()) {
+				despejadas.add(conta);
+				restantes--;
+				peso -= pesoConta;
+			}
+		}
+		synchronized (this) {
+			for (Conta conta : despejadas) {
+				remover(conta);
+			}
+			this.despejos += despejadas.size();
+		}
+		return despejadas.size();
+	}
+
+	public synchronized int getQuantidade() {
+		return this.residentes.size();
+	}
+
+	public synchronized long getAcertos() {
+		return this.acertos;
+	}
+
+	public synchronized long getFaltas() {
+		return this.faltas;
+	}
+
+	public synchronized long getDespejos() {
+		return this.despejos;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Contas em memoria: " + this.residentes.size() + ", acertos: " + this.acertos + ", faltas: " + this.faltas
+				+ ", despejos: " + this.despejos;
+	}
+}
@@ -0,0 +1,32 @@
+package utilsBank.cache;
+
+import java.util.List;
+
+/**
+ * Decide a ordem em que as entradas em memória de um {@link CacheMovimentacoes} são despejadas. As implementações não
+ * precisam ser thread-safe: o cache só as chama com a sua própria trava.
+ *
+ * @param <K> chave das entradas
+ */
+public interface PoliticaDespejo<K> {
+	/**
+	 * Registra um acesso à chave. Chaves que não estão em memória também contam para as políticas que usam a frequência
+	 * de acesso.
+	 */
+	void registrarAcesso(K chave);
+
+	/**
+	 * A chave acabou de entrar na memória
+	 */
+	void inserir(K chave);
+
+	/**
+	 * A chave saiu da memória
+	 */
+	void remover(K chave);
+
+	/**
+	 * @return as chaves em memória, da primeira a ser despejada para a última
+	 */
+	List<K> ordemDeDespejo();
+}
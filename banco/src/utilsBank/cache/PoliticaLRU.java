@@ -0,0 +1,35 @@
+package utilsBank.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Despeja primeiro a entrada usada há mais tempo
+ */
+public class PoliticaLRU<K> implements PoliticaDespejo<K> {
+	/**
+	 * Em ordem de acesso: a primeira chave é a usada há mais tempo
+	 */
+	private final LinkedHashMap<K, Boolean> ordem = new LinkedHashMap<>(16, 0.75f, true);
+
+	@Override
+	public void registrarAcesso(K chave) {
+		this.ordem.get(chave);
+	}
+
+	@Override
+	public void inserir(K chave) {
+		this.ordem.put(chave, Boolean.TRUE);
+	}
+
+	@Override
+	public void remover(K chave) {
+		this.ordem.remove(chave);
+	}
+
+	@Override
+	public List<K> ordemDeDespejo() {
+		return new ArrayList<>(this.ordem.keySet());
+	}
+}
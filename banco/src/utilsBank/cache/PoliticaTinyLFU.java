@@ -0,0 +1,117 @@
+package utilsBank.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * W-TinyLFU: as entradas novas passam por uma janela LRU pequena (1% da capacidade) e só entram na área principal se
+ * forem acessadas com mais frequência (ver {@link SketchFrequencia}) que a próxima vítima dela. A área principal é uma
+ * LRU segmentada: uma entrada acessada de novo passa da provação para a protegida (80% da área principal).
+ * <p>
+ * Assim uma varredura que toca muitas contas uma vez só (como um relatório) não tira da memória as contas usadas o
+ * tempo todo. Quem perde a disputa vai para a lista de excluídas, as primeiras a serem despejadas.
+ */
+public class PoliticaTinyLFU<K> implements PoliticaDespejo<K> {
+	private final int capacidadeJanela;
+	private final int capacidadePrincipal;
+	private final int capacidadeProtegida;
+	private final SketchFrequencia sketch;
+	private final LinkedHashMap<K, Boolean> janela = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<K, Boolean> provacao = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<K, Boolean> protegida = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashSet<K> excluidas = new LinkedHashSet<>();
+
+	/**
+	 * @param capacidade quantidade de entradas que o cache guarda
+	 */
+	public PoliticaTinyLFU(int capacidade) {
+		this.capacidadeJanela = Math.max(1, capacidade / 100);
+		this.capacidadePrincipal = Math.max(1, capacidade - this.capacidadeJanela);
+		this.capacidadeProtegida = this.capacidadePrincipal * 80 / 100;
+		this.sketch = new SketchFrequencia(capacidade);
+	}
+
+	@Override
+	public void registrarAcesso(K chave) {
+		this.sketch.incrementar(chave);
+		if (this.janela.containsKey(chave)) {
+			this.janela.get(chave);
+		} else if (this.provacao.remove(chave) != null) {
+			proteger(chave);
+		} else if (this.protegida.containsKey(chave)) {
+			this.protegida.get(chave);
+		} else if (this.excluidas.remove(chave)) {
+			entrarNaJanela(chave);
+		}
+	}
+
+	@Override
+	public void inserir(K chave) {
+		this.sketch.incrementar(chave);
+		entrarNaJanela(chave);
+	}
+
+	@Override
+	public void remover(K chave) {
+		if (this.janela.remove(chave) == null && this.provacao.remove(chave) == null && this.protegida.remove(chave) == null) {
+			this.excluidas.remove(chave);
+		}
+	}
+
+	/**
+	 * @return excluídas, provação, janela e protegida, cada uma da usada há mais tempo para a mais recente
+	 */
+	@Override
+	public List<K> ordemDeDespejo() {
+		List<K> ordem = new ArrayList<>(this.excluidas);
+		ordem.addAll(this.provacao.keySet());
+		ordem.addAll(this.janela.keySet());
+		ordem.addAll(this.protegida.keySet());
+		return ordem;
+	}
+
+	private void entrarNaJanela(K chave) {
+		this.janela.put(chave, Boolean.TRUE);
+		if (this.janela.size() > this.capacidadeJanela) {
+			K candidata = retirarMaisAntiga(this.janela);
+			admitir(candidata);
+		}
+	}
+
+	/**
+	 * Decide se a entrada que saiu da janela fica no lugar da próxima vítima da área principal
+	 */
+	private void admitir(K candidata) {
+		if (this.provacao.size() + this.protegida.size() < this.capacidadePrincipal) {
+			this.provacao.put(candidata, Boolean.TRUE);
+			return;
+		}
+		Map<K, Boolean> segmentoVitima = this.provacao.isEmpty() ? this.protegida : this.provacao;
+		K vitima = segmentoVitima.keySet().iterator().next();
+		if (this.sketch.frequencia(candidata) > this.sketch.frequencia(vitima)) {
+			segmentoVitima.remove(vitima);
+			this.excluidas.add(vitima);
+			this.provacao.put(candidata, Boolean.TRUE);
+		} else {
+			this.excluidas.add(candidata);
+		}
+	}
+
+	private void proteger(K chave) {
+		this.protegida.put(chave, Boolean.TRUE);
+		if (this.protegida.size() > this.capacidadeProtegida) {
+			this.provacao.put(retirarMaisAntiga(this.protegida), Boolean.TRUE);
+		}
+	}
+
+	private static <K> K retirarMaisAntiga(LinkedHashMap<K, Boolean> segmento) {
+		Iterator<K> iterador = segmento.keySet().iterator();
+		K maisAntiga = iterador.next();
+		iterador.remove();
+		return maisAntiga;
+	}
+}
@@ -0,0 +1,65 @@
+package utilsBank.cache;
+
+/**
+ * Estimativa aproximada da frequência de acesso de cada chave (count-min sketch) em memória fixa: quatro linhas de
+ * contadores de até 15, cada chave cai em uma posição por linha e a frequência é o menor dos quatro contadores. Depois
+ * de {@code 10 × largura} incrementos todos os contadores caem pela metade, para que acessos antigos percam peso.
+ */
+class SketchFrequencia {
+	private static final int LINHAS = 4;
+	private static final int MAXIMO = 15;
+	private static final int[] SEMENTES = {0x97CB3127, 0xB4B82E39, 0x5C1D6A35, 0x2D7F954B};
+	private final int[][] contadores;
+	private final int mascara;
+	private final int limiteAmostra;
+	private int amostras;
+
+	/**
+	 * @param capacidade quantidade de entradas que o cache guarda; a largura das linhas é a potência de 2 seguinte
+	 */
+	SketchFrequencia(int capacidade) {
+		int largura = Integer.highestOneBit(Math.max(16, capacidade - 1)) << 1;
+		this.contadores = new int[LINHAS][largura];
+		this.mascara = largura - 1;
+		this.limiteAmostra = 10 * largura;
+	}
+
+	private int indice(int hash, int linha) {
+		int espalhado = (hash + SEMENTES[linha]) * 0x9E3779B9;
+		espalhado ^= espalhado >>> 16;
+		return espalhado & this.mascara;
+	}
+
+	void incrementar(Object chave) {
+		int hash = chave.hashCode();
+		boolean alterou = false;
+		for (int linha = 0; linha < LINHAS; linha++) {
+			int indice = indice(hash, linha);
+			if (this.contadores[linha][indice] < MAXIMO) {
+				this.contadores[linha][indice]++;
+				alterou = true;
+			}
+		}
+		if (alterou && ++this.amostras >= this.limiteAmostra) {
+			envelhecer();
+		}
+	}
+
+	int frequencia(Object chave) {
+		int hash = chave.hashCode();
+		int frequencia = MAXIMO;
+		for (int linha = 0; linha < LINHAS; linha++) {
+			frequencia = Math.min(frequencia, this.contadores[linha][indice(hash, linha)]);
+		}
+		return frequencia;
+	}
+
+	private void envelhecer() {
+		for (int[] linha : this.contadores) {
+			for (int i = 0; i < linha.length; i++) {
+				linha[i] >>= 1;
+			}
+		}
+		this.amostras /= 2;
+	}
+}
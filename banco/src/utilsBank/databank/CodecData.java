@@ -0,0 +1,36 @@
+package utilsBank.databank;
+
+import utilsBank.arquivo.codec.Codec;
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Calendar;
+
+/**
+ * Formato: instante do calendário em milissegundos, dia, mês e ano (short), hora, minuto e segundo (byte).
+ */
+public class CodecData implements Codec<Data> {
+
+	@Override
+	public void escrever(DataOutput saida, Data data, ContextoCodec contexto) throws IOException {
+		saida.writeLong(data.getInstante());
+		saida.writeShort(data.getDia());
+		saida.writeShort(data.getMes());
+		saida.writeShort(data.getAno());
+		saida.writeByte(data.getHora());
+		saida.writeByte(data.getMinuto());
+		saida.writeByte(data.getSegundo());
+	}
+
+	@Override
+	public Data ler(DataInput entrada, ContextoCodec contexto) throws IOException {
+		Calendar calendario = Calendar.getInstance();
+		calendario.setTimeInMillis(entrada.readLong());
+		int dia = entrada.readShort();
+		int mes = entrada.readShort();
+		int ano = entrada.readShort();
+		return new Data(calendario, dia, mes, ano, entrada.readByte(), entrada.readByte(), entrada.readByte());
+	}
+}
@@ -1,16 +1,12 @@
 package utilsBank.databank;
 
-import java.io.Serial;
-import java.io.Serializable;
 import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
 
-public class Data implements Serializable {
+public class Data {
 	public static final int DIA = 0;
 	public static final int MES = 1;
 	public static final int ANO = 2;
-	@Serial
-	private static final long serialVersionUID = 4L;
 	private final Calendar CALENDAR;
 	private final int HORA;
 	private final int MINUTO;
@@ -29,6 +25,20 @@ public class Data implements Serializable {
 		this.SEGUNDO = data.get(Calendar.SECOND);
 	}
 
+	/**
+	 * Usado pelo {@link CodecData}. Os campos são gravados separados do calendário porque {@link #somar(int, int)}
+	 * altera apenas os campos.
+	 */
+	Data(Calendar data, int dia, int mes, int ano, int hora, int minuto, int segundo) {
+		this.CALENDAR = data;
+		this.dia = dia;
+		this.mes = mes;
+		this.ano = ano;
+		this.HORA = hora;
+		this.MINUTO = minuto;
+		this.SEGUNDO = segundo;
+	}
+
 	@Override
 	public String toString() {
 		return String.format(
@@ -99,6 +109,33 @@ public class Data implements Serializable {
 		return this.CALENDAR.compareTo(outra.CALENDAR) < 0;
 	}
 
+	/**
+	 * @return a meia-noite do dia seguinte a esta data
+	 */
+	public Data diaSeguinte() {
+		return deslocarDias(1);
+	}
+
+	/**
+	 * @return a meia-noite do dia anterior a esta data
+	 */
+	public Data diaAnterior() {
+		return deslocarDias(-1);
+	}
+
+	/**
+	 * @return a meia-noite do dia a {@code dias} dias desta data (negativo para dias anteriores)
+	 */
+	public Data deslocarDias(int dias) {
+		Calendar deslocado = (Calendar) this.CALENDAR.clone();
+		deslocado.add(Calendar.DAY_OF_MONTH, dias);
+		deslocado.set(Calendar.HOUR_OF_DAY, 0);
+		deslocado.set(Calendar.MINUTE, 0);
+		deslocado.set(Calendar.SECOND, 0);
+		deslocado.set(Calendar.MILLISECOND, 0);
+		return new Data(deslocado);
+	}
+
 	public int calcularIntervalo(Data outra) {
 		return (int) ChronoUnit.DAYS.between(this.CALENDAR.toInstant(), outra.CALENDAR.toInstant());
 	}
@@ -120,4 +157,28 @@ public class Data implements Serializable {
 	public int getDia() {
 		return this.dia;
 	}
+
+	public int getMes() {
+		return this.mes;
+	}
+
+	public int getAno() {
+		return this.ano;
+	}
+
+	int getHora() {
+		return this.HORA;
+	}
+
+	int getMinuto() {
+		return this.MINUTO;
+	}
+
+	int getSegundo() {
+		return this.SEGUNDO;
+	}
+
+	long getInstante() {
+		return this.CALENDAR.getTimeInMillis();
+	}
 }
@@ -26,6 +26,13 @@ public class DataBank {
         return new Data(data);
     }
 
+    /**
+     * @return quantos milissegundos faltam para a data, ou 0 se ela já passou
+     */
+    public static long milissegundosAte(Data data) {
+        return Math.max(0, data.getInstante() - System.currentTimeMillis());
+    }
+
     /**
      * Gera a data a partir da string dataTexto.
      *
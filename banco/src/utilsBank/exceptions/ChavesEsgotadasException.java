@@ -0,0 +1,8 @@
+package utilsBank.exceptions;
+
+public class ChavesEsgotadasException extends RuntimeException {
+
+    public ChavesEsgotadasException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import conta.Conta;
+import conta.ContaStandard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede quantos bytes são alocados por operação nas movimentações de saldo de uma conta (crédito, débito,
+ * guardar/resgatar dinheiro, fatura do cartão). Os bytes por operação saem do profiler {@code gc} do JMH
+ * ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Uso, a partir de uma pasta com {@code banco/}:
+ * {@code java -cp <classpath> org.openjdk.jmh.Main benchmark.AlocacaoDinheiroBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AlocacaoDinheiroBenchmark {
+	private Conta conta;
+	private Conta outra;
+
+	@Setup
+	public void criarContas() {
+		this.conta = new ContaStandard();
+		this.outra = new ContaStandard();
+		this.conta.aumentarSaldo(1_000_000.0);
+	}
+
+	@Benchmark
+	public double movimentarSaldo() throws EscritaArquivoException {
+		outra.aumentarSaldo(0.10);
+		conta.setDinheiroGuardado(0.10, Conta.GUARDAR);
+		conta.setDinheiroGuardado(0.10, Conta.RESGATAR);
+		conta.aumentarFatura(0.10);
+		conta.pagarFatura(0.10);
+		return conta.getSaldo() + outra.getSaldo();
+	}
+}
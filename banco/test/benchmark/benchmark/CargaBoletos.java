@@ -0,0 +1,136 @@
+package benchmark;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import cliente.ClienteEmpresa;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.TiposConta;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.dados.DadosConta;
+import transacao.Boleto;
+import transacao.RelatorioProcessamento;
+import transacao.RemessaBoletos;
+import transacao.RetornoBoletos;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.GerenciadorArquivo;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Carga da emissão e da liquidação de boletos em massa: grava um arquivo de remessa de {@code boletos} boletos de uma
+ * empresa, emite com o {@link RemessaBoletos}, grava um arquivo de retorno em que {@code pagadores} clientes pagam os
+ * boletos (com alguns registros recusados de propósito: boletos inexistentes e pagos duas vezes) e liquida com o
+ * {@link RetornoBoletos}. Mostra a vazão a cada segundo e no fim, e confere que o dinheiro somado das contas não mudou.
+ * <p>
+ * Assim como a {@link CargaTransferencias}, grava os arquivos do banco em {@code ./banco} e só roda em uma pasta sem
+ * um banco. Uso: {@code java benchmark.CargaBoletos [boletos] [pagadores]}
+ */
+public class CargaBoletos {
+	private static final String TELEFONE = "619%08d";
+
+	public static void main(String[] args) throws Exception {
+		int quantidadeBoletos = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		int quantidadePagadores = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		long maximoClientes = (long) Math.pow(10, GeracaoAleatoria.TAMANHO_ID_CONTA) - 1;
+		if (new File(GerenciadorArquivo.PATH_CLIENTES).exists()) {
+			System.out.println("Execute em uma pasta sem banco: a carga grava os arquivos em ./banco");
+			return;
+		}
+		if (quantidadePagadores < 1 || quantidadePagadores > maximoClientes) {
+			System.out.println("Quantidade de pagadores deve estar entre 1 e " + maximoClientes);
+			return;
+		}
+		new File(GerenciadorArquivo.PATH_CLIENTES).getParentFile().mkdirs();
+
+		Agencia agencia = Agencia.getInstance();
+		Cliente empresa = new ClienteEmpresa("Empresa", null, null, 30, new Endereco("00000000", 0, ""),
+				"00000000000191", "senha", new DadosConta(TiposConta.STANDARD, false), new DadosCartao("cartao"), 1000.0);
+		agencia.addCliente(empresa);
+		List<Cliente> clientes = new ArrayList<>(quantidadePagadores + 1);
+		clientes.add(empresa);
+		for (int i = 0; i < quantidadePagadores; i++) {
+			Cliente pagador = new ClientePessoa("Pagador " + i, null, String.format(TELEFONE, i), 30,
+					new Endereco("00000000", i, ""), String.format("%011d", i + 1), "senha",
+					new DadosConta(TiposConta.STANDARD, false), new DadosCartao("cartao"), 1000.0);
+			pagador.getConta().getChavesPix().definir(String.format(TELEFONE, i), null, null, pagador.getIdentificacao());
+			agencia.addCliente(pagador);
+			pagador.getConta().aumentarSaldo(1_000_000.0);
+			clientes.add(pagador);
+		}
+		long totalInicial = total(clientes);
+		SplittableRandom aleatorio = new SplittableRandom(42);
+
+		Path remessa = Paths.get("remessa.csv");
+		try (BufferedWriter saida = Files.newBufferedWriter(remessa, StandardCharsets.UTF_8)) {
+			saida.write("valor;vencimento;multa\n");
+			for (int i = 0; i < quantidadeBoletos; i++) {
+				saida.write(String.format("%d,%02d;31/12/2099;%d.00%n", aleatorio.nextInt(1, 500), aleatorio.nextInt(100),
+						aleatorio.nextInt(3)));
+			}
+		}
+		RelatorioProcessamento emissao = new RemessaBoletos(agencia, empresa)
+				.processar(remessa, relatorio -> System.out.println("emissao: " + relatorio));
+		System.out.println("Emissao concluida: " + emissao);
+
+		List<String> nossosNumeros = new ArrayList<>();
+		for (Boleto boleto : agencia.getBoletos()) {
+			nossosNumeros.add(boleto.getNossoNumero());
+		}
+		Path retorno = Paths.get("retorno.csv");
+		int recusadosEsperados = 0;
+		try (BufferedWriter saida = Files.newBufferedWriter(retorno, StandardCharsets.UTF_8)) {
+			saida.write("nossoNumero;tipoChave;chave\n");
+			for (String nossoNumero : nossosNumeros) {
+				String chave = String.format(TELEFONE, aleatorio.nextInt(quantidadePagadores));
+				saida.write(nossoNumero + ";" + DadosChavesPix.TELEFONE + ";" + chave + "\n");
+				if (aleatorio.nextInt(100) == 0) {
+					saida.write(nossoNumero + ";" + DadosChavesPix.TELEFONE + ";" + chave + "\n");
+					saida.write("0" + nossoNumero + ";" + DadosChavesPix.TELEFONE + ";" + chave + "\n");
+					recusadosEsperados += 2;
+				}
+			}
+		}
+		RelatorioProcessamento liquidacao = new RetornoBoletos(agencia)
+				.processar(retorno, relatorio -> System.out.println("liquidacao: " + relatorio));
+		System.out.println("Liquidacao concluida: " + liquidacao);
+
+		boolean erro = false;
+		if (emissao.getProcessados() != quantidadeBoletos || !emissao.getErros().isEmpty()) {
+			System.out.println("ERRO: " + emissao.getProcessados() + " boletos emitidos de " + quantidadeBoletos);
+			erro = true;
+		}
+		if (liquidacao.getProcessados() != nossosNumeros.size() || liquidacao.getErros().size() != recusadosEsperados) {
+			System.out.println("ERRO: esperados " + nossosNumeros.size() + " pagamentos e " + recusadosEsperados + " recusados");
+			liquidacao.getErros().stream().limit(10).forEach(System.out::println);
+			erro = true;
+		}
+		long totalFinal = total(clientes);
+		if (totalFinal != totalInicial) {
+			System.out.println("ERRO: dinheiro nao conservado, " + totalInicial + " centavos antes e " + totalFinal + " depois");
+			erro = true;
+		}
+		if (erro) {
+			System.exit(1);
+		}
+		System.out.println("Dinheiro conservado: " + totalFinal + " centavos");
+		agencia.fecharArquivos();
+	}
+
+	private static long total(List<Cliente> clientes) {
+		long total = 0;
+		for (Cliente cliente : clientes) {
+			total += cliente.getConta().getSaldoCentavos();
+		}
+		return total;
+	}
+}
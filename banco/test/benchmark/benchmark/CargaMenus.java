@@ -0,0 +1,570 @@
+package benchmark;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import interfaceUsuario.InterfaceUsuario;
+import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.menus.MenuUsuario;
+import transacao.Boleto;
+import transacao.ChavePix;
+import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de carga pelos menus: {@code sessoes} atendimentos ao mesmo tempo rodando o {@link MenuUsuario#iniciar()},
+ * cada um com um teclado próprio (ver {@link interfaceUsuario.Sessao#setTeclado(Scanner)}) que digita um roteiro.
+ * Em cada ciclo do roteiro a sessão entra na conta de um cliente, faz {@code operacoes} operações sorteadas entre
+ * transferência, pagamento de boleto, agendamento e troca de chave Pix (com os pesos {@code transferir},
+ * {@code boleto}, {@code agendar} e {@code pix}) e sai. Cada sessão usa só os seus clientes e os seus boletos.
+ * <p>
+ * A latência de uma operação vai da primeira linha digitada até o menu pedir a linha seguinte ao fim da operação,
+ * passando pelos verificadores, regras de negócio, journal e impressão dos menus. Os primeiros {@code aquecimento}
+ * ciclos de cada sessão não entram nas latências. Mostra a vazão e, por operação, as falhas e a latência p50, p99,
+ * p99.9 e máxima, e confere no fim que o dinheiro somado das contas não mudou.
+ * <p>
+ * Enquanto as sessões rodam, um snapshot completo ({@link Agencia#atualizarArquivos()}) é forçado a cada
+ * {@code snapshot} milissegundos, disputando as contas com os atendimentos. Uma exceção em qualquer snapshot, forçado
+ * ou pedido por uma sessão, faz a carga falhar. Com os snapshots forçados a carga termina sem o snapshot final, como
+ * em uma queda, e grava em {@code estado} o saldo, o tamanho do extrato e o email de cada cliente; rodando de novo
+ * com {@code verificar=true} o banco é recarregado do último snapshot e do journal e comparado com esse estado.
+ * <p>
+ * O roteiro acompanha o que o menu imprime: antes de cada operação o menu esperado tem que estar na tela, senão a
+ * sessão saiu de sincronia com o roteiro (um verificador recusou uma entrada e pediu de novo) e é interrompida; depois
+ * de cada operação, a falta da mensagem de sucesso conta como falha. A tela é descartada, a não ser pela primeira
+ * sessão caso {@code saida} indique um arquivo.
+ * <p>
+ * Roda sobre um banco do {@link GeradorBanco} na pasta atual, de onde vêm os clientes, as senhas, as chaves de destino
+ * e os boletos em aberto. Uso: {@code java benchmark.CargaMenus sessoes=16 ciclos=50 saida=sessao0.txt} e depois
+ * {@code java benchmark.CargaMenus verificar=true}
+ */
+public class CargaMenus {
+	public static final Map<String, String> PADROES = Map.ofEntries(
+			Map.entry("sessoes", "8"),
+			Map.entry("ciclos", "20"),
+			Map.entry("aquecimento", "2"),
+			Map.entry("operacoes", "5"),
+			Map.entry("transferir", "50"),
+			Map.entry("boleto", "20"),
+			Map.entry("agendar", "20"),
+			Map.entry("pix", "10"),
+			Map.entry("valorMaximo", "50"),
+			Map.entry("semente", "42"),
+			Map.entry("saida", ""),
+			Map.entry("snapshot", "50"),
+			Map.entry("estado", "estado_menus.txt"),
+			Map.entry("verificar", "false"));
+	private static final String MENU_INICIAL = "[2] - Criar conta";
+	private static final String MENU_CLIENTE = "[14] - Ver notificacoes";
+	/**
+	 * O que o menu imprime quando o {@link Agencia#sincronizarArquivos()} do fim de uma operação falha
+	 */
+	private static final String ERRO_SNAPSHOT = "Ocorreu um erro ao atualizar os nosso banco de dados";
+
+	/**
+	 * Operações dos roteiros, com o menu de onde partem e a mensagem que o menu imprime quando dão certo
+	 */
+	enum Operacao {
+		ENTRAR("entrar", MENU_INICIAL, "Login realizado com sucesso"),
+		TRANSFERIR("transferir", MENU_CLIENTE, "ORIGEM DA TRANSACAO"),
+		PAGAR_BOLETO("pagar boleto", MENU_CLIENTE, "Boleto pago!"),
+		AGENDAR("agendar", MENU_CLIENTE, "agendada com sucesso"),
+		TROCAR_PIX("trocar chave pix", MENU_CLIENTE, "Chave Pix modificada com sucesso"),
+		SAIR("sair", MENU_CLIENTE, MENU_INICIAL),
+		ENCERRAR("encerrar", MENU_INICIAL, null);
+
+		private final String nome;
+		private final String menu;
+		private final String sucesso;
+
+		Operacao(String nome, String menu, String sucesso) {
+			this.nome = nome;
+			this.menu = menu;
+			this.sucesso = sucesso;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> parametros = GeradorBanco.lerParametros(args, PADROES);
+		int quantidadeSessoes = Integer.parseInt(parametros.get("sessoes"));
+		if (!new File(GerenciadorArquivo.PATH_CLIENTES).exists()) {
+			System.out.println("Gere antes o banco na pasta atual com o benchmark.GeradorBanco");
+			return;
+		}
+		if (Boolean.parseBoolean(parametros.get("verificar"))) {
+			verificar(Paths.get(parametros.get("estado")));
+			return;
+		}
+		PrintStream console = System.out;
+		SaidaPorThread saidas = new SaidaPorThread(console);
+		System.setOut(saidas);
+
+		Agencia agencia = Agencia.getInstance();
+		agencia.abrindoAgencia();
+		List<Cliente> clientes = new ArrayList<>(agencia.getClientes());
+		clientes.sort(Comparator.comparing(Cliente::getIdentificacao));
+		List<Boleto> boletos = new ArrayList<>(agencia.getBoletos());
+		boletos.sort(Comparator.comparing(Boleto::getNossoNumero));
+		List<String[]> destinos = new ArrayList<>();
+		for (Cliente cliente : clientes) {
+			String[] chave = chaveDestino(cliente.getConta().getChavesPix());
+			if (chave != null) {
+				destinos.add(chave);
+			}
+		}
+		if (clientes.size() < quantidadeSessoes || destinos.size() < 2) {
+			System.setOut(console);
+			System.out.println("O banco precisa de ao menos um cliente por sessao e dois clientes com chave de destino");
+			return;
+		}
+		List<Roteiro> roteiros = new ArrayList<>();
+		for (int s = 0; s < quantidadeSessoes; s++) {
+			OutputStream copia = s == 0 && !parametros.get("saida").isEmpty()
+					? new FileOutputStream(parametros.get("saida"))
+					: OutputStream.nullOutputStream();
+			roteiros.add(new Roteiro(parametros, s, clientes, boletos, destinos, new Tela(copia)));
+		}
+		long totalInicial = total(clientes);
+		long intervaloSnapshot = Long.parseLong(parametros.get("snapshot"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(quantidadeSessoes);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Boolean>> resultados = new ArrayList<>();
+		for (Roteiro roteiro : roteiros) {
+			resultados.add(executor.submit(() -> {
+				PrintStream saida = new PrintStream(roteiro.tela, false);
+				saidas.definir(saida);
+				InterfaceUsuario.getSessao().setTeclado(new Scanner(roteiro));
+				largada.await();
+				try {
+					MenuUsuario.iniciar();
+					return roteiro.isCompleto();
+				} catch (SessaoDessincronizada ex) {
+					return false;
+				} finally {
+					InterfaceUsuario.encerrarSessao();
+					saidas.remover();
+					saida.close();
+				}
+			}));
+		}
+		ScheduledExecutorService snapshots = Executors.newSingleThreadScheduledExecutor();
+		Queue<Exception> falhasSnapshot = new ConcurrentLinkedQueue<>();
+		AtomicInteger snapshotsGravados = new AtomicInteger();
+		if (intervaloSnapshot > 0) {
+			snapshots.scheduleWithFixedDelay(() -> {
+				try {
+					agencia.atualizarArquivos();
+					snapshotsGravados.incrementAndGet();
+				} catch (Exception ex) {
+					falhasSnapshot.add(ex);
+				}
+			}, intervaloSnapshot, intervaloSnapshot, TimeUnit.MILLISECONDS);
+		}
+		long inicio = System.nanoTime();
+		largada.countDown();
+		int dessincronizadas = 0;
+		List<Throwable> interrompidas = new ArrayList<>();
+		for (Future<Boolean> resultado : resultados) {
+			try {
+				if (!resultado.get()) {
+					dessincronizadas++;
+				}
+			} catch (ExecutionException ex) {
+				interrompidas.add(ex.getCause());
+			}
+		}
+		long duracao = System.nanoTime() - inicio;
+		snapshots.shutdown();
+		snapshots.awaitTermination(1, TimeUnit.MINUTES);
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		System.setOut(console);
+
+		long operacoes = 0;
+		for (Roteiro roteiro : roteiros) {
+			operacoes += roteiro.operacoesExecutadas;
+		}
+		System.out.printf("%d sessoes, %d clientes, %d operacoes em %.1f ms: %.0f operacoes/s%n", quantidadeSessoes,
+				clientes.size(), operacoes, duracao / 1e6, operacoes / (duracao / 1e9));
+		for (Operacao operacao : Operacao.values()) {
+			long[] latencias = new long[0];
+			int falhas = 0;
+			for (Roteiro roteiro : roteiros) {
+				long[] daSessao = roteiro.getLatencias(operacao);
+				long[] juntas = Arrays.copyOf(latencias, latencias.length + daSessao.length);
+				System.arraycopy(daSessao, 0, juntas, latencias.length, daSessao.length);
+				latencias = juntas;
+				falhas += roteiro.falhas[operacao.ordinal()];
+			}
+			if (latencias.length == 0) {
+				continue;
+			}
+			Arrays.sort(latencias);
+			System.out.printf("%-16s %7d (%d falhas): p50 %9.1f us, p99 %9.1f us, p99.9 %9.1f us, maxima %9.1f us%n",
+					operacao.nome, latencias.length, falhas, Latencias.percentil(latencias, 0.50),
+					Latencias.percentil(latencias, 0.99), Latencias.percentil(latencias, 0.999),
+					latencias[latencias.length - 1] / 1e3);
+		}
+		int errosSnapshot = 0;
+		for (Roteiro roteiro : roteiros) {
+			errosSnapshot += roteiro.errosSnapshot;
+		}
+		System.out.printf("%d snapshots forcados durante a carga%n", snapshotsGravados.get());
+		long totalFinal = total(clientes);
+		if (intervaloSnapshot > 0) {
+			gravarEstado(Paths.get(parametros.get("estado")), clientes);
+		} else {
+			agencia.fecharArquivos();
+		}
+		if (dessincronizadas > 0) {
+			System.out.println("ERRO: " + dessincronizadas + " sessoes sairam de sincronia com os menus");
+			System.exit(1);
+		}
+		if (!interrompidas.isEmpty()) {
+			System.out.println("ERRO: " + interrompidas.size() + " sessoes interrompidas por excecao");
+			interrompidas.get(0).printStackTrace(System.out);
+			System.exit(1);
+		}
+		if (!falhasSnapshot.isEmpty() || errosSnapshot > 0) {
+			System.out.println("ERRO: " + falhasSnapshot.size() + " snapshots forcados e " + errosSnapshot
+					+ " snapshots das sessoes falharam");
+			if (!falhasSnapshot.isEmpty()) {
+				falhasSnapshot.peek().printStackTrace(System.out);
+			}
+			System.exit(1);
+		}
+		if (totalFinal != totalInicial) {
+			System.out.println("ERRO: dinheiro nao conservado, " + totalInicial + " centavos antes e " + totalFinal + " depois");
+			System.exit(1);
+		}
+		System.out.println("Dinheiro conservado: " + totalFinal + " centavos");
+	}
+
+	/**
+	 * Chave de destino que não muda durante a carga (as trocas de chave Pix só mexem em email e chave aleatória) e que
+	 * o verificador do menu de transferência aceita: o telefone ou a identificação, que o verificador só aceita quando
+	 * não cabe em um {@code int}.
+	 *
+	 * @return {@code {tipo, chave}}, ou {@code null} caso o cliente não tenha uma chave assim
+	 */
+	private static String[] chaveDestino(ChavePix chavesPix) {
+		if (chavesPix.getTelefone() != null) {
+			return new String[]{DadosChavesPix.TELEFONE, chavesPix.getTelefone()};
+		}
+		try {
+			Integer.parseInt(chavesPix.getIdentificacao());
+			return null;
+		} catch (NumberFormatException ex) {
+			return new String[]{DadosChavesPix.IDENTIFICACAO, chavesPix.getIdentificacao()};
+		}
+	}
+
+	/**
+	 * @return o que a verificação compara de um cliente: identificação, saldo em centavos, quantidade de transações no
+	 * extrato completo (as em memória e as já arquivadas) e email
+	 */
+	private static String estado(Cliente cliente) {
+		return cliente.getIdentificacao() + ";" + cliente.getConta().getSaldoCentavos() + ";"
+				+ cliente.getConta().extrato(null, null, 1).getTotal() + ";" + cliente.getConta().getChavesPix().getEmail();
+	}
+
+	private static void gravarEstado(Path arquivo, List<Cliente> clientes) throws IOException {
+		List<String> linhas = new ArrayList<>(clientes.size());
+		for (Cliente cliente : clientes) {
+			linhas.add(estado(cliente));
+		}
+		Files.write(arquivo, linhas, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Recarrega o banco da pasta atual e o compara com o estado gravado no fim da carga
+	 */
+	private static void verificar(Path arquivo) throws IOException, EscritaArquivoException {
+		if (!Files.exists(arquivo)) {
+			System.out.println("ERRO: " + arquivo + " nao existe. Rode antes a carga com snapshot maior que zero");
+			System.exit(1);
+		}
+		List<String> esperados = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+		Agencia agencia = Agencia.getInstance();
+		int diferentes = 0;
+		for (String esperado : esperados) {
+			String identificacao = esperado.substring(0, esperado.indexOf(';'));
+			String recarregado;
+			try {
+				recarregado = estado(agencia.buscarCliente(identificacao));
+			} catch (BuscaException ex) {
+				recarregado = "cliente nao encontrado";
+			}
+			if (!esperado.equals(recarregado) && diferentes++ < 10) {
+				System.out.println("ERRO: esperado " + esperado + ", recarregado " + recarregado);
+			}
+		}
+		int quantidade = agencia.getClientes().size();
+		agencia.fecharArquivos();
+		if (diferentes > 0 || quantidade != esperados.size()) {
+			System.out.println("ERRO: " + diferentes + " clientes diferentes depois de recarregar o banco ("
+					+ quantidade + " clientes recarregados, " + esperados.size() + " esperados)");
+			System.exit(1);
+		}
+		System.out.println("Banco recarregado: " + quantidade + " clientes iguais ao fim da carga");
+	}
+
+	private static long total(List<Cliente> clientes) {
+		long total = 0;
+		for (Cliente cliente : clientes) {
+			total += cliente.getConta().getSaldoCentavos();
+		}
+		return total;
+	}
+
+	/**
+	 * Interrompe uma sessão cuja tela não está onde o roteiro espera. É um {@link Error} para passar pelos
+	 * {@code catch (Exception)} dos menus.
+	 */
+	private static class SessaoDessincronizada extends Error {
+		SessaoDessincronizada(String mensagem) {
+			super(mensagem, null, false, false);
+		}
+	}
+
+	/**
+	 * O que o menu de uma sessão imprimiu desde o início da operação atual, com uma cópia opcional em arquivo. Os
+	 * menus só imprimem ASCII nas mensagens procuradas, então cada byte vira um caractere.
+	 */
+	private static class Tela extends OutputStream {
+		private final StringBuilder texto = new StringBuilder();
+		private final OutputStream copia;
+
+		Tela(OutputStream copia) {
+			this.copia = copia;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.texto.append((char) (b & 0xff));
+			this.copia.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			for (int i = off; i < off + len; i++) {
+				this.texto.append((char) (b[i] & 0xff));
+			}
+			this.copia.write(b, off, len);
+		}
+
+		boolean contem(String mensagem) {
+			return this.texto.indexOf(mensagem) >= 0;
+		}
+
+		void limpar() {
+			this.texto.setLength(0);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.copia.close();
+		}
+	}
+
+	private static class Passo {
+		private final Operacao operacao;
+		private final boolean medido;
+		private final String[] linhas;
+
+		Passo(Operacao operacao, boolean medido, String... linhas) {
+			this.operacao = operacao;
+			this.medido = medido;
+			this.linhas = linhas;
+		}
+	}
+
+	/**
+	 * Teclado de uma sessão: entrega ao {@link Scanner} uma linha do roteiro por vez, só quando o menu pede. Quando o
+	 * menu pede a primeira linha de um passo, o passo anterior terminou: a latência é registrada e a tela conferida.
+	 */
+	private static class Roteiro implements Readable {
+		private final Tela tela;
+		private final List<Passo> passos = new ArrayList<>();
+		private final long[][] latencias = new long[Operacao.values().length][16];
+		private final int[] quantidades = new int[Operacao.values().length];
+		private final int[] falhas = new int[Operacao.values().length];
+		private int proximoPasso;
+		private Passo passo;
+		private int indiceLinha;
+		private long inicioPasso;
+		private String linha = "";
+		private int posicao;
+		private long operacoesExecutadas;
+		private int errosSnapshot;
+
+		Roteiro(Map<String, String> parametros, int sessao, List<Cliente> clientes, List<Boleto> boletos,
+				List<String[]> destinos, Tela tela) {
+			this.tela = tela;
+			SplittableRandom aleatorio = new SplittableRandom(Long.parseLong(parametros.get("semente")) + sessao);
+			int quantidadeSessoes = Integer.parseInt(parametros.get("sessoes"));
+			int ciclos = Integer.parseInt(parametros.get("ciclos"));
+			int aquecimento = Integer.parseInt(parametros.get("aquecimento"));
+			int operacoes = Integer.parseInt(parametros.get("operacoes"));
+			int valorMaximo = Integer.parseInt(parametros.get("valorMaximo"));
+			int[] pesos = new int[Operacao.values().length];
+			pesos[Operacao.TRANSFERIR.ordinal()] = Integer.parseInt(parametros.get("transferir"));
+			pesos[Operacao.PAGAR_BOLETO.ordinal()] = Integer.parseInt(parametros.get("boleto"));
+			pesos[Operacao.AGENDAR.ordinal()] = Integer.parseInt(parametros.get("agendar"));
+			pesos[Operacao.TROCAR_PIX.ordinal()] = Integer.parseInt(parametros.get("pix"));
+			Data hoje = DataBank.criarData(DataBank.SEM_HORA);
+			int proximoBoleto = sessao;
+			int trocasPix = 0;
+
+			for (int ciclo = 0; ciclo < ciclos; ciclo++) {
+				Cliente cliente = clientes.get((sessao + ciclo * quantidadeSessoes) % clientes.size());
+				String[] chaveCliente = chaveDestino(cliente.getConta().getChavesPix());
+				boolean medido = ciclo >= aquecimento;
+				this.passos.add(new Passo(Operacao.ENTRAR, medido, "1", cliente.getIdentificacao(),
+						GeradorBanco.senha(cliente.getIdentificacao())));
+				for (int i = 0; i < operacoes; i++) {
+					Operacao operacao = sortear(aleatorio, pesos);
+					String valor = String.valueOf(1 + aleatorio.nextInt(valorMaximo));
+					int indiceDestino = aleatorio.nextInt(destinos.size());
+					if (Arrays.equals(destinos.get(indiceDestino), chaveCliente)) {
+						indiceDestino = (indiceDestino + 1) % destinos.size();
+					}
+					String[] destino = destinos.get(indiceDestino);
+					while (proximoBoleto < boletos.size() && boletos.get(proximoBoleto).getContaDestino().getIdConta()
+							.equals(cliente.getConta().getIdConta())) {
+						proximoBoleto += quantidadeSessoes;
+					}
+					if (operacao == Operacao.PAGAR_BOLETO && proximoBoleto >= boletos.size()) {
+						operacao = Operacao.TRANSFERIR;
+					}
+					switch (operacao) {
+						case TRANSFERIR:
+							this.passos.add(new Passo(operacao, medido, "3", valor, destino[0], destino[1], "1"));
+							break;
+						case PAGAR_BOLETO:
+							this.passos.add(new Passo(operacao, medido, "4", boletos.get(proximoBoleto).getNossoNumero()));
+							proximoBoleto += quantidadeSessoes;
+							break;
+						case AGENDAR:
+							String data = hoje.deslocarDias(1 + aleatorio.nextInt(30)).toString(new int[]{DataBank.SEM_HORA});
+							this.passos.add(new Passo(operacao, medido, "7", valor, data, destino[0], destino[1]));
+							break;
+						default:
+							if (aleatorio.nextBoolean()) {
+								String email = "carga" + sessao + "x" + trocasPix++ + "@bic.com";
+								this.passos.add(new Passo(operacao, medido, "10", DadosChavesPix.EMAIL, email, "1"));
+							} else {
+								this.passos.add(new Passo(operacao, medido, "10", DadosChavesPix.CHAVE_ALEATORIA));
+							}
+					}
+				}
+				this.passos.add(new Passo(Operacao.SAIR, medido, "0"));
+			}
+			this.passos.add(new Passo(Operacao.ENCERRAR, false, "0"));
+		}
+
+		private static Operacao sortear(SplittableRandom aleatorio, int[] pesos) {
+			int sorteio = aleatorio.nextInt(Arrays.stream(pesos).sum());
+			for (Operacao operacao : Operacao.values()) {
+				sorteio -= pesos[operacao.ordinal()];
+				if (sorteio < 0) {
+					return operacao;
+				}
+			}
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public int read(CharBuffer destino) {
+			if (this.posicao == this.linha.length()) {
+				proximaLinha();
+			}
+			int quantidade = Math.min(destino.remaining(), this.linha.length() - this.posicao);
+			destino.append(this.linha, this.posicao, this.posicao + quantidade);
+			this.posicao += quantidade;
+			return quantidade;
+		}
+
+		private void proximaLinha() {
+			long agora = System.nanoTime();
+			this.posicao = 0;
+			if (this.passo != null && this.indiceLinha < this.passo.linhas.length) {
+				this.linha = this.passo.linhas[this.indiceLinha++] + "\n";
+				return;
+			}
+			if (this.passo != null) {
+				this.operacoesExecutadas++;
+				if (this.passo.medido) {
+					registrar(this.passo.operacao, agora - this.inicioPasso);
+					if (!this.tela.contem(this.passo.operacao.sucesso)) {
+						this.falhas[this.passo.operacao.ordinal()]++;
+					}
+				}
+			}
+			if (this.proximoPasso == this.passos.size()) {
+				throw new SessaoDessincronizada("O menu pediu mais linhas do que o roteiro tem");
+			}
+			if (this.tela.contem(ERRO_SNAPSHOT)) {
+				this.errosSnapshot++;
+			}
+			this.passo = this.passos.get(this.proximoPasso++);
+			if (!this.tela.contem(this.passo.operacao.menu)) {
+				throw new SessaoDessincronizada("Menu fora do esperado antes de " + this.passo.operacao.nome);
+			}
+			this.tela.limpar();
+			this.indiceLinha = 0;
+			this.inicioPasso = agora;
+			this.linha = this.passo.linhas[this.indiceLinha++] + "\n";
+		}
+
+		private void registrar(Operacao operacao, long latencia) {
+			int i = operacao.ordinal();
+			if (this.quantidades[i] == this.latencias[i].length) {
+				this.latencias[i] = Arrays.copyOf(this.latencias[i], this.latencias[i].length * 2);
+			}
+			this.latencias[i][this.quantidades[i]++] = latencia;
+		}
+
+		/**
+		 * @return {@code true} caso a sessão tenha terminado exatamente no fim do roteiro
+		 */
+		boolean isCompleto() {
+			return this.proximoPasso == this.passos.size() && this.indiceLinha == this.passo.linhas.length;
+		}
+
+		long[] getLatencias(Operacao operacao) {
+			return Arrays.copyOf(this.latencias[operacao.ordinal()], this.quantidades[operacao.ordinal()]);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.TiposConta;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosConta;
+import interfaceUsuario.dados.DadosTransacao;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.GerenciadorArquivo;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga: {@code threads} threads fazendo transferências entre pares aleatórios de uma agência de
+ * {@code clientes} clientes, pelo mesmo caminho dos menus ({@link conta.Conta#transferir(DadosTransacao)}, com
+ * histórico, notificações e journal). Mostra a vazão, a latência por transferência (p50, p99, p99.9 e máxima) e
+ * confere no fim que o dinheiro somado das contas não mudou.
+ * <p>
+ * Assim como o {@link OperacoesBancoBenchmark}, grava os arquivos do banco em {@code ./banco} e só roda em uma pasta
+ * sem um banco. Uso: {@code java benchmark.CargaTransferencias [threads] [clientes] [transferencias por thread]}
+ */
+public class CargaTransferencias {
+
+	public static void main(String[] args) throws Exception {
+		int quantidadeThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int quantidadeClientes = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int transferencias = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+		long maximoClientes = (long) Math.pow(10, GeracaoAleatoria.TAMANHO_ID_CONTA);
+		if (new File(GerenciadorArquivo.PATH_CLIENTES).exists()) {
+			System.out.println("Execute em uma pasta sem banco: a carga grava os arquivos em ./banco");
+			return;
+		}
+		if (quantidadeClientes < 2 || quantidadeClientes > maximoClientes) {
+			System.out.println("Quantidade de clientes deve estar entre 2 e " + maximoClientes);
+			return;
+		}
+		new File(GerenciadorArquivo.PATH_CLIENTES).getParentFile().mkdirs();
+
+		Agencia agencia = Agencia.getInstance();
+		List<Cliente> clientes = new ArrayList<>(quantidadeClientes);
+		for (int i = 0; i < quantidadeClientes; i++) {
+			Cliente cliente = new ClientePessoa("Cliente " + i, null, null, 30, new Endereco("00000000", i, ""),
+					String.format("%011d", i), "senha", new DadosConta(TiposConta.STANDARD, false),
+					new DadosCartao("cartao"), 1000.0);
+			agencia.addCliente(cliente);
+			cliente.getConta().aumentarSaldo(1_000_000.0);
+			clientes.add(cliente);
+		}
+		long totalInicial = total(clientes);
+
+		ExecutorService executor = Executors.newFixedThreadPool(quantidadeThreads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<long[]>> resultados = new ArrayList<>();
+		for (int t = 0; t < quantidadeThreads; t++) {
+			long semente = 42 + t;
+			resultados.add(executor.submit(() -> {
+				SplittableRandom aleatorio = new SplittableRandom(semente);
+				long[] latencias = new long[transferencias];
+				largada.await();
+				for (int i = 0; i < transferencias; i++) {
+					int indiceOrigem = aleatorio.nextInt(quantidadeClientes);
+					Cliente origem = clientes.get(indiceOrigem);
+					Cliente destino = clientes.get((indiceOrigem + 1 + aleatorio.nextInt(quantidadeClientes - 1)) % quantidadeClientes);
+					double valor = aleatorio.nextInt(1, 500) / 100.0;
+					long inicio = System.nanoTime();
+					origem.getConta().transferir(new DadosTransacao(valor, destino, origem));
+					latencias[i] = System.nanoTime() - inicio;
+				}
+				return latencias;
+			}));
+		}
+		long inicio = System.nanoTime();
+		largada.countDown();
+		long[] latencias = new long[quantidadeThreads * transferencias];
+		for (int t = 0; t < quantidadeThreads; t++) {
+			System.arraycopy(resultados.get(t).get(), 0, latencias, t * transferencias, transferencias);
+		}
+		long duracao = System.nanoTime() - inicio;
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		Arrays.sort(latencias);
+		System.out.printf("%d threads, %d clientes, %d transferencias em %.1f ms: %.0f transferencias/s%n",
+				quantidadeThreads, quantidadeClientes, latencias.length, duracao / 1e6, latencias.length / (duracao / 1e9));
+		System.out.printf("latencia p50 %.1f us, p99 %.1f us, p99.9 %.1f us, maxima %.1f us%n",
+				Latencias.percentil(latencias, 0.50), Latencias.percentil(latencias, 0.99), Latencias.percentil(latencias, 0.999),
+				latencias[latencias.length - 1] / 1e3);
+		long totalFinal = total(clientes);
+		if (totalFinal != totalInicial) {
+			System.out.println("ERRO: dinheiro nao conservado, " + totalInicial + " centavos antes e " + totalFinal + " depois");
+			System.exit(1);
+		}
+		System.out.println("Dinheiro conservado: " + totalFinal + " centavos");
+		agencia.fecharArquivos();
+	}
+
+	private static long total(List<Cliente> clientes) {
+		long total = 0;
+		for (Cliente cliente : clientes) {
+			total += cliente.getConta().getSaldoCentavos();
+		}
+		return total;
+	}
+}
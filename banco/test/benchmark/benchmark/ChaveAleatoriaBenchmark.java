@@ -0,0 +1,39 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.GeradorAleatorio;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o sorteio de chaves Pix aleatórias pela concatenação de {@code String} com um {@link Random} novo por chave
+ * (como era feito em {@link GeracaoAleatoria#gerarChaveAleatoria(int)}) com o {@link GeradorAleatorio}. Só o sorteio é
+ * medido, sem o registro da chave no conjunto de chaves geradas.
+ * <p>
+ * Uso: {@code java -cp <classpath> org.openjdk.jmh.Main benchmark.ChaveAleatoriaBenchmark -prof gc}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChaveAleatoriaBenchmark {
+
+	@Benchmark
+	public String concatenando() {
+		String caracteres = GeradorAleatorio.ALFABETO_CHAVE;
+		Random aleatorio = new Random();
+		String chaveAleatoria = "";
+		for (int i = 0; i < GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA; i++) {
+			chaveAleatoria += caracteres.charAt(aleatorio.nextInt(caracteres.length()));
+		}
+		return chaveAleatoria;
+	}
+
+	@Benchmark
+	public String gerador() {
+		return GeradorAleatorio.chave(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
+	}
+}
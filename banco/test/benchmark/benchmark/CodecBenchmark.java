@@ -0,0 +1,99 @@
+package benchmark;
+
+import cliente.Cliente;
+import cliente.CodecCliente;
+import utilsBank.arquivo.ConversorLegado;
+import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Mede o tamanho e o tempo de gravação e leitura do clientes.dat no formato dos codecs e, quando há um clientes.dat
+ * ainda serializado, com o ObjectOutputStream de antes dos codecs.
+ * <p>
+ * O arquivo serializado é por padrão a cópia guardada na conversão ({@link GerenciadorArquivo#SUFIXO_SERIALIZADO}).
+ * Nesse caso os codecs são medidos com os clientes convertidos desse arquivo, para que os dois formatos gravem os
+ * mesmos dados. A serialização regrava os espelhos de {@link ConversorLegado}, cujos nomes de classe são um pouco mais
+ * longos que os originais.
+ * <p>
+ * Uso, a partir da raiz do projeto: {@code java benchmark.CodecBenchmark [iteracoes] [arquivo] [arquivoSerializado]}
+ */
+public class CodecBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int iteracoes = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		String path = args.length > 1 ? args[1] : GerenciadorArquivo.PATH_CLIENTES;
+		Path serializado = Paths.get(args.length > 2 ? args[2] : path + GerenciadorArquivo.SUFIXO_SERIALIZADO);
+		CodecCliente codec = new CodecCliente();
+		Object grafo = null;
+		Collection<Cliente> clientes;
+		if (Files.exists(serializado)) {
+			byte[] legado = Files.readAllBytes(serializado);
+			grafo = ConversorLegado.ler(new ByteArrayInputStream(legado));
+			DataInputStream convertido = new DataInputStream(new ByteArrayInputStream(ConversorLegado.converter(new ByteArrayInputStream(legado))));
+			ContextoCodec contexto = new ContextoCodec();
+			contexto.lerCabecalho(convertido);
+			clientes = new ArrayList<>();
+			codec.lerColecao(convertido, clientes, contexto);
+		} else {
+			System.out.println("sem " + serializado + ", medindo so os codecs");
+			clientes = GerenciadorArquivo.listarSet(path, new ContextoCodec());
+		}
+
+		for (int rodada = 1; rodada <= 3; rodada++) {
+			byte[] bytes = null;
+			long inicio = System.nanoTime();
+			for (int i = 0; i < iteracoes; i++) {
+				ByteArrayOutputStream saida = new ByteArrayOutputStream();
+				DataOutputStream dados = new DataOutputStream(saida);
+				ContextoCodec contexto = new ContextoCodec();
+				contexto.escreverCabecalho(dados);
+				codec.escreverColecao(dados, clientes, contexto);
+				bytes = saida.toByteArray();
+			}
+			long meio = System.nanoTime();
+			for (int i = 0; i < iteracoes; i++) {
+				DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bytes));
+				ContextoCodec contexto = new ContextoCodec();
+				contexto.lerCabecalho(entrada);
+				codec.lerColecao(entrada, new ArrayList<>(), contexto);
+			}
+			long fim = System.nanoTime();
+			System.out.printf("rodada %d: %d clientes, codec %d bytes, gravacao %.1f us, leitura %.1f us%n",
+					rodada, clientes.size(), bytes.length, (meio - inicio) / 1e3 / iteracoes, (fim - meio) / 1e3 / iteracoes);
+			if (grafo != null) {
+				medirSerializacao(rodada, grafo, iteracoes);
+			}
+		}
+	}
+
+	private static void medirSerializacao(int rodada, Object grafo, int iteracoes) throws IOException {
+		byte[] bytes = null;
+		long inicio = System.nanoTime();
+		for (int i = 0; i < iteracoes; i++) {
+			ByteArrayOutputStream saida = new ByteArrayOutputStream();
+			try (ObjectOutputStream objetos = new ObjectOutputStream(saida)) {
+				objetos.writeObject(grafo);
+			}
+			bytes = saida.toByteArray();
+		}
+		long meio = System.nanoTime();
+		for (int i = 0; i < iteracoes; i++) {
+			ConversorLegado.ler(new ByteArrayInputStream(bytes));
+		}
+		long fim = System.nanoTime();
+		System.out.printf("rodada %d: serializacao %d bytes, gravacao %.1f us, leitura %.1f us%n",
+				rodada, bytes.length, (meio - inicio) / 1e3 / iteracoes, (fim - meio) / 1e3 / iteracoes);
+	}
+}
@@ -0,0 +1,316 @@
+package benchmark;
+
+import cliente.Cliente;
+import cliente.ClienteEmpresa;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.Conta;
+import conta.TiposConta;
+import interfaceUsuario.dados.DadosBoleto;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosConta;
+import interfaceUsuario.dados.DadosTransacao;
+import transacao.Boleto;
+import transacao.Transacao;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Gera um banco sintético para testes de carga: clientes pessoa e empresa com contas standard, premium e diamond,
+ * cartões, chaves Pix, boletos em aberto e um histórico de transferências. Os clientes são montados direto pelos
+ * construtores, sem os menus nem a agência, e o banco é gravado de uma vez no formato dos arquivos (snapshot), sem
+ * journal. Ids de conta, números de cartão, nossos números e chaves aleatórias saem da {@link GeracaoAleatoria} e
+ * ficam registrados, então o banco gerado continua emitindo chaves novas sem repetir as geradas aqui.
+ * <p>
+ * Os parâmetros são passados como {@code chave=valor}; os que faltam ficam com o padrão de {@link #PADROES}:
+ * <ul>
+ *     <li>{@code clientes}: quantidade de clientes, no máximo {@code 10^TAMANHO_ID_CONTA};</li>
+ *     <li>{@code empresas}, {@code premium}, {@code diamond}: proporção de clientes empresa e de contas premium e
+ *     diamond (o resto é standard);</li>
+ *     <li>{@code chaveEmail}, {@code chaveTelefone}, {@code chaveAleatoria}: proporção de contas com cada chave Pix
+ *     (a identificação é sempre chave);</li>
+ *     <li>{@code cartaoExtra}: proporção de contas com um segundo cartão;</li>
+ *     <li>{@code saldoMedio}, {@code valorMedio}: médias, em reais, dos saldos e dos valores de transferências e
+ *     boletos (distribuição exponencial);</li>
+ *     <li>{@code transferencias}, {@code dias}: quantidade de transferências, espalhadas em ordem pelos últimos
+ *     {@code dias} dias;</li>
+ *     <li>{@code zipf}: concentração dos destinos das transferências e dos emissores de boletos; 0 é uniforme e
+ *     valores maiores concentram em poucos clientes;</li>
+ *     <li>{@code boletos}: quantidade de boletos em aberto;</li>
+ *     <li>{@code semente}: semente das escolhas (as chaves geradas continuam aleatórias).</li>
+ * </ul>
+ * Assim como o {@link OperacoesBancoBenchmark}, grava em {@code ./banco} e só roda em uma pasta sem um banco. Uso:
+ * {@code java benchmark.GeradorBanco clientes=9000 transferencias=200000 zipf=0.8}
+ */
+public class GeradorBanco {
+	public static final Map<String, String> PADROES = Map.ofEntries(
+			Map.entry("clientes", "1000"),
+			Map.entry("empresas", "0.1"),
+			Map.entry("premium", "0.25"),
+			Map.entry("diamond", "0.05"),
+			Map.entry("chaveEmail", "0.8"),
+			Map.entry("chaveTelefone", "0.5"),
+			Map.entry("chaveAleatoria", "0.3"),
+			Map.entry("cartaoExtra", "0.2"),
+			Map.entry("saldoMedio", "5000"),
+			Map.entry("valorMedio", "150"),
+			Map.entry("transferencias", "10000"),
+			Map.entry("dias", "180"),
+			Map.entry("zipf", "0"),
+			Map.entry("boletos", "500"),
+			Map.entry("semente", "42"));
+	private final Map<String, String> parametros;
+	private final SplittableRandom aleatorio;
+	private final List<Cliente> clientes = new ArrayList<>();
+	private final HashSet<Boleto> boletos = new HashSet<>();
+
+	public GeradorBanco(Map<String, String> parametros) {
+		this.parametros = new HashMap<>(PADROES);
+		this.parametros.putAll(parametros);
+		this.aleatorio = new SplittableRandom(inteiro("semente"));
+	}
+
+	/**
+	 * Lê os argumentos {@code chave=valor} por cima dos padrões
+	 *
+	 * @throws IllegalArgumentException caso um argumento não esteja nesse formato ou não seja um dos padrões
+	 */
+	static Map<String, String> lerParametros(String[] args, Map<String, String> padroes) {
+		Map<String, String> parametros = new HashMap<>(padroes);
+		for (String arg : args) {
+			String[] partes = arg.split("=", 2);
+			if (partes.length != 2) {
+				throw new IllegalArgumentException("Parametro invalido: " + arg + " (use chave=valor)");
+			}
+			if (!padroes.containsKey(partes[0])) {
+				throw new IllegalArgumentException("Parametro desconhecido: " + partes[0]);
+			}
+			parametros.put(partes[0], partes[1]);
+		}
+		return parametros;
+	}
+
+	public static void main(String[] args) throws Exception {
+		GeradorBanco gerador = new GeradorBanco(lerParametros(args, PADROES));
+		long maximoClientes = (long) Math.pow(10, GeracaoAleatoria.TAMANHO_ID_CONTA);
+		if (new File(GerenciadorArquivo.PATH_CLIENTES).exists()) {
+			System.out.println("Execute em uma pasta sem banco: o gerador grava os arquivos em ./banco");
+			return;
+		}
+		if (gerador.inteiro("clientes") < 2 || gerador.inteiro("clientes") > maximoClientes) {
+			System.out.println("Quantidade de clientes deve estar entre 2 e " + maximoClientes);
+			return;
+		}
+		new File(GerenciadorArquivo.PATH_CLIENTES).getParentFile().mkdirs();
+
+		long inicio = System.nanoTime();
+		gerador.gerarClientes();
+		long clientes = System.nanoTime();
+		System.out.printf("%d clientes em %.1f s%n", gerador.clientes.size(), (clientes - inicio) / 1e9);
+		gerador.gerarTransferencias();
+		long transferencias = System.nanoTime();
+		System.out.printf("%d transferencias em %.1f s%n", gerador.inteiro("transferencias"), (transferencias - clientes) / 1e9);
+		gerador.gerarBoletos();
+		long boletos = System.nanoTime();
+		System.out.printf("%d boletos em %.1f s%n", gerador.boletos.size(), (boletos - transferencias) / 1e9);
+		gerador.gravar();
+		long fim = System.nanoTime();
+		System.out.printf("Arquivos gravados em %.1f s (%d bytes de clientes); total %.1f s%n", (fim - boletos) / 1e9,
+				new File(GerenciadorArquivo.PATH_CLIENTES).length(), (fim - inicio) / 1e9);
+	}
+
+	public void gerarClientes() {
+		int quantidade = inteiro("clientes");
+		for (int i = 0; i < quantidade; i++) {
+			boolean empresa = sortear("empresas");
+			String identificacao = empresa ? cnpj(i) : cpf(i);
+			String email = (empresa ? "empresa" : "cliente") + i + "@bic.com";
+			String telefone = String.format("21%09d", i);
+			DadosConta dadosConta = new DadosConta(tipoConta(), false);
+			DadosCartao dadosCartao = new DadosCartao("Cartao " + i);
+			Endereco endereco = new Endereco(String.format("%08d", aleatorio.nextInt(100_000_000)), 1 + aleatorio.nextInt(999), "");
+			double renda = Math.round(exponencial(inteiro("saldoMedio"))) + 1000;
+			Cliente cliente;
+			if (empresa) {
+				cliente = new ClienteEmpresa("Empresa " + i, email, telefone, null, endereco, identificacao,
+						senha(identificacao), dadosConta, dadosCartao, renda);
+			} else {
+				cliente = new ClientePessoa("Cliente " + i, email, telefone, 18 + aleatorio.nextInt(70), endereco,
+						identificacao, senha(identificacao), dadosConta, dadosCartao, renda);
+			}
+			Conta conta = cliente.getConta();
+			if (sortear("cartaoExtra")) {
+				conta.criarCartao(cliente.getNome(), new DadosCartao("Adicional " + i));
+			}
+			conta.getChavesPix().definir(
+					sortear("chaveTelefone") ? telefone : null,
+					sortear("chaveAleatoria") ? GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA) : null,
+					sortear("chaveEmail") ? email : null,
+					identificacao);
+			conta.aumentarSaldo(centavos(exponencial(inteiro("saldoMedio"))));
+			this.clientes.add(cliente);
+		}
+	}
+
+	/**
+	 * Gera as transferências em ordem de data, da mais antiga para a mais recente, para que entrem no fim dos
+	 * históricos. Só o histórico e as notificações são preenchidos: os saldos já foram sorteados.
+	 */
+	public void gerarTransferencias() throws Exception {
+		int quantidade = inteiro("transferencias");
+		long fim = System.currentTimeMillis();
+		long inicio = fim - inteiro("dias") * 24L * 60 * 60 * 1000;
+		for (int i = 0; i < quantidade; i++) {
+			int indiceOrigem = aleatorio.nextInt(this.clientes.size());
+			int indiceDestino = indiceZipf();
+			if (indiceDestino == indiceOrigem) {
+				indiceDestino = (indiceDestino + 1) % this.clientes.size();
+			}
+			Cliente origem = this.clientes.get(indiceOrigem);
+			Cliente destino = this.clientes.get(indiceDestino);
+			Calendar calendario = Calendar.getInstance();
+			calendario.setTimeInMillis(inicio + (fim - inicio) * i / quantidade);
+			Transacao transacao = Transacao.criarTransacaoRealizada(
+					new DadosTransacao(centavos(exponencial(inteiro("valorMedio"))), destino, origem), new Data(calendario));
+			origem.getConta().restaurarTransacaoRealizada(transacao);
+		}
+	}
+
+	/**
+	 * Boletos emitidos pelos clientes e ainda não pagos, com vencimento nos próximos 60 dias
+	 */
+	public void gerarBoletos() {
+		int quantidade = inteiro("boletos");
+		Data hoje = DataBank.criarData(DataBank.SEM_HORA);
+		for (int i = 0; i < quantidade; i++) {
+			Cliente emissor = this.clientes.get(indiceZipf());
+			String vencimento = hoje.deslocarDias(1 + aleatorio.nextInt(60)).toString(new int[]{DataBank.SEM_HORA});
+			this.boletos.add(new Boleto(new DadosTransacao(centavos(exponencial(inteiro("valorMedio"))), emissor),
+					new DadosBoleto(vencimento, 1 + aleatorio.nextInt(5), false)));
+		}
+	}
+
+	/**
+	 * Grava o snapshot do banco e os conjuntos de chaves geradas, como {@code Agencia#atualizarArquivos()}
+	 */
+	public void gravar() throws Exception {
+		GerenciadorArquivo.salvarClientes(new HashSet<>(this.clientes), new ContextoCodec());
+		GerenciadorArquivo.salvarBoletos(this.boletos);
+		GerenciadorArquivo.salvarTransacoes(new ArrayList<>());
+		GerenciadorArquivo.salvarData(DataBank.criarData(DataBank.SEM_HORA));
+		GeracaoAleatoria.salvarChavesAleatorias();
+		GeracaoAleatoria.salvarNossosNumeros();
+		GeracaoAleatoria.salvarNumerosCartoes();
+		GeracaoAleatoria.salvarIdsContas();
+		GeracaoAleatoria.fechar();
+	}
+
+	/**
+	 * @return a senha dos clientes gerados, para que os geradores de carga consigam entrar nas contas
+	 */
+	public static String senha(String identificacao) {
+		return "senha" + identificacao;
+	}
+
+	private int inteiro(String parametro) {
+		return Integer.parseInt(this.parametros.get(parametro));
+	}
+
+	private double proporcao(String parametro) {
+		return Double.parseDouble(this.parametros.get(parametro));
+	}
+
+	private boolean sortear(String proporcao) {
+		return aleatorio.nextDouble() < proporcao(proporcao);
+	}
+
+	private String tipoConta() {
+		double sorteio = aleatorio.nextDouble();
+		if (sorteio < proporcao("diamond")) {
+			return TiposConta.DIAMOND;
+		} else if (sorteio < proporcao("diamond") + proporcao("premium")) {
+			return TiposConta.PREMIUM;
+		}
+		return TiposConta.STANDARD;
+	}
+
+	private double exponencial(double media) {
+		return -media * Math.log(1 - aleatorio.nextDouble());
+	}
+
+	/**
+	 * Arredonda para centavos, com no mínimo um centavo
+	 */
+	private static double centavos(double valor) {
+		return Math.max(1, Math.round(valor * 100)) / 100.0;
+	}
+
+	/**
+	 * Sorteia um índice de cliente com probabilidade aproximadamente proporcional a {@code 1/(i+1)^zipf}, pela inversa
+	 * da distribuição contínua equivalente
+	 */
+	private int indiceZipf() {
+		int quantidade = this.clientes.size();
+		double expoente = proporcao("zipf");
+		double u = aleatorio.nextDouble();
+		double x;
+		if (expoente == 0) {
+			return (int) (u * quantidade);
+		} else if (expoente == 1) {
+			x = Math.pow(quantidade + 1, u);
+		} else {
+			double a = 1 - expoente;
+			x = Math.pow(u * (Math.pow(quantidade + 1, a) - 1) + 1, 1 / a);
+		}
+		return Math.min(quantidade - 1, (int) x - 1);
+	}
+
+	/**
+	 * CPF com dígitos verificadores válidos e o índice do cliente como base
+	 */
+	static String cpf(int indice) {
+		StringBuilder cpf = new StringBuilder(String.format("%09d", indice));
+		cpf.append(digitoVerificador(cpf, 10));
+		cpf.append(digitoVerificador(cpf, 11));
+		return cpf.toString();
+	}
+
+	/**
+	 * CNPJ da matriz (0001) com dígitos verificadores válidos e o índice do cliente como base
+	 */
+	static String cnpj(int indice) {
+		StringBuilder cnpj = new StringBuilder(String.format("%08d0001", indice));
+		for (int i = 0; i < 2; i++) {
+			int soma = 0;
+			int peso = cnpj.length() - 7;
+			for (int j = 0; j < cnpj.length(); j++) {
+				soma += (cnpj.charAt(j) - '0') * peso;
+				peso = peso == 2 ? 9 : peso - 1;
+			}
+			int resto = soma % 11;
+			cnpj.append(resto < 2 ? 0 : 11 - resto);
+		}
+		return cnpj.toString();
+	}
+
+	private static int digitoVerificador(CharSequence base, int pesoInicial) {
+		int soma = 0;
+		for (int i = 0; i < base.length(); i++) {
+			soma += (base.charAt(i) - '0') * (pesoInicial - i);
+		}
+		int resto = soma % 11;
+		return resto < 2 ? 0 : 11 - resto;
+	}
+}
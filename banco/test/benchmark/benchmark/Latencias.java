@@ -0,0 +1,16 @@
+package benchmark;
+
+/**
+ * Percentis das latências medidas pelas cargas, que rodam várias threads ao longo da execução inteira e por isso não
+ * usam o JMH.
+ */
+public class Latencias {
+
+	/**
+	 * @param latencias latências em nanossegundos, já ordenadas
+	 * @return o percentil, em microssegundos
+	 */
+	public static double percentil(long[] latencias, double percentil) {
+		return latencias[(int) Math.min(latencias.length - 1, Math.ceil(percentil * latencias.length) - 1)] / 1e3;
+	}
+}
@@ -0,0 +1,311 @@
+package benchmark;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.Conta;
+import conta.ContaStandard;
+import conta.Historico;
+import conta.TiposConta;
+import interfaceUsuario.dados.DadosBoleto;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.dados.DadosConta;
+import interfaceUsuario.dados.DadosTransacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import transacao.Boleto;
+import transacao.Transacao;
+import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mede as operações centrais do banco com uma agência de {@link #clientes} clientes: busca por identificação e por
+ * chave Pix, transferência, pagamento de boleto, inclusão no histórico, geração de chaves e a gravação e leitura do
+ * arquivo de clientes.
+ * <p>
+ * As buscas não mudam o banco e são medidas por tempo, em ns/op. As demais operações acumulam transações, chaves e
+ * registros no journal a cada chamada, então são medidas em lotes de tamanho fixo ({@link Mode#SingleShotTime} com
+ * {@code batchSize}): o resultado é o tempo do lote inteiro, e o banco cresce o mesmo tanto em qualquer máquina.
+ * <p>
+ * A {@link Agencia} é única por processo, e o JMH roda cada benchmark em um processo próprio, que cria o banco do zero
+ * em {@code ./banco}. Por isso o benchmark só roda em uma pasta sem um banco (ou com o banco deixado por ele mesmo). Uso:
+ * {@code java -cp <classpath> org.openjdk.jmh.Main benchmark.OperacoesBancoBenchmark -p clientes=1000,9000 -prof gc}
+ * <p>
+ * Os ids de conta têm {@link GeracaoAleatoria#TAMANHO_ID_CONTA} dígitos, então uma agência tem no máximo
+ * {@code 10^TAMANHO_ID_CONTA} contas, das quais algumas são usadas pela medição do histórico e da geração de ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class OperacoesBancoBenchmark {
+	private static final int LOTE = 20000;
+	private static final int LOTE_ARQUIVO = 5;
+	private static final int LOTE_ID_CONTA = 50;
+	private static final int RODADAS = 5;
+	/**
+	 * Marca a pasta do banco como criada pelo benchmark, que pode então apagá-la no próximo processo
+	 */
+	private static final String MARCADOR = "banco-benchmark";
+
+	@Param({"1000"})
+	public int clientes;
+
+	private Agencia agencia;
+	private List<Cliente> lista;
+	private String[] identificacoes;
+	private String[] emails;
+	private SplittableRandom aleatorio;
+
+	@Setup(Level.Trial)
+	public void criarBanco() throws Exception {
+		long maximoClientes = (long) Math.pow(10, GeracaoAleatoria.TAMANHO_ID_CONTA) - RODADAS * LOTE_ID_CONTA - RODADAS;
+		if (clientes < 2 || clientes > maximoClientes) {
+			throw new IllegalArgumentException("Quantidade de clientes deve estar entre 2 e " + maximoClientes);
+		}
+		prepararPasta();
+
+		agencia = Agencia.getInstance();
+		lista = new ArrayList<>(clientes);
+		identificacoes = new String[clientes];
+		emails = new String[clientes];
+		for (int i = 0; i < clientes; i++) {
+			lista.add(criarCliente(agencia, i));
+			identificacoes[i] = identificacao(i);
+			emails[i] = email(i);
+		}
+		for (Cliente cliente : lista) {
+			cliente.getConta().aumentarSaldo(1_000_000.0);
+		}
+		aleatorio = new SplittableRandom(42);
+	}
+
+	@TearDown(Level.Trial)
+	public void fecharBanco() throws Exception {
+		agencia.fecharArquivos();
+	}
+
+	/**
+	 * Transferências já realizadas, incluídas em um histórico novo a cada rodada
+	 */
+	@State(Scope.Benchmark)
+	public static class Transferencias {
+		private final List<Transacao> transacoes = new ArrayList<>(LOTE);
+		private Historico historico;
+		private int proxima;
+
+		@Setup(Level.Trial)
+		public void transferir(OperacoesBancoBenchmark banco) throws Exception {
+			for (int i = 0; i < LOTE; i++) {
+				transacoes.add(banco.transferir());
+			}
+		}
+
+		@Setup(Level.Iteration)
+		public void novoHistorico() {
+			historico = new ContaStandard().getHistorico();
+			proxima = 0;
+		}
+	}
+
+	@Benchmark
+	public Cliente buscarCliente() throws Exception {
+		return agencia.buscarCliente(identificacoes[aleatorio.nextInt(clientes)]);
+	}
+
+	@Benchmark
+	public Cliente buscarClientePorChavePix() throws Exception {
+		return agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, emails[aleatorio.nextInt(clientes)]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public Transacao transferir() throws Exception {
+		int indiceOrigem = aleatorio.nextInt(clientes);
+		Cliente origem = lista.get(indiceOrigem);
+		Cliente destino = lista.get((indiceOrigem + 1 + aleatorio.nextInt(clientes - 1)) % clientes);
+		return origem.getConta().transferir(new DadosTransacao(0.01, destino, origem));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public Boleto criarEPagarBoleto() throws Exception {
+		int indiceOrigem = aleatorio.nextInt(clientes);
+		Cliente origem = lista.get(indiceOrigem);
+		Cliente destino = lista.get((indiceOrigem + 1 + aleatorio.nextInt(clientes - 1)) % clientes);
+		Boleto boleto = Boleto.criarBoleto(new DadosTransacao(0.01, destino), new DadosBoleto("31/12/2099", 1, false));
+		origem.getConta().pagarBoleto(boleto, origem);
+		agencia.apagarBoleto(boleto);
+		return boleto;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public Historico addTransacaoHistorico(Transferencias transferencias) throws Exception {
+		transferencias.historico.addTransacao(transferencias.transacoes.get(transferencias.proxima++));
+		return transferencias.historico;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public String gerarNossosNumeros() {
+		return GeracaoAleatoria.gerarNossosNumeros(25);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public String gerarChaveAleatoria() {
+		return GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE)
+	@Measurement(iterations = 3, batchSize = LOTE)
+	public String gerarNumeroCartao() {
+		return GeracaoAleatoria.gerarNumeroCartao();
+	}
+
+	/**
+	 * O espaço de ids é pequeno, então o lote também é
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE_ID_CONTA)
+	@Measurement(iterations = 3, batchSize = LOTE_ID_CONTA)
+	public String gerarIdConta() {
+		return GeracaoAleatoria.gerarIdConta(GeracaoAleatoria.TAMANHO_ID_CONTA);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE_ARQUIVO)
+	@Measurement(iterations = 3, batchSize = LOTE_ARQUIVO)
+	public void salvarClientes() throws Exception {
+		GerenciadorArquivo.salvarClientes(new HashSet<>(lista), new ContextoCodec());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE_ARQUIVO)
+	@Measurement(iterations = 3, batchSize = LOTE_ARQUIVO)
+	public HashSet<Cliente> listarSet(ArquivoClientes arquivo) {
+		return GerenciadorArquivo.listarSet(GerenciadorArquivo.PATH_CLIENTES, new ContextoCodec(arquivo.porIdentificacao::get));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, batchSize = LOTE_ARQUIVO)
+	@Measurement(iterations = 3, batchSize = LOTE_ARQUIVO)
+	public void atualizarArquivos() throws Exception {
+		agencia.atualizarArquivos();
+	}
+
+	/**
+	 * Arquivo de clientes gravado antes da leitura, com os clientes em memória para resolver as transações
+	 */
+	@State(Scope.Benchmark)
+	public static class ArquivoClientes {
+		private final Map<String, Cliente> porIdentificacao = new HashMap<>();
+
+		@Setup(Level.Trial)
+		public void gravar(OperacoesBancoBenchmark banco) throws Exception {
+			banco.salvarClientes();
+			for (Cliente cliente : banco.lista) {
+				porIdentificacao.put(cliente.getIdentificacao(), cliente);
+			}
+		}
+	}
+
+	/**
+	 * Apaga o banco deixado por um processo anterior do benchmark. Uma pasta com outro banco não é tocada.
+	 */
+	private static void prepararPasta() throws IOException {
+		Path pasta = Paths.get(GerenciadorArquivo.PATH_CLIENTES).getParent();
+		if (Files.isDirectory(pasta)) {
+			boolean vazia;
+			try (Stream<Path> arquivos = Files.list(pasta)) {
+				vazia = arquivos.findAny().isEmpty();
+			}
+			if (!vazia && !Files.exists(pasta.resolve(MARCADOR))) {
+				throw new IllegalStateException("Execute em uma pasta sem banco: o benchmark grava os arquivos em ./banco");
+			}
+			try (Stream<Path> arquivos = Files.walk(pasta)) {
+				for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+					Files.delete(arquivo);
+				}
+			}
+		}
+		Files.createDirectories(pasta);
+		Files.createFile(pasta.resolve(MARCADOR));
+	}
+
+	private static String identificacao(int i) {
+		return String.format("%011d", i);
+	}
+
+	private static String email(int i) {
+		return "cliente" + i + "@banco.com";
+	}
+
+	private static Cliente criarCliente(Agencia agencia, int i) throws Exception {
+		Cliente cliente = new ClientePessoa("Cliente " + i, email(i), "11999999999", 30, new Endereco("00000000", i, ""),
+				identificacao(i), "senha", new DadosConta(TiposConta.STANDARD, false), new DadosCartao("cartao"),
+				1000.0);
+		agencia.addCliente(cliente);
+		cliente.setChavesPix(agencia.getDiretorioPix());
+		Conta conta = cliente.getConta();
+		conta.modificarChavePix(new DadosChavesPix(null, email(i), DadosChavesPix.EMAIL), agencia.getDiretorioPix());
+		return cliente;
+	}
+}
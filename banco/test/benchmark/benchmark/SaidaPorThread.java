@@ -0,0 +1,155 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * {@link PrintStream} para o {@link System#setOut(PrintStream)} que manda o que cada thread imprime para a saída
+ * definida por ela em {@link #definir(PrintStream)}, ou para a saída padrão. Assim os menus de vários atendimentos
+ * imprimem ao mesmo tempo sem disputar a trava de um único {@code System.out}.
+ */
+public class SaidaPorThread extends PrintStream {
+	private final PrintStream padrao;
+	private final ThreadLocal<PrintStream> saidas = new ThreadLocal<>();
+
+	public SaidaPorThread(PrintStream padrao) {
+		super(OutputStream.nullOutputStream());
+		this.padrao = padrao;
+	}
+
+	public void definir(PrintStream saida) {
+		this.saidas.set(saida);
+	}
+
+	public void remover() {
+		this.saidas.remove();
+	}
+
+	private PrintStream saida() {
+		PrintStream saida = this.saidas.get();
+		return saida != null ? saida : this.padrao;
+	}
+
+	@Override
+	public void write(int b) {
+		saida().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		saida().write(buf, off, len);
+	}
+
+	@Override
+	public void flush() {
+		saida().flush();
+	}
+
+	@Override
+	public void print(boolean b) {
+		saida().print(b);
+	}
+
+	@Override
+	public void print(char c) {
+		saida().print(c);
+	}
+
+	@Override
+	public void print(int i) {
+		saida().print(i);
+	}
+
+	@Override
+	public void print(long l) {
+		saida().print(l);
+	}
+
+	@Override
+	public void print(float f) {
+		saida().print(f);
+	}
+
+	@Override
+	public void print(double d) {
+		saida().print(d);
+	}
+
+	@Override
+	public void print(char[] s) {
+		saida().print(s);
+	}
+
+	@Override
+	public void print(String s) {
+		saida().print(s);
+	}
+
+	@Override
+	public void print(Object obj) {
+		saida().print(obj);
+	}
+
+	@Override
+	public void println() {
+		saida().println();
+	}
+
+	@Override
+	public void println(boolean x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(char x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(int x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(long x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(float x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(double x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(char[] x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(String x) {
+		saida().println(x);
+	}
+
+	@Override
+	public void println(Object x) {
+		saida().println(x);
+	}
+
+	@Override
+	public PrintStream format(String format, Object... args) {
+		saida().format(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(Locale l, String format, Object... args) {
+		saida().format(l, format, args);
+		return this;
+	}
+}
@@ -0,0 +1,47 @@
+package interfaceUsuario.menus;
+
+import interfaceUsuario.InterfaceUsuario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuUsuarioTecladoTest {
+
+    @AfterEach
+    void tearDown() {
+        InterfaceUsuario.encerrarSessao();
+    }
+
+    @Test
+    void teclado_SessaoSemTeclado_DeveUsarTecladoDoConsole() {
+        assertSame(MenuUsuario.TECLADO, MenuUsuario.teclado());
+    }
+
+    @Test
+    void usuarioEntradas_DeveLerDoTecladoDaSessao() {
+        InterfaceUsuario.getSessao().setTeclado(new Scanner("12345678901\nsenha\n"));
+
+        String[] entradas = MenuUsuario.usuarioEntradas(new String[]{"CPF/CNPJ", "Senha"});
+
+        assertArrayEquals(new String[]{"12345678901", "senha"}, entradas);
+    }
+
+    @Test
+    void teclado_CadaThreadDeveLerDaSuaSessao() throws Exception {
+        InterfaceUsuario.getSessao().setTeclado(new Scanner("principal\n"));
+        AtomicReference<String> lidaNaOutraThread = new AtomicReference<>();
+        Thread outra = new Thread(() -> {
+            InterfaceUsuario.getSessao().setTeclado(new Scanner("outra\n"));
+            lidaNaOutraThread.set(MenuUsuario.teclado().nextLine());
+        });
+        outra.start();
+        outra.join();
+
+        assertEquals("outra", lidaNaOutraThread.get());
+        assertEquals("principal", MenuUsuario.teclado().nextLine());
+    }
+}
@@ -2,6 +2,7 @@ package interfaceUsuario.verificadores.dados;
 
 import conta.Conta;
 import interfaceUsuario.dados.DadosChavesPix;
+import utilsBank.Dinheiro;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,17 +22,17 @@ class SistemaPixTransacaoTest {
     static class ContaTeste extends Conta {
         public ContaTeste(double saldoInicial) {
             super(); // Chama o construtor da Conta (gera ID, listas, etc)
-            this.saldo = saldoInicial; // Acessa o atributo protected 'saldo' diretamente
+            this.saldo = Dinheiro.centavos(saldoInicial); // Acessa o atributo protected 'saldo' diretamente
         }
 
         // Método auxiliar para simular o débito (já que diminuirSaldo é private/protected e transferir depende de UI)
         public void simularDebito(double valor) {
-            this.saldo -= valor;
+            this.saldo -= Dinheiro.centavos(valor);
         }
 
         // Método para pegar saldo (se getSaldo() não fosse público, mas ele é)
         public double getSaldoAtual() {
-            return this.saldo;
+            return getSaldo();
         }
     }
 
@@ -0,0 +1,101 @@
+package agencia;
+
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.TiposConta;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosConta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgenciaTest {
+    private static final String[] ARQUIVOS = {"clientes.dat", "transacoes.dat", "boletos.dat", "data.dat",
+            "journal.dat", "saldos.dat"};
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        descartarInstancia();
+        File diretorioBanco = new File("banco");
+        if (!diretorioBanco.exists()) {
+            diretorioBanco.mkdirs();
+        }
+        for (String arquivo : ARQUIVOS) {
+            new File(diretorioBanco, arquivo).delete();
+        }
+    }
+
+    /**
+     * Faz o próximo {@link Agencia#getInstance()} ler a agência dos arquivos de novo
+     */
+    private static void descartarInstancia() throws Exception {
+        Field instance = Agencia.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    private static Cliente criarCliente(String identificacao) {
+        return new ClientePessoa("Ana", "ana@bic.com", "21999999999", 30, new Endereco("70000000", 12, "casa"),
+                identificacao, "senha", new DadosConta(TiposConta.STANDARD, false), new DadosCartao("principal"),
+                3000.0);
+    }
+
+    @Test
+    public void addCliente_DeveEncontrarPelaIdentificacao() throws Exception {
+        Agencia agencia = Agencia.getInstance();
+        Cliente cliente = criarCliente("12345678901");
+
+        agencia.addCliente(cliente);
+
+        assertSame(cliente, agencia.buscarCliente("12345678901"));
+        assertThrows(BuscaException.class, () -> agencia.buscarCliente("10987654321"));
+    }
+
+    @Test
+    public void removerCliente_DeveRetirarDoIndice() throws Exception {
+        Agencia agencia = Agencia.getInstance();
+        Cliente cliente = criarCliente("12345678901");
+        agencia.addCliente(cliente);
+
+        assertTrue(agencia.removerCliente(cliente));
+
+        assertThrows(BuscaException.class, () -> agencia.buscarCliente("12345678901"));
+        assertFalse(agencia.getClientes().contains(cliente));
+    }
+
+    @Test
+    public void recarregar_PeloJournal_DeveEncontrarPelaIdentificacao() throws Exception {
+        Cliente cliente = criarCliente("12345678901");
+        Agencia.getInstance().addCliente(cliente);
+
+        descartarInstancia();
+        Agencia recarregada = Agencia.getInstance();
+
+        Cliente encontrado = recarregada.buscarCliente("12345678901");
+        assertNotSame(cliente, encontrado);
+        assertEquals(cliente.getConta().getIdConta(), encontrado.getConta().getIdConta());
+        assertTrue(recarregada.getClientes().contains(encontrado));
+    }
+
+    @Test
+    public void recarregar_PeloSnapshot_DeveEncontrarPelaIdentificacao() throws Exception {
+        Cliente cliente = criarCliente("12345678901");
+        Agencia agencia = Agencia.getInstance();
+        agencia.addCliente(cliente);
+        agencia.atualizarArquivos();
+
+        descartarInstancia();
+        Agencia recarregada = Agencia.getInstance();
+
+        Cliente encontrado = recarregada.buscarCliente("12345678901");
+        assertNotSame(cliente, encontrado);
+        assertEquals(cliente.getConta().getIdConta(), encontrado.getConta().getIdConta());
+        assertEquals(1, recarregada.getClientes().size());
+    }
+}
@@ -0,0 +1,72 @@
+package agencia;
+
+import org.junit.jupiter.api.Test;
+import transacao.Transacao;
+import utilsBank.databank.DataBank;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AgendaTransacoesTest {
+
+    private static Transacao agendada(String data) {
+        Transacao transacao = mock(Transacao.class);
+        when(transacao.getDataAgendada()).thenReturn(DataBank.criarData(data, DataBank.SEM_HORA));
+        return transacao;
+    }
+
+    @Test
+    public void retirarVencidas_DeveRetornarSomenteAsVencidasEmOrdemDeData() {
+        Transacao futura = agendada("20/03/2024");
+        Transacao hoje = agendada("15/03/2024");
+        Transacao atrasada = agendada("10/03/2024");
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(futura, hoje, atrasada));
+
+        List<Transacao> vencidas = agenda.retirarVencidas(DataBank.criarData("15/03/2024", DataBank.SEM_HORA));
+
+        assertEquals(List.of(atrasada, hoje), vencidas);
+        assertEquals(1, agenda.tamanho());
+        assertEquals(List.of(futura), agenda.listar());
+    }
+
+    @Test
+    public void retirarVencidas_MesmoDia_DeveManterOrdemDeAgendamento() {
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of());
+        Transacao primeira = agendada("15/03/2024");
+        Transacao segunda = agendada("15/03/2024");
+        Transacao terceira = agendada("15/03/2024");
+        agenda.adicionar(primeira);
+        agenda.adicionar(segunda);
+        agenda.adicionar(terceira);
+
+        List<Transacao> vencidas = agenda.retirarVencidas(DataBank.criarData("16/03/2024", DataBank.SEM_HORA));
+
+        assertEquals(List.of(primeira, segunda, terceira), vencidas);
+    }
+
+    @Test
+    public void retirarVencidas_NenhumaVencida_NaoDeveAlterarAgenda() {
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(agendada("20/03/2024"), agendada("21/03/2024")));
+
+        List<Transacao> vencidas = agenda.retirarVencidas(DataBank.criarData("19/03/2024", DataBank.SEM_HORA));
+
+        assertTrue(vencidas.isEmpty());
+        assertEquals(2, agenda.tamanho());
+    }
+
+    @Test
+    public void remover_DeveTirarDaFilaEDoIndice() {
+        Transacao realizada = agendada("15/03/2024");
+        when(realizada.getNossoNumero()).thenReturn("123");
+        Transacao outra = agendada("16/03/2024");
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(realizada, outra));
+
+        assertSame(realizada, agenda.remover("123"));
+
+        assertNull(agenda.buscar("123"));
+        assertNull(agenda.remover("123"));
+        assertEquals(List.of(outra), agenda.retirarVencidas(DataBank.criarData("20/03/2024", DataBank.SEM_HORA)));
+    }
+}
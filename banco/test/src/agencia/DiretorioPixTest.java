@@ -0,0 +1,156 @@
+package agencia;
+
+import agencia.exceptions.BuscaException;
+import agencia.exceptions.InsercaoException;
+import interfaceUsuario.dados.DadosChavesPix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transacao.ChavePix;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiretorioPixTest {
+    private DiretorioPix diretorio;
+
+    @BeforeEach
+    public void setUp() {
+        diretorio = new DiretorioPix();
+    }
+
+    @Test
+    public void registrar_DeveEncontrarTitularPelaChave() throws Exception {
+        diretorio.registrar(DadosChavesPix.EMAIL, "ana@bic.com", "12345678901");
+
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+    }
+
+    @Test
+    public void registrar_ChaveDeOutroTitular_DeveLancarExcecao() throws Exception {
+        diretorio.registrar(DadosChavesPix.TELEFONE, "21999999999", "12345678901");
+
+        assertThrows(InsercaoException.class,
+                () -> diretorio.registrar(DadosChavesPix.TELEFONE, "21999999999", "10987654321"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.TELEFONE, "21999999999"));
+    }
+
+    @Test
+    public void registrar_MesmaChaveMesmoTitular_NaoDeveLancarExcecao() throws Exception {
+        diretorio.registrar(DadosChavesPix.EMAIL, "ana@bic.com", "12345678901");
+
+        assertDoesNotThrow(() -> diretorio.registrar(DadosChavesPix.EMAIL, "ana@bic.com", "12345678901"));
+    }
+
+    @Test
+    public void trocar_DeveLiberarChaveAntiga() throws Exception {
+        diretorio.registrar(DadosChavesPix.EMAIL, "antigo@bic.com", "12345678901");
+
+        diretorio.trocar(DadosChavesPix.EMAIL, "antigo@bic.com", "novo@bic.com", "12345678901");
+
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.EMAIL, "novo@bic.com"));
+        assertThrows(BuscaException.class, () -> diretorio.buscarTitular(DadosChavesPix.EMAIL, "antigo@bic.com"));
+    }
+
+    @Test
+    public void trocar_ParaChaveOcupada_DeveManterChaveAntiga() throws Exception {
+        diretorio.registrar(DadosChavesPix.EMAIL, "ana@bic.com", "12345678901");
+        diretorio.registrar(DadosChavesPix.EMAIL, "bia@bic.com", "10987654321");
+
+        assertThrows(InsercaoException.class,
+                () -> diretorio.trocar(DadosChavesPix.EMAIL, "ana@bic.com", "bia@bic.com", "12345678901"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+    }
+
+    @Test
+    public void indexar_DeveRegistrarTodosOsTipos() throws Exception {
+        ChavePix chaves = new ChavePix("21999999999", "abc123", "ana@bic.com", "12345678901");
+
+        assertTrue(diretorio.indexar(chaves));
+
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.TELEFONE, "21999999999"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.CHAVE_ALEATORIA, "abc123"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "12345678901"));
+    }
+
+    @Test
+    public void desindexar_DeveRemoverTodasAsChaves() {
+        ChavePix chaves = new ChavePix("21999999999", null, "ana@bic.com", "12345678901");
+        diretorio.indexar(chaves);
+
+        diretorio.desindexar(chaves);
+
+        assertThrows(BuscaException.class, () -> diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+        assertThrows(BuscaException.class, () -> diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "12345678901"));
+    }
+
+    @Test
+    public void trocarTitular_DevePassarTodasAsChavesParaONovo() throws Exception {
+        ChavePix chaves = new ChavePix("21999999999", null, "ana@bic.com", "12345678901");
+        diretorio.indexar(chaves);
+
+        diretorio.trocarTitular(chaves, "10987654321");
+
+        assertEquals("10987654321", diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+        assertEquals("10987654321", diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "10987654321"));
+        assertThrows(BuscaException.class, () -> diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "12345678901"));
+    }
+
+    @Test
+    public void trocarTitular_ChaveDeOutroTitular_DeveManterDiretorioComoEstava() throws Exception {
+        ChavePix chaves = new ChavePix("21999999999", "abc123", "ana@bic.com", "12345678901");
+        diretorio.indexar(chaves);
+        diretorio.registrar(DadosChavesPix.IDENTIFICACAO, "10987654321", "55555555555");
+
+        assertThrows(InsercaoException.class, () -> diretorio.trocarTitular(chaves, "10987654321"));
+
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.TELEFONE, "21999999999"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.EMAIL, "ana@bic.com"));
+        assertEquals("12345678901", diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "12345678901"));
+        assertEquals("55555555555", diretorio.buscarTitular(DadosChavesPix.IDENTIFICACAO, "10987654321"));
+    }
+
+    @Test
+    public void buscarTitular_TipoInvalido_DeveLancarExcecao() {
+        assertThrows(BuscaException.class, () -> diretorio.buscarTitular("cpf", "12345678901"));
+    }
+
+    @Test
+    public void trocar_VariosTitularesAoMesmoTempo_DeveManterTodasAsChaves() throws Exception {
+        int quantidadeThreads = 8;
+        int trocas = 500;
+        List<Throwable> erros = new CopyOnWriteArrayList<>();
+        Thread[] threads = new Thread[quantidadeThreads];
+        for (int t = 0; t < quantidadeThreads; t++) {
+            String titular = String.format("%011d", t);
+            threads[t] = new Thread(() -> {
+                try {
+                    String chaveAtual = null;
+                    for (int i = 0; i < trocas; i++) {
+                        String chaveNova = "titular" + titular + "x" + i + "@bic.com";
+                        diretorio.trocar(DadosChavesPix.EMAIL, chaveAtual, chaveNova, titular);
+                        assertEquals(titular, diretorio.buscarTitular(DadosChavesPix.EMAIL, chaveNova));
+                        chaveAtual = chaveNova;
+                    }
+                } catch (Throwable ex) {
+                    erros.add(ex);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(erros.isEmpty(), erros.toString());
+        for (int t = 0; t < quantidadeThreads; t++) {
+            String titular = String.format("%011d", t);
+            String ultima = "titular" + titular + "x" + (trocas - 1) + "@bic.com";
+            String primeira = "titular" + titular + "x0@bic.com";
+            assertEquals(titular, diretorio.buscarTitular(DadosChavesPix.EMAIL, ultima));
+            assertThrows(BuscaException.class, () -> diretorio.buscarTitular(DadosChavesPix.EMAIL, primeira));
+        }
+    }
+}
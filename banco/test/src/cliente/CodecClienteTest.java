@@ -0,0 +1,253 @@
+package cliente;
+
+import cartao.Fatura;
+import conta.Conta;
+import conta.ContaDiamond;
+import conta.ContaStandard;
+import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.dados.DadosTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transacao.CodecTransacao;
+import transacao.Transacao;
+import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CodecClienteTest {
+    private final CodecCliente codec = new CodecCliente();
+    private ClientePessoa pessoa;
+    private ClienteEmpresa empresa;
+    private Transacao transferencia;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Conta contaPessoa = new ContaStandard();
+        contaPessoa.criarCartao("Ana", new DadosCartao("principal"));
+        contaPessoa.aumentarSaldo(500.0);
+        contaPessoa.getCARTEIRA().setDebitoAutomatico(true, 10);
+        pessoa = new ClientePessoa("Ana", "ana@bic.com", "21999999999", 30,
+                new Endereco("70000000", 12, "casa"), "12345678901", "senha", contaPessoa, 3000.0);
+        pessoa.getConta().getChavesPix().restaurar(chaves("21999999999", "ana@bic.com", "12345678901"));
+
+        Conta contaEmpresa = new ContaDiamond();
+        empresa = new ClienteEmpresa("Empresa", null, null, null, null, "59064723000105", "senha", contaEmpresa, 90000.0);
+        empresa.addGerentes("12345678901");
+
+        DadosTransacao dados = mock(DadosTransacao.class);
+        when(dados.getValor()).thenReturn(100.0);
+        when(dados.getorigem()).thenReturn(pessoa);
+        when(dados.getdestino()).thenReturn(empresa);
+        transferencia = new Transacao(dados);
+        contaPessoa.addTransacaoRealizada(transferencia);
+        contaPessoa.addHistorico(transferencia);
+        contaEmpresa.addHistorico(transferencia);
+        contaEmpresa.addNotificacao(transferencia);
+        contaPessoa.getHistorico().addFaturas(new Fatura(50.0, pessoa));
+    }
+
+    private static DataInputStream chaves(String telefone, String email, String identificacao) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream saida = new DataOutputStream(bytes);
+        for (String chave : new String[]{telefone, null, email, identificacao}) {
+            saida.writeBoolean(chave != null);
+            if (chave != null) {
+                saida.writeUTF(chave);
+            }
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private byte[] gravar(List<Cliente> clientes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream saida = new DataOutputStream(bytes);
+        ContextoCodec contexto = new ContextoCodec();
+        contexto.escreverCabecalho(saida);
+        codec.escreverColecao(saida, clientes, contexto);
+        return bytes.toByteArray();
+    }
+
+    private List<Cliente> ler(byte[] bytes) throws IOException {
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bytes));
+        ContextoCodec contexto = new ContextoCodec();
+        contexto.lerCabecalho(entrada);
+        List<Cliente> clientes = new ArrayList<>();
+        codec.lerColecao(entrada, clientes, contexto);
+        return clientes;
+    }
+
+    @Test
+    public void lerColecao_DeveRestaurarClientesEContas() throws Exception {
+        List<Cliente> lidos = ler(gravar(List.of(pessoa, empresa)));
+
+        ClientePessoa ana = (ClientePessoa) lidos.get(0);
+        assertEquals("Ana", ana.getNome());
+        assertEquals("12345678901", ana.getIdentificacao());
+        assertTrue(ana.verificarSenha("senha"));
+        assertEquals(pessoa.toString(), ana.toString());
+        assertInstanceOf(ContaStandard.class, ana.getConta());
+        assertEquals(pessoa.getConta().getIdConta(), ana.getConta().getIdConta());
+        assertEquals(500.0, ana.getConta().getSaldo());
+        assertEquals(2500.0, ana.getConta().getCARTEIRA().getLimiteMaximo());
+        assertTrue(ana.getConta().getCARTEIRA().isDebitoAutomatico());
+        assertEquals("ana@bic.com", ana.getConta().getChavesPix().getChave(DadosChavesPix.EMAIL));
+        assertEquals(1, ana.getConta().getHistorico().getFaturas().size());
+
+        ClienteEmpresa lidaEmpresa = (ClienteEmpresa) lidos.get(1);
+        assertInstanceOf(ContaDiamond.class, lidaEmpresa.getConta());
+        assertTrue(lidaEmpresa.verificarGerente("12345678901"));
+        assertEquals(1, lidaEmpresa.getConta().getNotificacoes().size());
+    }
+
+    @Test
+    public void lerColecao_TransacaoDeDoisClientes_DeveSerOMesmoObjeto() throws Exception {
+        List<Cliente> lidos = ler(gravar(List.of(pessoa, empresa)));
+
+        Transacao daOrigem = lidos.get(0).getConta().getHistorico().getTransacoes().get(0);
+        Transacao doDestino = lidos.get(1).getConta().getHistorico().getTransacoes().get(0);
+
+        assertSame(daOrigem, doDestino);
+        assertSame(daOrigem, lidos.get(1).getConta().getNotificacoes().get(0));
+        assertSame(lidos.get(0), daOrigem.getClienteOrigem());
+        assertSame(lidos.get(1), daOrigem.getClienteDestino());
+        assertEquals(transferencia.getNossoNumero(), daOrigem.getNossoNumero());
+        assertEquals(100.0, daOrigem.getValor());
+    }
+
+    private static Map<String, Cliente> porIdentificacao(Set<Cliente> clientes, Map<String, Cliente> destino) {
+        for (Cliente cliente : clientes) {
+            destino.put(cliente.getIdentificacao(), cliente);
+        }
+        return destino;
+    }
+
+    /**
+     * Lê o arquivo deixando as movimentações no disco, como na inicialização da agência
+     */
+    private static Map<String, Cliente> lerAdiando(String path, ContextoCodec contextoBlocos, Map<String, Cliente> clientes) {
+        ContextoCodec contexto = new ContextoCodec();
+        contexto.adiarMovimentacoes(contextoBlocos);
+        return porIdentificacao(GerenciadorArquivo.listarSet(path, contexto), clientes);
+    }
+
+    @Test
+    public void listarSet_MovimentacoesAdiadas_DeveCarregarNoPrimeiroAcesso(@TempDir Path pasta) throws Exception {
+        String path = pasta.resolve("clientes.dat").toString();
+        GerenciadorArquivo.salvarClientes(path, new LinkedHashSet<>(List.of(pessoa, empresa)), new ContextoCodec());
+        Map<String, Cliente> clientes = new HashMap<>();
+
+        lerAdiando(path, new ContextoCodec(clientes::get), clientes);
+        Conta ana = clientes.get(pessoa.getIdentificacao()).getConta();
+        Conta lidaEmpresa = clientes.get(empresa.getIdentificacao()).getConta();
+
+        assertFalse(ana.isMovimentacoesCarregadas());
+        assertEquals(500.0, ana.getSaldo());
+        assertEquals(1, ana.getHistorico().getTransacoes().size());
+        assertTrue(ana.isMovimentacoesCarregadas());
+        assertFalse(lidaEmpresa.isMovimentacoesCarregadas());
+        assertEquals(transferencia.getNossoNumero(), lidaEmpresa.getNotificacoes().get(0).getNossoNumero());
+        assertSame(clientes.get(pessoa.getIdentificacao()), lidaEmpresa.getNotificacoes().get(0).getClienteOrigem());
+    }
+
+    @Test
+    public void salvarClientes_MovimentacoesNaoLidas_DeveCopiarDoArquivoAnterior(@TempDir Path pasta) throws Exception {
+        String path = pasta.resolve("clientes.dat").toString();
+        GerenciadorArquivo.salvarClientes(path, new LinkedHashSet<>(List.of(pessoa, empresa)), new ContextoCodec());
+        Map<String, Cliente> clientes = new HashMap<>();
+        ContextoCodec contextoBlocos = new ContextoCodec(clientes::get);
+        lerAdiando(path, contextoBlocos, clientes);
+        Set<Cliente> lidos = new LinkedHashSet<>(clientes.values());
+
+        clientes.get(empresa.getIdentificacao()).getConta().getHistorico();
+        GerenciadorArquivo.salvarClientes(path, lidos, contextoBlocos);
+        GerenciadorArquivo.salvarClientes(path, lidos, contextoBlocos);
+
+        Conta ana = clientes.get(pessoa.getIdentificacao()).getConta();
+        assertFalse(ana.isMovimentacoesCarregadas());
+        assertEquals(1, ana.getHistorico().getTransacoes().size());
+        assertEquals(1, ana.getHistorico().getFaturas().size());
+        Map<String, Cliente> relidos = new HashMap<>();
+        lerAdiando(path, new ContextoCodec(relidos::get), relidos);
+        assertEquals(1, relidos.get(empresa.getIdentificacao()).getConta().getHistorico().getTransacoes().size());
+    }
+
+    @Test
+    public void descarregarMovimentacoes_DeveVoltarALerDoUltimoArquivo(@TempDir Path pasta) throws Exception {
+        String path = pasta.resolve("clientes.dat").toString();
+        Map<String, Cliente> clientes = porIdentificacao(Set.of(pessoa, empresa), new HashMap<>());
+        GerenciadorArquivo.salvarClientes(path, new LinkedHashSet<>(List.of(pessoa, empresa)), new ContextoCodec(clientes::get));
+
+        assertTrue(pessoa.getConta().descarregarMovimentacoes());
+        assertFalse(pessoa.getConta().isMovimentacoesCarregadas());
+        assertEquals(transferencia.getNossoNumero(), pessoa.getConta().getHistorico().getTransacoes().get(0).getNossoNumero());
+        assertTrue(pessoa.getConta().isMovimentacoesCarregadas());
+    }
+
+    @Test
+    public void descarregarMovimentacoes_ContaUsadaDepoisDaGravacao_NaoDeveLiberar(@TempDir Path pasta) throws Exception {
+        String path = pasta.resolve("clientes.dat").toString();
+        GerenciadorArquivo.salvarClientes(path, new LinkedHashSet<>(List.of(pessoa, empresa)), new ContextoCodec());
+
+        empresa.getConta().addNotificacao(new Fatura(10.0, empresa));
+
+        assertFalse(empresa.getConta().descarregarMovimentacoes());
+        assertTrue(empresa.getConta().isMovimentacoesCarregadas());
+        assertEquals(1, empresa.getConta().getNotificacoes().size());
+    }
+
+    @Test
+    public void lerTransacao_DeveResolverClientesPeloContexto() throws Exception {
+        CodecTransacao codecTransacao = new CodecTransacao();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codecTransacao.escrever(new DataOutputStream(bytes), transferencia, new ContextoCodec());
+
+        ContextoCodec contexto = new ContextoCodec(id -> id.equals(pessoa.getIdentificacao()) ? pessoa : empresa);
+        Transacao lida = codecTransacao.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), contexto);
+
+        assertSame(pessoa, lida.getClienteOrigem());
+        assertSame(empresa, lida.getClienteDestino());
+    }
+
+    @Test
+    public void lerTransacao_ClienteDesconhecido_DeveLancarExcecao() throws Exception {
+        CodecTransacao codecTransacao = new CodecTransacao();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codecTransacao.escrever(new DataOutputStream(bytes), transferencia, new ContextoCodec());
+
+        assertThrows(IOException.class,
+                () -> codecTransacao.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), new ContextoCodec()));
+    }
+
+    @Test
+    public void lerCabecalho_VersaoMaisNova_DeveLancarExcecao() throws Exception {
+        byte[] bytes = gravar(List.of(pessoa, empresa));
+        bytes[Integer.BYTES + 1 + Esquema.CLIENTE.ordinal()]++;
+
+        assertThrows(IOException.class, () -> ler(bytes));
+    }
+
+    @Test
+    public void lerCabecalho_ArquivoDeOutroFormato_DeveLancarExcecao() {
+        byte[] serializacaoJava = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x73, 0x72};
+
+        assertThrows(IOException.class, () -> ler(serializacaoJava));
+    }
+}
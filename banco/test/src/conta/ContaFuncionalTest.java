@@ -9,7 +9,7 @@ public class ContaFuncionalTest {
 
     // criar empréstimo aumenta saldo e define parcela
     @Test
-    public void criarEmprestimo_AumentaSaldoEDefineParcela() {
+    public void criarEmprestimo_AumentaSaldoEDefineParcela() throws Exception {
         Conta conta = new Conta();
 
         conta.criarEmprestimo(500.0, 5);
@@ -41,6 +41,33 @@ public class ContaFuncionalTest {
         assertEquals(200.0, conta.getSaldo());
     }
 
+    // depósitos de centavos não acumulam erro de arredondamento
+    @Test
+    public void depositar_CentavosRepetidos_SaldoExato() {
+        Conta conta = new Conta();
+
+        for (int i = 0; i < 1000; i++) {
+            conta.aumentarSaldo(0.10);
+        }
+
+        assertEquals(10000, conta.getSaldoCentavos());
+        assertEquals(100.0, conta.getSaldo());
+    }
+
+    // parcelas arredondadas para cima quitam o empréstimo sem sobrar centavos
+    @Test
+    public void pagarParcelas_ValorNaoDivisivel_QuitaEmprestimo() throws Exception {
+        Conta conta = new Conta();
+        conta.criarEmprestimo(100.0, 3);
+
+        for (int i = 0; i < 3; i++) {
+            conta.pagarParcelaEmprestimo();
+        }
+
+        assertFalse(conta.hasEmprestimo());
+        assertEquals(0.0, conta.getSaldo());
+    }
+
     // criar cartão Standard adiciona à carteira
     @Test
     public void criarCartaoStandard_AdicionaNaCarteira() {
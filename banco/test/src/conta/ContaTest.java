@@ -12,12 +12,15 @@ import cliente.Cliente;
 import funcionalidades.exceptions.EmprestimoException;
 import transacao.Boleto;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 import cartao.Cartao;
 import cartao.CartaoDiamond;
 import cartao.CartaoPremium;
 import interfaceUsuario.InterfaceUsuario;
+import interfaceUsuario.dados.DadosTransacao;
 import interfaceUsuario.exceptions.ValorInvalido;
 import cartao.CartaoStandard;
 
@@ -38,7 +41,7 @@ public class ContaTest {
     }
 
     @Test
-    public void pagarEmprestimo_SeSaldoSuficiente() throws EmprestimoException {
+    public void pagarEmprestimo_SeSaldoSuficiente() throws EmprestimoException, EscritaArquivoException {
         // pagar empréstimo quando saldo for suficiente:
 
         // cenário: criar empréstimo de 500,00 com 5 parcelas:
@@ -61,15 +64,15 @@ public class ContaTest {
     public void pagarEmprestimo_LancarSeSaldoInsuficiente() {
 
         // cenário: pagar empréstimo e não ter saldo suficiente para quitar
-        conta.emprestimo = 1000.0;
-        conta.saldo = 100.0;
+        conta.emprestimo = Dinheiro.centavos(1000.0);
+        conta.saldo = Dinheiro.centavos(100.0);
 
         // valida que a exceção é lançada quando saldo for menor que valor do empréstimo:
         assertThrows(EmprestimoException.class, () -> conta.pagarEmprestimo());
     }
 
     @Test
-    public void pagarParcelaEmprestimo_ParcelaNormal() throws EmprestimoException {
+    public void pagarParcelaEmprestimo_ParcelaNormal() throws EmprestimoException, EscritaArquivoException {
 
         // cenário: empréstimo = 600,00, em 6 parcelas de 100,00
         conta.criarEmprestimo(600.0, 6);
@@ -86,12 +89,12 @@ public class ContaTest {
     }
 
     @Test
-    public void pagarParcelaEmprestimo_PagarSomenteORestanteDoEmprestimo() throws EmprestimoException {
+    public void pagarParcelaEmprestimo_PagarSomenteORestanteDoEmprestimo() throws EmprestimoException, EscritaArquivoException {
 
         // cenário: quando temos uma última parcela restante (exemplo, 50,00) e ela é menor que a parcela normal (100,00)
-        conta.emprestimo = 50.0;
-        conta.parcelaEmprestimo = 100.0;
-        conta.saldo = 100.0; // garante ter saldo suficiente para pagar os 50,00
+        conta.emprestimo = Dinheiro.centavos(50.0);
+        conta.parcelaEmprestimo = Dinheiro.centavos(100.0);
+        conta.saldo = Dinheiro.centavos(100.0); // garante ter saldo suficiente para pagar os 50,00
 
         // pagar a última parcela (50,00):
         //conta.pagarEmprestimo();
@@ -108,9 +111,9 @@ public class ContaTest {
     public void pagarParcelaEmprestimo_LancarSeSaldoInsuficiente() {
 
         // cenário: saldo tem 50,00 e a parcela é 100,00 -> erro
-        conta.emprestimo = 500.0;
-        conta.parcelaEmprestimo = 100.0;
-        conta.saldo = 50.0;
+        conta.emprestimo = Dinheiro.centavos(500.0);
+        conta.parcelaEmprestimo = Dinheiro.centavos(100.0);
+        conta.saldo = Dinheiro.centavos(50.0);
 
         // valida que a exceção é lançada
         assertThrows(EmprestimoException.class, () -> conta.pagarParcelaEmprestimo());
@@ -119,15 +122,15 @@ public class ContaTest {
     // mockito
 
     @Test
-    public void pagarBoleto_ComSucesso() throws TransacaoException {
+    public void pagarBoleto_ComSucesso() throws TransacaoException, EscritaArquivoException {
 
         // definindo um saldo inicial para o teste:
-        conta.saldo = 500.0;
+        conta.saldo = Dinheiro.centavos(500.0);
 
         // criando um objeto simulado (mock) da classe Boleto:
         Boleto boletoMock = Mockito.mock(Boleto.class); // permite simular o comportamento de um boleto sem precisar de instancia real
-        when(boletoMock.getValor()).thenReturn(200.0); // aqui definimos o comportamento esperado do mock (um boleto de 200,00)
-        when(boletoMock.getMultaPorDias()).thenReturn(0.0); // aqui estamos dizendo que não tem multa
+        when(boletoMock.getValorCentavos()).thenReturn(20000L); // aqui definimos o comportamento esperado do mock (um boleto de 200,00)
+        when(boletoMock.getMultaDiasCentavos()).thenReturn(0L); // aqui estamos dizendo que não tem multa
 
         // criando data fake para não dar o erro de NullPointer:
         Data dataFake = DataBank.criarData(DataBank.SEM_HORA);
@@ -143,7 +146,7 @@ public class ContaTest {
         doNothing().when(contaOrigemMock).addHistorico(any(transacao.Transacao.class));
         doNothing().when(contaDestinoMock).addHistorico(any(transacao.Transacao.class));
         doNothing().when(contaDestinoMock).addNotificacao(any(transacao.Transacao.class));
-        doNothing().when(contaDestinoMock).aumentarSaldo(anyDouble());
+        doNothing().when(contaDestinoMock).aumentarSaldoCentavos(anyLong());
 
         Cliente clienteMock = Mockito.mock(Cliente.class); // criando cliente falso pra passar no método
 
@@ -157,9 +160,9 @@ public class ContaTest {
         assertEquals(300.0, conta.getSaldo(), 0.0001, "O saldo deve ser debitado no valor do boleto");
 
         // garante que chamou os métodos esperados:
-        verify(boletoMock, times(1)).getValor();
+        verify(boletoMock, times(1)).getValorCentavos();
         verify(boletoMock, times(3)).getContaDestino();
-        verify(contaDestinoMock, times(1)).aumentarSaldo(200.0);
+        verify(contaDestinoMock, times(1)).aumentarSaldoCentavos(20000L);
         verify(contaOrigemMock, times(1)).addHistorico(any(transacao.Transacao.class));
         verify(contaDestinoMock, times(1)).addHistorico(any(transacao.Transacao.class));
         verify(contaDestinoMock, times(1)).addNotificacao(any(transacao.Transacao.class));
@@ -171,14 +174,14 @@ public class ContaTest {
 
         // cenário: se ao pagar conta tiver saldo insuficiente, deve lançar exceção:
 
-        conta.saldo = 100.0; // definindo saldo inicial para o teste
+        conta.saldo = Dinheiro.centavos(100.0); // definindo saldo inicial para o teste
 
         // cria um mock da classe Boleto:
         Boleto boletoMock = Mockito.mock(Boleto.class);
 
         // boleto de 250,00 (valor maior que o saldo da conta)
-        when(boletoMock.getValor()).thenReturn(250.0);
-        when(boletoMock.getMultaPorDias()).thenReturn(0.0); // sem multa
+        when(boletoMock.getValorCentavos()).thenReturn(25000L);
+        when(boletoMock.getMultaDiasCentavos()).thenReturn(0L); // sem multa
 
         // criando data fake para não dar o erro de NullPointer (a data 'outra' do calcularIntervalo):
         Data dataFake = DataBank.criarData(DataBank.SEM_HORA);
@@ -202,8 +205,8 @@ public class ContaTest {
         assertEquals(100.0, conta.getSaldo(), 0.0001, "O saldo não deve mudar se o pagamento falhar");
 
         // garantia que os mocks foram chamados:
-        verify(boletoMock, times(1)).getValor();
-        verify(boletoMock, times(1)).getMultaPorDias();
+        verify(boletoMock, times(1)).getValorCentavos();
+        verify(boletoMock, times(1)).getMultaDiasCentavos();
         verify(boletoMock, times(1)).getDataVencimento();
 
     }
@@ -241,7 +244,7 @@ public class ContaTest {
             mockInterface.when(interfaceUsuario.InterfaceUsuario::getDadosTransacao).thenReturn(dadosMock);
 
             // chama transf real (ela vai criar new Transacao(dadosMock))
-            transacao.Transacao resultado = contaOrigem.transferir();
+            transacao.Transacao resultado = contaOrigem.transferir(interfaceUsuario.InterfaceUsuario.getDadosTransacao());
 
             // verificações:
             assertNotNull(resultado, "Transação deve ser criada");
@@ -256,19 +259,104 @@ public class ContaTest {
     }
 
 
+    @Test
+    public void transferir_ComDadosExplicitos_NaoDeveLerInterfaceUsuario() throws Exception {
+        try (MockedStatic<InterfaceUsuario> mockInterface = mockStatic(InterfaceUsuario.class)) {
+            Conta contaOrigem = new Conta();
+            Conta contaDestino = new Conta();
+            contaOrigem.aumentarSaldo(500.0);
+            Cliente clienteOrigem = mock(Cliente.class);
+            Cliente clienteDestino = mock(Cliente.class);
+            when(clienteOrigem.getConta()).thenReturn(contaOrigem);
+            when(clienteDestino.getConta()).thenReturn(contaDestino);
+
+            contaOrigem.transferir(new DadosTransacao(150.0, clienteDestino, clienteOrigem));
+
+            assertEquals(350.0, contaOrigem.getSaldo(), 0.0001);
+            assertEquals(150.0, contaDestino.getSaldo(), 0.0001);
+            mockInterface.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void transferir_NaAgencia_DeveRegistrarComAsContasAlteradas() throws Exception {
+        Conta contaOrigem = new Conta();
+        Conta contaDestino = new Conta();
+        contaOrigem.aumentarSaldo(500.0);
+        Cliente clienteOrigem = mock(Cliente.class);
+        Cliente clienteDestino = mock(Cliente.class);
+        when(clienteOrigem.getConta()).thenReturn(contaOrigem);
+        when(clienteDestino.getConta()).thenReturn(contaDestino);
+        RegistroOperacoes registro = mock(RegistroOperacoes.class);
+        // o registro vê a transferência já feita
+        doAnswer(chamada -> {
+            assertEquals(350.0, contaOrigem.getSaldo(), 0.0001);
+            assertEquals(150.0, contaDestino.getSaldo(), 0.0001);
+            return null;
+        }).when(registro).registrarTransacao(any());
+        contaOrigem.iniciarRegistro(registro, "11111111111");
+
+        transacao.Transacao transacao = contaOrigem.transferir(new DadosTransacao(150.0, clienteDestino, clienteOrigem));
+        contaOrigem.setDinheiroGuardado(50.0, Conta.GUARDAR);
+
+        verify(registro).registrarTransacao(transacao);
+        verify(registro).registrarEstado("11111111111", contaOrigem);
+    }
+
+    @Test
+    public void transferir_SessoesEmThreadsDiferentes_CadaUmaUsaSeusDados() throws Exception {
+        Conta contaDestino = new Conta();
+        Cliente clienteDestino = mock(Cliente.class);
+        when(clienteDestino.getConta()).thenReturn(contaDestino);
+        Conta[] origens = new Conta[2];
+        Thread[] threads = new Thread[2];
+        java.util.concurrent.CyclicBarrier barreira = new java.util.concurrent.CyclicBarrier(2);
+        java.util.List<Throwable> erros = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+
+        for (int i = 0; i < 2; i++) {
+            Conta origem = new Conta();
+            origem.aumentarSaldo(1000.0);
+            Cliente clienteOrigem = mock(Cliente.class);
+            when(clienteOrigem.getConta()).thenReturn(origem);
+            double valor = (i + 1) * 100.0;
+            origens[i] = origem;
+            threads[i] = new Thread(() -> {
+                try {
+                    InterfaceUsuario.setDadosTransacao(new DadosTransacao(valor, clienteDestino, clienteOrigem));
+                    // as duas sessões já têm seus dados antes de qualquer uma transferir
+                    barreira.await();
+                    origem.transferir(InterfaceUsuario.getDadosTransacao());
+                } catch (Throwable ex) {
+                    erros.add(ex);
+                } finally {
+                    InterfaceUsuario.encerrarSessao();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(erros.isEmpty(), erros.toString());
+        assertEquals(900.0, origens[0].getSaldo(), 0.0001);
+        assertEquals(800.0, origens[1].getSaldo(), 0.0001);
+        assertEquals(300.0, contaDestino.getSaldo(), 0.0001);
+    }
+
     // início dos novos testes
     // obs: testes abaixo foram criados com ajuda de IA
     // com o intuito de preencher os 80% mínimo, sem sucesso
 
     @Test
-    public void pagarBoleto_MultaDeAtraso() throws TransacaoException{
+    public void pagarBoleto_MultaDeAtraso() throws TransacaoException, EscritaArquivoException{
 
-        conta.saldo = 1000.0;
+        conta.saldo = Dinheiro.centavos(1000.0);
 
         // mockando boleto
         Boleto boletoMock = mock(Boleto.class);
-        when(boletoMock.getValor()).thenReturn(100.0);
-        when(boletoMock.getMultaPorDias()).thenReturn(10.0); // multa diária
+        when(boletoMock.getValorCentavos()).thenReturn(10000L);
+        when(boletoMock.getMultaDiasCentavos()).thenReturn(1000L); // multa diária
 
         Data dataMock = mock(Data.class);
         when(dataMock.calcularIntervalo(any())).thenReturn(-2); // boleto com 2 dias de atraso
@@ -285,10 +373,10 @@ public class ContaTest {
 
             when(boletoMock.getContaOrigem()).thenReturn(origem);
             when(boletoMock.getContaDestino()).thenReturn(destino);
-            doNothing().when(destino).aumentarSaldo(anyDouble());
-            doNothing().when(destino).addHistorico(any());
+            doNothing().when(destino).aumentarSaldoCentavos(anyLong());
+            doNothing().when(destino).addHistorico(any(transacao.Transacao.class));
             doNothing().when(destino).addNotificacao(any(transacao.Transacao.class));
-            doNothing().when(origem).addHistorico(any());
+            doNothing().when(origem).addHistorico(any(transacao.Transacao.class));
 
             conta.pagarBoleto(boletoMock, mock(Cliente.class));
 
@@ -308,29 +396,29 @@ public class ContaTest {
     }
 
     @Test
-    public void setDinheiroGuardado_Guardar() {
+    public void setDinheiroGuardado_Guardar() throws EscritaArquivoException {
 
         conta.aumentarSaldo(500.0);
-        conta.setDinheiroGuardado(100.0, interfaceUsuario.menus.MenuUsuario.GUARDAR);
+        conta.setDinheiroGuardado(100.0, Conta.GUARDAR);
 
         assertEquals(400.0, conta.getSaldo());
         assertEquals(100.0, conta.getDinheiroGuardado());
     }
 
     @Test
-    public void setDinheiroGuardado_Resgatar() {
+    public void setDinheiroGuardado_Resgatar() throws EscritaArquivoException {
 
         conta.aumentarSaldo(500.0);
-        conta.setDinheiroGuardado(100.0, interfaceUsuario.menus.MenuUsuario.GUARDAR);
+        conta.setDinheiroGuardado(100.0, Conta.GUARDAR);
 
-        conta.setDinheiroGuardado(100.0, interfaceUsuario.menus.MenuUsuario.RESGATAR);
+        conta.setDinheiroGuardado(100.0, Conta.RESGATAR);
 
         assertEquals(500.0, conta.getSaldo());
         assertEquals(0.0, conta.getDinheiroGuardado());
     }
 
     @Test
-    public void modificarChavePix_DeveRetornarTrue() {
+    public void modificarChavePix_DeveRetornarTrue() throws EscritaArquivoException {
 
         // cria uma conta spy para podermos simular o comportamento de CHAVES_PIX
         Conta contaSpy = Mockito.spy(new Conta());
@@ -347,7 +435,7 @@ public class ContaTest {
         Mockito.doReturn(chaveMock).when(contaSpy).getChavesPix();
 
         // quando mudarAdicionarChavePix for chamado → retorna true
-        when(chaveMock.mudarAdicionarChavePix(anyString(), any())).thenReturn(true);
+        when(chaveMock.mudarAdicionarChavePix(anyString(), any(), any())).thenReturn(true);
 
         // agora precisamos simular o método estático InterfaceUsuario.getDadosChavePix()
         try (MockedStatic<interfaceUsuario.InterfaceUsuario> mockStatic =
@@ -357,7 +445,8 @@ public class ContaTest {
                     .thenReturn(dadosMock);
 
             // ação
-            boolean resultado = contaSpy.modificarChavePix();
+            boolean resultado = contaSpy.modificarChavePix(interfaceUsuario.InterfaceUsuario.getDadosChavePix(),
+                    mock(agencia.DiretorioPix.class));
 
             // verificação
             assertTrue(resultado);
@@ -385,7 +474,7 @@ public class ContaTest {
             mockInterface.when(interfaceUsuario.InterfaceUsuario::getDadosTransacao)
                     .thenReturn(dados);
 
-            contaOrigem.depositar();
+            contaOrigem.depositar(interfaceUsuario.InterfaceUsuario.getDadosTransacao());
 
             assertEquals(200.0, contaOrigem.getSaldo()); // valor na conta origem deve aumentar 200,00
         }
@@ -439,7 +528,7 @@ public class ContaTest {
                         .addTransacaoAgendadas(t);
 
                 // ação
-                transacao.Transacao resultado = contaSpy.agendarTransacao();
+                transacao.Transacao resultado = contaSpy.agendarTransacao(InterfaceUsuario.getDadosTransacao());
 
                 // verificação
                 assertEquals(t, resultado);
@@ -505,7 +594,7 @@ public class ContaTest {
             mockInterface.when(interfaceUsuario.InterfaceUsuario::getDadosTransacao).thenReturn(dados);
 
             // criando a transf real
-            transacao.Transacao transacao = contaOrigem.transferir();
+            transacao.Transacao transacao = contaOrigem.transferir(interfaceUsuario.InterfaceUsuario.getDadosTransacao());
 
             // validando integração
             assertNotNull(transacao, "Transacao deve ser criada com sucesso");
@@ -591,4 +680,30 @@ public class ContaTest {
 
     }
 
+    @Test
+    public void restaurarTransacaoRealizada_JaNoHistoricoDaOrigem_DeveRestaurarSoNoDestino() throws TransacaoException {
+        // cenário: o snapshot gravou a origem depois da transferência e o destino antes dela
+        Conta destino = new Conta();
+        transacao.Transacao transacao = mock(transacao.Transacao.class);
+        when(transacao.getNossoNumero()).thenReturn("123");
+        when(transacao.getContaOrigem()).thenReturn(conta);
+        when(transacao.getContaDestino()).thenReturn(destino);
+        conta.addHistorico(transacao);
+
+        conta.restaurarTransacaoRealizada(transacao);
+
+        assertEquals(1, conta.getHistorico().getTransacoes().size());
+        assertTrue(destino.getHistorico().contemTransacao("123"));
+        assertEquals(1, destino.getNotificacoes().size());
+    }
+
+    @Test
+    public void addTransacaoRealizada_Repetida_NaoDeveDuplicar() {
+        transacao.Transacao transacao = mock(transacao.Transacao.class);
+
+        assertTrue(conta.addTransacaoRealizada(transacao));
+        assertFalse(conta.addTransacaoRealizada(transacao), "A mesma transacao nao deve ser adicionada duas vezes");
+        assertEquals(1, conta.TRANSACOES_REALIZADAS.size());
+    }
+
 }
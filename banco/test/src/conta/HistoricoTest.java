@@ -2,9 +2,15 @@ package conta;
 
 import cartao.Fatura;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.ArquivoHistorico;
 import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -77,6 +83,160 @@ public class HistoricoTest {
         assertEquals(t1, h.getTransacoes().get(1));
     }
 
+    private static Transacao transacaoEm(String nossoNumero, String data) {
+        Transacao t = mock(Transacao.class);
+        when(t.getNossoNumero()).thenReturn(nossoNumero);
+        when(t.hasDataAgendada()).thenReturn(false);
+        when(t.getDataEmissaoTransacao()).thenReturn(DataBank.criarData(data, DataBank.COM_HORA));
+        return t;
+    }
+
+    @Test
+    public void adicionarTransacao_ForaDeOrdem_DeveListarDaMaisRecente() throws Exception {
+        Historico h = new Historico();
+        Transacao dia10 = transacaoEm("10", "10/03/2024 12:00:00");
+        Transacao dia12 = transacaoEm("12", "12/03/2024 12:00:00");
+        Transacao dia11 = transacaoEm("11", "11/03/2024 12:00:00");
+        Transacao dia09 = transacaoEm("09", "09/03/2024 12:00:00");
+        Transacao dia13 = transacaoEm("13", "13/03/2024 12:00:00");
+
+        for (Transacao t : List.of(dia10, dia12, dia11, dia09, dia13)) {
+            h.addTransacao(t);
+        }
+
+        assertEquals(List.of(dia13, dia12, dia11, dia10, dia09), h.getTransacoes());
+    }
+
+    @Test
+    public void adicionarTransacao_MesmoNossoNumero_DeveLancarExcecao() throws Exception {
+        Historico h = new Historico();
+        h.addTransacao(transacaoEm("123", "10/03/2024 12:00:00"));
+
+        assertThrows(TransacaoException.class, () -> h.addTransacao(transacaoEm("123", "11/03/2024 12:00:00")));
+        assertEquals(1, h.getTransacoes().size());
+        assertTrue(h.contemTransacao("123"));
+        assertFalse(h.contemTransacao("456"));
+    }
+
+    @Test
+    public void consultarTransacoes_Periodo_DeveRetornarPaginasDaMaisRecente() throws Exception {
+        Historico h = new Historico();
+        for (int dia = 1; dia <= 20; dia++) {
+            h.addTransacao(transacaoEm(String.valueOf(dia), String.format("%02d/03/2024 10:00:00", dia)));
+        }
+
+        CursorExtrato<Transacao> cursor = h.consultarTransacoes(DataBank.criarData("05/03/2024", DataBank.SEM_HORA),
+                DataBank.criarData("11/03/2024", DataBank.SEM_HORA), 3);
+
+        assertEquals(7, cursor.getTotal());
+        List<String> nossosNumeros = new java.util.ArrayList<>();
+        List<Integer> tamanhos = new java.util.ArrayList<>();
+        while (cursor.hasNext()) {
+            List<Transacao> pagina = cursor.next();
+            tamanhos.add(pagina.size());
+            for (Transacao t : pagina) {
+                nossosNumeros.add(t.getNossoNumero());
+            }
+        }
+        assertEquals(List.of(3, 3, 1), tamanhos);
+        assertEquals(List.of("11", "10", "9", "8", "7", "6", "5"), nossosNumeros);
+        assertThrows(java.util.NoSuchElementException.class, cursor::next);
+    }
+
+    @Test
+    public void consultarTransacoes_PeriodoSemTransacoes_DeveRetornarCursorVazio() throws Exception {
+        Historico h = new Historico();
+        h.addTransacao(transacaoEm("1", "01/03/2024 10:00:00"));
+        h.addTransacao(transacaoEm("2", "20/03/2024 10:00:00"));
+
+        CursorExtrato<Transacao> cursor = h.consultarTransacoes(DataBank.criarData("05/03/2024", DataBank.SEM_HORA),
+                DataBank.criarData("10/03/2024", DataBank.SEM_HORA), 10);
+
+        assertFalse(cursor.hasNext());
+        assertEquals(0, cursor.getTotal());
+    }
+
+    @Test
+    public void consultarFaturas_SemLimites_DeveRetornarTodasDaMaisRecente() {
+        Historico h = new Historico();
+        Fatura janeiro = mock(Fatura.class);
+        Fatura fevereiro = mock(Fatura.class);
+        when(janeiro.getDataPagamento()).thenReturn(DataBank.criarData("10/01/2024 09:00:00", DataBank.COM_HORA));
+        when(fevereiro.getDataPagamento()).thenReturn(DataBank.criarData("10/02/2024 09:00:00", DataBank.COM_HORA));
+        h.addFaturas(janeiro);
+        h.addFaturas(fevereiro);
+
+        CursorExtrato<Fatura> cursor = h.consultarFaturas(null, null, 5);
+
+        assertEquals(List.of(fevereiro, janeiro), cursor.next());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void arquivarAntesDe_DeveManterEmMemoriaSomenteAsRecentes(@TempDir Path pasta) throws Exception {
+        ArquivoHistorico.abrir(pasta.toString(), identificacao -> null);
+        try {
+            Historico h = new Historico("0042");
+            h.addTransacao(transacaoEm("1", "20/01/2024 10:00:00"));
+            h.addTransacao(transacaoEm("2", "05/02/2024 10:00:00"));
+            h.addTransacao(transacaoEm("3", "10/03/2024 10:00:00"));
+
+            int arquivadas = h.arquivarAntesDe(DataBank.criarData("01/03/2024", DataBank.SEM_HORA));
+
+            assertEquals(2, arquivadas);
+            assertEquals(1, h.getTransacoes().size());
+            assertEquals("3", h.getTransacoes().get(0).getNossoNumero());
+            assertEquals(List.of("2024-01", "2024-02"), ArquivoHistorico.getInstance().listarMeses("0042"));
+        } finally {
+            ArquivoHistorico.fechar();
+        }
+    }
+
+    @Test
+    public void consultarTransacoes_PeriodoArquivado_DeveLerDosSegmentos(@TempDir Path pasta) throws Exception {
+        ArquivoHistorico.abrir(pasta.toString(), identificacao -> null);
+        try {
+            Historico h = new Historico("0042");
+            h.addTransacao(transacaoEm("1", "20/01/2024 10:00:00"));
+            h.addTransacao(transacaoEm("2", "05/02/2024 10:00:00"));
+            h.addTransacao(transacaoEm("3", "10/03/2024 10:00:00"));
+            h.arquivarAntesDe(DataBank.criarData("01/03/2024", DataBank.SEM_HORA));
+
+            List<String> todas = new java.util.ArrayList<>();
+            for (Transacao t : h.consultarTransacoes(null, null, 10).next()) {
+                todas.add(t.getNossoNumero());
+            }
+            List<String> fevereiro = new java.util.ArrayList<>();
+            for (Transacao t : h.consultarTransacoes(DataBank.criarData("01/02/2024", DataBank.SEM_HORA),
+                    DataBank.criarData("29/02/2024", DataBank.SEM_HORA), 10).next()) {
+                fevereiro.add(t.getNossoNumero());
+            }
+
+            assertEquals(List.of("3", "2", "1"), todas);
+            assertEquals(List.of("2"), fevereiro);
+        } finally {
+            ArquivoHistorico.fechar();
+        }
+    }
+
+    @Test
+    public void arquivarAntesDe_MesmaTransacaoDuasVezes_NaoDeveDuplicarSegmento(@TempDir Path pasta) throws Exception {
+        ArquivoHistorico.abrir(pasta.toString(), identificacao -> null);
+        try {
+            Data limite = DataBank.criarData("01/03/2024", DataBank.SEM_HORA);
+            // simula uma queda depois de gravar o segmento e antes do snapshot: o histórico volta com a transação
+            for (int i = 0; i < 2; i++) {
+                Historico h = new Historico("0042");
+                h.addTransacao(transacaoEm("1", "20/01/2024 10:00:00"));
+                h.arquivarAntesDe(limite);
+            }
+
+            assertEquals(1, ArquivoHistorico.getInstance().ler("0042", "2024-01").size());
+        } finally {
+            ArquivoHistorico.fechar();
+        }
+    }
+
     @Test
     public void adicionarFatura_ComSucesso() {
         Historico h = new Historico();
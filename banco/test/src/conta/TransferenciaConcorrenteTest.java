@@ -0,0 +1,145 @@
+package conta;
+
+import cliente.Cliente;
+import interfaceUsuario.dados.DadosTransacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import transacao.exceptions.SaldoInsuficienteException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TransferenciaConcorrenteTest {
+    private static final int THREADS = 8;
+
+    private interface Tarefa {
+        void executar() throws Exception;
+    }
+
+    private static void executarEmParalelo(Tarefa tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                tarefa.executar();
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> resultado : resultados) {
+            resultado.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static long total(Conta[] contas) {
+        long total = 0;
+        for (Conta conta : contas) {
+            total += conta.getSaldoCentavos();
+        }
+        return total;
+    }
+
+    @Test
+    @Timeout(60)
+    public void movimentar_ParesAleatorios_DeveConservarDinheiro() throws Exception {
+        Conta[] contas = new Conta[8];
+        for (int i = 0; i < contas.length; i++) {
+            contas[i] = new ContaStandard();
+            contas[i].aumentarSaldo(1000.0);
+        }
+        long totalInicial = total(contas);
+
+        executarEmParalelo(() -> {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            for (int i = 0; i < 1_000_000; i++) {
+                Conta origem = contas[aleatorio.nextInt(contas.length)];
+                Conta destino = contas[aleatorio.nextInt(contas.length)];
+                try {
+                    Conta.movimentar(origem, destino, aleatorio.nextLong(1, 500));
+                } catch (SaldoInsuficienteException ex) {
+                    assertTrue(origem.getSaldoCentavos() >= 0);
+                }
+            }
+        });
+
+        assertEquals(totalInicial, total(contas));
+    }
+
+    @Test
+    @Timeout(60)
+    public void movimentar_SentidosOpostos_NaoDeveTravar() throws Exception {
+        Conta a = new ContaStandard();
+        Conta b = new ContaStandard();
+        // cada thread leva 7 centavos de a para b e traz de volta, então a sempre tem o suficiente
+        a.aumentarSaldo(THREADS * 0.07);
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                Conta.movimentar(a, b, 7);
+                Conta.movimentar(b, a, 7);
+            }
+        });
+
+        assertEquals(THREADS * 7, a.getSaldoCentavos());
+        assertEquals(0, b.getSaldoCentavos());
+    }
+
+    @Test
+    @Timeout(60)
+    public void transferir_SaldoParaPoucasTransferencias_NaoDeveFicarNegativo() throws Exception {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+        Cliente clienteOrigem = mock(Cliente.class);
+        Cliente clienteDestino = mock(Cliente.class);
+        when(clienteOrigem.getConta()).thenReturn(origem);
+        when(clienteDestino.getConta()).thenReturn(destino);
+        AtomicInteger realizadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < 20; i++) {
+                try {
+                    origem.transferir(new DadosTransacao(10.0, clienteDestino, clienteOrigem));
+                    realizadas.incrementAndGet();
+                } catch (SaldoInsuficienteException ex) {
+                    assertTrue(origem.getSaldoCentavos() >= 0);
+                }
+            }
+        });
+
+        assertEquals(10, realizadas.get());
+        assertEquals(0, origem.getSaldoCentavos());
+        assertEquals(10000, destino.getSaldoCentavos());
+        assertEquals(10, origem.getHistorico().getTransacoes().size());
+    }
+
+    @Test
+    @Timeout(60)
+    public void aumentarSaldo_MesmaConta_NaoDevePerderAtualizacoes() throws Exception {
+        ContaStandard conta = new ContaStandard();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < 50_000; i++) {
+                conta.aumentarSaldo(0.01);
+                conta.setDinheiroGuardado(0.01, Conta.GUARDAR);
+            }
+        });
+
+        assertEquals(0, conta.getSaldoCentavos());
+        assertEquals(THREADS * 50_000 / 100.0, conta.getDinheiroGuardado());
+    }
+}
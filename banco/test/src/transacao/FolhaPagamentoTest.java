@@ -0,0 +1,75 @@
+package transacao;
+
+import org.junit.jupiter.api.Test;
+import transacao.exceptions.TransacaoException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FolhaPagamentoTest {
+
+    private static String linhaLarguraFixa(String tipo, String chave, long centavos) {
+        return String.format("%-" + FolhaPagamento.TAMANHO_TIPO + "s%-" + FolhaPagamento.TAMANHO_CHAVE + "s%0"
+                + FolhaPagamento.TAMANHO_VALOR + "d", tipo, chave, centavos);
+    }
+
+    @Test
+    public void ler_Csv_DeveLerPagamentosEmCentavos() throws TransacaoException {
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(
+                "tipo;chave;valor",
+                "telefone;61999990000;1500.00",
+                "",
+                "# estagiario",
+                "email;ana@empresa.com;850,5"), FolhaPagamento.Formato.CSV);
+
+        assertEquals(2, folha.getPagamentos().size());
+        FolhaPagamento.Pagamento segundo = folha.getPagamentos().get(1);
+        assertEquals(5, segundo.getLinha());
+        assertEquals("email", segundo.getTipoChave());
+        assertEquals("ana@empresa.com", segundo.getChave());
+        assertEquals(85050, segundo.getValorCentavos());
+        assertEquals(235050, folha.getTotalCentavos());
+    }
+
+    @Test
+    public void ler_LarguraFixa_DeveLerPagamentos() throws TransacaoException {
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(
+                linhaLarguraFixa("identificacao", "12345678901", 312_499),
+                linhaLarguraFixa("telefone", "61999990000", 1)), FolhaPagamento.Formato.LARGURA_FIXA);
+
+        assertEquals(2, folha.getPagamentos().size());
+        assertEquals("12345678901", folha.getPagamentos().get(0).getChave());
+        assertEquals(312_500, folha.getTotalCentavos());
+    }
+
+    @Test
+    public void ler_LinhasInvalidas_DeveInformarTodas() {
+        TransacaoException ex = assertThrows(TransacaoException.class, () -> FolhaPagamento.ler(List.of(
+                "telefone;61999990000;100.00",
+                "cpf;12345678901;100.00",
+                "email;ana@empresa.com;-3",
+                "email;ana@empresa.com;1.005",
+                "telefone;61999990000"), FolhaPagamento.Formato.CSV));
+
+        assertFalse(ex.getMessage().contains("Linha 1:"));
+        assertTrue(ex.getMessage().contains("Linha 2: tipo de chave invalido"));
+        assertTrue(ex.getMessage().contains("Linha 3: valor deve ser maior que zero"));
+        assertTrue(ex.getMessage().contains("Linha 4: valor invalido"));
+        assertTrue(ex.getMessage().contains("Linha 5:"));
+    }
+
+    @Test
+    public void ler_LarguraFixaComTamanhoErrado_DeveLancar() {
+        String linha = linhaLarguraFixa("telefone", "61999990000", 100);
+
+        assertThrows(TransacaoException.class, () -> FolhaPagamento.ler(List.of(linha.substring(1)),
+                FolhaPagamento.Formato.LARGURA_FIXA));
+    }
+
+    @Test
+    public void ler_SemPagamentos_DeveLancar() {
+        assertThrows(TransacaoException.class, () -> FolhaPagamento.ler(List.of("tipo;chave;valor"),
+                FolhaPagamento.Formato.CSV));
+    }
+}
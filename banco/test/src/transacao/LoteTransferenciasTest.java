@@ -0,0 +1,136 @@
+package transacao;
+
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import conta.Conta;
+import conta.ContaStandard;
+import org.junit.jupiter.api.Test;
+import transacao.exceptions.LoteIncompletoException;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LoteTransferenciasTest {
+
+    private static Cliente cliente(String identificacao) {
+        Cliente cliente = mock(Cliente.class);
+        Conta conta = new ContaStandard();
+        when(cliente.getConta()).thenReturn(conta);
+        when(cliente.getIdentificacao()).thenReturn(identificacao);
+        when(cliente.getNome()).thenReturn("Cliente " + identificacao);
+        return cliente;
+    }
+
+    @Test
+    public void criar_ChavesRepetidas_DeveBuscarCadaChaveUmaVez() throws TransacaoException {
+        Cliente empresa = cliente("00000000000100");
+        Cliente ana = cliente("11111111111");
+        AtomicInteger buscas = new AtomicInteger();
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(
+                "telefone;61999990000;100.00",
+                "telefone;61999990000;50.00"), FolhaPagamento.Formato.CSV);
+
+        LoteTransferencias lote = LoteTransferencias.criar(empresa, folha, (tipo, chave) -> {
+            buscas.incrementAndGet();
+            return ana;
+        });
+
+        assertEquals(1, buscas.get());
+        assertEquals(2, lote.getItens().size());
+        assertSame(ana, lote.getItens().get(1).getClienteDestino());
+        assertNotEquals(lote.getItens().get(0).getNossoNumero(), lote.getItens().get(1).getNossoNumero());
+        assertEquals(15000, lote.getTotalCentavos());
+        assertTrue(lote.gerarComprovante().contains("TRANSFERENCIAS: 2\n"));
+    }
+
+    @Test
+    public void criar_ChaveNaoEncontrada_DeveInformarLinha() throws TransacaoException {
+        Cliente empresa = cliente("00000000000100");
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(
+                "telefone;61999990000;100.00",
+                "email;nao@existe.com;50.00"), FolhaPagamento.Formato.CSV);
+
+        TransacaoException ex = assertThrows(TransacaoException.class, () -> LoteTransferencias.criar(empresa, folha,
+                (tipo, chave) -> {
+                    if (tipo.equals("email")) {
+                        throw new BuscaException("Cliente nao encontrado");
+                    }
+                    return cliente("11111111111");
+                }));
+
+        assertTrue(ex.getMessage().contains("Linha 2: chave Pix nao encontrada"));
+        assertFalse(ex.getMessage().contains("Linha 1:"));
+    }
+
+    @Test
+    public void transferirLote_DeveDebitarSomaECreditarFavorecidos() throws TransacaoException, EscritaArquivoException {
+        Cliente empresa = cliente("00000000000100");
+        empresa.getConta().aumentarSaldo(1000.0);
+        Map<String, Cliente> funcionarios = new HashMap<>();
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            String telefone = String.format("619999900%02d", i);
+            funcionarios.put(telefone, cliente(String.format("%011d", i)));
+            csv.append("telefone;").append(telefone).append(";").append(i + 1).append(".00\n");
+        }
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(csv.toString().split("\n")), FolhaPagamento.Formato.CSV);
+        LoteTransferencias lote = LoteTransferencias.criar(empresa, folha, (tipo, chave) -> funcionarios.get(chave));
+
+        empresa.getConta().transferirLote(lote);
+
+        assertEquals(1000.0 - 210.0, empresa.getConta().getSaldo());
+        assertEquals(20, empresa.getConta().getHistorico().getTransacoes().size());
+        for (int i = 0; i < 20; i++) {
+            Conta conta = funcionarios.get(String.format("619999900%02d", i)).getConta();
+            assertEquals(i + 1.0, conta.getSaldo());
+            assertEquals(1, conta.getNotificacoes().size());
+        }
+    }
+
+    @Test
+    public void transferirLote_CreditoFalha_DeveEstornarEInformarPagos() throws TransacaoException {
+        Cliente empresa = cliente("00000000000100");
+        empresa.getConta().aumentarSaldo(1000.0);
+        Cliente ana = cliente("11111111111");
+        Cliente bia = cliente("22222222222");
+        FolhaPagamento folha = FolhaPagamento.ler(List.of(
+                "telefone;61999990000;100.00",
+                "telefone;61999990001;50.00"), FolhaPagamento.Formato.CSV);
+        LoteTransferencias lote = LoteTransferencias.criar(empresa, folha,
+                (tipo, chave) -> chave.endsWith("0") ? ana : bia);
+        // o crédito em ana falha por ela já ter o item no histórico
+        ana.getConta().addHistorico(lote.getItens().get(0));
+
+        LoteIncompletoException ex = assertThrows(LoteIncompletoException.class,
+                () -> empresa.getConta().transferirLote(lote));
+
+        assertEquals(List.of(lote.getItens().get(1)), ex.getRealizado().getItens());
+        assertEquals(5000, ex.getRealizado().getTotalCentavos());
+        assertEquals(1000.0 - 50.0, empresa.getConta().getSaldo());
+        assertEquals(List.of(lote.getItens().get(1)), empresa.getConta().getHistorico().getTransacoes());
+        assertEquals(0.0, ana.getConta().getSaldo());
+        assertEquals(50.0, bia.getConta().getSaldo());
+    }
+
+    @Test
+    public void transferirLote_SaldoInsuficiente_NaoDeveMovimentar() throws TransacaoException {
+        Cliente empresa = cliente("00000000000100");
+        empresa.getConta().aumentarSaldo(10.0);
+        Cliente ana = cliente("11111111111");
+        FolhaPagamento folha = FolhaPagamento.ler(List.of("telefone;61999990000;100.00"), FolhaPagamento.Formato.CSV);
+        LoteTransferencias lote = LoteTransferencias.criar(empresa, folha, (tipo, chave) -> ana);
+
+        assertThrows(TransacaoException.class, () -> empresa.getConta().transferirLote(lote));
+
+        assertEquals(10.0, empresa.getConta().getSaldo());
+        assertEquals(0.0, ana.getConta().getSaldo());
+        assertTrue(empresa.getConta().getHistorico().getTransacoes().isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+package transacao;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import conta.Conta;
+import conta.ContaStandard;
+import conta.RegistroOperacoes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ProcessamentoBoletosTest {
+    private Agencia agencia;
+    private Map<String, Boleto> boletos;
+    private List<Integer> lotesRegistrados;
+
+    private static Cliente cliente(String identificacao) {
+        Cliente cliente = mock(Cliente.class);
+        Conta conta = new ContaStandard();
+        when(cliente.getConta()).thenReturn(conta);
+        when(cliente.getIdentificacao()).thenReturn(identificacao);
+        return cliente;
+    }
+
+    private static BufferedReader arquivo(String... linhas) {
+        return new BufferedReader(new StringReader(String.join("\n", linhas)));
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        agencia = mock(Agencia.class);
+        boletos = new HashMap<>();
+        lotesRegistrados = new ArrayList<>();
+        doAnswer(chamada -> {
+            Boleto boleto = chamada.getArgument(0);
+            boletos.put(boleto.getNossoNumero(), boleto);
+            return null;
+        }).when(agencia).addBoleto(any());
+        doAnswer(chamada -> boletos.remove(((Boleto) chamada.getArgument(0)).getNossoNumero()))
+                .when(agencia).apagarBoleto(any());
+        when(agencia.buscarBoleto(anyString())).thenAnswer(chamada -> {
+            Boleto boleto = boletos.get((String) chamada.getArgument(0));
+            if (boleto == null) {
+                throw new BuscaException("Boleto nao encontrado");
+            }
+            return boleto;
+        });
+        doAnswer(chamada -> lotesRegistrados.add(((Collection<?>) chamada.getArgument(0)).size()))
+                .when(agencia).registrarBoletosEmitidos(any());
+        doAnswer(chamada -> lotesRegistrados.add(((Collection<?>) chamada.getArgument(0)).size()))
+                .when(agencia).registrarBoletosPagos(any());
+    }
+
+    @Test
+    public void remessa_DeveEmitirEmLotesEInformarLinhasInvalidas() throws IOException, EscritaArquivoException {
+        Cliente beneficiario = cliente("00000000000191");
+        List<String> linhas = new ArrayList<>();
+        linhas.add("valor;vencimento;multa");
+        for (int i = 0; i < ProcessamentoEmLotes.TAMANHO_LOTE + 10; i++) {
+            linhas.add("10,00;31/12/2099;0.50");
+        }
+        linhas.add("-1;31/12/2099;0");
+        linhas.add("10;30/02/2099;0");
+        linhas.add("10;31/12/2099");
+
+        RelatorioProcessamento relatorio = new RemessaBoletos(agencia, beneficiario)
+                .processar(arquivo(linhas.toArray(new String[0])), null);
+
+        assertEquals(ProcessamentoEmLotes.TAMANHO_LOTE + 10, relatorio.getProcessados());
+        assertEquals(ProcessamentoEmLotes.TAMANHO_LOTE + 10, boletos.size());
+        assertEquals(List.of(ProcessamentoEmLotes.TAMANHO_LOTE, 10), lotesRegistrados);
+        int primeiraInvalida = ProcessamentoEmLotes.TAMANHO_LOTE + 12;
+        assertEquals(List.of(
+                "Linha " + primeiraInvalida + ": valor deve ser maior que zero",
+                "Linha " + (primeiraInvalida + 1) + ": vencimento invalido",
+                "Linha " + (primeiraInvalida + 2) + ": esperados 3 campos separados por ';'"), relatorio.getErros());
+        Boleto boleto = boletos.values().iterator().next();
+        assertSame(beneficiario, boleto.getClienteDestino());
+        assertEquals(1000, boleto.getValorCentavos());
+        assertEquals(50, boleto.getMultaDiasCentavos());
+    }
+
+    @Test
+    public void remessa_JournalFalha_NaoDeveAdicionarBoletos() throws EscritaArquivoException {
+        doThrow(new EscritaArquivoException("Journal nao pode ser gravado")).when(agencia).registrarBoletosEmitidos(any());
+
+        assertThrows(EscritaArquivoException.class, () -> new RemessaBoletos(agencia, cliente("00000000000191"))
+                .processar(arquivo("10;31/12/2099;0"), null));
+
+        assertTrue(boletos.isEmpty());
+    }
+
+    @Test
+    public void retorno_DevePagarBoletosEmUmRegistroEInformarRecusados() throws Exception {
+        Cliente beneficiario = cliente("00000000000191");
+        Cliente pagador = cliente("11111111111");
+        pagador.getConta().aumentarSaldo(25.0);
+        RegistroOperacoes registro = mock(RegistroOperacoes.class);
+        pagador.getConta().iniciarRegistro(registro, "11111111111");
+        when(agencia.buscarClientePorChavePix("telefone", "61999990000")).thenReturn(pagador);
+        when(agencia.buscarClientePorChavePix("email", "nao@existe.com")).thenThrow(new BuscaException("Cliente nao encontrado"));
+        new RemessaBoletos(agencia, beneficiario).processar(arquivo("10;31/12/2099;0", "10;31/12/2099;0", "10;31/12/2099;0"), null);
+        List<String> numeros = new ArrayList<>(boletos.keySet());
+        lotesRegistrados.clear();
+
+        RelatorioProcessamento relatorio = new RetornoBoletos(agencia).processar(arquivo(
+                "nossoNumero;tipoChave;chave",
+                numeros.get(0) + ";telefone;61999990000",
+                numeros.get(0) + ";telefone;61999990000",
+                numeros.get(1) + ";email;nao@existe.com",
+                numeros.get(1) + ";telefone;61999990000",
+                numeros.get(2) + ";telefone;61999990000"), null);
+
+        assertEquals(2, relatorio.getProcessados());
+        assertEquals(List.of(
+                "Linha 3: Esse boleto ja foi pago",
+                "Linha 4: Cliente nao encontrado",
+                "Linha 6: Saldo insuficiente"), relatorio.getErros());
+        verify(registro, never()).registrarBoletoPago(any());
+        assertEquals(List.of(2), lotesRegistrados);
+        assertEquals(5.0, pagador.getConta().getSaldo());
+        assertEquals(20.0, beneficiario.getConta().getSaldo());
+        assertEquals(List.of(numeros.get(2)), new ArrayList<>(boletos.keySet()));
+        verify(agencia, times(1)).buscarClientePorChavePix("telefone", "61999990000");
+    }
+}
@@ -0,0 +1,77 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+import utilsBank.arquivo.codec.ContextoCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FiltroChavesTest {
+
+    @Test
+    public void adicionar_ChavesAdicionadas_DevemSerSempreEncontradas() {
+        FiltroChaves filtro = new FiltroChaves();
+        int quantidade = FiltroChaves.CAPACIDADE_INICIAL * 10;
+
+        for (int i = 0; i < quantidade; i++) {
+            assertTrue(filtro.adicionar("chave" + i));
+        }
+
+        for (int i = 0; i < quantidade; i++) {
+            assertTrue(filtro.contem("chave" + i));
+            assertFalse(filtro.adicionar("chave" + i));
+        }
+        assertEquals(quantidade, filtro.getQuantidade());
+    }
+
+    @Test
+    public void contem_ChavesNuncaAdicionadas_DeveTerPoucosFalsosPositivos() {
+        FiltroChaves filtro = new FiltroChaves();
+        for (int i = 0; i < 20000; i++) {
+            filtro.adicionar("gerada" + i);
+        }
+        int falsosPositivos = 0;
+
+        for (int i = 0; i < 100000; i++) {
+            if (filtro.contem("nova" + i)) {
+                falsosPositivos++;
+            }
+        }
+
+        assertTrue(falsosPositivos <= 2, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    public void getTamanhoEmBytes_DeveUsarPoucosBytesPorChave() {
+        FiltroChaves filtro = new FiltroChaves();
+        int quantidade = 100000;
+        for (int i = 0; i < quantidade; i++) {
+            filtro.adicionar(String.format("%025d", i));
+        }
+
+        assertTrue(filtro.getTamanhoEmBytes() / (double) quantidade < 8, "Bytes: " + filtro.getTamanhoEmBytes());
+    }
+
+    @Test
+    public void codec_DeveManterAsChavesDoFiltro() throws Exception {
+        FiltroChaves filtro = new FiltroChaves();
+        for (int i = 0; i < 3000; i++) {
+            filtro.adicionar("chave" + i);
+        }
+        CodecFiltroChaves codec = new CodecFiltroChaves();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.escrever(new DataOutputStream(bytes), filtro, new ContextoCodec());
+
+        FiltroChaves lido = codec.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), new ContextoCodec());
+
+        assertEquals(3000, lido.getQuantidade());
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(lido.contem("chave" + i));
+        }
+        assertTrue(lido.adicionar("outra"));
+    }
+}
@@ -0,0 +1,41 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeradorAleatorioTest {
+
+    @Test
+    public void chave_DeveTerTamanhoECaracteresDoAlfabeto() {
+        for (int i = 0; i < 1000; i++) {
+            String chave = GeradorAleatorio.chave(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
+
+            assertEquals(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA, chave.length());
+            for (char caractere : chave.toCharArray()) {
+                assertTrue(GeradorAleatorio.ALFABETO_CHAVE.indexOf(caractere) >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void chave_MaiorQueOBuffer_DeveSerGeradaInteira() {
+        String chave = GeradorAleatorio.chave(1000);
+
+        assertEquals(1000, chave.length());
+    }
+
+    @Test
+    public void numeros_DigitosDevemSerDistribuidosUniformemente() {
+        int[] contagem = new int[10];
+        int quantidade = 100000;
+
+        for (char digito : GeradorAleatorio.numeros(quantidade).toCharArray()) {
+            contagem[digito - '0']++;
+        }
+
+        for (int vezes : contagem) {
+            assertEquals(quantidade / 10.0, vezes, quantidade * 0.01);
+        }
+    }
+}
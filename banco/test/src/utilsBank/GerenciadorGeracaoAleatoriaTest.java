@@ -0,0 +1,40 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GerenciadorGeracaoAleatoriaTest {
+    @TempDir
+    Path pasta;
+
+    @Test
+    public void lerIndicePermutacao_SemIndiceGravado_DeveComecarDoZero() {
+        String conjunto = pasta.resolve("chaves.dat").toString();
+
+        assertEquals(0, GerenciadorGeracaoAleatoria.lerIndicePermutacao(conjunto, 4));
+    }
+
+    @Test
+    public void salvandoIndicePermutacao_DeveGravarAoLadoDoLog() {
+        String conjunto = pasta.resolve("chaves.dat").toString();
+
+        GerenciadorGeracaoAleatoria.salvandoIndicePermutacao(conjunto, 4, 1234);
+
+        assertTrue(Files.exists(pasta.resolve("chaves.indice")));
+        assertEquals(1234, GerenciadorGeracaoAleatoria.lerIndicePermutacao(conjunto, 4));
+    }
+
+    @Test
+    public void lerIndicePermutacao_OutraQuantidadeDeDigitos_DeveComecarDoZero() {
+        String conjunto = pasta.resolve("chaves.dat").toString();
+
+        GerenciadorGeracaoAleatoria.salvandoIndicePermutacao(conjunto, 4, 1234);
+
+        assertEquals(0, GerenciadorGeracaoAleatoria.lerIndicePermutacao(conjunto, 5));
+    }
+}
@@ -0,0 +1,59 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PermutacaoDecimalTest {
+
+    @Test
+    public void permutar_QuatroDigitos_DeveGerarTodosOsIdsSemRepetir() {
+        PermutacaoDecimal permutacao = new PermutacaoDecimal(4, 42L);
+        Set<String> gerados = new HashSet<>();
+
+        for (long i = 0; i < permutacao.getCapacidade(); i++) {
+            String id = permutacao.permutar(i);
+            assertEquals(4, id.length());
+            assertTrue(gerados.add(id));
+        }
+
+        assertEquals(10000, gerados.size());
+    }
+
+    @Test
+    public void permutar_IndicesSeguidos_NaoDevemGerarNumerosSeguidos() {
+        PermutacaoDecimal permutacao = new PermutacaoDecimal(12, 7L);
+        int seguidos = 0;
+
+        for (long i = 0; i < 100; i++) {
+            long atual = Long.parseLong(permutacao.permutar(i));
+            long proximo = Long.parseLong(permutacao.permutar(i + 1));
+            if (Math.abs(proximo - atual) == 1) {
+                seguidos++;
+            }
+        }
+
+        assertEquals(0, seguidos);
+    }
+
+    @Test
+    public void permutar_MesmaChave_DeveSerDeterministica() {
+        PermutacaoDecimal permutacao = new PermutacaoDecimal(25, 99L);
+        PermutacaoDecimal outra = new PermutacaoDecimal(25, 99L);
+
+        assertEquals(permutacao.permutar(123), outra.permutar(123));
+        assertEquals(25, permutacao.permutar(123).length());
+        assertEquals(Long.MAX_VALUE, permutacao.getCapacidade());
+    }
+
+    @Test
+    public void permutar_IndiceForaDaCapacidade_DeveLancarExcecao() {
+        PermutacaoDecimal permutacao = new PermutacaoDecimal(4, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> permutacao.permutar(10000));
+        assertThrows(IllegalArgumentException.class, () -> permutacao.permutar(-1));
+    }
+}
@@ -0,0 +1,61 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerificadorDiarioTest {
+    private static final int[] SEM_HORA = {DataBank.SEM_HORA};
+
+    private static class VerificadorRegistrando extends VerificadorDiario {
+        private final List<String> diasProcessados = new ArrayList<>();
+
+        VerificadorRegistrando(Data ultimaAtualizacao) {
+            super(ultimaAtualizacao);
+        }
+
+        @Override
+        void atualizarDia(Data dia) {
+            diasProcessados.add(dia.toString(SEM_HORA));
+        }
+    }
+
+    @Test
+    public void atualizarAte_DiasPerdidos_DeveProcessarCadaDiaEmOrdem() throws EscritaArquivoException {
+        VerificadorRegistrando verificador = new VerificadorRegistrando(DataBank.criarData("30/01/2024", DataBank.SEM_HORA));
+
+        int dias = verificador.atualizarAte(DataBank.criarData("02/02/2024", DataBank.SEM_HORA));
+
+        assertEquals(3, dias);
+        assertEquals(List.of("31/01/2024", "01/02/2024", "02/02/2024"), verificador.diasProcessados);
+        assertEquals("02/02/2024", verificador.getUltimaAtualizacao().toString(SEM_HORA));
+    }
+
+    @Test
+    public void atualizarAte_MesmoDia_NaoDeveProcessar() throws EscritaArquivoException {
+        VerificadorRegistrando verificador = new VerificadorRegistrando(DataBank.criarData(DataBank.SEM_HORA));
+
+        int dias = verificador.atualizarAte(DataBank.criarData(DataBank.SEM_HORA));
+
+        assertEquals(0, dias);
+        assertTrue(verificador.diasProcessados.isEmpty());
+    }
+
+    @Test
+    public void atualizarAte_ChamadoDuasVezes_NaoDeveRepetirDias() throws EscritaArquivoException {
+        VerificadorRegistrando verificador = new VerificadorRegistrando(DataBank.criarData("10/05/2024", DataBank.SEM_HORA));
+        Data dataAtual = DataBank.criarData("12/05/2024", DataBank.SEM_HORA);
+
+        verificador.atualizarAte(dataAtual);
+        int dias = verificador.atualizarAte(dataAtual);
+
+        assertEquals(0, dias);
+        assertEquals(List.of("11/05/2024", "12/05/2024"), verificador.diasProcessados);
+    }
+}
@@ -0,0 +1,153 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transacao.Transacao;
+import utilsBank.arquivo.codec.ContextoCodec;
+import utilsBank.arquivo.codec.Esquema;
+
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversorLegadoTest {
+    @TempDir
+    Path pasta;
+
+    /**
+     * Grava os espelhos com os nomes das classes antigas, como o ObjectOutputStream gravava antes dos codecs
+     */
+    private static class SaidaComNomesAntigos extends ObjectOutputStream {
+        private static final Map<Class<?>, String> NOMES = new HashMap<>();
+
+        static {
+            ConversorLegado.CLASSES_ANTIGAS.forEach((nome, espelho) -> NOMES.put(espelho, nome));
+        }
+
+        SaidaComNomesAntigos(OutputStream saida) throws IOException {
+            super(saida);
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descricao) throws IOException {
+            String nome = NOMES.get(descricao.forClass());
+            if (nome == null) {
+                super.writeClassDescriptor(descricao);
+                return;
+            }
+            writeUTF(nome);
+            writeLong(descricao.getSerialVersionUID());
+            writeByte(ObjectStreamConstants.SC_SERIALIZABLE);
+            writeShort(descricao.getFields().length);
+            for (ObjectStreamField campo : descricao.getFields()) {
+                writeByte(campo.getTypeCode());
+                writeUTF(campo.getName());
+                if (!campo.isPrimitive()) {
+                    writeObject(campo.getTypeString());
+                }
+            }
+        }
+    }
+
+    private static ConversorLegado.Data data(int dia, int mes, int ano) {
+        ConversorLegado.Data data = new ConversorLegado.Data();
+        data.CALENDAR = Calendar.getInstance();
+        data.CALENDAR.set(ano, mes - 1, dia, 0, 0, 0);
+        data.dia = dia;
+        data.mes = mes;
+        data.ano = ano;
+        return data;
+    }
+
+    private static ConversorLegado.ClientePessoa pessoa(String cpf, String idConta, double saldo) {
+        ConversorLegado.ClientePessoa cliente = new ConversorLegado.ClientePessoa();
+        cliente.CPF = cpf;
+        cliente.NOME = "Cliente " + cpf;
+        cliente.senha = "senha";
+        cliente.renda = 3000.0;
+        ConversorLegado.Conta conta = new ConversorLegado.ContaStandard();
+        conta.ID_CONTA = idConta;
+        conta.TRANSACOES_REALIZADAS = new ArrayList<>();
+        conta.TRANSACOES_AGENDADAS = new ArrayList<>();
+        conta.HISTORICO = new ConversorLegado.Historico();
+        conta.HISTORICO.TRANSACOES = new ArrayList<>();
+        conta.HISTORICO.FATURAS = new ArrayList<>();
+        conta.CARTEIRA = new ConversorLegado.GerenciamentoCartao();
+        conta.CARTEIRA.LISTA_DE_CARTOES = new ArrayList<>();
+        conta.CARTEIRA.limiteUsado = 0.0;
+        conta.CHAVES_PIX = new ConversorLegado.ChavePix();
+        conta.CHAVES_PIX.identificacao = cpf;
+        conta.saldo = saldo;
+        cliente.conta = conta;
+        return cliente;
+    }
+
+    private void gravarSerializado(Path arquivo, Object objeto) throws IOException {
+        try (ObjectOutputStream saida = new SaidaComNomesAntigos(new FileOutputStream(arquivo.toFile()))) {
+            saida.writeObject(objeto);
+        }
+    }
+
+    @Test
+    public void listarSet_ArquivoSerializado_DeveConverterUmaVezMantendoTransacoesCompartilhadas() throws IOException {
+        ConversorLegado.ClientePessoa origem = pessoa("12345678901", "0042", 150.5);
+        ConversorLegado.ClientePessoa destino = pessoa("10987654321", "0043", 20.0);
+        ConversorLegado.Transacao transferencia = new ConversorLegado.Transacao();
+        transferencia.VALOR = 49.9;
+        transferencia.NOSSO_NUMERO = "2151331870183302960930263";
+        transferencia.origem = origem;
+        transferencia.DESTINO = destino;
+        transferencia.dataEmissaoTransacao = data(9, 7, 2022);
+        origem.conta.TRANSACOES_REALIZADAS.add(transferencia);
+        origem.conta.HISTORICO.TRANSACOES.add(transferencia);
+        destino.conta.HISTORICO.TRANSACOES.add(transferencia);
+        Path arquivo = pasta.resolve("clientes.dat");
+        gravarSerializado(arquivo, new HashSet<>(List.of(origem, destino)));
+
+        Set<Cliente> clientes = GerenciadorArquivo.listarSet(arquivo.toString(), new ContextoCodec());
+
+        Map<String, Cliente> porIdentificacao = new HashMap<>();
+        clientes.forEach(cliente -> porIdentificacao.put(cliente.getIdentificacao(), cliente));
+        Cliente ana = porIdentificacao.get("12345678901");
+        Cliente bia = porIdentificacao.get("10987654321");
+        assertEquals(2, clientes.size());
+        assertEquals(150.5, ana.getConta().getSaldo());
+        assertEquals("12345678901", ana.getConta().getChavesPix().getIdentificacao());
+        Transacao lida = ana.getConta().getHistorico().getTransacoes().get(0);
+        assertSame(lida, bia.getConta().getHistorico().getTransacoes().get(0));
+        assertSame(bia, lida.getClienteDestino());
+        assertEquals(4990, lida.getValorCentavos());
+        try (DataInputStream convertido = new DataInputStream(new FileInputStream(arquivo.toFile()))) {
+            assertEquals(Esquema.MAGICO, convertido.readInt());
+        }
+        assertTrue(Files.exists(pasta.resolve("clientes.dat" + GerenciadorArquivo.SUFIXO_SERIALIZADO)));
+        assertEquals(2, GerenciadorArquivo.listarSet(arquivo.toString(), new ContextoCodec()).size());
+    }
+
+    @Test
+    public void listarSetGeracaoAleatoria_ArquivoSerializado_DeveLerAsChaves() throws IOException {
+        Path arquivo = pasta.resolve("chaves_id_conta.dat");
+        gravarSerializado(arquivo, new HashSet<>(List.of("9931", "8072")));
+
+        assertEquals(Set.of("9931", "8072"), GerenciadorArquivo.listarSetGeracaoAleatoria(arquivo.toString()));
+        assertEquals(Set.of("9931", "8072"), GerenciadorArquivo.listarSetGeracaoAleatoria(arquivo.toString()));
+    }
+}
@@ -0,0 +1,104 @@
+package utilsBank.arquivo;
+
+import conta.Conta;
+import conta.ContaStandard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LivroSaldosTest {
+    @TempDir
+    Path pasta;
+
+    @AfterEach
+    public void tearDown() {
+        LivroSaldos.fechar();
+    }
+
+    @Test
+    public void ler_DepoisDeReabrir_DeveRetornarValorGravado() {
+        String arquivo = pasta.resolve("saldos.dat").toString();
+        LivroSaldos livro = LivroSaldos.abrir(arquivo);
+        livro.gravar("0042", LivroSaldos.Campo.SALDO, 15050, 1);
+        livro.gravar("0042", LivroSaldos.Campo.EMPRESTIMO, 3000, 2);
+        LivroSaldos.fechar();
+
+        LivroSaldos reaberto = LivroSaldos.abrir(arquivo);
+
+        assertTrue(reaberto.contem("0042"));
+        assertEquals(15050, reaberto.ler("0042", LivroSaldos.Campo.SALDO));
+        assertEquals(3000, reaberto.ler("0042", LivroSaldos.Campo.EMPRESTIMO));
+        assertEquals(0, reaberto.ler("0042", LivroSaldos.Campo.DINHEIRO_GUARDADO));
+        assertEquals(2, reaberto.lerSequencia("0042"));
+    }
+
+    @Test
+    public void contem_ContaSemValores_DeveRetornarFalse() {
+        LivroSaldos livro = LivroSaldos.abrir(pasta.resolve("saldos.dat").toString());
+        livro.gravar("0042", LivroSaldos.Campo.SALDO, 1000, 1);
+
+        assertFalse(livro.contem("0043"));
+        assertFalse(livro.contem("abc"));
+        assertFalse(livro.contem("123456"));
+    }
+
+    @Test
+    public void aumentarSaldo_ComLivroAberto_DeveGravarNaPosicaoDaConta() throws EscritaArquivoException {
+        LivroSaldos livro = LivroSaldos.abrir(pasta.resolve("saldos.dat").toString());
+        Conta conta = new ContaStandard();
+
+        conta.aumentarSaldo(200.0);
+        conta.criarEmprestimo(100.0, 4);
+
+        assertEquals(30000, livro.ler(conta.getIdConta(), LivroSaldos.Campo.SALDO));
+        assertEquals(10000, livro.ler(conta.getIdConta(), LivroSaldos.Campo.EMPRESTIMO));
+        assertEquals(2500, livro.ler(conta.getIdConta(), LivroSaldos.Campo.PARCELA_EMPRESTIMO));
+    }
+
+    @Test
+    public void sincronizarLivroSaldos_LivroMaisNovo_DeveUsarValoresDoLivro() {
+        LivroSaldos livro = LivroSaldos.abrir(pasta.resolve("saldos.dat").toString());
+        Conta conta = new ContaStandard();
+        livro.gravar(conta.getIdConta(), LivroSaldos.Campo.SALDO, 7500, 1);
+        livro.gravar(conta.getIdConta(), LivroSaldos.Campo.DINHEIRO_GUARDADO, 500, 2);
+
+        conta.sincronizarLivroSaldos(livro);
+
+        assertEquals(75.0, conta.getSaldo());
+        assertEquals(5.0, conta.getDinheiroGuardado());
+    }
+
+    @Test
+    public void sincronizarLivroSaldos_LivroAtrasado_DeveManterValoresDaContaERegravarLivro() {
+        LivroSaldos livro = LivroSaldos.abrir(pasta.resolve("saldos.dat").toString());
+        Conta conta = new ContaStandard();
+        livro.gravar(conta.getIdConta(), LivroSaldos.Campo.SALDO, 7500, 1);
+        LivroSaldos.fechar();
+        conta.aumentarSaldo(100.0);
+        conta.aumentarSaldo(20.0);
+        LivroSaldos reaberto = LivroSaldos.abrir(pasta.resolve("saldos.dat").toString());
+
+        conta.sincronizarLivroSaldos(reaberto);
+
+        assertEquals(120.0, conta.getSaldo());
+        assertEquals(12000, reaberto.ler(conta.getIdConta(), LivroSaldos.Campo.SALDO));
+        assertEquals(2, reaberto.lerSequencia(conta.getIdConta()));
+    }
+
+    @Test
+    public void abrir_ArquivoDeOutroFormato_DeveLancarExcecao() throws Exception {
+        Path arquivo = pasta.resolve("saldos.dat");
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            acesso.writeInt(0xCAFEBABE);
+        }
+
+        assertThrows(LeituraArquivoException.class, () -> LivroSaldos.abrir(arquivo.toString()));
+    }
+}
@@ -0,0 +1,67 @@
+package utilsBank.arquivo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogChavesTest {
+    @TempDir
+    Path pasta;
+
+    @Test
+    public void ler_DeveDevolverChavesNaOrdemRegistrada() throws Exception {
+        String arquivo = pasta.resolve("chaves.log").toString();
+        LogChaves log = new LogChaves(arquivo);
+        log.registrar("123");
+        log.registrar("abc");
+        log.fechar();
+
+        LogChaves reaberto = new LogChaves(arquivo);
+
+        assertEquals(List.of("123", "abc"), reaberto.ler());
+        reaberto.fechar();
+    }
+
+    @Test
+    public void ler_ChaveIncompleta_DeveDescartarFimDoArquivo() throws Exception {
+        Path arquivo = pasta.resolve("chaves.log");
+        LogChaves log = new LogChaves(arquivo.toString());
+        log.registrar("123");
+        log.registrar("456");
+        log.fechar();
+        long tamanho = Files.size(arquivo);
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            acesso.setLength(tamanho - 1);
+        }
+
+        LogChaves reaberto = new LogChaves(arquivo.toString());
+
+        assertEquals(List.of("123"), reaberto.ler());
+        reaberto.registrar("789");
+        reaberto.fechar();
+        LogChaves relido = new LogChaves(arquivo.toString());
+        assertEquals(List.of("123", "789"), relido.ler());
+        relido.fechar();
+    }
+
+    @Test
+    public void reiniciar_DeveEsvaziarLog() throws Exception {
+        String arquivo = pasta.resolve("chaves.log").toString();
+        LogChaves log = new LogChaves(arquivo);
+        log.registrar("123");
+        log.reiniciar();
+        log.registrar("456");
+        log.fechar();
+
+        LogChaves reaberto = new LogChaves(arquivo);
+
+        assertEquals(List.of("456"), reaberto.ler());
+        reaberto.fechar();
+    }
+}
@@ -0,0 +1,211 @@
+package utilsBank.arquivo.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+    @TempDir
+    Path pasta;
+
+    private static byte[] texto(String valor) {
+        return valor.getBytes();
+    }
+
+    private static List<String> reproduzir(Journal journal) throws Exception {
+        List<String> lidos = new ArrayList<>();
+        journal.reproduzir((tipo, dados) -> lidos.add(tipo + ":" + new String(dados.readAllBytes())));
+        return lidos;
+    }
+
+    @Test
+    public void reproduzir_DeveAplicarRegistrosNaOrdemGravada() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.CLIENTE_NOVO, texto("ana"));
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.fechar();
+
+        Journal reaberto = new Journal(arquivo);
+
+        assertEquals(List.of("CLIENTE_NOVO:ana", "TRANSACAO:t1"), reproduzir(reaberto));
+        assertEquals(2, reaberto.getQuantidadeRegistros());
+        reaberto.fechar();
+    }
+
+    @Test
+    public void reproduzir_RegistroIncompleto_DeveDescartarFimDoArquivo() throws Exception {
+        Path arquivo = pasta.resolve("journal.dat");
+        Journal journal = new Journal(arquivo.toString());
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t2"));
+        journal.fechar();
+        long tamanho = Files.size(arquivo);
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            acesso.setLength(tamanho - 2);
+        }
+
+        Journal reaberto = new Journal(arquivo.toString());
+
+        assertEquals(List.of("TRANSACAO:t1"), reproduzir(reaberto));
+        reaberto.registrar(TipoRegistro.TRANSACAO, texto("t3"));
+        reaberto.fechar();
+        assertEquals(List.of("TRANSACAO:t1", "TRANSACAO:t3"), reproduzir(new Journal(arquivo.toString())));
+    }
+
+    @Test
+    public void reproduzir_RegistroCorrompido_DevePararNoRegistroInvalido() throws Exception {
+        Path arquivo = pasta.resolve("journal.dat");
+        Journal journal = new Journal(arquivo.toString());
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t2"));
+        journal.fechar();
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            acesso.seek(Files.size(arquivo) - 6);
+            acesso.write('x');
+        }
+
+        assertEquals(List.of("TRANSACAO:t1"), reproduzir(new Journal(arquivo.toString())));
+    }
+
+    @Test
+    public void reproduzir_ErroAoAplicar_DeveContinuarNosProximos() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.BOLETO_PAGO, texto("b1"));
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.fechar();
+
+        List<String> lidos = new ArrayList<>();
+        int aplicados = new Journal(arquivo).reproduzir((tipo, dados) -> {
+            if (tipo == TipoRegistro.BOLETO_PAGO) {
+                throw new IOException("Boleto inexistente");
+            }
+            lidos.add(tipo + ":" + new String(dados.readAllBytes()));
+        });
+
+        assertEquals(1, aplicados);
+        assertEquals(List.of("TRANSACAO:t1"), lidos);
+    }
+
+    @Test
+    public void reproduzir_ErroAoAplicar_DeveGuardarRegistroEmQuarentenaEManterAnterior() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.BOLETO_PAGO, texto("b1"));
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.fechar();
+        Journal reaberto = new Journal(arquivo);
+        reaberto.reproduzir((tipo, dados) -> {
+            if (tipo == TipoRegistro.BOLETO_PAGO) {
+                throw new IOException("Boleto inexistente");
+            }
+        });
+
+        reaberto.rotacionar();
+        reaberto.descartarAnterior();
+
+        assertTrue(reaberto.possuiQuarentena());
+        assertTrue(Files.exists(pasta.resolve("journal.dat.anterior")));
+        assertThrows(EscritaArquivoException.class, reaberto::reiniciar);
+        reaberto.fechar();
+        assertEquals(List.of("BOLETO_PAGO:b1"), reproduzir(new Journal(pasta.resolve("journal.dat.quarentena").toString())));
+
+        Journal corrigido = new Journal(arquivo);
+        assertEquals(List.of("BOLETO_PAGO:b1", "TRANSACAO:t1"), reproduzir(corrigido));
+        assertFalse(corrigido.possuiQuarentena());
+        corrigido.rotacionar();
+        corrigido.descartarAnterior();
+        assertFalse(Files.exists(pasta.resolve("journal.dat.anterior")));
+        corrigido.fechar();
+    }
+
+    @Test
+    public void liberarQuarentena_DevePermitirDescartarAnterior() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.BOLETO_PAGO, texto("b1"));
+        journal.fechar();
+        Journal reaberto = new Journal(arquivo);
+        reaberto.reproduzir((tipo, dados) -> {
+            throw new IOException("Boleto inexistente");
+        });
+        reaberto.rotacionar();
+
+        reaberto.liberarQuarentena();
+        reaberto.descartarAnterior();
+
+        assertFalse(reaberto.possuiQuarentena());
+        assertFalse(Files.exists(pasta.resolve("journal.dat.anterior")));
+        reaberto.fechar();
+    }
+
+    @Test
+    public void reiniciar_DeveEsvaziarJournal() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.ESTADO_CONTA, texto("ana"));
+
+        journal.reiniciar();
+
+        assertEquals(0, journal.getQuantidadeRegistros());
+        journal.fechar();
+        assertTrue(reproduzir(new Journal(arquivo)).isEmpty());
+    }
+
+    @Test
+    public void rotacionar_SemDescartar_DeveReproduzirAnteriorAntesDoAtual() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+
+        journal.rotacionar();
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t2"));
+
+        assertEquals(1, journal.getQuantidadeRegistros());
+        journal.fechar();
+        Journal reaberto = new Journal(arquivo);
+        assertEquals(List.of("TRANSACAO:t1", "TRANSACAO:t2"), reproduzir(reaberto));
+        assertEquals(2, reaberto.getQuantidadeRegistros());
+        reaberto.fechar();
+    }
+
+    @Test
+    public void descartarAnterior_DeveManterSoRegistrosDepoisDaRotacao() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.rotacionar();
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t2"));
+
+        journal.descartarAnterior();
+
+        journal.fechar();
+        assertFalse(Files.exists(pasta.resolve("journal.dat.anterior")));
+        assertEquals(List.of("TRANSACAO:t2"), reproduzir(new Journal(arquivo)));
+    }
+
+    @Test
+    public void rotacionar_AnteriorNaoDescartado_DeveAcrescentarAoAnterior() throws Exception {
+        String arquivo = pasta.resolve("journal.dat").toString();
+        Journal journal = new Journal(arquivo);
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t1"));
+        journal.rotacionar();
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t2"));
+
+        journal.rotacionar();
+        journal.registrar(TipoRegistro.TRANSACAO, texto("t3"));
+
+        journal.fechar();
+        assertEquals(List.of("TRANSACAO:t1", "TRANSACAO:t2", "TRANSACAO:t3"), reproduzir(new Journal(arquivo)));
+    }
+}
@@ -0,0 +1,77 @@
+package utilsBank.cache;
+
+import conta.Conta;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CacheMovimentacoesTest {
+
+    private static Conta conta(boolean descarrega) {
+        Conta conta = mock(Conta.class);
+        when(conta.descarregarMovimentacoes()).thenReturn(descarrega);
+        when(conta.getPesoMovimentacoes()).thenReturn(10L);
+        return conta;
+    }
+
+    @Test
+    public void despejarExcedentes_DeveDespejarNaOrdemDaPolitica() {
+        CacheMovimentacoes cache = new CacheMovimentacoes(2, Long.MAX_VALUE, new PoliticaLRU<>());
+        Conta antiga = conta(true);
+        Conta media = conta(true);
+        Conta recente = conta(true);
+        cache.registrarCarga(antiga);
+        cache.registrarCarga(media);
+        cache.registrarCarga(recente);
+
+        assertEquals(1, cache.despejarExcedentes());
+
+        verify(antiga).descarregarMovimentacoes();
+        verify(media, never()).descarregarMovimentacoes();
+        assertEquals(2, cache.getQuantidade());
+        assertEquals(1, cache.getDespejos());
+    }
+
+    @Test
+    public void despejarExcedentes_ContaAlteradaDepoisDoSnapshot_DevePularParaAProxima() {
+        CacheMovimentacoes cache = new CacheMovimentacoes(2, Long.MAX_VALUE, new PoliticaLRU<>());
+        Conta alterada = conta(false);
+        Conta limpa = conta(true);
+        Conta recente = conta(true);
+        cache.adicionar(alterada);
+        cache.adicionar(limpa);
+        cache.adicionar(recente);
+
+        assertEquals(1, cache.despejarExcedentes());
+
+        verify(limpa).descarregarMovimentacoes();
+        verify(recente, never()).descarregarMovimentacoes();
+        assertEquals(2, cache.getQuantidade());
+    }
+
+    @Test
+    public void despejarExcedentes_PesoMaximo_DeveDespejarAteCaberNoPeso() {
+        CacheMovimentacoes cache = new CacheMovimentacoes(10, 15, new PoliticaLRU<>());
+        cache.adicionar(conta(true));
+        cache.adicionar(conta(true));
+        cache.adicionar(conta(true));
+
+        assertEquals(2, cache.despejarExcedentes());
+        assertEquals(1, cache.getQuantidade());
+    }
+
+    @Test
+    public void acessar_DeveContarAcertosSomenteDasContasEmMemoria() {
+        CacheMovimentacoes cache = new CacheMovimentacoes(10, Long.MAX_VALUE, new PoliticaTinyLFU<>(10));
+        Conta carregada = conta(true);
+        Conta noArquivo = conta(true);
+        cache.registrarCarga(carregada);
+
+        cache.acessar(carregada);
+        cache.acessar(noArquivo);
+
+        assertEquals(1, cache.getAcertos());
+        assertEquals(1, cache.getFaltas());
+    }
+}
@@ -0,0 +1,71 @@
+package utilsBank.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoliticaDespejoTest {
+
+    @Test
+    public void lru_DeveDespejarPrimeiroAUsadaHaMaisTempo() {
+        PoliticaLRU<String> politica = new PoliticaLRU<>();
+        politica.inserir("a");
+        politica.inserir("b");
+        politica.inserir("c");
+
+        politica.registrarAcesso("a");
+
+        assertEquals(List.of("b", "c", "a"), politica.ordemDeDespejo());
+    }
+
+    @Test
+    public void lru_AcessoDeChaveForaDaMemoria_NaoDeveInserir() {
+        PoliticaLRU<String> politica = new PoliticaLRU<>();
+        politica.inserir("a");
+
+        politica.registrarAcesso("b");
+        politica.remover("a");
+
+        assertTrue(politica.ordemDeDespejo().isEmpty());
+    }
+
+    @Test
+    public void tinyLfu_Varredura_NaoDeveTirarAsChavesFrequentes() {
+        PoliticaTinyLFU<String> politica = new PoliticaTinyLFU<>(10);
+        for (int i = 0; i < 10; i++) {
+            politica.inserir("frequente" + i);
+        }
+        for (int acesso = 0; acesso < 5; acesso++) {
+            for (int i = 0; i < 10; i++) {
+                politica.registrarAcesso("frequente" + i);
+            }
+        }
+
+        for (int i = 0; i < 20; i++) {
+            politica.inserir("varredura" + i);
+        }
+
+        List<String> ordem = politica.ordemDeDespejo();
+        assertEquals(30, ordem.size());
+        // so a chave que estava na janela quando a varredura comecou disputa lugar com ela
+        long frequentesDespejadas = ordem.subList(0, 20).stream().filter(chave -> chave.startsWith("frequente")).count();
+        assertTrue(frequentesDespejadas <= 1);
+    }
+
+    @Test
+    public void tinyLfu_Remover_DeveTirarDeQualquerSegmento() {
+        PoliticaTinyLFU<String> politica = new PoliticaTinyLFU<>(3);
+        politica.inserir("a");
+        politica.inserir("b");
+        politica.registrarAcesso("a");
+        politica.inserir("c");
+
+        politica.remover("a");
+        politica.remover("b");
+        politica.remover("c");
+
+        assertTrue(politica.ordemDeDespejo().isEmpty());
+    }
+}